@@ -117,6 +117,17 @@ public class CasAuthenticationToken extends AbstractAuthenticationToken implemen
 	// ~ Methods
 	// ========================================================================================================
 
+	/**
+	 * Creates a token for a key that is only known by its hash, as written by
+	 * {@link CasAuthenticationTokenCodec}.
+	 */
+	static CasAuthenticationToken withKeyHash(int keyHash, Object principal,
+			Object credentials, Collection<? extends GrantedAuthority> authorities,
+			UserDetails userDetails, Assertion assertion) {
+		return new CasAuthenticationToken(Integer.valueOf(keyHash), principal, credentials,
+				authorities, userDetails, assertion);
+	}
+
 	private static Integer extractKeyHash(String key) {
 		Assert.hasLength(key, "key cannot be null or empty");
 		return key.hashCode();
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.cas.authentication;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.jasig.cas.client.validation.Assertion;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.BinarySecurityContextCodec;
+import org.springframework.security.core.context.BinaryTypeCodec;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * A {@link BinaryTypeCodec} for {@link CasAuthenticationToken}. The user details are
+ * written only once when they are also the principal, which is the case for tokens
+ * created by {@link CasAuthenticationProvider}. The {@link Assertion} is written as any
+ * other value.
+ *
+ * @author agent
+ * @since 5.3
+ * @see org.springframework.security.web.context.HttpSessionSecurityContextRepository#setSecurityContextCodec(BinarySecurityContextCodec)
+ */
+public final class CasAuthenticationTokenCodec implements BinaryTypeCodec<CasAuthenticationToken> {
+
+	@Override
+	public Class<CasAuthenticationToken> getType() {
+		return CasAuthenticationToken.class;
+	}
+
+	@Override
+	public void write(CasAuthenticationToken token, BinarySecurityContextCodec.Output output)
+			throws IOException {
+		output.writeBoolean(token.isAuthenticated());
+		output.writeLong(Integer.toUnsignedLong(token.getKeyHash()));
+		output.writeValue(token.getPrincipal());
+		boolean userDetailsIsPrincipal = token.getUserDetails() == token.getPrincipal();
+		output.writeBoolean(userDetailsIsPrincipal);
+		if (!userDetailsIsPrincipal) {
+			output.writeValue(token.getUserDetails());
+		}
+		output.writeValue(token.getCredentials());
+		output.writeAuthorities(token.getAuthorities());
+		output.writeValue(token.getAssertion());
+		output.writeValue(token.getDetails());
+	}
+
+	@Override
+	public CasAuthenticationToken read(BinarySecurityContextCodec.Input input) throws IOException {
+		boolean authenticated = input.readBoolean();
+		long keyHash = input.readLong();
+		if (keyHash > 0xFFFFFFFFL) {
+			throw new IOException("Invalid key hash " + keyHash);
+		}
+		Object principal = input.readValue();
+		UserDetails userDetails = input.readBoolean() ? (UserDetails) principal
+				: input.readValue(UserDetails.class);
+		Object credentials = input.readValue();
+		List<GrantedAuthority> authorities = input.readAuthorities();
+		Assertion assertion = input.readValue(Assertion.class);
+		CasAuthenticationToken token = CasAuthenticationToken.withKeyHash((int) keyHash,
+				principal, credentials, authorities, userDetails, assertion);
+		if (!authenticated) {
+			token.setAuthenticated(false);
+		}
+		token.setDetails(input.readValue());
+		return token;
+	}
+}
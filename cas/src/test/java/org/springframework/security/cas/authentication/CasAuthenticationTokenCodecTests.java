@@ -0,0 +1,79 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.cas.authentication;
+
+import java.util.Collections;
+
+import org.jasig.cas.client.validation.AssertionImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.BinarySecurityContextCodec;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests {@link CasAuthenticationTokenCodec}.
+ *
+ * @author agent
+ */
+public class CasAuthenticationTokenCodecTests {
+	private BinarySecurityContextCodec codec;
+
+	private UserDetails user = new User("user", "password",
+			AuthorityUtils.createAuthorityList("ROLE_ONE"));
+
+	@Before
+	public void setUp() {
+		this.codec = new BinarySecurityContextCodec(Collections.singletonList("ROLE_ONE"));
+		this.codec.registerCodec(0, new CasAuthenticationTokenCodec());
+	}
+
+	@Test
+	public void decodeWhenUserDetailsIsPrincipalThenEqual() {
+		CasAuthenticationToken token = new CasAuthenticationToken("key", this.user, "ST-1",
+				this.user.getAuthorities(), this.user, new AssertionImpl("user"));
+
+		CasAuthenticationToken decoded = decode(token);
+
+		assertThat(decoded).isEqualTo(token);
+		assertThat(decoded.getKeyHash()).isEqualTo("key".hashCode());
+		assertThat(decoded.getUserDetails()).isSameAs(decoded.getPrincipal());
+	}
+
+	@Test
+	public void decodeWhenNegativeKeyHashThenEqual() {
+		// "polygenelubricants".hashCode() is Integer.MIN_VALUE
+		CasAuthenticationToken token = new CasAuthenticationToken("polygenelubricants", "user",
+				"ST-1", this.user.getAuthorities(), this.user, new AssertionImpl("user"));
+
+		CasAuthenticationToken decoded = decode(token);
+
+		assertThat(decoded).isEqualTo(token);
+		assertThat(decoded.getKeyHash()).isEqualTo(Integer.MIN_VALUE);
+		assertThat(decoded.getUserDetails()).isEqualTo(this.user);
+	}
+
+	private CasAuthenticationToken decode(CasAuthenticationToken token) {
+		return (CasAuthenticationToken) this.codec.decode(
+				this.codec.encode(new SecurityContextImpl(token))).getAuthentication();
+	}
+}
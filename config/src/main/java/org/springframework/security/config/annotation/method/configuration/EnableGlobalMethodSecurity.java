@@ -105,4 +105,17 @@ public @interface EnableGlobalMethodSecurity {
 	 * @return the order the security advisor should be applied
 	 */
 	int order() default Ordered.LOWEST_PRECEDENCE;
+
+	/**
+	 * Determines if the index generated at build time by
+	 * {@code spring-security-method-indexer} should be used to skip looking for
+	 * annotations on classes that are known not to use them. Only enable it if the index
+	 * is regenerated whenever the indexed classes are compiled, since a class the index
+	 * wrongly records as unannotated is not secured. Default is false.
+	 *
+	 * @return true if the method security index should be used, false otherwise
+	 * @since 5.3
+	 * @see org.springframework.security.access.method.MethodSecurityIndex
+	 */
+	boolean useMethodSecurityIndex() default false;
 }
@@ -29,6 +29,7 @@ import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.*;
 import org.springframework.core.annotation.AnnotationAttributes;
 import org.springframework.core.annotation.AnnotationUtils;
@@ -52,6 +53,7 @@ import org.springframework.security.access.intercept.RunAsManager;
 import org.springframework.security.access.intercept.aopalliance.MethodSecurityInterceptor;
 import org.springframework.security.access.intercept.aspectj.AspectJMethodSecurityInterceptor;
 import org.springframework.security.access.method.DelegatingMethodSecurityMetadataSource;
+import org.springframework.security.access.method.MethodSecurityIndex;
 import org.springframework.security.access.method.MethodSecurityMetadataSource;
 import org.springframework.security.access.prepost.PostInvocationAdviceProvider;
 import org.springframework.security.access.prepost.PreInvocationAuthorizationAdvice;
@@ -372,11 +374,17 @@ public class GlobalMethodSecurityConfiguration
 					"no annotation support was actually activated");
 		}
 
+		MethodSecurityIndex methodSecurityIndex = useMethodSecurityIndex() ?
+				loadMethodSecurityIndex() : null;
 		if (isPrePostEnabled) {
-			sources.add(new PrePostAnnotationSecurityMetadataSource(attributeFactory));
+			PrePostAnnotationSecurityMetadataSource prePostSource = new PrePostAnnotationSecurityMetadataSource(attributeFactory);
+			prePostSource.setMethodSecurityIndex(methodSecurityIndex);
+			sources.add(prePostSource);
 		}
 		if (isSecuredEnabled) {
-			sources.add(new SecuredAnnotationSecurityMetadataSource());
+			SecuredAnnotationSecurityMetadataSource securedSource = new SecuredAnnotationSecurityMetadataSource();
+			securedSource.setMethodSecurityIndex(methodSecurityIndex);
+			sources.add(securedSource);
 		}
 		if (isJsr250Enabled) {
 			GrantedAuthorityDefaults grantedAuthorityDefaults =
@@ -386,11 +394,24 @@ public class GlobalMethodSecurityConfiguration
 				jsr250MethodSecurityMetadataSource.setDefaultRolePrefix(
 						grantedAuthorityDefaults.getRolePrefix());
 			}
+			jsr250MethodSecurityMetadataSource.setMethodSecurityIndex(methodSecurityIndex);
 			sources.add(jsr250MethodSecurityMetadataSource);
 		}
 		return new DelegatingMethodSecurityMetadataSource(sources);
 	}
 
+	/**
+	 * Loads the {@link MethodSecurityIndex} generated by
+	 * {@code spring-security-method-indexer}, if any
+	 * @return the {@link MethodSecurityIndex} or null if there is none
+	 */
+	private MethodSecurityIndex loadMethodSecurityIndex() {
+		ClassLoader classLoader = this.context instanceof ConfigurableBeanFactory ?
+				((ConfigurableBeanFactory) this.context).getBeanClassLoader() : null;
+		MethodSecurityIndex methodSecurityIndex = MethodSecurityIndex.load(classLoader);
+		return methodSecurityIndex.isEmpty() ? null : methodSecurityIndex;
+	}
+
 	/**
 	 * Creates the {@link PreInvocationAuthorizationAdvice} to be used. The default is
 	 * {@link ExpressionBasedPreInvocationAdvice}.
@@ -453,6 +474,10 @@ public class GlobalMethodSecurityConfiguration
 		return enableMethodSecurity().getBoolean("jsr250Enabled");
 	}
 
+	private boolean useMethodSecurityIndex() {
+		return enableMethodSecurity().getBoolean("useMethodSecurityIndex");
+	}
+
 	private int order() {
 		return (Integer) enableMethodSecurity().get("order");
 	}
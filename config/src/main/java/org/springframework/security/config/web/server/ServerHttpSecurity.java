@@ -128,6 +128,7 @@ import org.springframework.security.web.server.authorization.DelegatingReactiveA
 import org.springframework.security.web.server.authorization.ExceptionTranslationWebFilter;
 import org.springframework.security.web.server.authorization.ServerAccessDeniedHandler;
 import org.springframework.security.web.server.authorization.ServerWebExchangeDelegatingServerAccessDeniedHandler;
+import org.springframework.security.web.server.context.FusedSecurityContextWebFilter;
 import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
 import org.springframework.security.web.server.context.ReactorContextWebFilter;
 import org.springframework.security.web.server.context.SecurityContextServerWebExchangeWebFilter;
@@ -290,6 +291,8 @@ public class ServerHttpSecurity {
 
 	private AnonymousSpec anonymous;
 
+	private boolean fuseSecurityContextFilters;
+
 	/**
 	 * The ServerExchangeMatcher that determines which requests apply to this HttpSecurity instance.
 	 *
@@ -360,6 +363,19 @@ public class ServerHttpSecurity {
 		return this;
 	}
 
+	/**
+	 * Replaces the {@code ReactorContextWebFilter} and {@code SecurityContextServerWebExchangeWebFilter}
+	 * with a single {@link FusedSecurityContextWebFilter} to reduce the per request overhead of the
+	 * {@link SecurityWebFilterChain}.
+	 *
+	 * @return the {@link ServerHttpSecurity} to continue configuring
+	 * @since 5.3
+	 */
+	public ServerHttpSecurity fuseSecurityContextFilters() {
+		this.fuseSecurityContextFilters = true;
+		return this;
+	}
+
 	/**
 	 * Configures HTTPS redirection rules. If the default is used:
 	 *
@@ -2389,7 +2405,9 @@ public class ServerHttpSecurity {
 			this.logout.configure(this);
 		}
 		this.requestCache.configure(this);
-		this.addFilterAt(new SecurityContextServerWebExchangeWebFilter(), SecurityWebFiltersOrder.SECURITY_CONTEXT_SERVER_WEB_EXCHANGE);
+		if (!this.fuseSecurityContextFilters) {
+			this.addFilterAt(new SecurityContextServerWebExchangeWebFilter(), SecurityWebFiltersOrder.SECURITY_CONTEXT_SERVER_WEB_EXCHANGE);
+		}
 		if (this.authorizeExchange != null) {
 			ServerAuthenticationEntryPoint authenticationEntryPoint = getAuthenticationEntryPoint();
 			ExceptionTranslationWebFilter exceptionTranslationWebFilter = new ExceptionTranslationWebFilter();
@@ -2469,7 +2487,8 @@ public class ServerHttpSecurity {
 	private WebFilter securityContextRepositoryWebFilter() {
 		ServerSecurityContextRepository repository = this.securityContextRepository == null ?
 				new WebSessionServerSecurityContextRepository() : this.securityContextRepository;
-		WebFilter result = new ReactorContextWebFilter(repository);
+		WebFilter result = this.fuseSecurityContextFilters ?
+				new FusedSecurityContextWebFilter(repository) : new ReactorContextWebFilter(repository);
 		return new OrderedWebFilter(result, SecurityWebFiltersOrder.REACTOR_CONTEXT.getOrder());
 	}
 
@@ -17,6 +17,7 @@ package org.springframework.security.config.annotation.method.configuration;
 
 import org.reactivestreams.Publisher;
 import org.springframework.security.access.prepost.PostAuthorize;
+import org.springframework.security.access.prepost.PostFilter;
 import org.springframework.security.access.prepost.PreAuthorize;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -100,6 +101,13 @@ public class DelegatingReactiveMessageService implements ReactiveMessageService
 		return delegate.fluxPostAuthorizeBeanFindById(id);
 	}
 
+	@Override
+	@PostFilter("filterObject == authentication?.name")
+	public Flux<String> fluxPostFilterFindById(
+			long id) {
+		return delegate.fluxPostFilterFindById(id);
+	}
+
 	@Override
 	public Publisher<String> publisherFindById(long id) {
 		return delegate.publisherFindById(id);
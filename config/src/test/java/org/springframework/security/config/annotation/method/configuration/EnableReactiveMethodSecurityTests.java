@@ -403,6 +403,23 @@ public class EnableReactiveMethodSecurityTests {
 				.verify();
 	}
 
+	@Test
+	public void fluxPostFilterWhenElementsThenFilteredAsTheyStream() {
+		TestPublisher<String> elements = TestPublisher.create();
+		when(this.delegate.fluxPostFilterFindById(1L)).thenReturn(elements.flux());
+
+		Flux<String> findById = this.messageService.fluxPostFilterFindById(1L)
+				.subscriberContext(withUser);
+		StepVerifier
+				.create(findById)
+				.then(() -> elements.next("user"))
+				.expectNext("user")
+				.then(() -> elements.next("admin", "user"))
+				.expectNext("user")
+				.then(elements::complete)
+				.verifyComplete();
+	}
+
 	// Publisher tests
 
 	@Test
@@ -33,6 +33,7 @@ public interface ReactiveMessageService {
 	Flux<String> fluxPostAuthorizeFindById(long id);
 	Flux<String> fluxPreAuthorizeBeanFindById(long id);
 	Flux<String> fluxPostAuthorizeBeanFindById(long id);
+	Flux<String> fluxPostFilterFindById(long id);
 
 	Publisher<String> publisherFindById(long id);
 	Publisher<String> publisherPreAuthorizeHasRoleFindById(long id);
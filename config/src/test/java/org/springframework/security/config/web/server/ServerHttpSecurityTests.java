@@ -25,6 +25,7 @@ import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.config.Customizer.withDefaults;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
@@ -47,6 +48,7 @@ import reactor.test.publisher.TestPublisher;
 import org.springframework.security.authentication.ReactiveAuthenticationManager;
 import org.springframework.security.authentication.TestingAuthenticationToken;
 import org.springframework.security.config.annotation.web.reactive.ServerHttpSecurityConfigurationBuilder;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.test.web.reactive.server.WebTestClientBuilder;
 import org.springframework.security.web.server.SecurityWebFilterChain;
@@ -55,11 +57,14 @@ import org.springframework.security.web.server.authentication.logout.DelegatingS
 import org.springframework.security.web.server.authentication.logout.LogoutWebFilter;
 import org.springframework.security.web.server.authentication.logout.SecurityContextServerLogoutHandler;
 import org.springframework.security.web.server.authentication.logout.ServerLogoutHandler;
+import org.springframework.security.web.server.context.FusedSecurityContextWebFilter;
+import org.springframework.security.web.server.context.ReactorContextWebFilter;
 import org.springframework.security.web.server.context.ServerSecurityContextRepository;
 import org.springframework.security.web.server.context.WebSessionServerSecurityContextRepository;
 import org.springframework.security.web.server.csrf.CsrfServerLogoutHandler;
 import org.springframework.security.web.server.csrf.CsrfWebFilter;
 import org.springframework.security.web.server.csrf.ServerCsrfTokenRepository;
+import org.springframework.security.web.server.savedrequest.ServerRequestCacheWebFilter;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.reactive.server.EntityExchangeResult;
 import org.springframework.test.web.reactive.server.FluxExchangeResult;
@@ -70,6 +75,7 @@ import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.security.web.server.context.SecurityContextServerWebExchangeWebFilter;
 import org.springframework.web.server.WebFilterChain;
+import org.springframework.security.web.server.authentication.AnonymousAuthenticationWebFilter;
 import org.springframework.security.web.server.authentication.AnonymousAuthenticationWebFilterTests;
 import org.springframework.security.web.server.authentication.HttpBasicServerAuthenticationEntryPoint;
 
@@ -276,6 +282,70 @@ public class ServerHttpSecurityTests {
 				.expectBody(String.class).isEqualTo("anonymousUser");
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	public void fuseSecurityContextFiltersThenContextFiltersReplaced() {
+		SecurityWebFilterChain securityWebFilterChain = this.http.anonymous().and().fuseSecurityContextFilters().build();
+		List filters = securityWebFilterChain.getWebFilters().map(WebFilter::getClass).collectList().block();
+
+		assertThat(filters).contains(FusedSecurityContextWebFilter.class, ServerRequestCacheWebFilter.class,
+						AnonymousAuthenticationWebFilter.class)
+				.doesNotContain(ReactorContextWebFilter.class, SecurityContextServerWebExchangeWebFilter.class);
+	}
+
+	@Test
+	public void getWhenFusedAndAnonymousThenAuthenticationIsAnonymous() {
+		SecurityWebFilterChain securityFilterChain = this.http.anonymous(withDefaults())
+				.fuseSecurityContextFilters()
+				.build();
+		WebTestClient client = WebTestClientBuilder.bindToControllerAndWebFilters(AnonymousAuthenticationWebFilterTests.HttpMeController.class,
+				securityFilterChain).build();
+
+		client.get()
+				.uri("/me")
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class).isEqualTo("anonymousUser");
+	}
+
+	@Test
+	public void getWhenFusedAndAnonymousThenAuthenticationFiltersSeeNoContext() {
+		List<Boolean> contextPresent = new ArrayList<>();
+		this.http.anonymous().and().fuseSecurityContextFilters()
+				.addFilterAt((exchange, chain) -> ReactiveSecurityContextHolder.getContext()
+						.hasElement()
+						.doOnNext(contextPresent::add)
+						.then(chain.filter(exchange)), SecurityWebFiltersOrder.AUTHENTICATION);
+
+		buildClient().get()
+				.uri("/")
+				.exchange();
+
+		assertThat(contextPresent).containsExactly(false);
+	}
+
+	@Test
+	public void basicWithAnonymousWhenFusedThenBasicAuthenticationUsed() {
+		given(this.authenticationManager.authenticate(any())).willReturn(Mono.just(new TestingAuthenticationToken("rob", "rob", "ROLE_USER", "ROLE_ADMIN")));
+
+		this.http.httpBasic().and().anonymous().and().fuseSecurityContextFilters();
+		this.http.authenticationManager(this.authenticationManager);
+		ServerHttpSecurity.AuthorizeExchangeSpec authorize = this.http.authorizeExchange();
+		authorize.anyExchange().hasAuthority("ROLE_ADMIN");
+
+		WebTestClient client = buildClient();
+
+		client.get()
+				.uri("/")
+				.headers(headers -> headers.setBasicAuth("rob", "rob"))
+				.exchange()
+				.expectStatus().isOk();
+		client.get()
+				.uri("/")
+				.exchange()
+				.expectStatus().isUnauthorized();
+	}
+
 	@Test
 	public void basicWithAnonymous() {
 		given(this.authenticationManager.authenticate(any())).willReturn(Mono.just(new TestingAuthenticationToken("rob", "rob", "ROLE_USER", "ROLE_ADMIN")));
@@ -29,6 +29,7 @@ import javax.annotation.security.RolesAllowed;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.security.access.ConfigAttribute;
 import org.springframework.security.access.method.AbstractFallbackMethodSecurityMetadataSource;
+import org.springframework.security.access.method.MethodSecurityIndex;
 
 /**
  * Sources method security metadata from major JSR 250 security annotations.
@@ -67,6 +68,11 @@ public class Jsr250MethodSecurityMetadataSource extends
 		return processAnnotations(AnnotationUtils.getAnnotations(method));
 	}
 
+	@Override
+	protected String getIndexedAnnotations() {
+		return MethodSecurityIndex.JSR250;
+	}
+
 	public Collection<ConfigAttribute> getAllConfigAttributes() {
 		return null;
 	}
@@ -25,6 +25,7 @@ import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.security.access.ConfigAttribute;
 import org.springframework.security.access.SecurityConfig;
 import org.springframework.security.access.method.AbstractFallbackMethodSecurityMetadataSource;
+import org.springframework.security.access.method.MethodSecurityIndex;
 import org.springframework.util.Assert;
 
 /**
@@ -67,6 +68,12 @@ public class SecuredAnnotationSecurityMetadataSource extends
 		return processAnnotation(AnnotationUtils.findAnnotation(method, annotationType));
 	}
 
+	@Override
+	protected String getIndexedAnnotations() {
+		// the index only knows about @Secured, not custom annotations
+		return this.annotationType == Secured.class ? MethodSecurityIndex.SECURED : null;
+	}
+
 	public Collection<ConfigAttribute> getAllConfigAttributes() {
 		return null;
 	}
@@ -20,6 +20,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
 import java.util.stream.*;
 
 import org.aopalliance.intercept.MethodInvocation;
@@ -28,6 +31,9 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.security.access.PermissionCacheOptimizer;
 import org.springframework.security.access.expression.AbstractSecurityExpressionHandler;
@@ -37,12 +43,14 @@ import org.springframework.security.authentication.AuthenticationTrustResolverIm
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.parameters.DefaultSecurityParameterNameDiscoverer;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 
 /**
  * The standard implementation of {@code MethodSecurityExpressionHandler}.
  * <p>
  * A single instance should usually be shared amongst the beans that require expression
- * support.
+ * support. The method parameter names and the reflective property and method resolvers
+ * are cached by each instance and shared by the evaluation contexts it creates.
  *
  * @author Luke Taylor
  * @since 3.0
@@ -51,12 +59,19 @@ public class DefaultMethodSecurityExpressionHandler extends
 		AbstractSecurityExpressionHandler<MethodInvocation> implements
 		MethodSecurityExpressionHandler {
 
+	private static final boolean reactorPresent = ClassUtils.isPresent(
+			"reactor.core.publisher.Flux",
+			DefaultMethodSecurityExpressionHandler.class.getClassLoader());
+
 	protected final Log logger = LogFactory.getLog(getClass());
 
 	private AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
 	private ParameterNameDiscoverer parameterNameDiscoverer = new DefaultSecurityParameterNameDiscoverer();
 	private PermissionCacheOptimizer permissionCacheOptimizer = null;
 	private String defaultRolePrefix = "ROLE_";
+	private MethodSecurityEvaluationContext.SharedState sharedState = new MethodSecurityEvaluationContext.SharedState();
+	private int parallelFilterThreshold = Integer.MAX_VALUE;
+	private ForkJoinPool filterPool;
 
 	public DefaultMethodSecurityExpressionHandler() {
 	}
@@ -67,7 +82,8 @@ public class DefaultMethodSecurityExpressionHandler extends
 	 */
 	public StandardEvaluationContext createEvaluationContextInternal(Authentication auth,
 			MethodInvocation mi) {
-		return new MethodSecurityEvaluationContext(auth, mi, getParameterNameDiscoverer());
+		return new MethodSecurityEvaluationContext(auth, mi, getParameterNameDiscoverer(),
+				this.sharedState);
 	}
 
 	/**
@@ -88,11 +104,16 @@ public class DefaultMethodSecurityExpressionHandler extends
 
 	/**
 	 * Filters the {@code filterTarget} object (which must be either a collection, array,
-	 * or stream), by evaluating the supplied expression.
+	 * stream or, if Reactor is present, a {@code Flux}), by evaluating the supplied
+	 * expression.
 	 * <p>
 	 * If a {@code Collection} is used, the original instance will be modified to contain
 	 * the elements for which the permission expression evaluates to {@code true}. For an
-	 * array, a new array instance will be returned.
+	 * array, a new array instance will be returned. A {@code Stream} or {@code Flux} is
+	 * filtered lazily, as its elements are consumed.
+	 * <p>
+	 * Collections and arrays with at least {@link #setParallelFilterThreshold(int)}
+	 * elements are split and evaluated in parallel.
 	 */
 	@SuppressWarnings("unchecked")
 	public Object filter(Object filterTarget, Expression filterExpression,
@@ -109,7 +130,6 @@ public class DefaultMethodSecurityExpressionHandler extends
 
 		if (filterTarget instanceof Collection) {
 			Collection collection = (Collection) filterTarget;
-			retainList = new ArrayList(collection.size());
 
 			if (debug) {
 				logger.debug("Filtering collection with " + collection.size()
@@ -121,44 +141,35 @@ public class DefaultMethodSecurityExpressionHandler extends
 						rootObject.getAuthentication(), collection);
 			}
 
-			for (Object filterObject : (Collection) filterTarget) {
-				rootObject.setFilterObject(filterObject);
-
-				if (ExpressionUtils.evaluateAsBoolean(filterExpression, ctx)) {
-					retainList.add(filterObject);
-				}
-			}
+			retainList = retain(collection, filterExpression, ctx);
 
 			if (debug) {
 				logger.debug("Retaining elements: " + retainList);
 			}
 
-			collection.clear();
-			collection.addAll(retainList);
+			if (retainList.size() < collection.size()) {
+				collection.clear();
+				collection.addAll(retainList);
+			}
 
 			return filterTarget;
 		}
 
 		if (filterTarget.getClass().isArray()) {
 			Object[] array = (Object[]) filterTarget;
-			retainList = new ArrayList(array.length);
 
 			if (debug) {
 				logger.debug("Filtering array with " + array.length + " elements");
 			}
 
+			List<Object> elements = Arrays.asList(array);
+
 			if (permissionCacheOptimizer != null) {
 				permissionCacheOptimizer.cachePermissionsFor(
-						rootObject.getAuthentication(), Arrays.asList(array));
+						rootObject.getAuthentication(), elements);
 			}
 
-			for (Object o : array) {
-				rootObject.setFilterObject(o);
-
-				if (ExpressionUtils.evaluateAsBoolean(filterExpression, ctx)) {
-					retainList.add(o);
-				}
-			}
+			retainList = retain(elements, filterExpression, ctx);
 
 			if (debug) {
 				logger.debug("Retaining elements: " + retainList);
@@ -183,11 +194,130 @@ public class DefaultMethodSecurityExpressionHandler extends
 					.onClose(original::close);
 		}
 
+		if (reactorPresent && FluxFilter.isFlux(filterTarget)) {
+			// the Flux may be subscribed more than once, possibly concurrently, so each
+			// subscription needs its own root object to hold the filter object. The
+			// PermissionCacheOptimizer is not used, since it would have to hold back the
+			// elements until a batch is complete
+			Supplier<EvaluationContext> subscriptionCtx = () -> ctx;
+			if (ctx instanceof MethodSecurityEvaluationContext) {
+				subscriptionCtx = () -> copyEvaluationContext(
+						(MethodSecurityEvaluationContext) ctx);
+			}
+			return FluxFilter.filter(filterTarget, filterExpression, subscriptionCtx);
+		}
+
 		throw new IllegalArgumentException(
-				"Filter target must be a collection, array, or stream type, but was "
+				"Filter target must be a collection, array, stream or flux type, but was "
 						+ filterTarget);
 	}
 
+	private List<Object> retain(Collection<?> elements, Expression filterExpression,
+			EvaluationContext ctx) {
+		if (this.filterPool != null && elements.size() >= this.parallelFilterThreshold
+				&& ctx instanceof MethodSecurityEvaluationContext) {
+			return retainInParallel(new ArrayList<>(elements), filterExpression,
+					(MethodSecurityEvaluationContext) ctx);
+		}
+		MethodSecurityExpressionOperations rootObject = (MethodSecurityExpressionOperations) ctx
+				.getRootObject().getValue();
+		List<Object> retainList = new ArrayList<>(elements.size());
+		for (Object filterObject : elements) {
+			rootObject.setFilterObject(filterObject);
+
+			if (ExpressionUtils.evaluateAsBoolean(filterExpression, ctx)) {
+				retainList.add(filterObject);
+			}
+		}
+		return retainList;
+	}
+
+	private List<Object> retainInParallel(List<Object> elements,
+			Expression filterExpression, MethodSecurityEvaluationContext ctx) {
+		MethodSecurityExpressionOperations rootObject = (MethodSecurityExpressionOperations) ctx
+				.getRootObject().getValue();
+		int size = elements.size();
+		int partitions = Math.min(this.filterPool.getParallelism(),
+				(size + this.parallelFilterThreshold - 1) / this.parallelFilterThreshold);
+		int partitionSize = (size + partitions - 1) / partitions;
+		boolean[] retain = new boolean[size];
+		List<ForkJoinTask<?>> tasks = new ArrayList<>(partitions);
+		for (int start = 0; start < size; start += partitionSize) {
+			int from = start;
+			int to = Math.min(size, start + partitionSize);
+			tasks.add(this.filterPool.submit(() -> {
+				// each partition needs its own root object to hold the filter object
+				EvaluationContext partitionCtx = copyEvaluationContext(ctx);
+				MethodSecurityExpressionOperations partitionRoot = (MethodSecurityExpressionOperations) partitionCtx
+						.getRootObject().getValue();
+				for (int i = from; i < to; i++) {
+					partitionRoot.setFilterObject(elements.get(i));
+					retain[i] = ExpressionUtils.evaluateAsBoolean(filterExpression,
+							partitionCtx);
+				}
+			}));
+		}
+		for (ForkJoinTask<?> task : tasks) {
+			task.join();
+		}
+		List<Object> retainList = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			if (retain[i]) {
+				retainList.add(elements.get(i));
+			}
+		}
+		return retainList;
+	}
+
+	/**
+	 * Creates an evaluation context for the same authentication, method invocation and
+	 * return object, but with its own root object
+	 */
+	private EvaluationContext copyEvaluationContext(MethodSecurityEvaluationContext ctx) {
+		MethodSecurityExpressionOperations rootObject = (MethodSecurityExpressionOperations) ctx
+				.getRootObject().getValue();
+		EvaluationContext copy = createEvaluationContext(rootObject.getAuthentication(),
+				ctx.getMethodInvocation());
+		((MethodSecurityExpressionOperations) copy.getRootObject().getValue())
+				.setReturnObject(rootObject.getReturnObject());
+		return copy;
+	}
+
+	/**
+	 * Sets the minimum number of elements of a collection or array for
+	 * {@link #filter(Object, Expression, EvaluationContext)} to split it into partitions
+	 * that are evaluated in parallel on the {@link #setFilterPool(ForkJoinPool) filter
+	 * pool}. Each partition is evaluated with its own evaluation context, so the
+	 * expression must not depend on the order of evaluation or on state bound to the
+	 * calling thread (such as the {@code SecurityContextHolder}), and the
+	 * {@link org.springframework.security.access.PermissionEvaluator} must be thread
+	 * safe. It only applies if a {@link #setFilterPool(ForkJoinPool) filter pool} is set.
+	 * The default is {@link Integer#MAX_VALUE}, that is filtering is sequential.
+	 *
+	 * @param parallelFilterThreshold the minimum number of elements to filter in parallel
+	 * @since 5.3
+	 */
+	public void setParallelFilterThreshold(int parallelFilterThreshold) {
+		Assert.isTrue(parallelFilterThreshold > 0,
+				"parallelFilterThreshold must be greater than 0");
+		this.parallelFilterThreshold = parallelFilterThreshold;
+	}
+
+	/**
+	 * Sets the {@link ForkJoinPool} used to filter large collections in parallel. Since a
+	 * {@link org.springframework.security.access.PermissionEvaluator} typically blocks,
+	 * for example on a database, this should be a pool dedicated to filtering rather than
+	 * {@link ForkJoinPool#commonPool()}. The default is {@code null}, that is filtering is
+	 * sequential.
+	 *
+	 * @param filterPool the {@link ForkJoinPool} to use. Cannot be null.
+	 * @since 5.3
+	 */
+	public void setFilterPool(ForkJoinPool filterPool) {
+		Assert.notNull(filterPool, "filterPool cannot be null");
+		this.filterPool = filterPool;
+	}
+
 	/**
 	 * Sets the {@link AuthenticationTrustResolver} to be used. The default is
 	 * {@link AuthenticationTrustResolverImpl}.
@@ -214,6 +344,7 @@ public class DefaultMethodSecurityExpressionHandler extends
 	 */
 	public void setParameterNameDiscoverer(ParameterNameDiscoverer parameterNameDiscoverer) {
 		this.parameterNameDiscoverer = parameterNameDiscoverer;
+		this.sharedState = new MethodSecurityEvaluationContext.SharedState();
 	}
 
 	/**
@@ -223,6 +354,23 @@ public class DefaultMethodSecurityExpressionHandler extends
 		return parameterNameDiscoverer;
 	}
 
+	/**
+	 * Replaces the expression parser with a {@link SpelExpressionParser} using the given
+	 * {@link SpelCompilerMode}. With {@link SpelCompilerMode#MIXED}, an expression is
+	 * compiled to bytecode after it has been interpreted and falls back to interpretation
+	 * if the compiled form fails, for example because the type of a method argument
+	 * changed. This must be set before the expressions are parsed, that is before the
+	 * method security metadata is created. The default is to interpret expressions.
+	 *
+	 * @param compilerMode the {@link SpelCompilerMode} to use. Cannot be null.
+	 * @since 5.3
+	 */
+	public void setCompilerMode(SpelCompilerMode compilerMode) {
+		Assert.notNull(compilerMode, "compilerMode cannot be null");
+		setExpressionParser(new SpelExpressionParser(
+				new SpelParserConfiguration(compilerMode, null)));
+	}
+
 	public void setPermissionCacheOptimizer(
 			PermissionCacheOptimizer permissionCacheOptimizer) {
 		this.permissionCacheOptimizer = permissionCacheOptimizer;
@@ -15,6 +15,9 @@
  */
 package org.springframework.security.access.expression.method;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.ParseException;
@@ -24,7 +27,9 @@ import org.springframework.security.access.prepost.PrePostInvocationAttributeFac
 
 /**
  * {@link PrePostInvocationAttributeFactory} which interprets the annotation value as an
- * expression to be evaluated at runtime.
+ * expression to be evaluated at runtime. Annotations with the same expression share a
+ * single parsed {@link Expression}, so that it is only parsed (and, with a compiling
+ * parser, compiled) once.
  *
  * @author Luke Taylor
  * @author Rob Winch
@@ -35,6 +40,7 @@ public class ExpressionBasedAnnotationAttributeFactory implements
 	private final Object parserLock = new Object();
 	private ExpressionParser parser;
 	private MethodSecurityExpressionHandler handler;
+	private final Map<String, Expression> expressions = new ConcurrentHashMap<>();
 
 	public ExpressionBasedAnnotationAttributeFactory(
 			MethodSecurityExpressionHandler handler) {
@@ -44,13 +50,10 @@ public class ExpressionBasedAnnotationAttributeFactory implements
 	public PreInvocationAttribute createPreInvocationAttribute(String preFilterAttribute,
 			String filterObject, String preAuthorizeAttribute) {
 		try {
-			// TODO: Optimization of permitAll
-			ExpressionParser parser = getParser();
-			Expression preAuthorizeExpression = preAuthorizeAttribute == null ? parser
-					.parseExpression("permitAll") : parser
-					.parseExpression(preAuthorizeAttribute);
-			Expression preFilterExpression = preFilterAttribute == null ? null : parser
-					.parseExpression(preFilterAttribute);
+			Expression preAuthorizeExpression = preAuthorizeAttribute == null ?
+					parseExpression("permitAll") : parseExpression(preAuthorizeAttribute);
+			Expression preFilterExpression = preFilterAttribute == null ? null :
+					parseExpression(preFilterAttribute);
 			return new PreInvocationExpressionAttribute(preFilterExpression,
 					filterObject, preAuthorizeExpression);
 		}
@@ -63,11 +66,10 @@ public class ExpressionBasedAnnotationAttributeFactory implements
 	public PostInvocationAttribute createPostInvocationAttribute(
 			String postFilterAttribute, String postAuthorizeAttribute) {
 		try {
-			ExpressionParser parser = getParser();
 			Expression postAuthorizeExpression = postAuthorizeAttribute == null ? null
-					: parser.parseExpression(postAuthorizeAttribute);
-			Expression postFilterExpression = postFilterAttribute == null ? null : parser
-					.parseExpression(postFilterAttribute);
+					: parseExpression(postAuthorizeAttribute);
+			Expression postFilterExpression = postFilterAttribute == null ? null :
+					parseExpression(postFilterAttribute);
 
 			if (postFilterExpression != null || postAuthorizeExpression != null) {
 				return new PostInvocationExpressionAttribute(postFilterExpression,
@@ -82,6 +84,15 @@ public class ExpressionBasedAnnotationAttributeFactory implements
 		return null;
 	}
 
+	private Expression parseExpression(String expression) {
+		Expression parsed = this.expressions.get(expression);
+		if (parsed == null) {
+			parsed = getParser().parseExpression(expression);
+			this.expressions.put(expression, parsed);
+		}
+		return parsed;
+	}
+
 	/**
 	 * Delay the lookup of the {@link ExpressionParser} to prevent SEC-2136
 	 *
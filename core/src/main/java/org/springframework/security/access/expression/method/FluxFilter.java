@@ -0,0 +1,72 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.access.expression.method;
+
+import java.util.function.Supplier;
+
+import reactor.core.publisher.Flux;
+
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.security.access.expression.ExpressionUtils;
+
+/**
+ * Filters a {@link Flux} for {@link DefaultMethodSecurityExpressionHandler}. This is a
+ * separate class so that Reactor is only loaded when it is present.
+ *
+ * @author agent
+ * @since 5.3
+ */
+final class FluxFilter {
+	private FluxFilter() {
+	}
+
+	static boolean isFlux(Object filterTarget) {
+		return filterTarget instanceof Flux;
+	}
+
+	/**
+	 * Lazily filters the {@link Flux}. Each element is evaluated as soon as it is
+	 * emitted, so the elements are never buffered and a slow or infinite {@link Flux} is
+	 * filtered as it streams.
+	 * <p>
+	 * The context is obtained once per subscription, so that concurrent subscriptions
+	 * do not overwrite each other's filter object. If the supplier returns the same
+	 * context to every subscription, the evaluations are serialized on its root object.
+	 */
+	@SuppressWarnings("unchecked")
+	static Flux<?> filter(Object filterTarget, Expression filterExpression,
+			Supplier<EvaluationContext> contextSupplier) {
+		Flux<Object> flux = (Flux<Object>) filterTarget;
+		return Flux.defer(() -> {
+			EvaluationContext ctx = contextSupplier.get();
+			MethodSecurityExpressionOperations rootObject = (MethodSecurityExpressionOperations) ctx
+					.getRootObject().getValue();
+			return flux.filter(filterObject -> evaluate(filterObject, filterExpression,
+					ctx, rootObject));
+		});
+	}
+
+	private static boolean evaluate(Object filterObject, Expression filterExpression,
+			EvaluationContext ctx, MethodSecurityExpressionOperations rootObject) {
+		// uncontended unless the context is shared by several subscriptions
+		synchronized (rootObject) {
+			rootObject.setFilterObject(filterObject);
+			return ExpressionUtils.evaluateAsBoolean(filterExpression, ctx);
+		}
+	}
+}
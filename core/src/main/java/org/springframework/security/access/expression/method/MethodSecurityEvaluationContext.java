@@ -16,13 +16,24 @@
 package org.springframework.security.access.expression.method;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.aopalliance.intercept.MethodInvocation;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.aop.framework.AopProxyUtils;
 import org.springframework.aop.support.AopUtils;
+import org.springframework.core.MethodClassKey;
 import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.MethodFilter;
+import org.springframework.expression.MethodResolver;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.spel.support.ReflectiveMethodResolver;
+import org.springframework.expression.spel.support.ReflectivePropertyAccessor;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.parameters.DefaultSecurityParameterNameDiscoverer;
@@ -31,6 +42,12 @@ import org.springframework.security.core.parameters.DefaultSecurityParameterName
  * Internal security-specific EvaluationContext implementation which lazily adds the
  * method parameter values as variables (with the corresponding parameter names) if and
  * when they are required.
+ * <p>
+ * When created with {@link SharedState}, the parameter names resolved for each method
+ * and the (otherwise per instance) reflective property accessor and method resolver are
+ * shared between all the contexts created by the same
+ * {@link DefaultMethodSecurityExpressionHandler}. The shared resolvers are copied before
+ * this context modifies them.
  *
  * @author Luke Taylor
  * @since 3.0
@@ -39,9 +56,14 @@ class MethodSecurityEvaluationContext extends StandardEvaluationContext {
 	private static final Log logger = LogFactory
 			.getLog(MethodSecurityEvaluationContext.class);
 
+	private static final String[] UNKNOWN_PARAMETER_NAMES = new String[0];
+
 	private ParameterNameDiscoverer parameterNameDiscoverer;
 	private final MethodInvocation mi;
 	private boolean argumentsAdded;
+	private Map<MethodClassKey, String[]> parameterNamesCache;
+	private boolean sharedPropertyAccessors;
+	private boolean sharedMethodResolvers;
 
 	/**
 	 * Intended for testing. Don't use in practice as it creates a new parameter resolver
@@ -58,6 +80,20 @@ class MethodSecurityEvaluationContext extends StandardEvaluationContext {
 		this.parameterNameDiscoverer = parameterNameDiscoverer;
 	}
 
+	MethodSecurityEvaluationContext(Authentication user, MethodInvocation mi,
+			ParameterNameDiscoverer parameterNameDiscoverer, SharedState sharedState) {
+		this(user, mi, parameterNameDiscoverer);
+		this.parameterNamesCache = sharedState.parameterNames;
+		setPropertyAccessors(sharedState.propertyAccessors);
+		setMethodResolvers(sharedState.methodResolvers);
+		this.sharedPropertyAccessors = true;
+		this.sharedMethodResolvers = true;
+	}
+
+	MethodInvocation getMethodInvocation() {
+		return this.mi;
+	}
+
 	@Override
 	public Object lookupVariable(String name) {
 		Object variable = super.lookupVariable(name);
@@ -82,6 +118,64 @@ class MethodSecurityEvaluationContext extends StandardEvaluationContext {
 
 	public void setParameterNameDiscoverer(ParameterNameDiscoverer parameterNameDiscoverer) {
 		this.parameterNameDiscoverer = parameterNameDiscoverer;
+		this.parameterNamesCache = null;
+	}
+
+	@Override
+	public void setPropertyAccessors(List<PropertyAccessor> propertyAccessors) {
+		super.setPropertyAccessors(propertyAccessors);
+		this.sharedPropertyAccessors = false;
+	}
+
+	@Override
+	public void addPropertyAccessor(PropertyAccessor accessor) {
+		copySharedPropertyAccessors();
+		super.addPropertyAccessor(accessor);
+	}
+
+	@Override
+	public boolean removePropertyAccessor(PropertyAccessor accessor) {
+		copySharedPropertyAccessors();
+		return super.removePropertyAccessor(accessor);
+	}
+
+	@Override
+	public void setMethodResolvers(List<MethodResolver> methodResolvers) {
+		super.setMethodResolvers(methodResolvers);
+		this.sharedMethodResolvers = false;
+	}
+
+	@Override
+	public void addMethodResolver(MethodResolver resolver) {
+		copySharedMethodResolvers();
+		super.addMethodResolver(resolver);
+	}
+
+	@Override
+	public boolean removeMethodResolver(MethodResolver methodResolver) {
+		copySharedMethodResolvers();
+		return super.removeMethodResolver(methodResolver);
+	}
+
+	@Override
+	public void registerMethodFilter(Class<?> type, MethodFilter filter) {
+		if (this.sharedMethodResolvers) {
+			// the filter is registered on the resolver itself, so go back to the defaults
+			setMethodResolvers(null);
+		}
+		super.registerMethodFilter(type, filter);
+	}
+
+	private void copySharedPropertyAccessors() {
+		if (this.sharedPropertyAccessors) {
+			setPropertyAccessors(new ArrayList<>(getPropertyAccessors()));
+		}
+	}
+
+	private void copySharedMethodResolvers() {
+		if (this.sharedMethodResolvers) {
+			setMethodResolvers(new ArrayList<>(getMethodResolvers()));
+		}
 	}
 
 	private void addArgumentsAsVariables() {
@@ -101,13 +195,9 @@ class MethodSecurityEvaluationContext extends StandardEvaluationContext {
 			targetClass = targetObject.getClass();
 		}
 
-		Method method = AopUtils.getMostSpecificMethod(mi.getMethod(), targetClass);
-		String[] paramNames = parameterNameDiscoverer.getParameterNames(method);
+		String[] paramNames = getParameterNames(targetClass);
 
 		if (paramNames == null) {
-			logger.warn("Unable to resolve method parameter names for method: "
-					+ method
-					+ ". Debug symbol information is required if you are using parameter names in expressions.");
 			return;
 		}
 
@@ -118,4 +208,44 @@ class MethodSecurityEvaluationContext extends StandardEvaluationContext {
 		}
 	}
 
+	private String[] getParameterNames(Class<?> targetClass) {
+		if (this.parameterNamesCache == null) {
+			return resolveParameterNames(targetClass);
+		}
+		MethodClassKey key = new MethodClassKey(this.mi.getMethod(), targetClass);
+		String[] paramNames = this.parameterNamesCache.get(key);
+		if (paramNames == null) {
+			paramNames = resolveParameterNames(targetClass);
+			this.parameterNamesCache.put(key,
+					paramNames == null ? UNKNOWN_PARAMETER_NAMES : paramNames);
+		}
+		return paramNames == UNKNOWN_PARAMETER_NAMES ? null : paramNames;
+	}
+
+	private String[] resolveParameterNames(Class<?> targetClass) {
+		Method method = AopUtils.getMostSpecificMethod(mi.getMethod(), targetClass);
+		String[] paramNames = parameterNameDiscoverer.getParameterNames(method);
+
+		if (paramNames == null) {
+			logger.warn("Unable to resolve method parameter names for method: "
+					+ method
+					+ ". Debug symbol information is required if you are using parameter names in expressions.");
+		}
+
+		return paramNames;
+	}
+
+	/**
+	 * The state shared by the {@link MethodSecurityEvaluationContext}s created by a
+	 * {@link DefaultMethodSecurityExpressionHandler}.
+	 */
+	static final class SharedState {
+		private final Map<MethodClassKey, String[]> parameterNames = new ConcurrentHashMap<>();
+
+		private final List<PropertyAccessor> propertyAccessors = Collections
+				.singletonList(new ReflectivePropertyAccessor());
+
+		private final List<MethodResolver> methodResolvers = Collections
+				.singletonList(new ReflectiveMethodResolver());
+	}
 }
@@ -0,0 +1,296 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.security.access.hierarchicalroles;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link RoleHierarchy} that accepts the same definition as {@link RoleHierarchyImpl}
+ * but compiles it up front for large hierarchies that are consulted on every
+ * authorization decision.
+ *
+ * <p>
+ * Every role that appears in the hierarchy is assigned an ordinal and the roles reachable
+ * from it in zero or more steps are stored as a bitset, so expanding a collection of
+ * authorities is a sequence of word wise unions rather than map lookups. The expanded
+ * authorities are additionally remembered for each distinct {@code List} of authorities
+ * in a bounded cache, so repeatedly authorizing users with the same {@code List} of
+ * authorities does not allocate. Other collections are copied once per call to be
+ * looked up. When the cache is full, entries that were not read since they were last
+ * considered for eviction are evicted first, oldest first. The returned collections are
+ * unmodifiable.
+ *
+ * <p>
+ * As with {@link RoleHierarchyImpl}, a {@link CycleInRoleHierarchyException} is thrown if
+ * the hierarchy contains a cycle.
+ *
+ * @author agent
+ * @since 5.3
+ * @see RoleHierarchyImpl
+ */
+public final class CompiledRoleHierarchy implements RoleHierarchy {
+	private static final Log logger = LogFactory.getLog(CompiledRoleHierarchy.class);
+
+	private static final int DEFAULT_MAXIMUM_CACHE_SIZE = 1024;
+
+	private final Map<String, Integer> ordinals;
+
+	private final GrantedAuthority[] roles;
+
+	private final long[][] reachable;
+
+	private final int words;
+
+	private final int maximumCacheSize;
+
+	private final Map<List<? extends GrantedAuthority>, CachedAuthorities> cache = new ConcurrentHashMap<>();
+
+	private final Queue<CachedAuthorities> evictionOrder = new ArrayDeque<>();
+
+	/**
+	 * Creates a new instance that caches the expanded authorities of up to 1024 distinct
+	 * authority collections
+	 * @param roleHierarchyStringRepresentation the definition of the role hierarchy in
+	 * the format used by {@link RoleHierarchyImpl#setHierarchy(String)}
+	 */
+	public CompiledRoleHierarchy(String roleHierarchyStringRepresentation) {
+		this(roleHierarchyStringRepresentation, DEFAULT_MAXIMUM_CACHE_SIZE);
+	}
+
+	/**
+	 * Creates a new instance
+	 * @param roleHierarchyStringRepresentation the definition of the role hierarchy in
+	 * the format used by {@link RoleHierarchyImpl#setHierarchy(String)}
+	 * @param maximumCacheSize the maximum number of distinct authority collections to
+	 * remember the expanded authorities for, or 0 to disable caching
+	 */
+	public CompiledRoleHierarchy(String roleHierarchyStringRepresentation, int maximumCacheSize) {
+		Assert.notNull(roleHierarchyStringRepresentation, "roleHierarchyStringRepresentation cannot be null");
+		Assert.isTrue(maximumCacheSize >= 0, "maximumCacheSize cannot be negative");
+		this.maximumCacheSize = maximumCacheSize;
+
+		Map<String, Integer> ordinals = new HashMap<>();
+		List<Set<Integer>> lowerRoles = new ArrayList<>();
+		for (String line : roleHierarchyStringRepresentation.split("\n")) {
+			String[] roles = line.trim().split("\\s+>\\s+");
+			for (int i = 1; i < roles.length; i++) {
+				int higher = ordinal(ordinals, lowerRoles, roles[i - 1]);
+				int lower = ordinal(ordinals, lowerRoles, roles[i]);
+				lowerRoles.get(higher).add(lower);
+			}
+		}
+
+		this.ordinals = ordinals;
+		this.roles = new GrantedAuthority[ordinals.size()];
+		for (Map.Entry<String, Integer> entry : ordinals.entrySet()) {
+			this.roles[entry.getValue()] = new SimpleGrantedAuthority(entry.getKey());
+		}
+		this.words = (this.roles.length + 63) >>> 6;
+		this.reachable = compile(lowerRoles, this.words);
+
+		if (logger.isDebugEnabled()) {
+			logger.debug("Compiled a role hierarchy of " + this.roles.length + " roles");
+		}
+	}
+
+	@Override
+	public Collection<GrantedAuthority> getReachableGrantedAuthorities(
+			Collection<? extends GrantedAuthority> authorities) {
+		if (authorities == null || authorities.isEmpty()) {
+			return AuthorityUtils.NO_AUTHORITIES;
+		}
+		if (this.maximumCacheSize == 0) {
+			return expand(authorities);
+		}
+		boolean copied = !(authorities instanceof List);
+		List<? extends GrantedAuthority> key = copied ?
+				new ArrayList<>(authorities) : (List<? extends GrantedAuthority>) authorities;
+		CachedAuthorities cached = this.cache.get(key);
+		if (cached != null) {
+			if (!cached.used) {
+				cached.used = true;
+			}
+			return cached.reachableRoles;
+		}
+		Collection<GrantedAuthority> reachableRoles = expand(key);
+		cache(copied ? key : new ArrayList<>(key), reachableRoles);
+		return reachableRoles;
+	}
+
+	private Collection<GrantedAuthority> expand(Collection<? extends GrantedAuthority> authorities) {
+		long[] reached = new long[this.words];
+		Set<GrantedAuthority> reachableRoles = new LinkedHashSet<>();
+		Set<String> processedNames = null;
+
+		for (GrantedAuthority authority : authorities) {
+			String name = authority.getAuthority();
+			Integer ordinal = name == null ? null : this.ordinals.get(name);
+			if (ordinal == null) {
+				// Not part of the hierarchy, so it only reaches itself
+				if (name == null) {
+					reachableRoles.add(authority);
+					continue;
+				}
+				if (processedNames == null) {
+					processedNames = new HashSet<>();
+				}
+				if (processedNames.add(name)) {
+					reachableRoles.add(authority);
+				}
+				continue;
+			}
+			int role = ordinal;
+			if ((reached[role >>> 6] & (1L << role)) != 0) {
+				continue; // Already reached from another authority
+			}
+			long[] lowerRoles = this.reachable[role];
+			for (int word = 0; word < this.words; word++) {
+				long added = lowerRoles[word] & ~reached[word];
+				reached[word] |= added;
+				while (added != 0) {
+					int lowerRole = (word << 6) + Long.numberOfTrailingZeros(added);
+					reachableRoles.add(lowerRole == role ? authority : this.roles[lowerRole]);
+					added &= added - 1;
+				}
+			}
+		}
+
+		if (logger.isDebugEnabled()) {
+			logger.debug("getReachableGrantedAuthorities() - From the roles "
+					+ authorities + " one can reach " + reachableRoles
+					+ " in zero or more steps.");
+		}
+
+		return Collections.unmodifiableList(new ArrayList<>(reachableRoles));
+	}
+
+	/**
+	 * Caches the expanded authorities of a private copy of the authorities. Reads only
+	 * mark entries as used, so eviction gives every used entry a second chance instead
+	 * of reordering entries on each read.
+	 */
+	private void cache(List<? extends GrantedAuthority> key, Collection<GrantedAuthority> reachableRoles) {
+		CachedAuthorities cached = new CachedAuthorities(key, reachableRoles);
+		synchronized (this.evictionOrder) {
+			if (this.cache.putIfAbsent(key, cached) != null) {
+				return;
+			}
+			this.evictionOrder.add(cached);
+			while (this.evictionOrder.size() > this.maximumCacheSize) {
+				CachedAuthorities eldest = this.evictionOrder.remove();
+				if (eldest.used) {
+					eldest.used = false;
+					this.evictionOrder.add(eldest);
+				}
+				else {
+					this.cache.remove(eldest.authorities);
+				}
+			}
+		}
+	}
+
+	private static int ordinal(Map<String, Integer> ordinals, List<Set<Integer>> lowerRoles, String role) {
+		Integer ordinal = ordinals.get(role);
+		if (ordinal == null) {
+			ordinal = ordinals.size();
+			ordinals.put(role, ordinal);
+			lowerRoles.add(new LinkedHashSet<>());
+		}
+		return ordinal;
+	}
+
+	/**
+	 * Computes the roles reachable in zero or more steps from every role by visiting the
+	 * roles in topological order, lowest roles first. If not every role can be ordered
+	 * the hierarchy contains a cycle.
+	 */
+	private static long[][] compile(List<Set<Integer>> lowerRoles, int words) {
+		int size = lowerRoles.size();
+		int[] higherRoleCount = new int[size];
+		for (Set<Integer> lower : lowerRoles) {
+			for (int role : lower) {
+				higherRoleCount[role]++;
+			}
+		}
+		Deque<Integer> toVisit = new ArrayDeque<>();
+		for (int role = 0; role < size; role++) {
+			if (higherRoleCount[role] == 0) {
+				toVisit.add(role);
+			}
+		}
+		int[] order = new int[size];
+		int ordered = 0;
+		while (!toVisit.isEmpty()) {
+			int role = toVisit.poll();
+			order[ordered++] = role;
+			for (int lower : lowerRoles.get(role)) {
+				if (--higherRoleCount[lower] == 0) {
+					toVisit.add(lower);
+				}
+			}
+		}
+		if (ordered != size) {
+			throw new CycleInRoleHierarchyException();
+		}
+
+		long[][] reachable = new long[size][words];
+		for (int i = size - 1; i >= 0; i--) {
+			int role = order[i];
+			long[] reached = reachable[role];
+			reached[role >>> 6] |= 1L << role;
+			for (int lower : lowerRoles.get(role)) {
+				long[] lowerReached = reachable[lower];
+				for (int word = 0; word < words; word++) {
+					reached[word] |= lowerReached[word];
+				}
+			}
+		}
+		return reachable;
+	}
+
+	private static final class CachedAuthorities {
+		private final List<? extends GrantedAuthority> authorities;
+
+		private final Collection<GrantedAuthority> reachableRoles;
+
+		private volatile boolean used;
+
+		private CachedAuthorities(List<? extends GrantedAuthority> authorities,
+				Collection<GrantedAuthority> reachableRoles) {
+			this.authorities = authorities;
+			this.reachableRoles = reachableRoles;
+		}
+	}
+}
@@ -40,6 +40,7 @@ import org.springframework.security.access.event.PublicInvocationEvent;
 import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.context.ListenerAwareApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.SpringSecurityMessageSource;
@@ -112,6 +113,7 @@ public abstract class AbstractSecurityInterceptor implements InitializingBean,
 
 	protected MessageSourceAccessor messages = SpringSecurityMessageSource.getAccessor();
 	private ApplicationEventPublisher eventPublisher;
+	private ListenerAwareApplicationEventPublisher listenerAwareEventPublisher;
 	private AccessDecisionManager accessDecisionManager;
 	private AfterInvocationManager afterInvocationManager;
 	private AuthenticationManager authenticationManager = new NoOpAuthenticationManager();
@@ -121,6 +123,7 @@ public abstract class AbstractSecurityInterceptor implements InitializingBean,
 	private boolean rejectPublicInvocations = false;
 	private boolean validateConfigAttributes = true;
 	private boolean publishAuthorizationSuccess = false;
+	private boolean skipEventsWithoutListeners = false;
 
 	// ~ Methods
 	// ========================================================================================================
@@ -210,7 +213,9 @@ public abstract class AbstractSecurityInterceptor implements InitializingBean,
 				logger.debug("Public object - authentication not attempted");
 			}
 
-			publishEvent(new PublicInvocationEvent(object));
+			if (hasListeners(PublicInvocationEvent.class)) {
+				publishEvent(new PublicInvocationEvent(object));
+			}
 
 			return null; // no further work post-invocation
 		}
@@ -233,8 +238,10 @@ public abstract class AbstractSecurityInterceptor implements InitializingBean,
 			this.accessDecisionManager.decide(authenticated, object, attributes);
 		}
 		catch (AccessDeniedException accessDeniedException) {
-			publishEvent(new AuthorizationFailureEvent(object, attributes, authenticated,
-					accessDeniedException));
+			if (hasListeners(AuthorizationFailureEvent.class)) {
+				publishEvent(new AuthorizationFailureEvent(object, attributes,
+						authenticated, accessDeniedException));
+			}
 
 			throw accessDeniedException;
 		}
@@ -243,7 +250,7 @@ public abstract class AbstractSecurityInterceptor implements InitializingBean,
 			logger.debug("Authorization successful");
 		}
 
-		if (publishAuthorizationSuccess) {
+		if (publishAuthorizationSuccess && hasListeners(AuthorizedEvent.class)) {
 			publishEvent(new AuthorizedEvent(object, attributes, authenticated));
 		}
 
@@ -319,11 +326,13 @@ public abstract class AbstractSecurityInterceptor implements InitializingBean,
 						.getAttributes(), returnedObject);
 			}
 			catch (AccessDeniedException accessDeniedException) {
-				AuthorizationFailureEvent event = new AuthorizationFailureEvent(
-						token.getSecureObject(), token.getAttributes(), token
-								.getSecurityContext().getAuthentication(),
-						accessDeniedException);
-				publishEvent(event);
+				if (hasListeners(AuthorizationFailureEvent.class)) {
+					AuthorizationFailureEvent event = new AuthorizationFailureEvent(
+							token.getSecureObject(), token.getAttributes(), token
+									.getSecurityContext().getAuthentication(),
+							accessDeniedException);
+					publishEvent(event);
+				}
 
 				throw accessDeniedException;
 			}
@@ -452,6 +461,7 @@ public abstract class AbstractSecurityInterceptor implements InitializingBean,
 	public void setApplicationEventPublisher(
 			ApplicationEventPublisher applicationEventPublisher) {
 		this.eventPublisher = applicationEventPublisher;
+		updateListenerAwareEventPublisher();
 	}
 
 	public void setAuthenticationManager(AuthenticationManager newManager) {
@@ -472,6 +482,20 @@ public abstract class AbstractSecurityInterceptor implements InitializingBean,
 		this.publishAuthorizationSuccess = publishAuthorizationSuccess;
 	}
 
+	/**
+	 * If set to {@code true}, the {@code ApplicationEventPublisher} is inspected (see
+	 * {@link ListenerAwareApplicationEventPublisher}) and events that no
+	 * {@code ApplicationListener} supports, such as the {@code PublicInvocationEvent}
+	 * published for every public invocation, are not even constructed.
+	 *
+	 * @param skipEventsWithoutListeners default value is {@code false}
+	 * @since 5.3
+	 */
+	public void setSkipEventsWithoutListeners(boolean skipEventsWithoutListeners) {
+		this.skipEventsWithoutListeners = skipEventsWithoutListeners;
+		updateListenerAwareEventPublisher();
+	}
+
 	/**
 	 * By rejecting public invocations (and setting this property to <tt>true</tt>),
 	 * essentially you are ensuring that every secure object invocation advised by
@@ -499,6 +523,26 @@ public abstract class AbstractSecurityInterceptor implements InitializingBean,
 		this.validateConfigAttributes = validateConfigAttributes;
 	}
 
+	private void updateListenerAwareEventPublisher() {
+		if (!this.skipEventsWithoutListeners || this.eventPublisher == null) {
+			this.listenerAwareEventPublisher = null;
+		}
+		else if (this.eventPublisher instanceof ListenerAwareApplicationEventPublisher) {
+			this.listenerAwareEventPublisher = (ListenerAwareApplicationEventPublisher) this.eventPublisher;
+		}
+		else {
+			this.listenerAwareEventPublisher = new ListenerAwareApplicationEventPublisher(
+					this.eventPublisher);
+		}
+	}
+
+	private boolean hasListeners(Class<? extends ApplicationEvent> eventType) {
+		if (this.listenerAwareEventPublisher != null) {
+			return this.listenerAwareEventPublisher.hasListeners(eventType);
+		}
+		return this.eventPublisher != null;
+	}
+
 	private void publishEvent(ApplicationEvent event) {
 		if (this.eventPublisher != null) {
 			this.eventPublisher.publishEvent(event);
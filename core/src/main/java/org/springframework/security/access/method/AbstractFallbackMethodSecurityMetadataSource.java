@@ -46,6 +46,11 @@ public abstract class AbstractFallbackMethodSecurityMetadataSource extends
 		AbstractMethodSecurityMetadataSource {
 
 	public Collection<ConfigAttribute> getAttributes(Method method, Class<?> targetClass) {
+		String indexedAnnotations = getIndexedAnnotations();
+		if (indexedAnnotations != null
+				&& isExcludedByIndex(method, targetClass, indexedAnnotations)) {
+			return Collections.emptyList();
+		}
 		// The method may be on an interface, but we need attributes from the target
 		// class.
 		// If the target class is null, the method will be unchanged.
@@ -105,4 +110,16 @@ public abstract class AbstractFallbackMethodSecurityMetadataSource extends
 	 */
 	protected abstract Collection<ConfigAttribute> findAttributes(Class<?> clazz);
 
+	/**
+	 * Obtains the kind of annotations, as recorded in a {@link MethodSecurityIndex}, that
+	 * this implementation looks for.
+	 *
+	 * @return the kind of annotations or {@code null} if a {@link MethodSecurityIndex}
+	 * cannot be used (the default)
+	 * @since 5.3
+	 */
+	protected String getIndexedAnnotations() {
+		return null;
+	}
+
 }
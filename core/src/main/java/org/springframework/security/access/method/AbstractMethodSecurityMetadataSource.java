@@ -16,6 +16,7 @@
 
 package org.springframework.security.access.method;
 
+import java.lang.reflect.Method;
 import java.util.Collection;
 
 import org.aopalliance.intercept.MethodInvocation;
@@ -36,6 +37,8 @@ public abstract class AbstractMethodSecurityMetadataSource implements
 
 	protected final Log logger = LogFactory.getLog(getClass());
 
+	private MethodSecurityIndex methodSecurityIndex;
+
 	// ~ Methods
 	// ========================================================================================================
 
@@ -65,4 +68,34 @@ public abstract class AbstractMethodSecurityMetadataSource implements
 	public final boolean supports(Class<?> clazz) {
 		return (MethodInvocation.class.isAssignableFrom(clazz));
 	}
+
+	/**
+	 * Sets the {@link MethodSecurityIndex} used by annotation based implementations to
+	 * skip classes that are known not to use their annotations. The default is
+	 * {@code null}, that is every class is introspected.
+	 *
+	 * @param methodSecurityIndex the {@link MethodSecurityIndex} to use
+	 * @since 5.3
+	 */
+	public void setMethodSecurityIndex(MethodSecurityIndex methodSecurityIndex) {
+		this.methodSecurityIndex = methodSecurityIndex;
+	}
+
+	/**
+	 * Determines if the {@link MethodSecurityIndex} rules out that the annotations apply
+	 * to the method.
+	 *
+	 * @param method the invoked method
+	 * @param targetClass the target class, may be {@code null}
+	 * @param annotations the kind of annotations, for example
+	 * {@link MethodSecurityIndex#PRE_POST}
+	 * @return true if a {@link MethodSecurityIndex} is set and the target class is
+	 * indexed without the annotations
+	 * @since 5.3
+	 */
+	protected final boolean isExcludedByIndex(Method method, Class<?> targetClass,
+			String annotations) {
+		return this.methodSecurityIndex != null
+				&& !this.methodSecurityIndex.isCandidate(method, targetClass, annotations);
+	}
 }
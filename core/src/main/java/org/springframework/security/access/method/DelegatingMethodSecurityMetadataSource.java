@@ -18,15 +18,14 @@ package org.springframework.security.access.method;
 import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.security.access.ConfigAttribute;
 import org.springframework.util.Assert;
-import org.springframework.util.ObjectUtils;
 
 /**
  * Automatically tries a series of method definition sources, relying on the first source
@@ -42,7 +41,13 @@ public final class DelegatingMethodSecurityMetadataSource extends
 			.emptyList();
 
 	private final List<MethodSecurityMetadataSource> methodSecurityMetadataSources;
-	private final Map<DefaultCacheKey, Collection<ConfigAttribute>> attributeCache = new HashMap<>();
+	private final ClassValue<Map<Method, Collection<ConfigAttribute>>> attributeCache = new ClassValue<Map<Method, Collection<ConfigAttribute>>>() {
+		@Override
+		protected Map<Method, Collection<ConfigAttribute>> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+	private final Map<Method, Collection<ConfigAttribute>> nullTargetClassAttributeCache = new ConcurrentHashMap<>();
 
 	// ~ Constructor
 	// ====================================================================================================
@@ -57,40 +62,46 @@ public final class DelegatingMethodSecurityMetadataSource extends
 	// ~ Methods
 	// ========================================================================================================
 
+	/**
+	 * Obtains the attributes from the first source returning any, and caches them per
+	 * target class and method. Looking up cached attributes neither locks nor allocates.
+	 * Since {@link org.springframework.security.access.intercept.aopalliance.MethodSecurityMetadataSourceAdvisor}
+	 * obtains the attributes of every method of a bean to decide whether to proxy it,
+	 * the cache is normally populated when the application starts.
+	 */
 	public Collection<ConfigAttribute> getAttributes(Method method, Class<?> targetClass) {
-		DefaultCacheKey cacheKey = new DefaultCacheKey(method, targetClass);
-		synchronized (attributeCache) {
-			Collection<ConfigAttribute> cached = attributeCache.get(cacheKey);
-			// Check for canonical value indicating there is no config attribute,
+		Map<Method, Collection<ConfigAttribute>> cache = targetClass == null ?
+				this.nullTargetClassAttributeCache : this.attributeCache.get(targetClass);
+		Collection<ConfigAttribute> cached = cache.get(method);
+		// Check for canonical value indicating there is no config attribute,
 
-			if (cached != null) {
-				return cached;
-			}
+		if (cached != null) {
+			return cached;
+		}
 
-			// No cached value, so query the sources to find a result
-			Collection<ConfigAttribute> attributes = null;
-			for (MethodSecurityMetadataSource s : methodSecurityMetadataSources) {
-				attributes = s.getAttributes(method, targetClass);
-				if (attributes != null && !attributes.isEmpty()) {
-					break;
-				}
+		// No cached value, so query the sources to find a result
+		Collection<ConfigAttribute> attributes = null;
+		for (MethodSecurityMetadataSource s : methodSecurityMetadataSources) {
+			attributes = s.getAttributes(method, targetClass);
+			if (attributes != null && !attributes.isEmpty()) {
+				break;
 			}
+		}
 
-			// Put it in the cache.
-			if (attributes == null || attributes.isEmpty()) {
-				this.attributeCache.put(cacheKey, NULL_CONFIG_ATTRIBUTE);
-				return NULL_CONFIG_ATTRIBUTE;
-			}
+		// Put it in the cache.
+		if (attributes == null || attributes.isEmpty()) {
+			cached = cache.putIfAbsent(method, NULL_CONFIG_ATTRIBUTE);
+			return cached == null ? NULL_CONFIG_ATTRIBUTE : cached;
+		}
 
-			if (logger.isDebugEnabled()) {
-				logger.debug("Caching method [" + cacheKey + "] with attributes "
-						+ attributes);
-			}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Caching method [" + new DefaultCacheKey(method, targetClass)
+					+ "] with attributes " + attributes);
+		}
 
-			this.attributeCache.put(cacheKey, attributes);
+		cached = cache.putIfAbsent(method, attributes);
 
-			return attributes;
-		}
+		return cached == null ? attributes : cached;
 	}
 
 	@Override
@@ -121,19 +132,6 @@ public final class DelegatingMethodSecurityMetadataSource extends
 			this.targetClass = targetClass;
 		}
 
-		@Override
-		public boolean equals(Object other) {
-			DefaultCacheKey otherKey = (DefaultCacheKey) other;
-			return (this.method.equals(otherKey.method) && ObjectUtils.nullSafeEquals(
-					this.targetClass, otherKey.targetClass));
-		}
-
-		@Override
-		public int hashCode() {
-			return this.method.hashCode() * 21
-					+ (this.targetClass != null ? this.targetClass.hashCode() : 0);
-		}
-
 		@Override
 		public String toString() {
 			return "CacheKey[" + (targetClass == null ? "-" : targetClass.getName())
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.access.method;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * An index of the method security annotations used by classes, generated at build time
+ * by the {@code spring-security-method-indexer} annotation processor and stored in
+ * {@value #INDEX_LOCATION}. The annotation based {@link MethodSecurityMetadataSource}s
+ * consult it to avoid reflectively looking for annotations on the methods of classes
+ * that are known not to use them.
+ *
+ * <p>
+ * A class is only trusted to not use the annotations if it and all of its superclasses
+ * and interfaces, other than those of the JDK, are listed in the same index, that is they
+ * were compiled together. Any other class is introspected as usual, as are classes that
+ * are listed in more than one index.
+ * </p>
+ *
+ * @author agent
+ * @since 5.3
+ * @see AbstractMethodSecurityMetadataSource#setMethodSecurityIndex(MethodSecurityIndex)
+ */
+public final class MethodSecurityIndex {
+	/**
+	 * The location of the index
+	 */
+	public static final String INDEX_LOCATION = "META-INF/spring-security-method.index";
+
+	/**
+	 * Indicates {@code @PreAuthorize}, {@code @PostAuthorize}, {@code @PreFilter} or
+	 * {@code @PostFilter}
+	 */
+	public static final String PRE_POST = "prepost";
+
+	/**
+	 * Indicates {@code @Secured}
+	 */
+	public static final String SECURED = "secured";
+
+	/**
+	 * Indicates {@code @RolesAllowed}, {@code @PermitAll} or {@code @DenyAll}
+	 */
+	public static final String JSR250 = "jsr250";
+
+	private final Map<String, Entry> entries;
+
+	private MethodSecurityIndex(Map<String, Entry> entries) {
+		this.entries = entries;
+	}
+
+	/**
+	 * Loads and merges all the indexes visible to the {@link ClassLoader}
+	 * @param classLoader the {@link ClassLoader} to use, or {@code null} for the default
+	 * {@link ClassLoader}
+	 * @return the {@link MethodSecurityIndex}, which is empty if no index was found
+	 */
+	public static MethodSecurityIndex load(ClassLoader classLoader) {
+		ClassLoader loader = classLoader == null ? ClassUtils.getDefaultClassLoader()
+				: classLoader;
+		Map<String, Entry> entries = new HashMap<>();
+		Set<String> duplicates = new HashSet<>();
+		try {
+			Enumeration<URL> urls = loader.getResources(INDEX_LOCATION);
+			for (int source = 0; urls.hasMoreElements(); source++) {
+				Properties properties = new Properties();
+				try (InputStream in = urls.nextElement().openStream();
+						Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+					properties.load(reader);
+				}
+				for (String className : properties.stringPropertyNames()) {
+					Set<String> annotations = new HashSet<>(Arrays.asList(StringUtils
+							.commaDelimitedListToStringArray(properties.getProperty(className))));
+					if (entries.put(className, new Entry(source, annotations)) != null) {
+						duplicates.add(className);
+					}
+				}
+			}
+		}
+		catch (IOException e) {
+			throw new IllegalStateException("Unable to load " + INDEX_LOCATION, e);
+		}
+		entries.keySet().removeAll(duplicates);
+		return new MethodSecurityIndex(Collections.unmodifiableMap(entries));
+	}
+
+	/**
+	 * Determines if the index is empty, in which case there is no benefit in using it
+	 * @return true if the index has no entries
+	 */
+	public boolean isEmpty() {
+		return this.entries.isEmpty();
+	}
+
+	/**
+	 * Determines whether annotations of the given kind may apply to the method when
+	 * invoked on the target class.
+	 * @param method the invoked method
+	 * @param targetClass the target class, may be {@code null}
+	 * @param annotations the kind of annotations, for example {@link #PRE_POST}
+	 * @return false if the same index covers the target class and all of its superclasses
+	 * and interfaces and none of them use the annotations, true otherwise
+	 */
+	public boolean isCandidate(Method method, Class<?> targetClass, String annotations) {
+		if (targetClass == null || !method.getDeclaringClass().isAssignableFrom(targetClass)) {
+			return true;
+		}
+		Entry entry = this.entries.get(targetClass.getName());
+		if (entry == null || entry.annotations.contains(annotations)) {
+			return true;
+		}
+		Set<Class<?>> supertypes = new HashSet<>(
+				ClassUtils.getAllInterfacesForClassAsSet(targetClass));
+		for (Class<?> superclass = targetClass.getSuperclass(); superclass != null;
+				superclass = superclass.getSuperclass()) {
+			supertypes.add(superclass);
+		}
+		for (Class<?> supertype : supertypes) {
+			if (supertype.getName().startsWith("java.")) {
+				continue;
+			}
+			Entry supertypeEntry = this.entries.get(supertype.getName());
+			if (supertypeEntry == null || supertypeEntry.source != entry.source
+					|| supertypeEntry.annotations.contains(annotations)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static final class Entry {
+		private final int source;
+
+		private final Set<String> annotations;
+
+		private Entry(int source, Set<String> annotations) {
+			this.source = source;
+			this.annotations = annotations;
+		}
+	}
+}
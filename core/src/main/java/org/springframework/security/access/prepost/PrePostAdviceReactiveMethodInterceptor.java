@@ -19,8 +19,10 @@ package org.springframework.security.access.prepost;
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
 import org.reactivestreams.Publisher;
+import org.springframework.core.MethodClassKey;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.ConfigAttribute;
+import org.springframework.security.access.expression.method.PostInvocationExpressionAttribute;
 import org.springframework.security.access.method.MethodSecurityMetadataSource;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -34,11 +36,20 @@ import reactor.core.publisher.Mono;
 
 import java.lang.reflect.Method;
 import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A {@link MethodInterceptor} that supports {@link PreAuthorize} and {@link PostAuthorize} for methods that return
  * {@link Mono} or {@link Flux}
  *
+ * <p>
+ * The attributes of each method and the way its result is adapted are resolved on the
+ * first invocation and reused afterwards. A {@link Flux} that is only subject to
+ * {@link PostFilter} is filtered as its elements stream, without buffering them and with
+ * one evaluation context per subscription.
+ * </p>
+ *
  * @author Rob Winch
  * @since 5.0
  */
@@ -52,6 +63,8 @@ public class PrePostAdviceReactiveMethodInterceptor implements MethodInterceptor
 
 	private final PostInvocationAuthorizationAdvice postAdvice;
 
+	private final Map<MethodClassKey, InvocationPlan> plans = new ConcurrentHashMap<>();
+
 	/**
 	 * Creates a new instance
 	 * @param attributeSource the {@link MethodSecurityMetadataSource} to use
@@ -70,33 +83,33 @@ public class PrePostAdviceReactiveMethodInterceptor implements MethodInterceptor
 
 	@Override
 	public Object invoke(final MethodInvocation invocation) {
-		Method method = invocation.getMethod();
-		Class<?> returnType = method.getReturnType();
-		if (!Publisher.class.isAssignableFrom(returnType)) {
-			throw new IllegalStateException("The returnType " + returnType + " on " + method + " must return an instance of org.reactivestreams.Publisher (i.e. Mono / Flux) in order to support Reactor Context");
+		InvocationPlan plan = getPlan(invocation);
+		if (plan.preAttr == null && plan.postAttr == null) {
+			return proceed(invocation);
 		}
-		Class<?> targetClass = invocation.getThis().getClass();
-		Collection<ConfigAttribute> attributes = this.attributeSource
-			.getAttributes(method, targetClass);
-
-		PreInvocationAttribute preAttr = findPreInvocationAttribute(attributes);
+		PreInvocationAttribute preAttr = plan.preAttr;
 		Mono<Authentication> toInvoke = ReactiveSecurityContextHolder.getContext()
 			.map(SecurityContext::getAuthentication)
 			.defaultIfEmpty(this.anonymous)
-			.filter( auth -> this.preInvocationAdvice.before(auth, invocation, preAttr))
+			.filter( auth -> preAttr == null || this.preInvocationAdvice.before(auth, invocation, preAttr))
 			.switchIfEmpty(Mono.defer(() -> Mono.error(new AccessDeniedException("Denied"))));
 
 
-		PostInvocationAttribute attr = findPostInvocationAttribute(attributes);
+		PostInvocationAttribute attr = plan.postAttr;
 
-		if (Mono.class.isAssignableFrom(returnType)) {
+		if (plan.returnType == ReturnType.MONO) {
 			return toInvoke
 				.flatMap( auth -> this.<Mono<?>>proceed(invocation)
 					.map( r -> attr == null ? r : this.postAdvice.after(auth, invocation, attr, r))
 				);
 		}
 
-		if (Flux.class.isAssignableFrom(returnType)) {
+		if (plan.returnType == ReturnType.FLUX && plan.filterFlux) {
+			return toInvoke
+				.flatMapMany( auth -> (Flux<?>) this.postAdvice.after(auth, invocation, attr, this.<Flux<?>>proceed(invocation)));
+		}
+
+		if (plan.returnType == ReturnType.FLUX) {
 			return toInvoke
 				.flatMapMany( auth -> this.<Flux<?>>proceed(invocation)
 					.map( r -> attr == null ? r : this.postAdvice.after(auth, invocation, attr, r))
@@ -109,6 +122,29 @@ public class PrePostAdviceReactiveMethodInterceptor implements MethodInterceptor
 			);
 	}
 
+	private InvocationPlan getPlan(MethodInvocation invocation) {
+		Method method = invocation.getMethod();
+		Class<?> targetClass = invocation.getThis().getClass();
+		MethodClassKey key = new MethodClassKey(method, targetClass);
+		InvocationPlan plan = this.plans.get(key);
+		if (plan == null) {
+			plan = createPlan(method, targetClass);
+			this.plans.putIfAbsent(key, plan);
+		}
+		return plan;
+	}
+
+	private InvocationPlan createPlan(Method method, Class<?> targetClass) {
+		Class<?> returnType = method.getReturnType();
+		if (!Publisher.class.isAssignableFrom(returnType)) {
+			throw new IllegalStateException("The returnType " + returnType + " on " + method + " must return an instance of org.reactivestreams.Publisher (i.e. Mono / Flux) in order to support Reactor Context");
+		}
+		Collection<ConfigAttribute> attributes = this.attributeSource
+			.getAttributes(method, targetClass);
+		return new InvocationPlan(findPreInvocationAttribute(attributes),
+			findPostInvocationAttribute(attributes), returnType);
+	}
+
 	private static <T extends Publisher<?>> T proceed(final MethodInvocation invocation) {
 		try {
 			return (T) invocation.proceed();
@@ -117,6 +153,42 @@ public class PrePostAdviceReactiveMethodInterceptor implements MethodInterceptor
 		}
 	}
 
+	/**
+	 * What is known about invoking a method on a target class without looking at the
+	 * arguments: its attributes and how its result is adapted.
+	 */
+	private static final class InvocationPlan {
+		private final PreInvocationAttribute preAttr;
+
+		private final PostInvocationAttribute postAttr;
+
+		private final ReturnType returnType;
+
+		/**
+		 * True if a {@link Flux} is only filtered, in which case the whole {@link Flux} is
+		 * passed to the {@link PostInvocationAuthorizationAdvice} once, so that it is
+		 * filtered element by element as it streams
+		 */
+		private final boolean filterFlux;
+
+		private InvocationPlan(PreInvocationAttribute preAttr,
+			PostInvocationAttribute postAttr, Class<?> returnType) {
+			this.preAttr = preAttr;
+			this.postAttr = postAttr;
+			this.returnType = Mono.class.isAssignableFrom(returnType) ? ReturnType.MONO
+				: Flux.class.isAssignableFrom(returnType) ? ReturnType.FLUX
+				: ReturnType.PUBLISHER;
+			this.filterFlux = this.returnType == ReturnType.FLUX
+				&& postAttr instanceof PostInvocationExpressionAttribute
+				&& ((PostInvocationExpressionAttribute) postAttr).getFilterExpression() != null
+				&& ((PostInvocationExpressionAttribute) postAttr).getAuthorizeExpression() == null;
+		}
+	}
+
+	private enum ReturnType {
+		MONO, FLUX, PUBLISHER
+	}
+
 	private static PostInvocationAttribute findPostInvocationAttribute(
 		Collection<ConfigAttribute> config) {
 		for (ConfigAttribute attribute : config) {
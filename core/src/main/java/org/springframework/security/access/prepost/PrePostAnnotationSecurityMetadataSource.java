@@ -22,6 +22,7 @@ import java.util.*;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.security.access.ConfigAttribute;
 import org.springframework.security.access.method.AbstractMethodSecurityMetadataSource;
+import org.springframework.security.access.method.MethodSecurityIndex;
 import org.springframework.util.ClassUtils;
 
 /**
@@ -56,7 +57,8 @@ public class PrePostAnnotationSecurityMetadataSource extends
 	}
 
 	public Collection<ConfigAttribute> getAttributes(Method method, Class<?> targetClass) {
-		if (method.getDeclaringClass() == Object.class) {
+		if (method.getDeclaringClass() == Object.class
+				|| isExcludedByIndex(method, targetClass, MethodSecurityIndex.PRE_POST)) {
 			return Collections.emptyList();
 		}
 
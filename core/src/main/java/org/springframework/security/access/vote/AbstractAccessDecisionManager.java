@@ -16,7 +16,13 @@
 
 package org.springframework.security.access.vote;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -24,6 +30,7 @@ import org.springframework.security.access.AccessDecisionManager;
 import org.springframework.security.access.AccessDecisionVoter;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.ConfigAttribute;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.SpringSecurityMessageSource;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.context.MessageSource;
@@ -38,9 +45,18 @@ import org.springframework.util.Assert;
  * Handles configuration of a bean context defined list of {@link AccessDecisionVoter}s
  * and the access control behaviour if all voters abstain from voting (defaults to deny
  * access).
+ *
+ * <p>
+ * When {@link #setRouteAttributesToSupportingVoters(boolean)} is enabled, subclasses
+ * obtain from {@link #getDecisionVoters(Collection)} only the voters that
+ * {@link AccessDecisionVoter#supports(ConfigAttribute) support} at least one of the
+ * attributes. Optionally, {@link #setRecordVoteLatency(boolean) the time spent} in each
+ * voter can be recorded and is available from {@link #getVoterStatistics()}.
  */
 public abstract class AbstractAccessDecisionManager implements AccessDecisionManager,
 		InitializingBean, MessageSourceAware {
+	private static final int MAXIMUM_ROUTED_ATTRIBUTES = 4096;
+
 	// ~ Instance fields
 	// ================================================================================================
 	protected final Log logger = LogFactory.getLog(getClass());
@@ -51,6 +67,14 @@ public abstract class AbstractAccessDecisionManager implements AccessDecisionMan
 
 	private boolean allowIfAllAbstainDecisions = false;
 
+	private boolean routeAttributesToSupportingVoters = false;
+
+	private final Map<ConfigAttribute, Long> votersByAttribute = new ConcurrentHashMap<>();
+
+	private final Map<Long, List<AccessDecisionVoter<?>>> votersByMask = new ConcurrentHashMap<>();
+
+	private Map<AccessDecisionVoter<?>, VoterStatistics> voterStatistics = Collections.emptyMap();
+
 	protected AbstractAccessDecisionManager(
 			List<AccessDecisionVoter<?>> decisionVoters) {
 		Assert.notEmpty(decisionVoters, "A list of AccessDecisionVoters is required");
@@ -76,6 +100,103 @@ public abstract class AbstractAccessDecisionManager implements AccessDecisionMan
 		return this.decisionVoters;
 	}
 
+	/**
+	 * Obtains the voters that should be polled for the given attributes. If
+	 * {@link #setRouteAttributesToSupportingVoters(boolean)} is disabled (the default),
+	 * this is {@link #getDecisionVoters()}. Otherwise only the voters that support at
+	 * least one of the attributes are returned, in their configured order. Voters that
+	 * support none of the attributes would abstain, so skipping them does not change the
+	 * decision.
+	 *
+	 * @param attributes the attributes being voted on
+	 * @return the voters to poll
+	 * @since 5.3
+	 */
+	protected final List<AccessDecisionVoter<?>> getDecisionVoters(
+			Collection<ConfigAttribute> attributes) {
+		if (!this.routeAttributesToSupportingVoters
+				|| this.decisionVoters.size() > Long.SIZE) {
+			return this.decisionVoters;
+		}
+		long mask = 0;
+		for (ConfigAttribute attribute : attributes) {
+			mask |= supportingVoters(attribute);
+		}
+		return this.votersByMask.computeIfAbsent(mask, this::voters);
+	}
+
+	/**
+	 * Polls the voter, recording the time spent if
+	 * {@link #setRecordVoteLatency(boolean)} is enabled.
+	 *
+	 * @param voter the voter to poll
+	 * @param authentication the caller invoking the method
+	 * @param object the secured object
+	 * @param attributes the configuration attributes associated with the secured object
+	 * @return the result of {@link AccessDecisionVoter#vote(Authentication, Object, Collection)}
+	 * @since 5.3
+	 */
+	@SuppressWarnings("unchecked")
+	protected final int vote(AccessDecisionVoter voter, Authentication authentication,
+			Object object, Collection<ConfigAttribute> attributes) {
+		VoterStatistics statistics = this.voterStatistics.get(voter);
+		if (statistics == null) {
+			return voter.vote(authentication, object, attributes);
+		}
+		long start = System.nanoTime();
+		try {
+			return voter.vote(authentication, object, attributes);
+		}
+		finally {
+			statistics.record(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Obtains the {@link VoterStatistics} of each voter. The map is empty unless
+	 * {@link #setRecordVoteLatency(boolean)} is enabled.
+	 *
+	 * @return the {@link VoterStatistics} keyed by voter
+	 * @since 5.3
+	 */
+	public Map<AccessDecisionVoter<?>, VoterStatistics> getVoterStatistics() {
+		return this.voterStatistics;
+	}
+
+	/**
+	 * If true, only the voters that support at least one of the attributes are polled.
+	 * The voters supporting each attribute are determined once and remembered, so this
+	 * should only be enabled when {@link AccessDecisionVoter#supports(ConfigAttribute)}
+	 * returns the same result for equal attributes. The default is false.
+	 *
+	 * @param routeAttributesToSupportingVoters true to skip voters not supporting any
+	 * of the attributes
+	 * @since 5.3
+	 */
+	public void setRouteAttributesToSupportingVoters(
+			boolean routeAttributesToSupportingVoters) {
+		this.routeAttributesToSupportingVoters = routeAttributesToSupportingVoters;
+	}
+
+	/**
+	 * If true, the number of votes and the time spent by each voter is recorded in its
+	 * {@link VoterStatistics}. The default is false.
+	 *
+	 * @param recordVoteLatency true to record the latency of each voter
+	 * @since 5.3
+	 */
+	public void setRecordVoteLatency(boolean recordVoteLatency) {
+		if (!recordVoteLatency) {
+			this.voterStatistics = Collections.emptyMap();
+			return;
+		}
+		Map<AccessDecisionVoter<?>, VoterStatistics> statistics = new IdentityHashMap<>();
+		for (AccessDecisionVoter<?> voter : this.decisionVoters) {
+			statistics.put(voter, new VoterStatistics());
+		}
+		this.voterStatistics = Collections.unmodifiableMap(statistics);
+	}
+
 	public boolean isAllowIfAllAbstainDecisions() {
 		return allowIfAllAbstainDecisions;
 	}
@@ -117,4 +238,33 @@ public abstract class AbstractAccessDecisionManager implements AccessDecisionMan
 
 		return true;
 	}
+
+	private long supportingVoters(ConfigAttribute attribute) {
+		Long mask = this.votersByAttribute.get(attribute);
+		if (mask != null) {
+			return mask;
+		}
+		long result = 0;
+		for (int i = 0; i < this.decisionVoters.size(); i++) {
+			if (this.decisionVoters.get(i).supports(attribute)) {
+				result |= 1L << i;
+			}
+		}
+		// attributes normally come from a fixed set of metadata, but guard against sources
+		// creating a new attribute for every invocation
+		if (this.votersByAttribute.size() < MAXIMUM_ROUTED_ATTRIBUTES) {
+			this.votersByAttribute.put(attribute, result);
+		}
+		return result;
+	}
+
+	private List<AccessDecisionVoter<?>> voters(long mask) {
+		List<AccessDecisionVoter<?>> voters = new ArrayList<>(Long.bitCount(mask));
+		for (int i = 0; i < this.decisionVoters.size(); i++) {
+			if ((mask & (1L << i)) != 0) {
+				voters.add(this.decisionVoters.get(i));
+			}
+		}
+		return Collections.unmodifiableList(voters);
+	}
 }
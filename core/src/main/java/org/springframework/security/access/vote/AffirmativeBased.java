@@ -59,8 +59,8 @@ public class AffirmativeBased extends AbstractAccessDecisionManager {
 			Collection<ConfigAttribute> configAttributes) throws AccessDeniedException {
 		int deny = 0;
 
-		for (AccessDecisionVoter voter : getDecisionVoters()) {
-			int result = voter.vote(authentication, object, configAttributes);
+		for (AccessDecisionVoter voter : getDecisionVoters(configAttributes)) {
+			int result = vote(voter, authentication, object, configAttributes);
 
 			if (logger.isDebugEnabled()) {
 				logger.debug("Voter: " + voter + ", returned: " + result);
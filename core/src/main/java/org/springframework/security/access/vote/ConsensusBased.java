@@ -69,8 +69,8 @@ public class ConsensusBased extends AbstractAccessDecisionManager {
 		int grant = 0;
 		int deny = 0;
 
-		for (AccessDecisionVoter voter : getDecisionVoters()) {
-			int result = voter.vote(authentication, object, configAttributes);
+		for (AccessDecisionVoter voter : getDecisionVoters(configAttributes)) {
+			int result = vote(voter, authentication, object, configAttributes);
 
 			if (logger.isDebugEnabled()) {
 				logger.debug("Voter: " + voter + ", returned: " + result);
@@ -71,8 +71,8 @@ public class UnanimousBased extends AbstractAccessDecisionManager {
 		for (ConfigAttribute attribute : attributes) {
 			singleAttributeList.set(0, attribute);
 
-			for (AccessDecisionVoter voter : getDecisionVoters()) {
-				int result = voter.vote(authentication, object, singleAttributeList);
+			for (AccessDecisionVoter voter : getDecisionVoters(singleAttributeList)) {
+				int result = vote(voter, authentication, object, singleAttributeList);
 
 				if (logger.isDebugEnabled()) {
 					logger.debug("Voter: " + voter + ", returned: " + result);
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.access.vote;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The number of votes cast by an
+ * {@link org.springframework.security.access.AccessDecisionVoter} and the time spent
+ * casting them, as recorded by an {@link AbstractAccessDecisionManager} with
+ * {@link AbstractAccessDecisionManager#setRecordVoteLatency(boolean)} enabled.
+ *
+ * @author agent
+ * @since 5.3
+ */
+public final class VoterStatistics {
+	private final LongAdder votes = new LongAdder();
+
+	private final LongAdder nanos = new LongAdder();
+
+	VoterStatistics() {
+	}
+
+	void record(long elapsedNanos) {
+		this.votes.increment();
+		this.nanos.add(elapsedNanos);
+	}
+
+	/**
+	 * The number of votes cast
+	 * @return the number of votes
+	 */
+	public long getVotes() {
+		return this.votes.sum();
+	}
+
+	/**
+	 * The total time spent casting votes
+	 * @return the total time
+	 */
+	public Duration getTotalTime() {
+		return Duration.ofNanos(this.nanos.sum());
+	}
+
+	/**
+	 * The average time spent casting a vote
+	 * @return the average time, or {@link Duration#ZERO} if no votes were cast
+	 */
+	public Duration getAverageTime() {
+		long votes = getVotes();
+		return votes == 0 ? Duration.ZERO : Duration.ofNanos(this.nanos.sum() / votes);
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[votes=" + getVotes() + ", totalTime="
+				+ getTotalTime() + "]";
+	}
+}
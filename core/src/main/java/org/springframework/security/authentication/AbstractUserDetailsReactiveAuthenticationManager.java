@@ -16,6 +16,8 @@
 
 package org.springframework.security.authentication;
 
+import java.util.concurrent.RejectedExecutionException;
+
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import reactor.core.publisher.Mono;
@@ -57,6 +59,8 @@ public abstract class AbstractUserDetailsReactiveAuthenticationManager implement
 
 	private Scheduler scheduler = Schedulers.newParallel("password-encoder", Schedulers.DEFAULT_POOL_SIZE, true);
 
+	private Scheduler passwordUpgradeScheduler;
+
 	private UserDetailsChecker preAuthenticationChecks = user -> {
 		if (!user.isAccountNonLocked()) {
 			logger.debug("User account is locked");
@@ -105,6 +109,10 @@ public abstract class AbstractUserDetailsReactiveAuthenticationManager implement
 				.flatMap(u -> {
 					boolean upgradeEncoding = this.userDetailsPasswordService != null
 							&& this.passwordEncoder.upgradeEncoding(u.getPassword());
+					if (upgradeEncoding && this.passwordUpgradeScheduler != null) {
+						upgradeEncodingInBackground(u, presentedPassword);
+						return Mono.just(u);
+					}
 					if (upgradeEncoding) {
 						String newPassword = this.passwordEncoder.encode(presentedPassword);
 						return this.userDetailsPasswordService.updatePassword(u, newPassword);
@@ -112,7 +120,19 @@ public abstract class AbstractUserDetailsReactiveAuthenticationManager implement
 					return Mono.just(u);
 				})
 				.doOnNext(this.postAuthenticationChecks::check)
-				.map(u -> new UsernamePasswordAuthenticationToken(u, u.getPassword(), u.getAuthorities()) );
+				.map(u -> new UsernamePasswordAuthenticationToken(u, u.getPassword(), u.getAuthorities()) )
+				.onErrorMap(RejectedExecutionException.class, e -> new AuthenticationServiceException(
+						"Unable to verify credentials: password encoder capacity exceeded", e));
+	}
+
+	private void upgradeEncodingInBackground(UserDetails user, String presentedPassword) {
+		Mono.fromCallable(() -> this.passwordEncoder.encode(presentedPassword))
+				.subscribeOn(this.passwordUpgradeScheduler)
+				.flatMap(newPassword -> this.userDetailsPasswordService.updatePassword(user, newPassword))
+				.doOnError(e -> this.logger.debug("Failed to upgrade password encoding for user '"
+						+ user.getUsername() + "'", e))
+				.onErrorResume(e -> Mono.empty())
+				.subscribe();
 	}
 
 	/**
@@ -131,7 +151,11 @@ public abstract class AbstractUserDetailsReactiveAuthenticationManager implement
 	 * a CPU intensive task that is non blocking. This means validation is bounded by the
 	 * number of CPUs. Some applications may want to customize the {@link Scheduler}. For
 	 * example, if users are stuck using the insecure {@link org.springframework.security.crypto.password.NoOpPasswordEncoder}
-	 * they might want to leverage {@code Schedulers.immediate()}.
+	 * they might want to leverage {@code Schedulers.immediate()}, while others may want to
+	 * bound the number of concurrent and queued encodings with a
+	 * {@link PasswordEncoderScheduler}. A {@link RejectedExecutionException}
+	 * raised by the {@link Scheduler} is reported as an
+	 * {@link AuthenticationServiceException}.
 	 *
 	 * @param scheduler the {@link Scheduler} to use. Cannot be null.
 	 * @since 5.0.6
@@ -141,6 +165,23 @@ public abstract class AbstractUserDetailsReactiveAuthenticationManager implement
 		this.scheduler = scheduler;
 	}
 
+	/**
+	 * Sets the {@link Scheduler} used to upgrade the encoding of passwords. When set, the
+	 * new password is encoded and handed to the
+	 * {@link #setUserDetailsPasswordService(ReactiveUserDetailsPasswordService)
+	 * ReactiveUserDetailsPasswordService} on this {@link Scheduler} without delaying the
+	 * authentication result. The default is {@code null}, which upgrades the password as
+	 * part of the authentication. A typical value is
+	 * {@link PasswordEncoderScheduler#getUpgradeScheduler()}.
+	 *
+	 * @param passwordUpgradeScheduler the {@link Scheduler} to use, or {@code null} to
+	 * upgrade passwords as part of the authentication
+	 * @since 5.3
+	 */
+	public void setPasswordUpgradeScheduler(Scheduler passwordUpgradeScheduler) {
+		this.passwordUpgradeScheduler = passwordUpgradeScheduler;
+	}
+
 	/**
 	 * Sets the service to use for upgrading passwords on successful authentication.
 	 * @param userDetailsPasswordService the service to use
@@ -45,14 +45,17 @@ public class CachingUserDetailsService implements UserDetailsService {
 	public UserDetails loadUserByUsername(String username) {
 		UserDetails user = userCache.getUserFromCache(username);
 
-		if (user == null) {
-			user = delegate.loadUserByUsername(username);
+		if (user != null) {
+			return user;
 		}
 
+		user = delegate.loadUserByUsername(username);
+
 		Assert.notNull(user, () -> "UserDetailsService " + delegate
 				+ " returned null for username " + username + ". "
 				+ "This is an interface contract violation");
 
+		// Only put on a miss, so that caches with a time to live let entries expire
 		userCache.putUserInCache(user);
 
 		return user;
@@ -18,11 +18,18 @@ package org.springframework.security.authentication;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.security.authentication.event.AbstractAuthenticationEvent;
 import org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent;
 import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
@@ -34,6 +41,7 @@ import org.springframework.security.authentication.event.AuthenticationFailurePr
 import org.springframework.security.authentication.event.AuthenticationFailureProxyUntrustedEvent;
 import org.springframework.security.authentication.event.AuthenticationFailureServiceExceptionEvent;
 import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.security.context.ListenerAwareApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -54,15 +62,24 @@ import org.springframework.util.Assert;
  * {@link org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent}
  * and provides its constructor. The <tt>additionalExceptionMappings</tt> will be merged
  * with the default ones.
+ * <p>
+ * Events that no listener supports can be skipped altogether using
+ * {@link #setSkipEventsWithoutListeners(boolean)}, and events can be dispatched off the
+ * authenticating thread using {@link #setExecutor(Executor)} or
+ * {@link #setAsyncQueueCapacity(int)}.
  *
  * @author Luke Taylor
  * @since 3.0
  */
 public class DefaultAuthenticationEventPublisher implements AuthenticationEventPublisher,
-		ApplicationEventPublisherAware {
+		ApplicationEventPublisherAware, DisposableBean {
 	private final Log logger = LogFactory.getLog(getClass());
 
 	private ApplicationEventPublisher applicationEventPublisher;
+	private ListenerAwareApplicationEventPublisher listenerAwareEventPublisher;
+	private boolean skipEventsWithoutListeners;
+	private Executor executor;
+	private ThreadPoolExecutor asyncQueueExecutor;
 	private final HashMap<String, Constructor<? extends AbstractAuthenticationEvent>> exceptionMappings = new HashMap<>();
 
 	public DefaultAuthenticationEventPublisher() {
@@ -95,9 +112,8 @@ public class DefaultAuthenticationEventPublisher implements AuthenticationEventP
 	}
 
 	public void publishAuthenticationSuccess(Authentication authentication) {
-		if (applicationEventPublisher != null) {
-			applicationEventPublisher.publishEvent(new AuthenticationSuccessEvent(
-					authentication));
+		if (hasListeners(AuthenticationSuccessEvent.class)) {
+			publishEvent(new AuthenticationSuccessEvent(authentication));
 		}
 	}
 
@@ -108,6 +124,9 @@ public class DefaultAuthenticationEventPublisher implements AuthenticationEventP
 		AbstractAuthenticationEvent event = null;
 
 		if (constructor != null) {
+			if (!hasListeners(constructor.getDeclaringClass())) {
+				return;
+			}
 			try {
 				event = constructor.newInstance(authentication, exception);
 			}
@@ -116,9 +135,7 @@ public class DefaultAuthenticationEventPublisher implements AuthenticationEventP
 		}
 
 		if (event != null) {
-			if (applicationEventPublisher != null) {
-				applicationEventPublisher.publishEvent(event);
-			}
+			publishEvent(event);
 		}
 		else {
 			if (logger.isDebugEnabled()) {
@@ -131,6 +148,79 @@ public class DefaultAuthenticationEventPublisher implements AuthenticationEventP
 	public void setApplicationEventPublisher(
 			ApplicationEventPublisher applicationEventPublisher) {
 		this.applicationEventPublisher = applicationEventPublisher;
+		updateListenerAwareEventPublisher();
+	}
+
+	/**
+	 * If set to {@code true}, the {@code ApplicationEventPublisher} is inspected (see
+	 * {@link ListenerAwareApplicationEventPublisher}) and events that no
+	 * {@code ApplicationListener} supports are not even constructed. The default is
+	 * {@code false}.
+	 *
+	 * @param skipEventsWithoutListeners whether to skip events without listeners
+	 * @since 5.3
+	 */
+	public void setSkipEventsWithoutListeners(boolean skipEventsWithoutListeners) {
+		this.skipEventsWithoutListeners = skipEventsWithoutListeners;
+		updateListenerAwareEventPublisher();
+	}
+
+	/**
+	 * Sets the {@link Executor} to publish events on. By default events are published on
+	 * the authenticating thread. Events the {@link Executor} rejects are dropped, so a
+	 * bounded queue keeps a slow listener from delaying or exhausting the authenticating
+	 * threads. Note that listeners then no longer run within the authenticating thread,
+	 * so they cannot rely on its {@code SecurityContextHolder} or transaction, nor on
+	 * being invoked before the authentication completes.
+	 *
+	 * @param executor the {@link Executor} to use or {@code null} to publish synchronously
+	 * @since 5.3
+	 * @see #setAsyncQueueCapacity(int)
+	 */
+	public void setExecutor(Executor executor) {
+		ThreadPoolExecutor asyncQueueExecutor = this.asyncQueueExecutor;
+		this.asyncQueueExecutor = null;
+		this.executor = executor;
+		if (asyncQueueExecutor != null && asyncQueueExecutor != executor) {
+			asyncQueueExecutor.shutdown();
+		}
+	}
+
+	/**
+	 * Publishes events on a single background thread with a queue of the given capacity.
+	 * Events published while the queue is full are dropped. The thread is owned by this
+	 * publisher: it is shut down when the executor is replaced or this publisher is
+	 * {@link #destroy() destroyed}.
+	 *
+	 * @param queueCapacity the maximum number of events waiting to be published
+	 * @since 5.3
+	 * @see #setExecutor(Executor)
+	 */
+	public void setAsyncQueueCapacity(int queueCapacity) {
+		Assert.isTrue(queueCapacity > 0, "queueCapacity must be greater than 0");
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(
+				"authentication-event-");
+		threadFactory.setDaemon(true);
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), threadFactory);
+		executor.allowCoreThreadTimeOut(true);
+		setExecutor(executor);
+		this.asyncQueueExecutor = executor;
+	}
+
+	/**
+	 * Shuts down the background thread created by {@link #setAsyncQueueCapacity(int)},
+	 * if any, after the events already queued have been published. Events published
+	 * afterwards are dropped.
+	 *
+	 * @since 5.3
+	 */
+	@Override
+	public void destroy() {
+		ThreadPoolExecutor asyncQueueExecutor = this.asyncQueueExecutor;
+		if (asyncQueueExecutor != null) {
+			asyncQueueExecutor.shutdown();
+		}
 	}
 
 	/**
@@ -160,6 +250,47 @@ public class DefaultAuthenticationEventPublisher implements AuthenticationEventP
 		}
 	}
 
+	private void updateListenerAwareEventPublisher() {
+		if (!this.skipEventsWithoutListeners || this.applicationEventPublisher == null) {
+			this.listenerAwareEventPublisher = null;
+		}
+		else if (this.applicationEventPublisher instanceof ListenerAwareApplicationEventPublisher) {
+			this.listenerAwareEventPublisher = (ListenerAwareApplicationEventPublisher) this.applicationEventPublisher;
+		}
+		else {
+			this.listenerAwareEventPublisher = new ListenerAwareApplicationEventPublisher(
+					this.applicationEventPublisher);
+		}
+	}
+
+	private boolean hasListeners(Class<? extends AbstractAuthenticationEvent> eventType) {
+		if (this.listenerAwareEventPublisher != null) {
+			return this.listenerAwareEventPublisher.hasListeners(eventType);
+		}
+		return this.applicationEventPublisher != null;
+	}
+
+	private void publishEvent(AbstractAuthenticationEvent event) {
+		ApplicationEventPublisher publisher = this.applicationEventPublisher;
+		Executor executor = this.executor;
+		if (publisher == null) {
+			return;
+		}
+		if (executor == null) {
+			publisher.publishEvent(event);
+			return;
+		}
+		try {
+			executor.execute(() -> publisher.publishEvent(event));
+		}
+		catch (RejectedExecutionException rejected) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Dropping " + event.getClass().getName()
+						+ " since the executor rejected it");
+			}
+		}
+	}
+
 	private void addMapping(String exceptionClass,
 			Class<? extends AbstractAuthenticationFailureEvent> eventClass) {
 		try {
@@ -0,0 +1,277 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.authentication;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link Scheduler} dedicated to password hashing. Password encoders such as BCrypt are
+ * intentionally CPU intensive, so rather than sharing a general purpose
+ * {@link Scheduler} the work is confined to a fixed number of workers (by default one
+ * per available processor) fed by a bounded queue. When the queue is full tasks are
+ * rejected immediately with a {@link RejectedExecutionException}, which
+ * {@link AbstractUserDetailsReactiveAuthenticationManager} reports as an
+ * {@link AuthenticationServiceException} rather than letting logins queue up without
+ * bound.
+ *
+ * <p>
+ * A second, low priority lane is available through {@link #getUpgradeScheduler()}. It is
+ * intended for re-hashing passwords whose encoding should be upgraded so that this work
+ * never competes with password verification for the primary workers.
+ * </p>
+ *
+ * <p>
+ * Basic statistics such as the queue depth, the number of rejected tasks and the average
+ * time a task spent waiting in the queue are exposed for monitoring.
+ * </p>
+ *
+ * @author agent
+ * @since 5.3
+ * @see AbstractUserDetailsReactiveAuthenticationManager#setScheduler(Scheduler)
+ * @see AbstractUserDetailsReactiveAuthenticationManager#setPasswordUpgradeScheduler(Scheduler)
+ */
+public final class PasswordEncoderScheduler implements Scheduler {
+	private static final int DEFAULT_QUEUE_CAPACITY_PER_WORKER = 64;
+
+	private final InstrumentedExecutor executor;
+
+	private final InstrumentedExecutor upgradeExecutor;
+
+	private final Scheduler scheduler;
+
+	private final Scheduler upgradeScheduler;
+
+	/**
+	 * Creates a new instance with one worker per available processor, a queue of 64
+	 * tasks per worker and a single worker upgrade lane.
+	 */
+	public PasswordEncoderScheduler() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a new instance with a queue of 64 tasks per worker and a single worker
+	 * upgrade lane.
+	 * @param poolSize the number of workers used to verify passwords
+	 */
+	public PasswordEncoderScheduler(int poolSize) {
+		this(poolSize, poolSize * DEFAULT_QUEUE_CAPACITY_PER_WORKER);
+	}
+
+	/**
+	 * Creates a new instance with a single worker upgrade lane.
+	 * @param poolSize the number of workers used to verify passwords
+	 * @param queueCapacity the maximum number of tasks waiting for a worker before new
+	 * tasks are rejected
+	 */
+	public PasswordEncoderScheduler(int poolSize, int queueCapacity) {
+		Assert.isTrue(poolSize > 0, "poolSize must be greater than 0");
+		Assert.isTrue(queueCapacity > 0, "queueCapacity must be greater than 0");
+		this.executor = new InstrumentedExecutor(poolSize, queueCapacity,
+				threadFactory("password-encoder-", Thread.NORM_PRIORITY));
+		this.upgradeExecutor = new InstrumentedExecutor(1, queueCapacity,
+				threadFactory("password-encoder-upgrade-", Thread.MIN_PRIORITY));
+		this.scheduler = Schedulers.fromExecutorService(this.executor);
+		this.upgradeScheduler = Schedulers.fromExecutorService(this.upgradeExecutor);
+	}
+
+	/**
+	 * Gets the low priority {@link Scheduler} intended for upgrading the encoding of
+	 * passwords. It has its own worker and bounded queue, so a backlog of upgrades never
+	 * delays password verification. Disposing this {@link PasswordEncoderScheduler} also
+	 * disposes the upgrade {@link Scheduler}.
+	 * @return the upgrade {@link Scheduler}
+	 */
+	public Scheduler getUpgradeScheduler() {
+		return this.upgradeScheduler;
+	}
+
+	@Override
+	public Disposable schedule(Runnable task) {
+		return this.scheduler.schedule(task);
+	}
+
+	@Override
+	public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+		return this.scheduler.schedule(task, delay, unit);
+	}
+
+	@Override
+	public Disposable schedulePeriodically(Runnable task, long initialDelay, long period, TimeUnit unit) {
+		return this.scheduler.schedulePeriodically(task, initialDelay, period, unit);
+	}
+
+	@Override
+	public Worker createWorker() {
+		return this.scheduler.createWorker();
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return this.scheduler.isDisposed();
+	}
+
+	@Override
+	public void dispose() {
+		this.scheduler.dispose();
+		this.upgradeScheduler.dispose();
+	}
+
+	/**
+	 * The number of password verification tasks currently waiting for a worker.
+	 * @return the queue depth
+	 */
+	public int getQueueSize() {
+		return this.executor.getQueue().size();
+	}
+
+	/**
+	 * The number of workers currently verifying a password.
+	 * @return the number of active workers
+	 */
+	public int getActiveCount() {
+		return this.executor.getActiveCount();
+	}
+
+	/**
+	 * The number of password verification tasks rejected because the queue was full.
+	 * @return the number of rejected tasks
+	 */
+	public long getRejectedCount() {
+		return this.executor.rejected.sum();
+	}
+
+	/**
+	 * The number of password verification tasks that have completed.
+	 * @return the number of completed tasks
+	 */
+	public long getCompletedCount() {
+		return this.executor.completed.sum();
+	}
+
+	/**
+	 * The average time a password verification task waited in the queue before a worker
+	 * picked it up.
+	 * @return the average queue latency
+	 */
+	public Duration getAverageQueueLatency() {
+		return this.executor.averageQueueLatency();
+	}
+
+	/**
+	 * The average time a worker spent running a password verification task.
+	 * @return the average execution latency
+	 */
+	public Duration getAverageExecutionLatency() {
+		return this.executor.averageExecutionLatency();
+	}
+
+	/**
+	 * The number of password upgrade tasks currently waiting for the upgrade worker.
+	 * @return the upgrade queue depth
+	 */
+	public int getUpgradeQueueSize() {
+		return this.upgradeExecutor.getQueue().size();
+	}
+
+	/**
+	 * The number of password upgrade tasks rejected because the upgrade queue was full.
+	 * @return the number of rejected upgrade tasks
+	 */
+	public long getUpgradeRejectedCount() {
+		return this.upgradeExecutor.rejected.sum();
+	}
+
+	private static CustomizableThreadFactory threadFactory(String prefix, int priority) {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix);
+		threadFactory.setDaemon(true);
+		threadFactory.setThreadPriority(priority);
+		return threadFactory;
+	}
+
+	private static final class InstrumentedExecutor extends ThreadPoolExecutor {
+		private final LongAdder rejected = new LongAdder();
+
+		private final LongAdder completed = new LongAdder();
+
+		private final LongAdder queueNanos = new LongAdder();
+
+		private final LongAdder executionNanos = new LongAdder();
+
+		InstrumentedExecutor(int poolSize, int queueCapacity, CustomizableThreadFactory threadFactory) {
+			super(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+					new ArrayBlockingQueue<>(queueCapacity), threadFactory);
+			setRejectedExecutionHandler((task, executor) -> {
+				this.rejected.increment();
+				throw new RejectedExecutionException("Password encoder queue is full");
+			});
+		}
+
+		@Override
+		public void execute(Runnable command) {
+			super.execute(new TimedRunnable(command));
+		}
+
+		Duration averageQueueLatency() {
+			return average(this.queueNanos);
+		}
+
+		Duration averageExecutionLatency() {
+			return average(this.executionNanos);
+		}
+
+		private Duration average(LongAdder nanos) {
+			long count = this.completed.sum();
+			return count == 0 ? Duration.ZERO : Duration.ofNanos(nanos.sum() / count);
+		}
+
+		private final class TimedRunnable implements Runnable {
+			private final Runnable delegate;
+
+			private final long submitted = System.nanoTime();
+
+			private TimedRunnable(Runnable delegate) {
+				this.delegate = delegate;
+			}
+
+			@Override
+			public void run() {
+				long started = System.nanoTime();
+				try {
+					this.delegate.run();
+				}
+				finally {
+					queueNanos.add(started - this.submitted);
+					executionNanos.add(System.nanoTime() - started);
+					completed.increment();
+				}
+			}
+		}
+	}
+}
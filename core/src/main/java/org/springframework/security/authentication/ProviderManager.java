@@ -15,8 +15,11 @@
  */
 package org.springframework.security.authentication;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -78,6 +81,14 @@ import org.springframework.util.Assert;
  * {@code AuthenticationManager} if one has been set. So in this situation, the parent
  * should not generally be configured to publish events or there will be duplicates.
  *
+ * <h2>Provider Lookup Caching</h2>
+ * <p>
+ * When many providers are configured, {@link #setCacheProviderLookups(boolean)
+ * cacheProviderLookups} can be enabled to remember, for each {@code Authentication}
+ * type, which providers support it. Subsequent requests of that type then only visit
+ * the supporting providers, and a parent {@code ProviderManager} is not consulted at
+ * all unless one of its providers supports the type.
+ *
  *
  * @author Ben Alex
  * @author Luke Taylor
@@ -99,6 +110,8 @@ public class ProviderManager implements AuthenticationManager, MessageSourceAwar
 	protected MessageSourceAccessor messages = SpringSecurityMessageSource.getAccessor();
 	private AuthenticationManager parent;
 	private boolean eraseCredentialsAfterAuthentication = true;
+	private boolean cacheProviderLookups;
+	private final Map<Class<? extends Authentication>, List<AuthenticationProvider>> supportingProviders = new ConcurrentHashMap<>();
 
 	public ProviderManager(List<AuthenticationProvider> providers) {
 		this(providers, null);
@@ -161,8 +174,10 @@ public class ProviderManager implements AuthenticationManager, MessageSourceAwar
 		Authentication parentResult = null;
 		boolean debug = logger.isDebugEnabled();
 
-		for (AuthenticationProvider provider : getProviders()) {
-			if (!provider.supports(toTest)) {
+		boolean cached = this.cacheProviderLookups;
+
+		for (AuthenticationProvider provider : cached ? getSupportingProviders(toTest) : getProviders()) {
+			if (!cached && !provider.supports(toTest)) {
 				continue;
 			}
 
@@ -189,7 +204,7 @@ public class ProviderManager implements AuthenticationManager, MessageSourceAwar
 			}
 		}
 
-		if (result == null && parent != null) {
+		if (result == null && parent != null && (!cached || parentSupports(toTest))) {
 			// Allow the parent to try.
 			try {
 				result = parentResult = parent.authenticate(authentication);
@@ -239,6 +254,47 @@ public class ProviderManager implements AuthenticationManager, MessageSourceAwar
 		throw lastException;
 	}
 
+	private List<AuthenticationProvider> getSupportingProviders(Class<? extends Authentication> toTest) {
+		List<AuthenticationProvider> providers = this.supportingProviders.get(toTest);
+		if (providers == null) {
+			providers = new ArrayList<>();
+			for (AuthenticationProvider provider : getProviders()) {
+				if (provider.supports(toTest)) {
+					providers.add(provider);
+				}
+			}
+			providers = providers.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(providers);
+			this.supportingProviders.put(toTest, providers);
+		}
+		return providers;
+	}
+
+	/**
+	 * Determines if any provider of this {@code ProviderManager} or of its parents may
+	 * authenticate the type, so that a parent which is certain to throw a
+	 * {@link ProviderNotFoundException} does not need to be invoked.
+	 */
+	private boolean supports(Class<? extends Authentication> toTest) {
+		if (this.cacheProviderLookups) {
+			if (!getSupportingProviders(toTest).isEmpty()) {
+				return true;
+			}
+		}
+		else {
+			for (AuthenticationProvider provider : getProviders()) {
+				if (provider.supports(toTest)) {
+					return true;
+				}
+			}
+		}
+		return this.parent != null && parentSupports(toTest);
+	}
+
+	private boolean parentSupports(Class<? extends Authentication> toTest) {
+		return !(this.parent instanceof ProviderManager)
+				|| ((ProviderManager) this.parent).supports(toTest);
+	}
+
 	@SuppressWarnings("deprecation")
 	private void prepareException(AuthenticationException ex, Authentication auth) {
 		eventPublisher.publishAuthenticationFailure(ex, auth);
@@ -290,6 +346,23 @@ public class ProviderManager implements AuthenticationManager, MessageSourceAwar
 		return eraseCredentialsAfterAuthentication;
 	}
 
+	/**
+	 * If set to {@literal true}, the providers supporting each {@code Authentication}
+	 * type are determined once and remembered, rather than calling
+	 * {@link AuthenticationProvider#supports(Class)} on every provider for every request.
+	 * A parent {@code ProviderManager} is then only invoked if one of its providers
+	 * supports the type. This requires that the providers do not change and that their
+	 * {@code supports} methods only depend on the type.
+	 *
+	 * @param cacheProviderLookups set to {@literal true} to cache the supporting
+	 * providers. Defaults to {@literal false}.
+	 * @since 5.3
+	 */
+	public void setCacheProviderLookups(boolean cacheProviderLookups) {
+		this.cacheProviderLookups = cacheProviderLookups;
+		this.supportingProviders.clear();
+	}
+
 	private static final class NullEventPublisher implements AuthenticationEventPublisher {
 		public void publishAuthenticationFailure(AuthenticationException exception,
 				Authentication authentication) {
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.authentication.dao;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.Assert;
+
+/**
+ * Upgrades the encoding of passwords in the background, so that logins which trigger an
+ * upgrade (see {@link PasswordEncoder#upgradeEncoding(String)}) do not wait for the
+ * password to be encoded again and stored.
+ *
+ * <p>
+ * Upgrades are queued per username, so repeated logins of the same user only result in
+ * a single upgrade, and are processed in batches by a single task on the
+ * {@link #setExecutor(Executor) executor}. Before a password is stored, the user is
+ * loaded again and the upgrade is discarded if the stored password is no longer the one
+ * that was presented for the upgrade, for example because the user changed the password
+ * in the meantime. If more than the {@link #setMaximumPendingUpgrades(int) maximum number
+ * of upgrades} are pending, further upgrades are dropped and will be requested again on
+ * the user's next login.
+ *
+ * <p>
+ * Note that the presented raw password is kept in memory until the upgrade is processed.
+ *
+ * @author agent
+ * @since 5.3
+ * @see DaoAuthenticationProvider#setAsyncPasswordUpgrader(AsyncPasswordUpgrader)
+ */
+public final class AsyncPasswordUpgrader {
+	private static final Log logger = LogFactory.getLog(AsyncPasswordUpgrader.class);
+
+	private final PasswordEncoder passwordEncoder;
+
+	private final UserDetailsService userDetailsService;
+
+	private final UserDetailsPasswordService userDetailsPasswordService;
+
+	private final Map<String, PendingUpgrade> pending = new ConcurrentHashMap<>();
+
+	private final AtomicBoolean draining = new AtomicBoolean();
+
+	private Executor executor = createDefaultExecutor();
+
+	private int batchSize = 100;
+
+	private int maximumPendingUpgrades = 10_000;
+
+	/**
+	 * Creates a new instance
+	 * @param passwordEncoder the {@link PasswordEncoder} to encode the upgraded passwords
+	 * with
+	 * @param userDetailsService the {@link UserDetailsService} used to verify that the
+	 * password did not change before it is upgraded
+	 * @param userDetailsPasswordService the {@link UserDetailsPasswordService} to store the
+	 * upgraded passwords with
+	 */
+	public AsyncPasswordUpgrader(PasswordEncoder passwordEncoder, UserDetailsService userDetailsService,
+			UserDetailsPasswordService userDetailsPasswordService) {
+		Assert.notNull(passwordEncoder, "passwordEncoder cannot be null");
+		Assert.notNull(userDetailsService, "userDetailsService cannot be null");
+		Assert.notNull(userDetailsPasswordService, "userDetailsPasswordService cannot be null");
+		this.passwordEncoder = passwordEncoder;
+		this.userDetailsService = userDetailsService;
+		this.userDetailsPasswordService = userDetailsPasswordService;
+	}
+
+	/**
+	 * Queues an upgrade of the user's password.
+	 * @param user the authenticated user, with the password that should be upgraded
+	 * @param presentedPassword the raw password the user authenticated with
+	 */
+	public void upgrade(UserDetails user, String presentedPassword) {
+		Assert.notNull(user, "user cannot be null");
+		Assert.notNull(presentedPassword, "presentedPassword cannot be null");
+		Assert.notNull(user.getPassword(), "user password cannot be null");
+		if (this.pending.size() >= this.maximumPendingUpgrades) {
+			logger.debug("Too many pending password upgrades, dropping upgrade for " + user.getUsername());
+			return;
+		}
+		// copy the password now since the user is also the principal, whose credentials
+		// are typically erased before the upgrade is processed
+		this.pending.put(user.getUsername(),
+				new PendingUpgrade(user.getUsername(), user.getPassword(), presentedPassword));
+		scheduleDrain();
+	}
+
+	/**
+	 * The number of upgrades that have been queued but not yet processed
+	 * @return the number of pending upgrades
+	 */
+	public int getPendingUpgrades() {
+		return this.pending.size();
+	}
+
+	/**
+	 * Sets the {@link Executor} to process upgrades on. At most one task is submitted to
+	 * it at any time. The default uses a single thread that is released when idle.
+	 * @param executor the {@link Executor} to use
+	 */
+	public void setExecutor(Executor executor) {
+		Assert.notNull(executor, "executor cannot be null");
+		this.executor = executor;
+	}
+
+	/**
+	 * Sets the maximum number of upgrades processed by a single task before it is
+	 * resubmitted to the executor. The default is 100.
+	 * @param batchSize the batch size
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "batchSize must be greater than 0");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Sets the maximum number of upgrades that may be pending. The default is 10,000.
+	 * @param maximumPendingUpgrades the maximum number of pending upgrades
+	 */
+	public void setMaximumPendingUpgrades(int maximumPendingUpgrades) {
+		Assert.isTrue(maximumPendingUpgrades > 0, "maximumPendingUpgrades must be greater than 0");
+		this.maximumPendingUpgrades = maximumPendingUpgrades;
+	}
+
+	private void scheduleDrain() {
+		if (this.pending.isEmpty() || !this.draining.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			this.executor.execute(this::drain);
+		}
+		catch (RejectedExecutionException rejected) {
+			this.draining.set(false);
+			logger.debug("Unable to schedule password upgrades", rejected);
+		}
+	}
+
+	private void drain() {
+		try {
+			for (PendingUpgrade upgrade : takeBatch()) {
+				process(upgrade);
+			}
+		}
+		finally {
+			this.draining.set(false);
+		}
+		// process the next batch, including upgrades queued while this one was processed
+		scheduleDrain();
+	}
+
+	private List<PendingUpgrade> takeBatch() {
+		List<PendingUpgrade> batch = new ArrayList<>(Math.min(this.batchSize, this.pending.size()));
+		Iterator<Map.Entry<String, PendingUpgrade>> entries = this.pending.entrySet().iterator();
+		while (batch.size() < this.batchSize && entries.hasNext()) {
+			batch.add(entries.next().getValue());
+			entries.remove();
+		}
+		return batch;
+	}
+
+	private void process(PendingUpgrade upgrade) {
+		String username = upgrade.username;
+		try {
+			String newPassword = this.passwordEncoder.encode(upgrade.presentedPassword);
+			UserDetails current = this.userDetailsService.loadUserByUsername(username);
+			if (!upgrade.encodedPassword.equals(current.getPassword())) {
+				logger.debug("Password of " + username + " changed since the upgrade was queued, skipping upgrade");
+				return;
+			}
+			this.userDetailsPasswordService.updatePassword(current, newPassword);
+		}
+		catch (UsernameNotFoundException notFound) {
+			logger.debug("User " + username + " no longer exists, skipping password upgrade");
+		}
+		catch (RuntimeException failed) {
+			logger.warn("Failed to upgrade the password encoding of " + username, failed);
+		}
+	}
+
+	private static Executor createDefaultExecutor() {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-upgrade-");
+		threadFactory.setDaemon(true);
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), threadFactory);
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	private static final class PendingUpgrade {
+		private final String username;
+
+		private final String encodedPassword;
+
+		private final String presentedPassword;
+
+		private PendingUpgrade(String username, String encodedPassword, String presentedPassword) {
+			this.username = username;
+			this.encodedPassword = encodedPassword;
+			this.presentedPassword = presentedPassword;
+		}
+	}
+}
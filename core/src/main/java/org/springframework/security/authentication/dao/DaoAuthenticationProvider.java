@@ -16,6 +16,8 @@
 
 package org.springframework.security.authentication.dao;
 
+import java.util.concurrent.locks.LockSupport;
+
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.InternalAuthenticationServiceException;
@@ -25,6 +27,7 @@ import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.core.userdetails.cache.UnknownUsernameCache;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.core.userdetails.UserDetailsPasswordService;
@@ -66,6 +69,16 @@ public class DaoAuthenticationProvider extends AbstractUserDetailsAuthentication
 
 	private UserDetailsPasswordService userDetailsPasswordService;
 
+	private AsyncPasswordUpgrader asyncPasswordUpgrader;
+
+	private UnknownUsernameCache unknownUsernameCache;
+
+	/**
+	 * The moving average of the time the {@link UserDetailsService} takes, which a hit in
+	 * the {@link UnknownUsernameCache} waits for in place of the lookup
+	 */
+	private volatile long lookupNanos;
+
 	public DaoAuthenticationProvider() {
 		setPasswordEncoder(PasswordEncoderFactories.createDelegatingPasswordEncoder());
 	}
@@ -104,8 +117,13 @@ public class DaoAuthenticationProvider extends AbstractUserDetailsAuthentication
 			UsernamePasswordAuthenticationToken authentication)
 			throws AuthenticationException {
 		prepareTimingAttackProtection();
+		if (this.unknownUsernameCache != null && this.unknownUsernameCache.isUnknown(username)) {
+			mitigateAgainstTimingAttack(authentication);
+			waitForLookupTime();
+			throw new UsernameNotFoundException("User " + username + " was recently not found");
+		}
 		try {
-			UserDetails loadedUser = this.getUserDetailsService().loadUserByUsername(username);
+			UserDetails loadedUser = loadUserByUsername(username);
 			if (loadedUser == null) {
 				throw new InternalAuthenticationServiceException(
 						"UserDetailsService returned null, which is an interface contract violation");
@@ -113,6 +131,9 @@ public class DaoAuthenticationProvider extends AbstractUserDetailsAuthentication
 			return loadedUser;
 		}
 		catch (UsernameNotFoundException ex) {
+			if (this.unknownUsernameCache != null) {
+				this.unknownUsernameCache.putUnknown(username);
+			}
 			mitigateAgainstTimingAttack(authentication);
 			throw ex;
 		}
@@ -127,16 +148,45 @@ public class DaoAuthenticationProvider extends AbstractUserDetailsAuthentication
 	@Override
 	protected Authentication createSuccessAuthentication(Object principal,
 			Authentication authentication, UserDetails user) {
-		boolean upgradeEncoding = this.userDetailsPasswordService != null
+		boolean upgradeEncoding = (this.userDetailsPasswordService != null || this.asyncPasswordUpgrader != null)
 				&& this.passwordEncoder.upgradeEncoding(user.getPassword());
 		if (upgradeEncoding) {
 			String presentedPassword = authentication.getCredentials().toString();
-			String newPassword = this.passwordEncoder.encode(presentedPassword);
-			user = this.userDetailsPasswordService.updatePassword(user, newPassword);
+			if (this.asyncPasswordUpgrader != null) {
+				this.asyncPasswordUpgrader.upgrade(user, presentedPassword);
+			}
+			else {
+				String newPassword = this.passwordEncoder.encode(presentedPassword);
+				user = this.userDetailsPasswordService.updatePassword(user, newPassword);
+			}
 		}
 		return super.createSuccessAuthentication(principal, authentication, user);
 	}
 
+	private UserDetails loadUserByUsername(String username) {
+		long start = System.nanoTime();
+		try {
+			return this.getUserDetailsService().loadUserByUsername(username);
+		}
+		finally {
+			if (this.unknownUsernameCache != null) {
+				long elapsed = System.nanoTime() - start;
+				long average = this.lookupNanos;
+				// benign race, an update lost now and then does not matter for an average
+				this.lookupNanos = average == 0 ? elapsed : average + (elapsed - average) / 8;
+			}
+		}
+	}
+
+	private void waitForLookupTime() {
+		long deadline = System.nanoTime() + this.lookupNanos;
+		long remaining;
+		while ((remaining = deadline - System.nanoTime()) > 0
+				&& !Thread.currentThread().isInterrupted()) {
+			LockSupport.parkNanos(remaining);
+		}
+	}
+
 	private void prepareTimingAttackProtection() {
 		if (this.userNotFoundEncodedPassword == null) {
 			this.userNotFoundEncodedPassword = this.passwordEncoder.encode(USER_NOT_FOUND_PASSWORD);
@@ -179,4 +229,33 @@ public class DaoAuthenticationProvider extends AbstractUserDetailsAuthentication
 			UserDetailsPasswordService userDetailsPasswordService) {
 		this.userDetailsPasswordService = userDetailsPasswordService;
 	}
+
+	/**
+	 * Sets an {@link AsyncPasswordUpgrader} that upgrades password encodings in the
+	 * background. If set, it is used instead of encoding the password and invoking the
+	 * {@link UserDetailsPasswordService} during authentication.
+	 *
+	 * @param asyncPasswordUpgrader the {@link AsyncPasswordUpgrader} to use
+	 * @since 5.3
+	 */
+	public void setAsyncPasswordUpgrader(AsyncPasswordUpgrader asyncPasswordUpgrader) {
+		this.asyncPasswordUpgrader = asyncPasswordUpgrader;
+	}
+
+	/**
+	 * Sets an {@link UnknownUsernameCache} that remembers usernames the
+	 * {@link UserDetailsService} did not find, so that it is not queried again for them
+	 * until the entry expires. For a remembered username, the password is still checked
+	 * against the hash that is prepared for unknown usernames, and instead of the lookup
+	 * the thread waits for as long as lookups in the {@link UserDetailsService} took on
+	 * average. This way a remembered username is not rejected measurably faster than an
+	 * existing one, and only the load on the user store is saved. The default is
+	 * {@code null}, which always queries the {@link UserDetailsService}.
+	 *
+	 * @param unknownUsernameCache the {@link UnknownUsernameCache} to use
+	 * @since 5.3
+	 */
+	public void setUnknownUsernameCache(UnknownUsernameCache unknownUsernameCache) {
+		this.unknownUsernameCache = unknownUsernameCache;
+	}
 }
@@ -18,7 +18,9 @@ package org.springframework.security.concurrent;
 import java.util.concurrent.Callable;
 
 import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.ScopedSecurityContextHolderStrategy;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
 import org.springframework.util.Assert;
 
 /**
@@ -80,6 +82,18 @@ public final class DelegatingSecurityContextCallable<V> implements Callable<V> {
 
 	@Override
 	public V call() throws Exception {
+		SecurityContextHolderStrategy strategy = SecurityContextHolder.getContextHolderStrategy();
+		if (strategy instanceof ScopedSecurityContextHolderStrategy) {
+			ScopedSecurityContextHolderStrategy scopedStrategy = (ScopedSecurityContextHolderStrategy) strategy;
+			SecurityContext previous = scopedStrategy.bindContext(delegateSecurityContext);
+			try {
+				return delegate.call();
+			}
+			finally {
+				scopedStrategy.restoreContext(previous);
+			}
+		}
+
 		this.originalSecurityContext = SecurityContextHolder.getContext();
 
 		try {
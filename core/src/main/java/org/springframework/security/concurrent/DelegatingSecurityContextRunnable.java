@@ -16,7 +16,9 @@
 package org.springframework.security.concurrent;
 
 import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.ScopedSecurityContextHolderStrategy;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
 import org.springframework.util.Assert;
 
 /**
@@ -77,6 +79,19 @@ public final class DelegatingSecurityContextRunnable implements Runnable {
 
 	@Override
 	public void run() {
+		SecurityContextHolderStrategy strategy = SecurityContextHolder.getContextHolderStrategy();
+		if (strategy instanceof ScopedSecurityContextHolderStrategy) {
+			ScopedSecurityContextHolderStrategy scopedStrategy = (ScopedSecurityContextHolderStrategy) strategy;
+			SecurityContext previous = scopedStrategy.bindContext(delegateSecurityContext);
+			try {
+				delegate.run();
+			}
+			finally {
+				scopedStrategy.restoreContext(previous);
+			}
+			return;
+		}
+
 		this.originalSecurityContext = SecurityContextHolder.getContext();
 
 		try {
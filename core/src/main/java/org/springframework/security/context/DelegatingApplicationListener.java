@@ -58,4 +58,19 @@ public final class DelegatingApplicationListener implements
 				"smartApplicationListener cannot be null");
 		listeners.add(smartApplicationListener);
 	}
+
+	/**
+	 * Determines if any of the delegates supports the event type.
+	 *
+	 * @param eventType the event type
+	 * @return true if a delegate supports the event type
+	 */
+	boolean supportsEventType(Class<? extends ApplicationEvent> eventType) {
+		for (SmartApplicationListener listener : listeners) {
+			if (listener.supportsEventType(eventType)) {
+				return true;
+			}
+		}
+		return false;
+	}
 }
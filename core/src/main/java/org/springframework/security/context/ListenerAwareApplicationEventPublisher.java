@@ -0,0 +1,144 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.context;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.GenericApplicationListener;
+import org.springframework.context.event.GenericApplicationListenerAdapter;
+import org.springframework.context.support.AbstractApplicationContext;
+import org.springframework.core.ResolvableType;
+import org.springframework.util.Assert;
+
+/**
+ * An {@link ApplicationEventPublisher} that only publishes an {@link ApplicationEvent}
+ * when an {@link ApplicationListener} of the {@link ApplicationContext} (or one of its
+ * parents) supports its type. Components that publish an event on every request, such as
+ * {@link org.springframework.security.access.intercept.AbstractSecurityInterceptor} and
+ * {@link org.springframework.security.authentication.DefaultAuthenticationEventPublisher},
+ * check {@link #hasListeners(Class)} before they construct the event, so that nothing is
+ * allocated for events nobody listens to.
+ *
+ * <p>
+ * Once the context has been refreshed, an event type is remembered as soon as a listener
+ * is found for it. Event types without listeners are inspected again on every check, so
+ * that listeners added later are always considered. Until the context has been refreshed
+ * every event is published.
+ * </p>
+ *
+ * @author agent
+ * @since 5.3
+ */
+public final class ListenerAwareApplicationEventPublisher implements ApplicationEventPublisher {
+	private final ApplicationEventPublisher delegate;
+
+	private final Set<Class<?>> listenedEventTypes = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Creates a new instance
+	 * @param delegate the {@link ApplicationEventPublisher} to publish events with,
+	 * typically the {@link ApplicationContext}
+	 */
+	public ListenerAwareApplicationEventPublisher(ApplicationEventPublisher delegate) {
+		Assert.notNull(delegate, "delegate cannot be null");
+		this.delegate = delegate;
+	}
+
+	@Override
+	public void publishEvent(Object event) {
+		if (!(event instanceof ApplicationEvent)
+				|| hasListeners(((ApplicationEvent) event).getClass())) {
+			this.delegate.publishEvent(event);
+		}
+	}
+
+	/**
+	 * Determines if an event of the given type would be received by any listener. If the
+	 * listeners cannot be inspected, this returns {@code true}.
+	 * @param eventType the type of the event
+	 * @return false if it is known that no listener supports the event type
+	 */
+	public boolean hasListeners(Class<? extends ApplicationEvent> eventType) {
+		if (this.listenedEventTypes.contains(eventType)) {
+			return true;
+		}
+		if (!isRefreshed()) {
+			return true;
+		}
+		// only positive results are remembered, since listeners may be added at any time
+		if (hasListeners((ApplicationContext) this.delegate, eventType)) {
+			this.listenedEventTypes.add(eventType);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Forgets which event types have listeners, so that the listeners are inspected
+	 * again, for example after listeners have been removed
+	 */
+	public void clearCache() {
+		this.listenedEventTypes.clear();
+	}
+
+	private boolean isRefreshed() {
+		return this.delegate instanceof ConfigurableApplicationContext
+				&& ((ConfigurableApplicationContext) this.delegate).isRunning();
+	}
+
+	private static boolean hasListeners(ApplicationContext context,
+			Class<? extends ApplicationEvent> eventType) {
+		ResolvableType resolvableEventType = ResolvableType.forClass(eventType);
+		for (ApplicationContext current = context; current != null; current = current.getParent()) {
+			if (!(current instanceof AbstractApplicationContext)) {
+				return true;
+			}
+			// contains the listeners registered programmatically or for @EventListener methods
+			for (ApplicationListener<?> listener : ((AbstractApplicationContext) current).getApplicationListeners()) {
+				if (supportsEventType(listener, eventType, resolvableEventType)) {
+					return true;
+				}
+			}
+			for (String beanName : current.getBeanNamesForType(ApplicationListener.class, true, false)) {
+				if (!current.isSingleton(beanName)) {
+					return true;
+				}
+				ApplicationListener<?> listener = current.getBean(beanName, ApplicationListener.class);
+				if (supportsEventType(listener, eventType, resolvableEventType)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static boolean supportsEventType(ApplicationListener<?> listener,
+			Class<? extends ApplicationEvent> eventType, ResolvableType resolvableEventType) {
+		if (listener instanceof DelegatingApplicationListener) {
+			return ((DelegatingApplicationListener) listener).supportsEventType(eventType);
+		}
+		GenericApplicationListener genericListener = listener instanceof GenericApplicationListener ?
+				(GenericApplicationListener) listener : new GenericApplicationListenerAdapter(listener);
+		return genericListener.supportsEventType(resolvableEventType);
+	}
+}
@@ -76,9 +76,52 @@ public abstract class AuthorityUtils {
 		List<GrantedAuthority> grantedAuthorities = new ArrayList<>(authorities.length);
 
 		for (String authority : authorities) {
-			grantedAuthorities.add(new SimpleGrantedAuthority(authority));
+			grantedAuthorities.add(SimpleGrantedAuthorityRegistry.intern(authority));
 		}
 
 		return grantedAuthorities;
 	}
+
+	/**
+	 * Converts authorities into an immutable, compact List of shared
+	 * {@link SimpleGrantedAuthority} instances whose {@code contains} method does not
+	 * need to scan the list.
+	 *
+	 * @param authorities the authorities to convert
+	 * @return an immutable List of GrantedAuthority objects
+	 * @since 5.3
+	 * @see SimpleGrantedAuthorityRegistry
+	 */
+	public static List<GrantedAuthority> createCompactAuthorityList(String... authorities) {
+		GrantedAuthority[] grantedAuthorities = new GrantedAuthority[authorities.length];
+
+		for (int i = 0; i < authorities.length; i++) {
+			grantedAuthorities[i] = SimpleGrantedAuthorityRegistry.intern(authorities[i]);
+		}
+
+		return new CompactAuthorityList(grantedAuthorities);
+	}
+
+	/**
+	 * Copies authorities into an immutable, compact List. {@link SimpleGrantedAuthority}
+	 * instances are replaced by shared instances, other authorities are kept as is.
+	 *
+	 * @param authorities the authorities to copy
+	 * @return an immutable List of GrantedAuthority objects
+	 * @since 5.3
+	 * @see #createCompactAuthorityList(String...)
+	 */
+	public static List<GrantedAuthority> createCompactAuthorityList(
+			Collection<? extends GrantedAuthority> authorities) {
+		Assert.notNull(authorities, "authorities cannot be null");
+		GrantedAuthority[] grantedAuthorities = new GrantedAuthority[authorities.size()];
+		int i = 0;
+
+		for (GrantedAuthority authority : authorities) {
+			grantedAuthorities[i++] = authority instanceof SimpleGrantedAuthority
+					? SimpleGrantedAuthorityRegistry.intern(authority.getAuthority()) : authority;
+		}
+
+		return new CompactAuthorityList(grantedAuthorities);
+	}
 }
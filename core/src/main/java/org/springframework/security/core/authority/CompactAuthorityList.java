@@ -0,0 +1,95 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.authority;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.RandomAccess;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.SpringSecurityCoreVersion;
+
+/**
+ * An immutable {@code List} of {@link GrantedAuthority} backed by an array. If every
+ * element is an interned {@link SimpleGrantedAuthority}, the ordinals of the elements
+ * are also kept as a bitset so that {@link #contains(Object)} does not need to scan the
+ * list. It is serialized as an unmodifiable {@code ArrayList}.
+ *
+ * @author agent
+ * @since 5.3
+ * @see AuthorityUtils#createCompactAuthorityList(String...)
+ */
+final class CompactAuthorityList extends AbstractList<GrantedAuthority>
+		implements RandomAccess, Serializable {
+
+	private static final long serialVersionUID = SpringSecurityCoreVersion.SERIAL_VERSION_UID;
+
+	private final GrantedAuthority[] authorities;
+
+	private final long[] ordinals;
+
+	CompactAuthorityList(GrantedAuthority[] authorities) {
+		this.authorities = authorities;
+		this.ordinals = indexOrdinals(authorities);
+	}
+
+	@Override
+	public GrantedAuthority get(int index) {
+		return this.authorities[index];
+	}
+
+	@Override
+	public int size() {
+		return this.authorities.length;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		if (this.ordinals == null || !(o instanceof SimpleGrantedAuthority)) {
+			return super.contains(o);
+		}
+		int ordinal = SimpleGrantedAuthorityRegistry.ordinal(((SimpleGrantedAuthority) o).getAuthority());
+		return ordinal >= 0 && (ordinal >>> 6) < this.ordinals.length
+				&& (this.ordinals[ordinal >>> 6] & (1L << ordinal)) != 0;
+	}
+
+	private Object writeReplace() {
+		return Collections.unmodifiableList(new ArrayList<>(this));
+	}
+
+	private static long[] indexOrdinals(GrantedAuthority[] authorities) {
+		int[] ordinals = new int[authorities.length];
+		int maximum = -1;
+		for (int i = 0; i < authorities.length; i++) {
+			if (!(authorities[i] instanceof SimpleGrantedAuthority)) {
+				return null;
+			}
+			ordinals[i] = SimpleGrantedAuthorityRegistry.ordinal(authorities[i].getAuthority());
+			if (ordinals[i] < 0) {
+				return null;
+			}
+			maximum = Math.max(maximum, ordinals[i]);
+		}
+		long[] words = new long[(maximum + 64) >>> 6];
+		for (int ordinal : ordinals) {
+			words[ordinal >>> 6] |= 1L << ordinal;
+		}
+		return words;
+	}
+}
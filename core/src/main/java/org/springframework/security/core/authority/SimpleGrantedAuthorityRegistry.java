@@ -0,0 +1,89 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.authority;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.util.Assert;
+
+/**
+ * Interns {@link SimpleGrantedAuthority} instances, so that all users granted the same
+ * authority share a single instance instead of each login allocating its own. Every
+ * interned authority is also assigned an ordinal, which allows collections created by
+ * {@link AuthorityUtils#createCompactAuthorityList(String...)} to answer
+ * {@code contains} with a bit test.
+ *
+ * <p>
+ * Since authorities may be derived from external input (for example the scopes of a
+ * token), at most 4096 distinct authorities are interned. Once that many are known,
+ * {@link #intern(String)} returns new instances for any other authority.
+ *
+ * @author agent
+ * @since 5.3
+ */
+public final class SimpleGrantedAuthorityRegistry {
+	private static final int MAXIMUM_SIZE = 4096;
+
+	private static final Map<String, InternedAuthority> authorities = new ConcurrentHashMap<>();
+
+	private static final AtomicInteger nextOrdinal = new AtomicInteger();
+
+	private SimpleGrantedAuthorityRegistry() {
+	}
+
+	/**
+	 * Obtains the shared {@link SimpleGrantedAuthority} for the authority
+	 * @param authority the textual representation of the authority
+	 * @return the shared {@link SimpleGrantedAuthority}, or a new instance if the
+	 * maximum number of authorities has been interned
+	 */
+	public static SimpleGrantedAuthority intern(String authority) {
+		Assert.hasText(authority, "A granted authority textual representation is required");
+		InternedAuthority interned = authorities.get(authority);
+		if (interned != null) {
+			return interned.authority;
+		}
+		if (authorities.size() >= MAXIMUM_SIZE) {
+			return new SimpleGrantedAuthority(authority);
+		}
+		return authorities.computeIfAbsent(authority, a ->
+				new InternedAuthority(new SimpleGrantedAuthority(a), nextOrdinal.getAndIncrement())).authority;
+	}
+
+	/**
+	 * Obtains the ordinal of an interned authority
+	 * @param authority the textual representation of the authority
+	 * @return the ordinal, or -1 if the authority is not interned
+	 */
+	static int ordinal(String authority) {
+		InternedAuthority interned = authority != null ? authorities.get(authority) : null;
+		return interned != null ? interned.ordinal : -1;
+	}
+
+	private static final class InternedAuthority {
+		private final SimpleGrantedAuthority authority;
+
+		private final int ordinal;
+
+		private InternedAuthority(SimpleGrantedAuthority authority, int ordinal) {
+			this.authority = authority;
+			this.ordinal = ordinal;
+		}
+	}
+}
@@ -0,0 +1,663 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.context;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.ConfigurableObjectInputStream;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthorityRegistry;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Encodes a {@link SecurityContext} into a compact, versioned binary form, for example to
+ * keep the size of replicated sessions down. Compared to Java serialization no class
+ * descriptors are written for {@link SecurityContextImpl},
+ * {@link UsernamePasswordAuthenticationToken}, {@link User}, {@link SimpleGrantedAuthority}
+ * and {@link Instant}, and every string (such as an authority that is both in
+ * the token and in the principal) is written only once.
+ *
+ * <p>
+ * Strings that are part of the dictionary passed to the constructor, typically the names
+ * of the application's authorities, are written as a small index. The codec that
+ * decodes must therefore use the same dictionary, although strings may be appended to
+ * the end of it. Other types are supported by
+ * {@link #registerCodec(int, BinaryTypeCodec) registering} a {@link BinaryTypeCodec}.
+ * Values of any other type are written using Java serialization, so they must be
+ * {@link Serializable}.
+ * </p>
+ *
+ * @author agent
+ * @since 5.3
+ */
+public final class BinarySecurityContextCodec {
+	private static final int MAGIC = 0x53;
+
+	private static final int VERSION = 1;
+
+	private static final int NULL = 0;
+
+	private static final int STRING = 1;
+
+	private static final int SERIALIZED = 2;
+
+	private static final int AUTHORITY = 3;
+
+	private static final int USER = 4;
+
+	private static final int USERNAME_PASSWORD = 5;
+
+	private static final int SECURITY_CONTEXT = 6;
+
+	private static final int INSTANT = 7;
+
+	private static final int FIRST_REGISTERED = 16;
+
+	private final String[] dictionary;
+
+	private final Map<String, Integer> dictionaryIndexes = new HashMap<>();
+
+	private final Map<Class<?>, Registration<?>> registrationsByType = new ConcurrentHashMap<>();
+
+	private final Map<Integer, Registration<?>> registrationsByTag = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a new instance without a dictionary
+	 */
+	public BinarySecurityContextCodec() {
+		this(new ArrayList<>());
+	}
+
+	/**
+	 * Creates a new instance
+	 * @param dictionary the strings to encode as an index, typically the names of the
+	 * authorities of the application
+	 */
+	public BinarySecurityContextCodec(List<String> dictionary) {
+		Assert.notNull(dictionary, "dictionary cannot be null");
+		this.dictionary = dictionary.toArray(new String[0]);
+		for (int i = 0; i < this.dictionary.length; i++) {
+			Assert.notNull(this.dictionary[i], "dictionary cannot contain null");
+			this.dictionaryIndexes.putIfAbsent(this.dictionary[i], i);
+		}
+		register(SECURITY_CONTEXT, new SecurityContextImplCodec());
+		register(USERNAME_PASSWORD, new UsernamePasswordAuthenticationTokenCodec());
+		register(USER, new UserCodec());
+		register(AUTHORITY, new SimpleGrantedAuthorityCodec());
+		register(INSTANT, new InstantCodec());
+	}
+
+	/**
+	 * Registers a {@link BinaryTypeCodec}. The codec that decodes must register the same
+	 * {@link BinaryTypeCodec} with the same id.
+	 * @param id the id to write for values of the codec's type, at least 0
+	 * @param codec the {@link BinaryTypeCodec}
+	 */
+	public void registerCodec(int id, BinaryTypeCodec<?> codec) {
+		Assert.isTrue(id >= 0, "id must be at least 0");
+		Assert.notNull(codec, "codec cannot be null");
+		Assert.isTrue(!this.registrationsByTag.containsKey(FIRST_REGISTERED + id),
+				() -> "A codec is already registered with id " + id);
+		register(FIRST_REGISTERED + id, codec);
+	}
+
+	/**
+	 * Encodes the {@link SecurityContext}
+	 * @param context the {@link SecurityContext} to encode
+	 * @return the encoded {@link SecurityContext}
+	 * @throws IllegalArgumentException if a value cannot be encoded
+	 */
+	public byte[] encode(SecurityContext context) {
+		Assert.notNull(context, "context cannot be null");
+		Output output = new Output();
+		output.buffer.write(MAGIC);
+		output.buffer.write(VERSION);
+		try {
+			output.writeValue(context);
+		}
+		catch (IOException ex) {
+			throw new IllegalArgumentException("Unable to encode " + context, ex);
+		}
+		return output.buffer.toByteArray();
+	}
+
+	/**
+	 * Decodes a {@link SecurityContext} encoded by {@link #encode(SecurityContext)}
+	 * @param encoded the encoded {@link SecurityContext}
+	 * @return the {@link SecurityContext}
+	 * @throws IllegalArgumentException if the bytes are not a {@link SecurityContext}
+	 * encoded by a compatible codec
+	 */
+	public SecurityContext decode(byte[] encoded) {
+		Assert.notNull(encoded, "encoded cannot be null");
+		if (encoded.length < 2 || encoded[0] != MAGIC) {
+			throw new IllegalArgumentException("Not an encoded SecurityContext");
+		}
+		if (encoded[1] != VERSION) {
+			throw new IllegalArgumentException("Unsupported version " + encoded[1]);
+		}
+		Object value;
+		try {
+			value = new Input(encoded).readValue();
+		}
+		catch (IOException | RuntimeException ex) {
+			throw new IllegalArgumentException("Unable to decode the SecurityContext", ex);
+		}
+		if (!(value instanceof SecurityContext)) {
+			throw new IllegalArgumentException("Not an encoded SecurityContext");
+		}
+		return (SecurityContext) value;
+	}
+
+	private void register(int tag, BinaryTypeCodec<?> codec) {
+		Registration<?> registration = new Registration<>(tag, codec);
+		this.registrationsByTag.put(tag, registration);
+		this.registrationsByType.put(codec.getType(), registration);
+	}
+
+	/**
+	 * Writes the values of an encoded {@link SecurityContext}
+	 */
+	public final class Output {
+		private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(128);
+
+		private final Map<String, Integer> strings = new HashMap<>();
+
+		private Output() {
+		}
+
+		/**
+		 * Writes a value of any type, which may be {@code null}
+		 * @param value the value
+		 * @throws IOException if the value cannot be written
+		 */
+		@SuppressWarnings("unchecked")
+		public void writeValue(Object value) throws IOException {
+			if (value == null) {
+				writeInt(NULL);
+				return;
+			}
+			if (value instanceof String) {
+				writeInt(STRING);
+				writeString((String) value);
+				return;
+			}
+			Registration<Object> registration = (Registration<Object>) registrationsByType.get(value.getClass());
+			if (registration != null) {
+				writeInt(registration.tag);
+				registration.codec.write(value, this);
+				return;
+			}
+			if (!(value instanceof Serializable)) {
+				throw new IllegalArgumentException(value.getClass().getName()
+						+ " is neither Serializable nor has a registered BinaryTypeCodec");
+			}
+			ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+			try (ObjectOutputStream objects = new ObjectOutputStream(serialized)) {
+				objects.writeObject(value);
+			}
+			writeInt(SERIALIZED);
+			writeBytes(serialized.toByteArray());
+		}
+
+		/**
+		 * Writes a string, which may be {@code null}
+		 * @param value the string
+		 */
+		public void writeString(String value) {
+			if (value == null) {
+				writeInt(0);
+				return;
+			}
+			// references to the dictionary are even and to earlier strings odd, so that
+			// appending to the dictionary does not change the meaning of either
+			Integer index = dictionaryIndexes.get(value);
+			if (index != null) {
+				writeInt(2 + 2 * index);
+				return;
+			}
+			index = this.strings.get(value);
+			if (index != null) {
+				writeInt(3 + 2 * index);
+				return;
+			}
+			this.strings.put(value, this.strings.size());
+			writeInt(1);
+			writeBytes(value.getBytes(StandardCharsets.UTF_8));
+		}
+
+		/**
+		 * Writes the {@link GrantedAuthority GrantedAuthorities}
+		 * @param authorities the authorities
+		 * @throws IOException if an authority cannot be written
+		 */
+		public void writeAuthorities(Collection<? extends GrantedAuthority> authorities) throws IOException {
+			writeInt(authorities.size());
+			for (GrantedAuthority authority : authorities) {
+				writeValue(authority);
+			}
+		}
+
+		/**
+		 * Writes attributes such as the claims of a token. The values are written with
+		 * {@link #writeValue(Object)}.
+		 * @param attributes the attributes
+		 * @throws IOException if a value cannot be written
+		 */
+		public void writeAttributes(Map<String, ?> attributes) throws IOException {
+			writeInt(attributes.size());
+			for (Map.Entry<String, ?> attribute : attributes.entrySet()) {
+				writeString(attribute.getKey());
+				writeValue(attribute.getValue());
+			}
+		}
+
+		/**
+		 * Writes an {@link Instant}, which may be {@code null}
+		 * @param value the {@link Instant}
+		 */
+		public void writeInstant(Instant value) {
+			writeBoolean(value != null);
+			if (value != null) {
+				writeEpochSecond(value);
+			}
+		}
+
+		/**
+		 * Writes a boolean
+		 * @param value the boolean
+		 */
+		public void writeBoolean(boolean value) {
+			this.buffer.write(value ? 1 : 0);
+		}
+
+		/**
+		 * Writes a non-negative int using as few bytes as possible
+		 * @param value the int, at least 0
+		 */
+		public void writeInt(int value) {
+			Assert.isTrue(value >= 0, "value must be at least 0");
+			writeLong(value);
+		}
+
+		/**
+		 * Writes a non-negative long using as few bytes as possible
+		 * @param value the long, at least 0
+		 */
+		public void writeLong(long value) {
+			Assert.isTrue(value >= 0, "value must be at least 0");
+			while (value > 0x7F) {
+				this.buffer.write((int) (value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			this.buffer.write((int) value);
+		}
+
+		private void writeBytes(byte[] bytes) {
+			writeInt(bytes.length);
+			this.buffer.write(bytes, 0, bytes.length);
+		}
+
+		private void writeEpochSecond(Instant value) {
+			long seconds = value.getEpochSecond();
+			// zigzag encoded, so that instants before the epoch are written as well
+			writeLong((seconds << 1) ^ (seconds >> 63));
+			writeInt(value.getNano());
+		}
+	}
+
+	/**
+	 * Reads the values of an encoded {@link SecurityContext}
+	 */
+	public final class Input {
+		private final byte[] bytes;
+
+		private final List<String> strings = new ArrayList<>();
+
+		private int position = 2;
+
+		private Input(byte[] bytes) {
+			this.bytes = bytes;
+		}
+
+		/**
+		 * Reads a value written by {@link Output#writeValue(Object)}
+		 * @return the value, possibly {@code null}
+		 * @throws IOException if the value cannot be read
+		 */
+		public Object readValue() throws IOException {
+			int tag = readInt();
+			if (tag == NULL) {
+				return null;
+			}
+			if (tag == STRING) {
+				return readString();
+			}
+			if (tag == SERIALIZED) {
+				byte[] serialized = readBytes();
+				try (ObjectInputStream objects = new ConfigurableObjectInputStream(
+						new ByteArrayInputStream(serialized), ClassUtils.getDefaultClassLoader())) {
+					return objects.readObject();
+				}
+				catch (ClassNotFoundException ex) {
+					throw new IOException(ex);
+				}
+			}
+			Registration<?> registration = registrationsByTag.get(tag);
+			if (registration == null) {
+				throw new IOException("No BinaryTypeCodec is registered for tag " + tag);
+			}
+			return registration.codec.read(this);
+		}
+
+		/**
+		 * Reads a string written by {@link Output#writeString(String)}
+		 * @return the string, possibly {@code null}
+		 * @throws IOException if the string cannot be read
+		 */
+		public String readString() throws IOException {
+			int index = readInt();
+			if (index == 0) {
+				return null;
+			}
+			if (index == 1) {
+				String value = new String(readBytes(), StandardCharsets.UTF_8);
+				this.strings.add(value);
+				return value;
+			}
+			int reference = (index - 2) / 2;
+			if (index % 2 == 0) {
+				if (reference >= dictionary.length) {
+					throw new IOException("Unknown dictionary reference " + reference);
+				}
+				return dictionary[reference];
+			}
+			if (reference >= this.strings.size()) {
+				throw new IOException("Unknown string reference " + reference);
+			}
+			return this.strings.get(reference);
+		}
+
+		/**
+		 * Reads the authorities written by {@link Output#writeAuthorities(Collection)}
+		 * @return the authorities
+		 * @throws IOException if an authority cannot be read
+		 */
+		public List<GrantedAuthority> readAuthorities() throws IOException {
+			int size = readInt();
+			List<GrantedAuthority> authorities = new ArrayList<>(Math.min(size, 64));
+			for (int i = 0; i < size; i++) {
+				authorities.add(readValue(GrantedAuthority.class));
+			}
+			return authorities;
+		}
+
+		/**
+		 * Reads a value of the given type
+		 * @param type the expected type
+		 * @param <T> the expected type
+		 * @return the value, possibly {@code null}
+		 * @throws IOException if the value cannot be read or is not of the expected type
+		 */
+		public <T> T readValue(Class<T> type) throws IOException {
+			Object value = readValue();
+			if (value != null && !type.isInstance(value)) {
+				throw new IOException("Expected " + type.getName() + " but got "
+						+ value.getClass().getName());
+			}
+			return type.cast(value);
+		}
+
+		/**
+		 * Reads the attributes written by {@link Output#writeAttributes(Map)}
+		 * @return the attributes, in the order they were written
+		 * @throws IOException if an attribute cannot be read
+		 */
+		public Map<String, Object> readAttributes() throws IOException {
+			int size = readInt();
+			Map<String, Object> attributes = new LinkedHashMap<>(Math.min(size, 64) * 2);
+			for (int i = 0; i < size; i++) {
+				String name = readString();
+				attributes.put(name, readValue());
+			}
+			return attributes;
+		}
+
+		/**
+		 * Reads an {@link Instant} written by {@link Output#writeInstant(Instant)}
+		 * @return the {@link Instant}, possibly {@code null}
+		 * @throws IOException if no {@link Instant} can be read
+		 */
+		public Instant readInstant() throws IOException {
+			return readBoolean() ? readEpochSecond() : null;
+		}
+
+		/**
+		 * Reads a boolean written by {@link Output#writeBoolean(boolean)}
+		 * @return the boolean
+		 * @throws IOException if no boolean can be read
+		 */
+		public boolean readBoolean() throws IOException {
+			return readByte() != 0;
+		}
+
+		/**
+		 * Reads an int written by {@link Output#writeInt(int)}
+		 * @return the int
+		 * @throws IOException if no int can be read
+		 */
+		public int readInt() throws IOException {
+			long value = readLong();
+			if (value > Integer.MAX_VALUE) {
+				throw new IOException("Invalid int " + value);
+			}
+			return (int) value;
+		}
+
+		/**
+		 * Reads a long written by {@link Output#writeLong(long)}
+		 * @return the long
+		 * @throws IOException if no long can be read
+		 */
+		public long readLong() throws IOException {
+			long value = 0;
+			for (int shift = 0; shift < 63; shift += 7) {
+				int b = readByte();
+				value |= (long) (b & 0x7F) << shift;
+				if ((b & 0x80) == 0) {
+					return value;
+				}
+			}
+			throw new IOException("Invalid long");
+		}
+
+		private byte[] readBytes() throws IOException {
+			int length = readInt();
+			if (length > this.bytes.length - this.position) {
+				throw new IOException("Unexpected end of input");
+			}
+			byte[] result = new byte[length];
+			System.arraycopy(this.bytes, this.position, result, 0, length);
+			this.position += length;
+			return result;
+		}
+
+		private Instant readEpochSecond() throws IOException {
+			long zigzag = readLong();
+			int nanos = readInt();
+			try {
+				return Instant.ofEpochSecond((zigzag >>> 1) ^ -(zigzag & 1), nanos);
+			}
+			catch (RuntimeException ex) {
+				throw new IOException("Invalid instant", ex);
+			}
+		}
+
+		private int readByte() throws IOException {
+			if (this.position >= this.bytes.length) {
+				throw new IOException("Unexpected end of input");
+			}
+			return this.bytes[this.position++] & 0xFF;
+		}
+	}
+
+	private static final class Registration<T> {
+		private final int tag;
+
+		private final BinaryTypeCodec<T> codec;
+
+		private Registration(int tag, BinaryTypeCodec<T> codec) {
+			this.tag = tag;
+			this.codec = codec;
+		}
+	}
+
+	private static final class SecurityContextImplCodec implements BinaryTypeCodec<SecurityContextImpl> {
+		@Override
+		public Class<SecurityContextImpl> getType() {
+			return SecurityContextImpl.class;
+		}
+
+		@Override
+		public void write(SecurityContextImpl context, Output output) throws IOException {
+			output.writeValue(context.getAuthentication());
+		}
+
+		@Override
+		public SecurityContextImpl read(Input input) throws IOException {
+			return new SecurityContextImpl(input.readValue(Authentication.class));
+		}
+	}
+
+	private static final class UsernamePasswordAuthenticationTokenCodec
+			implements BinaryTypeCodec<UsernamePasswordAuthenticationToken> {
+		@Override
+		public Class<UsernamePasswordAuthenticationToken> getType() {
+			return UsernamePasswordAuthenticationToken.class;
+		}
+
+		@Override
+		public void write(UsernamePasswordAuthenticationToken token, Output output) throws IOException {
+			output.writeBoolean(token.isAuthenticated());
+			output.writeValue(token.getPrincipal());
+			output.writeValue(token.getCredentials());
+			output.writeAuthorities(token.getAuthorities());
+			output.writeValue(token.getDetails());
+		}
+
+		@Override
+		public UsernamePasswordAuthenticationToken read(Input input) throws IOException {
+			boolean authenticated = input.readBoolean();
+			Object principal = input.readValue();
+			Object credentials = input.readValue();
+			List<GrantedAuthority> authorities = input.readAuthorities();
+			UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(
+					principal, credentials, authorities);
+			if (!authenticated) {
+				token.setAuthenticated(false);
+			}
+			token.setDetails(input.readValue());
+			return token;
+		}
+	}
+
+	private static final class UserCodec implements BinaryTypeCodec<User> {
+		@Override
+		public Class<User> getType() {
+			return User.class;
+		}
+
+		@Override
+		public void write(User user, Output output) throws IOException {
+			output.writeString(user.getUsername());
+			output.writeString(user.getPassword());
+			output.writeInt((user.isEnabled() ? 1 : 0)
+					| (user.isAccountNonExpired() ? 2 : 0)
+					| (user.isCredentialsNonExpired() ? 4 : 0)
+					| (user.isAccountNonLocked() ? 8 : 0));
+			output.writeAuthorities(user.getAuthorities());
+		}
+
+		@Override
+		public User read(Input input) throws IOException {
+			String username = input.readString();
+			String password = input.readString();
+			int flags = input.readInt();
+			List<GrantedAuthority> authorities = input.readAuthorities();
+			User user = new User(username, password == null ? "" : password,
+					(flags & 1) != 0, (flags & 2) != 0, (flags & 4) != 0, (flags & 8) != 0,
+					authorities);
+			if (password == null) {
+				user.eraseCredentials();
+			}
+			return user;
+		}
+	}
+
+	private static final class SimpleGrantedAuthorityCodec implements BinaryTypeCodec<SimpleGrantedAuthority> {
+		@Override
+		public Class<SimpleGrantedAuthority> getType() {
+			return SimpleGrantedAuthority.class;
+		}
+
+		@Override
+		public void write(SimpleGrantedAuthority authority, Output output) {
+			output.writeString(authority.getAuthority());
+		}
+
+		@Override
+		public SimpleGrantedAuthority read(Input input) throws IOException {
+			return SimpleGrantedAuthorityRegistry.intern(input.readString());
+		}
+	}
+
+	private static final class InstantCodec implements BinaryTypeCodec<Instant> {
+		@Override
+		public Class<Instant> getType() {
+			return Instant.class;
+		}
+
+		@Override
+		public void write(Instant instant, Output output) {
+			output.writeEpochSecond(instant);
+		}
+
+		@Override
+		public Instant read(Input input) throws IOException {
+			return input.readEpochSecond();
+		}
+	}
+}
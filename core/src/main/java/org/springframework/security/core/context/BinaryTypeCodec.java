@@ -0,0 +1,54 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.context;
+
+import java.io.IOException;
+
+/**
+ * Writes and reads values of a single type for a {@link BinarySecurityContextCodec}.
+ * Only values whose class is exactly {@link #getType()} are handled, so a subclass is
+ * never silently turned into an instance of its parent.
+ *
+ * @param <T> the type of the values
+ * @author agent
+ * @since 5.3
+ * @see BinarySecurityContextCodec#registerCodec(int, BinaryTypeCodec)
+ */
+public interface BinaryTypeCodec<T> {
+
+	/**
+	 * The type of the values handled by this codec
+	 * @return the type
+	 */
+	Class<T> getType();
+
+	/**
+	 * Writes the value
+	 * @param value the value to write
+	 * @param output the {@link BinarySecurityContextCodec.Output} to write to
+	 * @throws IOException if the value cannot be written
+	 */
+	void write(T value, BinarySecurityContextCodec.Output output) throws IOException;
+
+	/**
+	 * Reads a value written by {@link #write(Object, BinarySecurityContextCodec.Output)}
+	 * @param input the {@link BinarySecurityContextCodec.Input} to read from
+	 * @return the value
+	 * @throws IOException if the value cannot be read
+	 */
+	T read(BinarySecurityContextCodec.Input input) throws IOException;
+}
@@ -27,7 +27,7 @@ import org.springframework.util.Assert;
  * @see java.lang.ThreadLocal
  */
 final class InheritableThreadLocalSecurityContextHolderStrategy implements
-		SecurityContextHolderStrategy {
+		ScopedSecurityContextHolderStrategy {
 	// ~ Static fields/initializers
 	// =====================================================================================
 
@@ -56,6 +56,22 @@ final class InheritableThreadLocalSecurityContextHolderStrategy implements
 		contextHolder.set(context);
 	}
 
+	public SecurityContext bindContext(SecurityContext context) {
+		Assert.notNull(context, "Only non-null SecurityContext instances are permitted");
+		SecurityContext previous = contextHolder.get();
+		contextHolder.set(context);
+		return previous;
+	}
+
+	public void restoreContext(SecurityContext previous) {
+		if (previous == null) {
+			contextHolder.remove();
+		}
+		else {
+			contextHolder.set(previous);
+		}
+	}
+
 	public SecurityContext createEmptyContext() {
 		return new SecurityContextImpl();
 	}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.context;
+
+/**
+ * A {@link SecurityContextHolderStrategy} that can bind a {@link SecurityContext} for the
+ * scope of a single task and afterwards restore exactly what was bound before, without
+ * creating an empty {@link SecurityContext} for a thread that had none.
+ *
+ * <p>
+ * This lets wrappers such as
+ * {@link org.springframework.security.concurrent.DelegatingSecurityContextRunnable} run a
+ * task on a fresh thread (for example one of many short-lived threads started per task)
+ * while leaving nothing behind on it. The {@link SecurityContext} is shared with the
+ * task, not copied.
+ * </p>
+ *
+ * @author agent
+ * @since 5.3
+ */
+public interface ScopedSecurityContextHolderStrategy extends SecurityContextHolderStrategy {
+
+	/**
+	 * Binds the {@link SecurityContext} to the current scope.
+	 *
+	 * @param context the {@link SecurityContext} to bind. Cannot be null.
+	 * @return the {@link SecurityContext} bound before, or {@code null} if there was
+	 * none
+	 */
+	SecurityContext bindContext(SecurityContext context);
+
+	/**
+	 * Restores the {@link SecurityContext} returned by
+	 * {@link #bindContext(SecurityContext)}.
+	 *
+	 * @param previous the {@link SecurityContext} to restore or {@code null} to clear the
+	 * context
+	 */
+	void restoreContext(SecurityContext previous);
+}
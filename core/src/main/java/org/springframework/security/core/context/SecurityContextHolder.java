@@ -43,6 +43,12 @@ import java.lang.reflect.Constructor;
  * is used, the class will default to using {@link #MODE_THREADLOCAL}, which is backwards
  * compatible, has fewer JVM incompatibilities and is appropriate on servers (whereas
  * {@link #MODE_GLOBAL} is definitely inappropriate for server use).
+ * <p>
+ * When many short-lived threads are started per task, {@link #MODE_THREADLOCAL} is also
+ * preferable to {@link #MODE_INHERITABLETHREADLOCAL}, which binds the context to every
+ * thread started from a thread with a context. The wrappers in
+ * {@code org.springframework.security.concurrent} bind the context only for the task they
+ * run, using {@link ScopedSecurityContextHolderStrategy} when the strategy supports it.
  *
  * @author Ben Alex
  *
@@ -28,7 +28,7 @@ import org.springframework.util.Assert;
  * @see org.springframework.security.core.context.web.SecurityContextPersistenceFilter
  */
 final class ThreadLocalSecurityContextHolderStrategy implements
-		SecurityContextHolderStrategy {
+		ScopedSecurityContextHolderStrategy {
 	// ~ Static fields/initializers
 	// =====================================================================================
 
@@ -57,6 +57,22 @@ final class ThreadLocalSecurityContextHolderStrategy implements
 		contextHolder.set(context);
 	}
 
+	public SecurityContext bindContext(SecurityContext context) {
+		Assert.notNull(context, "Only non-null SecurityContext instances are permitted");
+		SecurityContext previous = contextHolder.get();
+		contextHolder.set(context);
+		return previous;
+	}
+
+	public void restoreContext(SecurityContext previous) {
+		if (previous == null) {
+			contextHolder.remove();
+		}
+		else {
+			contextHolder.set(previous);
+		}
+	}
+
 	public SecurityContext createEmptyContext() {
 		return new SecurityContextImpl();
 	}
@@ -15,10 +15,19 @@
  */
 package org.springframework.security.core.token;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.Date;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.security.crypto.codec.Hex;
 import org.springframework.security.crypto.codec.Utf8;
@@ -68,6 +77,23 @@ import org.springframework.util.StringUtils;
  * This implementation uses UTF-8 encoding internally for string manipulation.
  * </p>
  *
+ * <p>
+ * If {@link #setBinaryFormat(boolean) binary format} is enabled, keys are instead
+ * produced as the URL safe Base64 encoding (without padding) of the fixed layout:
+ * </p>
+ *
+ * <p>
+ * version (1 byte) + creationTime (8 bytes) + pseudoRandomNumber length (4 bytes) +
+ * pseudoRandomNumber + UTF-8(extendedInformation) + HmacSHA256(all of the preceding +
+ * (creationTime % serverInteger) (4 bytes))
+ * </p>
+ *
+ * <p>
+ * The HMAC is keyed with the <code>serverSecret</code> and compared in constant time.
+ * Keys in the original format are still verified while binary format is enabled, so
+ * that keys issued before it was enabled remain valid.
+ * </p>
+ *
  * @author Ben Alex
  *
  */
@@ -76,10 +102,21 @@ public class KeyBasedPersistenceTokenService implements TokenService, Initializi
 	private String serverSecret;
 	private Integer serverInteger;
 	private SecureRandom secureRandom;
+	private int secureRandomStripes = 1;
+	private SecureRandom[] secureRandoms;
+	private boolean binaryFormat;
+	private ThreadLocal<Mac> mac;
+
+	private static final byte BINARY_VERSION = 1;
+	private static final int BINARY_HEADER_LENGTH = 1 + 8 + 4;
+	private static final int HMAC_LENGTH = 32;
 
 	public Token allocateToken(String extendedInformation) {
 		Assert.notNull(extendedInformation,
 				"Must provided non-null extendedInformation (but it can be empty)");
+		if (binaryFormat) {
+			return allocateBinaryToken(extendedInformation);
+		}
 		long creationTime = new Date().getTime();
 		String serverSecret = computeServerSecretApplicableAt(creationTime);
 		String pseudoRandomNumber = generatePseudoRandomNumber();
@@ -98,6 +135,12 @@ public class KeyBasedPersistenceTokenService implements TokenService, Initializi
 		if (key == null || "".equals(key)) {
 			return null;
 		}
+		if (binaryFormat) {
+			byte[] decoded = decodeBinaryKey(key);
+			if (decoded != null) {
+				return verifyBinaryToken(key, decoded);
+			}
+		}
 		String[] tokens = StringUtils.delimitedListToStringArray(
 				Utf8.decode(Base64.getDecoder().decode(Utf8.encode(key))), ":");
 		Assert.isTrue(tokens.length >= 4, () -> "Expected 4 or more tokens but found "
@@ -134,15 +177,124 @@ public class KeyBasedPersistenceTokenService implements TokenService, Initializi
 		return new DefaultToken(key, creationTime, extendedInfo.toString());
 	}
 
+	private Token allocateBinaryToken(String extendedInformation) {
+		long creationTime = System.currentTimeMillis();
+		byte[] info = extendedInformation.getBytes(StandardCharsets.UTF_8);
+		int contentLength = BINARY_HEADER_LENGTH + pseudoRandomNumberBytes + info.length;
+		byte[] payload = new byte[contentLength + HMAC_LENGTH];
+		ByteBuffer buffer = ByteBuffer.wrap(payload);
+		buffer.put(BINARY_VERSION);
+		buffer.putLong(creationTime);
+		buffer.putInt(pseudoRandomNumberBytes);
+		byte[] randomBytes = new byte[pseudoRandomNumberBytes];
+		nextSecureRandom().nextBytes(randomBytes);
+		buffer.put(randomBytes);
+		buffer.put(info);
+		buffer.put(computeHmac(payload, contentLength, creationTime));
+		String key = Base64.getUrlEncoder().withoutPadding().encodeToString(payload);
+
+		return new DefaultToken(key, creationTime, extendedInformation);
+	}
+
+	/**
+	 * @return the decoded key or {@code null} if it is not in binary format
+	 */
+	private static byte[] decodeBinaryKey(String key) {
+		byte[] decoded;
+		try {
+			decoded = Base64.getUrlDecoder().decode(key);
+		}
+		catch (IllegalArgumentException ex) {
+			return null;
+		}
+		// keys in the original format start with the ASCII digits of the creation time
+		if (decoded.length == 0 || decoded[0] != BINARY_VERSION) {
+			return null;
+		}
+		return decoded;
+	}
+
+	private Token verifyBinaryToken(String key, byte[] decoded) {
+		Assert.isTrue(decoded.length >= BINARY_HEADER_LENGTH + HMAC_LENGTH,
+				"Key verification failure");
+		ByteBuffer buffer = ByteBuffer.wrap(decoded);
+		buffer.get();
+		long creationTime = buffer.getLong();
+		int randomLength = buffer.getInt();
+		int contentLength = decoded.length - HMAC_LENGTH;
+		Assert.isTrue(randomLength >= 0
+				&& randomLength <= contentLength - BINARY_HEADER_LENGTH,
+				"Key verification failure");
+
+		byte[] expectedHmac = computeHmac(decoded, contentLength, creationTime);
+		byte[] actualHmac = Arrays.copyOfRange(decoded, contentLength, decoded.length);
+		Assert.isTrue(MessageDigest.isEqual(expectedHmac, actualHmac),
+				"Key verification failure");
+
+		int infoOffset = BINARY_HEADER_LENGTH + randomLength;
+		String extendedInfo = new String(decoded, infoOffset, contentLength - infoOffset,
+				StandardCharsets.UTF_8);
+		return new DefaultToken(key, creationTime, extendedInfo);
+	}
+
+	private byte[] computeHmac(byte[] content, int length, long creationTime) {
+		Mac mac = this.mac.get();
+		mac.update(content, 0, length);
+		mac.update(ByteBuffer.allocate(4)
+				.putInt((int) (creationTime % serverInteger)).array());
+		return mac.doFinal();
+	}
+
+	private ThreadLocal<Mac> createMac() {
+		SecretKeySpec key = new SecretKeySpec(Utf8.encode(serverSecret), "HmacSHA256");
+		return ThreadLocal.withInitial(() -> {
+			try {
+				Mac mac = Mac.getInstance("HmacSHA256");
+				mac.init(key);
+				return mac;
+			}
+			catch (GeneralSecurityException ex) {
+				throw new IllegalStateException("Unable to create HmacSHA256", ex);
+			}
+		});
+	}
+
 	/**
 	 * @return a pseduo random number (hex encoded)
 	 */
 	private String generatePseudoRandomNumber() {
 		byte[] randomBytes = new byte[pseudoRandomNumberBytes];
-		secureRandom.nextBytes(randomBytes);
+		nextSecureRandom().nextBytes(randomBytes);
 		return new String(Hex.encode(randomBytes));
 	}
 
+	private SecureRandom nextSecureRandom() {
+		SecureRandom[] secureRandoms = this.secureRandoms;
+		if (secureRandoms == null) {
+			return secureRandom;
+		}
+		return secureRandoms[(int) (Thread.currentThread().getId() % secureRandoms.length)];
+	}
+
+	private void updateSecureRandoms() {
+		if (secureRandom == null || secureRandomStripes == 1) {
+			this.secureRandoms = null;
+			return;
+		}
+		SecureRandom[] secureRandoms = new SecureRandom[secureRandomStripes];
+		secureRandoms[0] = secureRandom;
+		for (int i = 1; i < secureRandoms.length; i++) {
+			try {
+				secureRandoms[i] = SecureRandom.getInstance(secureRandom.getAlgorithm(),
+						secureRandom.getProvider());
+			}
+			catch (NoSuchAlgorithmException ex) {
+				secureRandoms[i] = new SecureRandom();
+			}
+		}
+		this.secureRandoms = secureRandoms;
+	}
+
 	private String computeServerSecretApplicableAt(long time) {
 		return serverSecret + ":" + new Long(time % serverInteger).intValue();
 	}
@@ -153,10 +305,42 @@ public class KeyBasedPersistenceTokenService implements TokenService, Initializi
 	 */
 	public void setServerSecret(String serverSecret) {
 		this.serverSecret = serverSecret;
+		this.mac = StringUtils.hasText(serverSecret) ? createMac() : null;
 	}
 
 	public void setSecureRandom(SecureRandom secureRandom) {
 		this.secureRandom = secureRandom;
+		updateSecureRandoms();
+	}
+
+	/**
+	 * Spreads the generation of pseudo random numbers over a number of
+	 * {@link SecureRandom} instances, selected by thread, to reduce contention when
+	 * tokens are allocated at high volume. The first stripe is the configured
+	 * {@link #setSecureRandom(SecureRandom) secureRandom} and the others are new,
+	 * self-seeded instances of the same algorithm and provider.
+	 *
+	 * @param secureRandomStripes the number of {@link SecureRandom} instances to use
+	 * (must be &gt; 0; defaults to 1)
+	 * @since 5.3
+	 */
+	public void setSecureRandomStripes(int secureRandomStripes) {
+		Assert.isTrue(secureRandomStripes > 0, "secureRandomStripes must be greater than 0");
+		this.secureRandomStripes = secureRandomStripes;
+		updateSecureRandoms();
+	}
+
+	/**
+	 * Allocates keys in the binary format, which is shorter, URL safe and cheaper to
+	 * produce and verify than the original format. Keys in the original format are still
+	 * verified, so enabling it does not invalidate issued keys. Keys in the binary format
+	 * cannot be verified once it is disabled again.
+	 *
+	 * @param binaryFormat true to allocate keys in the binary format (defaults to false)
+	 * @since 5.3
+	 */
+	public void setBinaryFormat(boolean binaryFormat) {
+		this.binaryFormat = binaryFormat;
 	}
 
 	/**
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.userdetails.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+import org.springframework.security.core.userdetails.ReactiveUserDetailsPasswordService;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * A {@link ReactiveUserDetailsService} that caches the users found by another
+ * {@link ReactiveUserDetailsService} in an {@link InMemoryUserCache}, so that for example
+ * {@link org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager}
+ * does not query the user store on every authentication.
+ *
+ * <p>
+ * If refresh ahead is enabled, users are reloaded from the delegate on the refresh
+ * executor, which blocks until the delegate found the user and therefore must not run on
+ * one of Reactor's non-blocking threads.
+ * </p>
+ *
+ * <p>
+ * Password changes made through
+ * {@link #updatePassword(UserDetails, String)} are passed to the delegate if it is a
+ * {@link ReactiveUserDetailsPasswordService}, and the user is removed from the cache so
+ * that the new password is used right away. Other components that change a user should
+ * {@link #removeUserFromCache(String) remove} it from the cache.
+ * </p>
+ *
+ * @author agent
+ * @since 5.3
+ */
+public final class CachingReactiveUserDetailsService
+		implements ReactiveUserDetailsService, ReactiveUserDetailsPasswordService {
+	private final ReactiveUserDetailsService delegate;
+
+	private final InMemoryUserCache userCache;
+
+	/**
+	 * Creates a new instance
+	 * @param delegate the {@link ReactiveUserDetailsService} to find users with
+	 * @param maximumSize the maximum number of cached users
+	 * @param timeToLive the maximum time a user is cached
+	 */
+	public CachingReactiveUserDetailsService(ReactiveUserDetailsService delegate, int maximumSize,
+			Duration timeToLive) {
+		Assert.notNull(delegate, "delegate cannot be null");
+		this.delegate = delegate;
+		this.userCache = new InMemoryUserCache(maximumSize, timeToLive);
+	}
+
+	@Override
+	public Mono<UserDetails> findByUsername(String username) {
+		return Mono.defer(() -> {
+			UserDetails cached = this.userCache.getUserFromCache(username);
+			if (cached != null) {
+				return Mono.just(cached);
+			}
+			return this.delegate.findByUsername(username)
+				.doOnNext(this.userCache::putUserInCache);
+		});
+	}
+
+	/**
+	 * Changes the password using the delegate and removes the user from the cache. If the
+	 * delegate is not a {@link ReactiveUserDetailsPasswordService}, the password cannot
+	 * be changed and the user is returned as is.
+	 * @param user the user to modify the password for
+	 * @param newPassword the password to change to
+	 * @return the updated user
+	 */
+	@Override
+	public Mono<UserDetails> updatePassword(UserDetails user, String newPassword) {
+		if (!(this.delegate instanceof ReactiveUserDetailsPasswordService)) {
+			return Mono.just(user);
+		}
+		return ((ReactiveUserDetailsPasswordService) this.delegate)
+			.updatePassword(user, newPassword)
+			.doFinally(signal -> this.userCache.removeUserFromCache(user.getUsername()));
+	}
+
+	/**
+	 * Removes the user from the cache, so that it is found using the delegate next time
+	 * @param username the username of the user to remove
+	 */
+	public void removeUserFromCache(String username) {
+		this.userCache.removeUserFromCache(username);
+	}
+
+	/**
+	 * Enables refresh ahead. A user that has been cached for longer than
+	 * {@code refreshAfter} is found again using the delegate on the refresh executor the
+	 * next time it is requested, while the cached user is returned immediately. Since the
+	 * reload blocks, the {@link #setRefreshExecutor(Executor) refresh executor} must not
+	 * run tasks on a non-blocking thread, such as those of
+	 * {@link Schedulers#parallel()}.
+	 * @param refreshAfter the time after which a cached user is reloaded, which should be
+	 * shorter than the time to live
+	 * @see InMemoryUserCache#setRefreshAhead(org.springframework.security.core.userdetails.UserDetailsService, Duration)
+	 */
+	public void setRefreshAhead(Duration refreshAfter) {
+		this.userCache.setRefreshAhead(username -> {
+			Assert.state(!Schedulers.isInNonBlockingThread(),
+					() -> "Cannot refresh the user on the non-blocking thread "
+							+ Thread.currentThread().getName()
+							+ ", configure a refresh executor that may block");
+			return this.delegate.findByUsername(username)
+					.switchIfEmpty(Mono.error(new UsernameNotFoundException(username)))
+					.block();
+		}, refreshAfter);
+	}
+
+	/**
+	 * Sets the {@link Executor} used to reload users when refresh ahead is enabled. Since
+	 * reloading blocks, it must not run tasks on a non-blocking thread. A reload that is
+	 * attempted on such a thread fails with an {@link IllegalStateException}, which is
+	 * logged, and the cached user is kept until it expires.
+	 * @param refreshExecutor the {@link Executor} to use
+	 * @see InMemoryUserCache#setRefreshExecutor(Executor)
+	 */
+	public void setRefreshExecutor(Executor refreshExecutor) {
+		Assert.notNull(refreshExecutor, "refreshExecutor cannot be null");
+		this.userCache.setRefreshExecutor(refreshExecutor);
+	}
+
+	/**
+	 * Sets the {@link Clock} used to determine expiration and refresh. The default is
+	 * {@link Clock#systemUTC()}.
+	 * @param clock the {@link Clock} to use
+	 */
+	public void setClock(Clock clock) {
+		this.userCache.setClock(clock);
+	}
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.userdetails.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.util.BoundedExpiringCache;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link UserCache} that keeps a bounded number of {@link UserDetails} in memory for a
+ * limited time without requiring a caching library.
+ *
+ * <p>
+ * Optionally, a {@link #setRefreshAhead(UserDetailsService, Duration) refresh ahead}
+ * time shorter than the time to live can be configured. A user read from the cache after
+ * that time is still returned immediately, but is also reloaded from the
+ * {@link UserDetailsService} in the background, so that frequently used entries are kept
+ * current without a caller ever waiting for the user store.
+ *
+ * @author agent
+ * @since 5.3
+ * @see CachingReactiveUserDetailsService
+ */
+public final class InMemoryUserCache implements UserCache {
+	private static final Log logger = LogFactory.getLog(InMemoryUserCache.class);
+
+	private static final int DEFAULT_REFRESH_THREADS = 2;
+
+	private static final int DEFAULT_REFRESH_QUEUE_CAPACITY = 100;
+
+	private final BoundedExpiringCache<String, CachedUser> cache;
+
+	private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+	private Clock clock = Clock.systemUTC();
+
+	private UserDetailsService userDetailsService;
+
+	private Duration refreshAfter;
+
+	private Executor refreshExecutor = createDefaultRefreshExecutor();
+
+	/**
+	 * Creates a new instance
+	 * @param maximumSize the maximum number of cached users
+	 * @param timeToLive the maximum time a user is cached
+	 */
+	public InMemoryUserCache(int maximumSize, Duration timeToLive) {
+		this.cache = new BoundedExpiringCache<>(maximumSize, timeToLive);
+	}
+
+	@Override
+	public UserDetails getUserFromCache(String username) {
+		CachedUser cached = username != null ? this.cache.get(username) : null;
+
+		if (logger.isDebugEnabled()) {
+			logger.debug("Cache hit: " + (cached != null) + "; username: " + username);
+		}
+
+		if (cached == null) {
+			return null;
+		}
+		if (this.userDetailsService != null && this.clock.millis() >= cached.refreshAt) {
+			refresh(username);
+		}
+		return cached.user;
+	}
+
+	@Override
+	public void putUserInCache(UserDetails user) {
+		if (logger.isDebugEnabled()) {
+			logger.debug("Cache put: " + user.getUsername());
+		}
+		long refreshAt = this.refreshAfter == null ? Long.MAX_VALUE
+				: this.clock.millis() + this.refreshAfter.toMillis();
+		this.cache.put(user.getUsername(), new CachedUser(user, refreshAt));
+	}
+
+	@Override
+	public void removeUserFromCache(String username) {
+		if (logger.isDebugEnabled()) {
+			logger.debug("Cache remove: " + username);
+		}
+		this.cache.remove(username);
+	}
+
+	/**
+	 * Enables refresh ahead. A user that has been cached for longer than
+	 * {@code refreshAfter} is reloaded from the {@link UserDetailsService} on the
+	 * {@link #setRefreshExecutor(Executor) refresh executor} the next time it is read
+	 * from the cache. If the user no longer exists it is removed from the cache, and if
+	 * the reload fails the cached user is kept until it expires.
+	 * @param userDetailsService the {@link UserDetailsService} to reload users from
+	 * @param refreshAfter the time after which a cached user is reloaded, which should be
+	 * shorter than the time to live
+	 */
+	public void setRefreshAhead(UserDetailsService userDetailsService, Duration refreshAfter) {
+		Assert.notNull(userDetailsService, "userDetailsService cannot be null");
+		Assert.notNull(refreshAfter, "refreshAfter cannot be null");
+		Assert.isTrue(!refreshAfter.isNegative(), "refreshAfter cannot be negative");
+		this.userDetailsService = userDetailsService;
+		this.refreshAfter = refreshAfter;
+	}
+
+	/**
+	 * Sets the {@link Executor} used to reload users when refresh ahead is enabled. The
+	 * default uses at most two daemon threads and queues at most 100 reloads. A reload
+	 * the {@link Executor} rejects is skipped, and the cached user is reloaded on a later
+	 * read. At most one reload per user is in progress at any time.
+	 * @param refreshExecutor the {@link Executor} to use
+	 */
+	public void setRefreshExecutor(Executor refreshExecutor) {
+		Assert.notNull(refreshExecutor, "refreshExecutor cannot be null");
+		this.refreshExecutor = refreshExecutor;
+	}
+
+	/**
+	 * Sets the {@link Clock} used to determine expiration and refresh. The default is
+	 * {@link Clock#systemUTC()}.
+	 * @param clock the {@link Clock} to use
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "clock cannot be null");
+		this.clock = clock;
+		this.cache.setClock(clock);
+	}
+
+	private static Executor createDefaultRefreshExecutor() {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(
+				"user-cache-refresh-");
+		threadFactory.setDaemon(true);
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(DEFAULT_REFRESH_THREADS,
+				DEFAULT_REFRESH_THREADS, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(DEFAULT_REFRESH_QUEUE_CAPACITY), threadFactory);
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	private void refresh(String username) {
+		if (!this.refreshing.add(username)) {
+			return;
+		}
+		try {
+			this.refreshExecutor.execute(() -> {
+				try {
+					putUserInCache(this.userDetailsService.loadUserByUsername(username));
+				}
+				catch (UsernameNotFoundException notFound) {
+					removeUserFromCache(username);
+				}
+				catch (RuntimeException failed) {
+					logger.debug("Failed to refresh cached user " + username, failed);
+				}
+				finally {
+					this.refreshing.remove(username);
+				}
+			});
+		}
+		catch (RejectedExecutionException rejected) {
+			this.refreshing.remove(username);
+			logger.debug("Unable to schedule refresh of cached user " + username, rejected);
+		}
+	}
+
+	private static final class CachedUser {
+		private final UserDetails user;
+
+		private final long refreshAt;
+
+		private CachedUser(UserDetails user, long refreshAt) {
+			this.user = user;
+			this.refreshAt = refreshAt;
+		}
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.userdetails.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import org.springframework.security.util.BoundedExpiringCache;
+
+/**
+ * Remembers for a short time the usernames a
+ * {@link org.springframework.security.core.userdetails.UserDetailsService} reported as not
+ * found, so that repeated attempts for unknown usernames, such as during an enumeration
+ * attack, do not query the user store every time.
+ *
+ * <p>
+ * The number of usernames is bounded, and a username is forgotten once the time to live
+ * elapsed or when it is {@link #remove(String) removed}. The
+ * {@link org.springframework.security.provisioning.JdbcUserDetailsManager} and
+ * {@link org.springframework.security.provisioning.InMemoryUserDetailsManager} remove a
+ * username when they create the user, if the cache is set on them. A user created in any
+ * other way cannot authenticate until the time to live elapsed.
+ * </p>
+ *
+ * @author agent
+ * @since 5.3
+ * @see org.springframework.security.authentication.dao.DaoAuthenticationProvider#setUnknownUsernameCache(UnknownUsernameCache)
+ */
+public final class UnknownUsernameCache {
+	private final BoundedExpiringCache<String, Boolean> usernames;
+
+	/**
+	 * Creates a new instance
+	 * @param maximumSize the maximum number of usernames to remember
+	 * @param timeToLive the maximum time a username is remembered
+	 */
+	public UnknownUsernameCache(int maximumSize, Duration timeToLive) {
+		this.usernames = new BoundedExpiringCache<>(maximumSize, timeToLive);
+	}
+
+	/**
+	 * Determines if the username was recently reported as not found
+	 * @param username the username
+	 * @return true if the username is known not to exist
+	 */
+	public boolean isUnknown(String username) {
+		return username != null && this.usernames.get(username) != null;
+	}
+
+	/**
+	 * Remembers that the username was not found
+	 * @param username the username
+	 */
+	public void putUnknown(String username) {
+		if (username != null) {
+			this.usernames.put(username, Boolean.TRUE);
+		}
+	}
+
+	/**
+	 * Forgets that the username was not found, typically because the user was created
+	 * @param username the username
+	 */
+	public void remove(String username) {
+		if (username != null) {
+			this.usernames.remove(username);
+		}
+	}
+
+	/**
+	 * Sets the {@link Clock} used to determine expiration. The default is
+	 * {@link Clock#systemUTC()}.
+	 * @param clock the {@link Clock} to use
+	 */
+	public void setClock(Clock clock) {
+		this.usernames.setClock(clock);
+	}
+}
@@ -16,20 +16,27 @@
 
 package org.springframework.security.core.userdetails.jdbc;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.springframework.context.ApplicationContextException;
 import org.springframework.context.MessageSource;
 import org.springframework.context.MessageSourceAware;
 import org.springframework.context.support.MessageSourceAccessor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.core.support.JdbcDaoSupport;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.SpringSecurityMessageSource;
 import org.springframework.security.core.authority.AuthorityUtils;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthorityRegistry;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -103,6 +110,21 @@ import org.springframework.util.Assert;
  * this by setting the <tt>groupAuthoritiesByUsernameQuery</tt> property, but the format
  * of the rows returned should match the default.
  *
+ * <h3>Single Query Loading</h3> By default a user is loaded with up to three queries. If
+ * the <tt>usersWithAuthoritiesByUsernameQuery</tt> property is set, the user and all of
+ * its authorities are instead loaded with that single query, which returns one row per
+ * authority with the columns username, password, enabled and authority (see
+ * {@link #DEF_USERS_WITH_AUTHORITIES_BY_USERNAME_QUERY} and
+ * {@link #DEF_USERS_WITH_GROUP_AUTHORITIES_BY_USERNAME_QUERY}). The authority column is
+ * {@code null} for a user without authorities. Optionally, the columns acc_locked,
+ * acc_expired and creds_expired may follow. The <tt>enableAuthorities</tt> and
+ * <tt>enableGroups</tt> properties are not used in this mode, since the query determines
+ * which authorities are loaded.
+ * <p>
+ * Similarly, if the <tt>usersWithAuthoritiesByUsernamesQuery</tt> property is set,
+ * {@link #loadUsersByUsernames(Collection)} loads many users at once, for example to warm
+ * a {@link org.springframework.security.core.userdetails.UserCache UserCache}.
+ *
  * @author Ben Alex
  * @author colin sampaleanu
  * @author Luke Taylor
@@ -120,6 +142,26 @@ public class JdbcDaoImpl extends JdbcDaoSupport
 			+ "from groups g, group_members gm, group_authorities ga "
 			+ "where gm.username = ? " + "and g.id = ga.group_id "
 			+ "and g.id = gm.group_id";
+	public static final String DEF_USERS_WITH_AUTHORITIES_BY_USERNAME_QUERY = "select u.username,u.password,u.enabled,a.authority "
+			+ "from users u left outer join authorities a on a.username = u.username "
+			+ "where u.username = ?";
+	public static final String DEF_USERS_WITH_AUTHORITIES_BY_USERNAMES_QUERY = "select u.username,u.password,u.enabled,a.authority "
+			+ "from users u left outer join authorities a on a.username = u.username "
+			+ "where u.username in (:usernames)";
+	public static final String DEF_USERS_WITH_GROUP_AUTHORITIES_BY_USERNAME_QUERY = "select u.username,u.password,u.enabled,ua.authority "
+			+ "from users u left outer join ("
+			+ "select a.username, a.authority from authorities a union all "
+			+ "select gm.username, ga.authority from group_members gm, group_authorities ga where ga.group_id = gm.group_id"
+			+ ") ua on ua.username = u.username "
+			+ "where u.username = ?";
+	public static final String DEF_USERS_WITH_GROUP_AUTHORITIES_BY_USERNAMES_QUERY = "select u.username,u.password,u.enabled,ua.authority "
+			+ "from users u left outer join ("
+			+ "select a.username, a.authority from authorities a union all "
+			+ "select gm.username, ga.authority from group_members gm, group_authorities ga where ga.group_id = gm.group_id"
+			+ ") ua on ua.username = u.username "
+			+ "where u.username in (:usernames)";
+
+	private static final int USERNAMES_BATCH_SIZE = 500;
 
 	// ~ Instance fields
 	// ================================================================================================
@@ -129,6 +171,8 @@ public class JdbcDaoImpl extends JdbcDaoSupport
 	private String authoritiesByUsernameQuery;
 	private String groupAuthoritiesByUsernameQuery;
 	private String usersByUsernameQuery;
+	private String usersWithAuthoritiesByUsernameQuery;
+	private String usersWithAuthoritiesByUsernamesQuery;
 	private String rolePrefix = "";
 	private boolean usernameBasedPrimaryKey = true;
 	private boolean enableAuthorities = true;
@@ -178,6 +222,10 @@ public class JdbcDaoImpl extends JdbcDaoSupport
 	@Override
 	public UserDetails loadUserByUsername(String username)
 			throws UsernameNotFoundException {
+		if (this.usersWithAuthoritiesByUsernameQuery != null) {
+			return loadUserWithAuthorities(username);
+		}
+
 		List<UserDetails> users = loadUsersByUsername(username);
 
 		if (users.size() == 0) {
@@ -216,6 +264,101 @@ public class JdbcDaoImpl extends JdbcDaoSupport
 		return createUserDetails(username, user, dbAuths);
 	}
 
+	/**
+	 * Loads the users with the given usernames and their authorities by executing the
+	 * SQL <tt>usersWithAuthoritiesByUsernamesQuery</tt>, in batches if there are many
+	 * usernames. Users that do not exist or have no authorities are omitted, as
+	 * {@link #loadUserByUsername(String)} would treat them as not found.
+	 *
+	 * @param usernames the usernames of the users to load
+	 * @return the users, keyed by the username returned from the database
+	 * @since 5.3
+	 */
+	public Map<String, UserDetails> loadUsersByUsernames(Collection<String> usernames) {
+		Assert.notNull(usernames, "usernames cannot be null");
+		Assert.state(this.usersWithAuthoritiesByUsernamesQuery != null,
+				"usersWithAuthoritiesByUsernamesQuery must be set to load users in batches");
+		NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(getJdbcTemplate());
+		List<String> remaining = new ArrayList<>(usernames);
+		Map<String, UserDetails> result = new LinkedHashMap<>();
+
+		for (int i = 0; i < remaining.size(); i += USERNAMES_BATCH_SIZE) {
+			List<String> batch = remaining.subList(i, Math.min(i + USERNAMES_BATCH_SIZE, remaining.size()));
+			Map<String, UserWithAuthorities> users = jdbcTemplate.query(
+					this.usersWithAuthoritiesByUsernamesQuery,
+					Collections.singletonMap("usernames", batch), this::extractUsersWithAuthorities);
+			for (Map.Entry<String, UserWithAuthorities> entry : users.entrySet()) {
+				UserDetails user = createUserDetails(entry.getKey(), entry.getValue());
+				if (user != null) {
+					result.put(entry.getKey(), user);
+				}
+			}
+		}
+
+		return result;
+	}
+
+	private UserDetails loadUserWithAuthorities(String username) {
+		Map<String, UserWithAuthorities> users = getJdbcTemplate().query(
+				this.usersWithAuthoritiesByUsernameQuery, new String[] { username },
+				this::extractUsersWithAuthorities);
+
+		if (users.isEmpty()) {
+			this.logger.debug("Query returned no results for user '" + username + "'");
+
+			throw new UsernameNotFoundException(
+					this.messages.getMessage("JdbcDaoImpl.notFound",
+							new Object[] { username }, "Username {0} not found"));
+		}
+
+		UserDetails user = createUserDetails(username, users.values().iterator().next());
+
+		if (user == null) {
+			this.logger.debug("User '" + username
+					+ "' has no authorities and will be treated as 'not found'");
+
+			throw new UsernameNotFoundException(this.messages.getMessage(
+					"JdbcDaoImpl.noAuthority", new Object[] { username },
+					"User {0} has no GrantedAuthority"));
+		}
+
+		return user;
+	}
+
+	private UserDetails createUserDetails(String username, UserWithAuthorities user) {
+		List<GrantedAuthority> dbAuths = new ArrayList<>(user.authorities);
+
+		addCustomAuthorities(user.user.getUsername(), dbAuths);
+
+		return dbAuths.isEmpty() ? null : createUserDetails(username, user.user, dbAuths);
+	}
+
+	private Map<String, UserWithAuthorities> extractUsersWithAuthorities(ResultSet rs) throws SQLException {
+		Map<String, UserWithAuthorities> users = new LinkedHashMap<>();
+		boolean accountStatusColumns = rs.getMetaData().getColumnCount() > 4;
+
+		while (rs.next()) {
+			String username = rs.getString(1);
+			UserWithAuthorities user = users.get(username);
+			if (user == null) {
+				String password = rs.getString(2);
+				boolean enabled = rs.getBoolean(3);
+				boolean accLocked = accountStatusColumns && rs.getBoolean(5);
+				boolean accExpired = accountStatusColumns && rs.getBoolean(6);
+				boolean credsExpired = accountStatusColumns && rs.getBoolean(7);
+				user = new UserWithAuthorities(new User(username, password, enabled, !accExpired,
+						!credsExpired, !accLocked, AuthorityUtils.NO_AUTHORITIES));
+				users.put(username, user);
+			}
+			String authority = rs.getString(4);
+			if (authority != null) {
+				user.authorities.add(SimpleGrantedAuthorityRegistry.intern(getRolePrefix() + authority));
+			}
+		}
+
+		return users;
+	}
+
 	/**
 	 * Executes the SQL <tt>usersByUsernameQuery</tt> and returns a list of UserDetails
 	 * objects. There should normally only be one matching user.
@@ -241,7 +384,7 @@ public class JdbcDaoImpl extends JdbcDaoSupport
 				new String[] { username }, (rs, rowNum) -> {
 					String roleName = JdbcDaoImpl.this.rolePrefix + rs.getString(2);
 
-					return new SimpleGrantedAuthority(roleName);
+					return SimpleGrantedAuthorityRegistry.intern(roleName);
 				});
 	}
 
@@ -256,7 +399,7 @@ public class JdbcDaoImpl extends JdbcDaoSupport
 				new String[] { username }, (rs, rowNum) -> {
 					String roleName = getRolePrefix() + rs.getString(3);
 
-					return new SimpleGrantedAuthority(roleName);
+					return SimpleGrantedAuthorityRegistry.intern(roleName);
 				});
 	}
 
@@ -369,6 +512,40 @@ public class JdbcDaoImpl extends JdbcDaoSupport
 		this.usersByUsernameQuery = usersByUsernameQueryString;
 	}
 
+	/**
+	 * Sets the query used to load a user and all of its authorities at once. If set, it is
+	 * used by {@link #loadUserByUsername(String)} instead of the
+	 * <tt>usersByUsernameQuery</tt>, <tt>authoritiesByUsernameQuery</tt> and
+	 * <tt>groupAuthoritiesByUsernameQuery</tt>. The query has a single parameter for the
+	 * username and must return one row per authority with the columns described in the
+	 * class documentation, for example
+	 * {@link #DEF_USERS_WITH_AUTHORITIES_BY_USERNAME_QUERY} or
+	 * {@link #DEF_USERS_WITH_GROUP_AUTHORITIES_BY_USERNAME_QUERY}. Defaults to
+	 * {@code null}.
+	 *
+	 * @param usersWithAuthoritiesByUsernameQuery the query to use, or {@code null} to
+	 * load users with separate queries
+	 * @since 5.3
+	 */
+	public void setUsersWithAuthoritiesByUsernameQuery(String usersWithAuthoritiesByUsernameQuery) {
+		this.usersWithAuthoritiesByUsernameQuery = usersWithAuthoritiesByUsernameQuery;
+	}
+
+	/**
+	 * Sets the query used by {@link #loadUsersByUsernames(Collection)}. It has the same
+	 * format as the <tt>usersWithAuthoritiesByUsernameQuery</tt>, but selects the users
+	 * whose usernames are in the named parameter <tt>:usernames</tt>, for example
+	 * {@link #DEF_USERS_WITH_AUTHORITIES_BY_USERNAMES_QUERY} or
+	 * {@link #DEF_USERS_WITH_GROUP_AUTHORITIES_BY_USERNAMES_QUERY}. Defaults to
+	 * {@code null}.
+	 *
+	 * @param usersWithAuthoritiesByUsernamesQuery the query to use
+	 * @since 5.3
+	 */
+	public void setUsersWithAuthoritiesByUsernamesQuery(String usersWithAuthoritiesByUsernamesQuery) {
+		this.usersWithAuthoritiesByUsernamesQuery = usersWithAuthoritiesByUsernamesQuery;
+	}
+
 	protected boolean getEnableAuthorities() {
 		return this.enableAuthorities;
 	}
@@ -397,4 +574,13 @@ public class JdbcDaoImpl extends JdbcDaoSupport
 		Assert.notNull(messageSource, "messageSource cannot be null");
 		this.messages = new MessageSourceAccessor(messageSource);
 	}
+
+	private static final class UserWithAuthorities {
+		private final UserDetails user;
+		private final Set<GrantedAuthority> authorities = new HashSet<>();
+
+		private UserWithAuthorities(UserDetails user) {
+			this.user = user;
+		}
+	}
 }
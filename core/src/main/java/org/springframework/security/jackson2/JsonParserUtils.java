@@ -0,0 +1,54 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.jackson2;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Reads the scalar values of the streaming deserializers in this package, skipping
+ * values of an unexpected type.
+ *
+ * @author agent
+ * @since 5.3
+ */
+final class JsonParserUtils {
+
+	private JsonParserUtils() {
+	}
+
+	static boolean readBoolean(JsonParser jp, JsonToken t) throws IOException {
+		if (t == JsonToken.VALUE_STRING) {
+			return "true".equals(jp.getText().trim());
+		}
+		if (t == JsonToken.VALUE_NUMBER_INT) {
+			return jp.getLongValue() != 0;
+		}
+		jp.skipChildren();
+		return t == JsonToken.VALUE_TRUE;
+	}
+
+	static String readText(JsonParser jp, JsonToken t) throws IOException {
+		if (t.isScalarValue()) {
+			return jp.getText();
+		}
+		jp.skipChildren();
+		return "";
+	}
+}
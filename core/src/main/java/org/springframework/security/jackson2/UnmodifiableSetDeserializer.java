@@ -18,11 +18,9 @@ package org.springframework.security.jackson2;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
 
 import java.io.IOException;
 import java.util.Collections;
@@ -40,19 +38,19 @@ class UnmodifiableSetDeserializer extends JsonDeserializer<Set> {
 
 	@Override
 	public Set deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException, JsonProcessingException {
-		ObjectMapper mapper = (ObjectMapper) jp.getCodec();
-		JsonNode node = mapper.readTree(jp);
 		Set<Object> resultSet = new HashSet<>();
-		if (node != null) {
-			if (node instanceof ArrayNode) {
-				ArrayNode arrayNode = (ArrayNode) node;
-				for (JsonNode elementNode : arrayNode) {
-					resultSet.add(mapper.readValue(elementNode.traverse(mapper), Object.class));
-				}
-			} else {
-				resultSet.add(mapper.readValue(node.traverse(mapper), Object.class));
+		JsonToken t = jp.currentToken();
+		if (t == JsonToken.START_ARRAY) {
+			for (t = jp.nextToken(); t != JsonToken.END_ARRAY; t = jp.nextToken()) {
+				resultSet.add(readElement(jp, ctxt, t));
 			}
+		} else {
+			resultSet.add(readElement(jp, ctxt, t));
 		}
 		return Collections.unmodifiableSet(resultSet);
 	}
+
+	private Object readElement(JsonParser jp, DeserializationContext ctxt, JsonToken t) throws IOException {
+		return t == JsonToken.VALUE_NULL ? null : ctxt.readValue(jp, Object.class);
+	}
 }
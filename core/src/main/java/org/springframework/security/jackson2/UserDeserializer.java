@@ -18,12 +18,10 @@ package org.springframework.security.jackson2;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.MissingNode;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
@@ -33,7 +31,8 @@ import java.util.Set;
 
 /**
  * Custom Deserializer for {@link User} class. This is already registered with {@link UserMixin}.
- * You can also use it directly with your mixin class.
+ * You can also use it directly with your mixin class. The fields are read as they are
+ * streamed, without building a tree of the whole user first.
  *
  * @author Jitendra Singh
  * @see UserMixin
@@ -54,28 +53,52 @@ class UserDeserializer extends JsonDeserializer<User> {
 	 */
 	@Override
 	public User deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException, JsonProcessingException {
-		ObjectMapper mapper = (ObjectMapper) jp.getCodec();
-		JsonNode jsonNode = mapper.readTree(jp);
-		Set<? extends GrantedAuthority> authorities =
-				mapper.convertValue(
-						jsonNode.get("authorities"),
-						new TypeReference<Set<SimpleGrantedAuthority>>() {}
-				);
-		JsonNode password = readJsonNode(jsonNode, "password");
-		User result =  new User(
-				readJsonNode(jsonNode, "username").asText(), password.asText(""),
-				readJsonNode(jsonNode, "enabled").asBoolean(), readJsonNode(jsonNode, "accountNonExpired").asBoolean(),
-				readJsonNode(jsonNode, "credentialsNonExpired").asBoolean(),
-				readJsonNode(jsonNode, "accountNonLocked").asBoolean(), authorities
-		);
+		Set<? extends GrantedAuthority> authorities = null;
+		String username = "";
+		String password = null;
+		boolean enabled = false;
+		boolean accountNonExpired = false;
+		boolean credentialsNonExpired = false;
+		boolean accountNonLocked = false;
+		JsonToken t = jp.currentToken();
+		if (t == JsonToken.START_OBJECT) {
+			t = jp.nextToken();
+		}
+		for (; t == JsonToken.FIELD_NAME; t = jp.nextToken()) {
+			String field = jp.getCurrentName();
+			t = jp.nextToken();
+			if ("username".equals(field)) {
+				username = JsonParserUtils.readText(jp, t);
+			}
+			else if ("password".equals(field)) {
+				password = t == JsonToken.VALUE_NULL ? null : JsonParserUtils.readText(jp, t);
+			}
+			else if ("enabled".equals(field)) {
+				enabled = JsonParserUtils.readBoolean(jp, t);
+			}
+			else if ("accountNonExpired".equals(field)) {
+				accountNonExpired = JsonParserUtils.readBoolean(jp, t);
+			}
+			else if ("credentialsNonExpired".equals(field)) {
+				credentialsNonExpired = JsonParserUtils.readBoolean(jp, t);
+			}
+			else if ("accountNonLocked".equals(field)) {
+				accountNonLocked = JsonParserUtils.readBoolean(jp, t);
+			}
+			else if ("authorities".equals(field)) {
+				JavaType type = ctxt.getTypeFactory().constructCollectionType(Set.class, SimpleGrantedAuthority.class);
+				authorities = t == JsonToken.VALUE_NULL ? null : ctxt.readValue(jp, type);
+			}
+			else {
+				jp.skipChildren();
+			}
+		}
+		User result = new User(username, password == null ? "" : password, enabled, accountNonExpired,
+				credentialsNonExpired, accountNonLocked, authorities);
 
-		if (password.asText(null) == null) {
+		if (password == null) {
 			result.eraseCredentials();
 		}
 		return result;
 	}
-
-	private JsonNode readJsonNode(JsonNode jsonNode, String field) {
-		return jsonNode.has(field) ? jsonNode.get(field) : MissingNode.getInstance();
-	}
 }
@@ -17,16 +17,16 @@
 package org.springframework.security.jackson2;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.MissingNode;
 
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
@@ -34,7 +34,8 @@ import org.springframework.security.core.GrantedAuthority;
 /**
  * Custom deserializer for {@link UsernamePasswordAuthenticationToken}. At the time of deserialization
  * it will invoke suitable constructor depending on the value of <b>authenticated</b> property.
- * It will ensure that the token's state must not change.
+ * It will ensure that the token's state must not change. The fields are read as they are
+ * streamed, without building a tree of the whole token first.
  * <p>
  * This deserializer is already registered with {@link UsernamePasswordAuthenticationTokenMixin} but
  * you can also registered it with your own mixin class.
@@ -58,41 +59,44 @@ class UsernamePasswordAuthenticationTokenDeserializer extends JsonDeserializer<U
 	@Override
 	public UsernamePasswordAuthenticationToken deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException, JsonProcessingException {
 		UsernamePasswordAuthenticationToken token = null;
-		ObjectMapper mapper = (ObjectMapper) jp.getCodec();
-		JsonNode jsonNode = mapper.readTree(jp);
-		Boolean authenticated = readJsonNode(jsonNode, "authenticated").asBoolean();
-		JsonNode principalNode = readJsonNode(jsonNode, "principal");
-		Object principal = null;
-		if (principalNode.isObject()) {
-			principal = mapper.readValue(principalNode.traverse(mapper), Object.class);
-		} else {
-			principal = principalNode.asText();
+		boolean authenticated = false;
+		Object principal = "";
+		Object credentials = null;
+		List<GrantedAuthority> authorities = Collections.emptyList();
+		Object details = null;
+		JsonToken t = jp.currentToken();
+		if (t == JsonToken.START_OBJECT) {
+			t = jp.nextToken();
 		}
-		JsonNode credentialsNode = readJsonNode(jsonNode, "credentials");
-		Object credentials;
-		if (credentialsNode.isNull() || credentialsNode.isMissingNode()) {
-			credentials = null;
-		} else {
-			credentials = credentialsNode.asText();
+		for (; t == JsonToken.FIELD_NAME; t = jp.nextToken()) {
+			String field = jp.getCurrentName();
+			t = jp.nextToken();
+			if ("authenticated".equals(field)) {
+				authenticated = JsonParserUtils.readBoolean(jp, t);
+			}
+			else if ("principal".equals(field)) {
+				principal = t == JsonToken.START_OBJECT ? ctxt.readValue(jp, Object.class) : JsonParserUtils.readText(jp, t);
+			}
+			else if ("credentials".equals(field)) {
+				credentials = t == JsonToken.VALUE_NULL ? null : JsonParserUtils.readText(jp, t);
+			}
+			else if ("authorities".equals(field)) {
+				JavaType type = ctxt.getTypeFactory().constructCollectionType(List.class, GrantedAuthority.class);
+				authorities = t == JsonToken.VALUE_NULL ? null : ctxt.readValue(jp, type);
+			}
+			else if ("details".equals(field)) {
+				details = t == JsonToken.VALUE_NULL ? null : ((ObjectMapper) jp.getCodec()).readTree(jp);
+			}
+			else {
+				jp.skipChildren();
+			}
 		}
-		List<GrantedAuthority> authorities = mapper.readValue(
-				readJsonNode(jsonNode, "authorities").traverse(mapper), new TypeReference<List<GrantedAuthority>>() {
-		});
 		if (authenticated) {
 			token = new UsernamePasswordAuthenticationToken(principal, credentials, authorities);
 		} else {
 			token = new UsernamePasswordAuthenticationToken(principal, credentials);
 		}
-		JsonNode detailsNode = readJsonNode(jsonNode, "details");
-		if (detailsNode.isNull() || detailsNode.isMissingNode()) {
-			token.setDetails(null);
-		} else {
-			token.setDetails(detailsNode);
-		}
+		token.setDetails(details);
 		return token;
 	}
-
-	private JsonNode readJsonNode(JsonNode jsonNode, String field) {
-		return jsonNode.has(field) ? jsonNode.get(field) : MissingNode.getInstance();
-	}
 }
@@ -32,6 +32,7 @@ import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.core.userdetails.cache.UnknownUsernameCache;
 import org.springframework.security.core.userdetails.memory.UserAttribute;
 import org.springframework.security.core.userdetails.memory.UserAttributeEditor;
 import org.springframework.util.Assert;
@@ -54,6 +55,8 @@ public class InMemoryUserDetailsManager implements UserDetailsManager,
 
 	private AuthenticationManager authenticationManager;
 
+	private UnknownUsernameCache unknownUsernameCache;
+
 	public InMemoryUserDetailsManager() {
 	}
 
@@ -87,6 +90,10 @@ public class InMemoryUserDetailsManager implements UserDetailsManager,
 		Assert.isTrue(!userExists(user.getUsername()), "user should not exist");
 
 		users.put(user.getUsername().toLowerCase(), new MutableUser(user));
+
+		if (unknownUsernameCache != null) {
+			unknownUsernameCache.remove(user.getUsername());
+		}
 	}
 
 	public void deleteUser(String username) {
@@ -164,4 +171,16 @@ public class InMemoryUserDetailsManager implements UserDetailsManager,
 	public void setAuthenticationManager(AuthenticationManager authenticationManager) {
 		this.authenticationManager = authenticationManager;
 	}
+
+	/**
+	 * Optionally sets the {@link UnknownUsernameCache} if one is in use in the
+	 * application. This allows a created user to authenticate right away, even if the
+	 * username was recently not found.
+	 *
+	 * @param unknownUsernameCache the cache used by the AuthenticationManager.
+	 * @since 5.3
+	 */
+	public void setUnknownUsernameCache(UnknownUsernameCache unknownUsernameCache) {
+		this.unknownUsernameCache = unknownUsernameCache;
+	}
 }
@@ -28,6 +28,7 @@ import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.cache.NullUserCache;
+import org.springframework.security.core.userdetails.cache.UnknownUsernameCache;
 import org.springframework.security.core.userdetails.jdbc.JdbcDaoImpl;
 import org.springframework.context.ApplicationContextException;
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
@@ -120,6 +121,8 @@ public class JdbcUserDetailsManager extends JdbcDaoImpl implements UserDetailsMa
 
 	private UserCache userCache = new NullUserCache();
 
+	private UnknownUsernameCache unknownUsernameCache;
+
 	public JdbcUserDetailsManager() {
 	}
 
@@ -189,6 +192,10 @@ public class JdbcUserDetailsManager extends JdbcDaoImpl implements UserDetailsMa
 		if (getEnableAuthorities()) {
 			insertUserAuthorities(user);
 		}
+
+		if (unknownUsernameCache != null) {
+			unknownUsernameCache.remove(user.getUsername());
+		}
 	}
 
 	public void updateUser(final UserDetails user) {
@@ -540,6 +547,18 @@ public class JdbcUserDetailsManager extends JdbcDaoImpl implements UserDetailsMa
 		this.userCache = userCache;
 	}
 
+	/**
+	 * Optionally sets the {@link UnknownUsernameCache} if one is in use in the
+	 * application. This allows a created user to authenticate right away, even if the
+	 * username was recently not found.
+	 *
+	 * @param unknownUsernameCache the cache used by the AuthenticationManager.
+	 * @since 5.3
+	 */
+	public void setUnknownUsernameCache(UnknownUsernameCache unknownUsernameCache) {
+		this.unknownUsernameCache = unknownUsernameCache;
+	}
+
 	private void validateUserDetails(UserDetails user) {
 		Assert.hasText(user.getUsername(), "Username may not be empty or null");
 		validateAuthorities(user.getAuthorities());
@@ -0,0 +1,307 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.util.Assert;
+
+/**
+ * A small, dependency free, thread safe cache with a maximum size and a per entry
+ * expiration. Reads are lock free and writes cost amortized constant time.
+ *
+ * <p>
+ * Entries are kept in the order they were last written, by
+ * {@link #put(Object, Object, Instant) put}, {@link #putIfAbsent(Object, Object)
+ * putIfAbsent} or {@link #touch(Object) touch}. When a write exceeds the maximum size,
+ * entries are evicted starting with the least recently written one. Since every write
+ * expires after the same time to live, this is also the entry that expires first, unless
+ * it was given an earlier {@code expiresAt}. Expired entries that are least recently
+ * written are purged as part of each write, and others are purged when they are read or
+ * when the internal write order is compacted.
+ * </p>
+ *
+ * <p>
+ * If the cache is created to not evict live entries, a write of a new key is instead
+ * ignored while the cache is full of entries that did not expire, so that an entry is
+ * only ever lost by expiring or being removed. Concurrent writers may exceed the maximum
+ * size by a few entries.
+ * </p>
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ * @author agent
+ * @since 5.3
+ */
+public final class BoundedExpiringCache<K, V> {
+	private final ConcurrentHashMap<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+
+	private final ConcurrentLinkedQueue<Entry<K, V>> writeOrder = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger writeOrderSize = new AtomicInteger();
+
+	private final int maximumSize;
+
+	private final long timeToLive;
+
+	private final boolean evictLiveEntries;
+
+	private Clock clock = Clock.systemUTC();
+
+	/**
+	 * Creates a new instance that evicts the least recently written entries when full
+	 * @param maximumSize the maximum number of entries
+	 * @param timeToLive the maximum time an entry is kept
+	 */
+	public BoundedExpiringCache(int maximumSize, Duration timeToLive) {
+		this(maximumSize, timeToLive, true);
+	}
+
+	/**
+	 * Creates a new instance
+	 * @param maximumSize the maximum number of entries
+	 * @param timeToLive the maximum time an entry is kept
+	 * @param evictLiveEntries true to evict the least recently written entries when
+	 * full, false to ignore writes of new keys instead
+	 */
+	public BoundedExpiringCache(int maximumSize, Duration timeToLive, boolean evictLiveEntries) {
+		Assert.isTrue(maximumSize > 0, "maximumSize must be greater than 0");
+		Assert.notNull(timeToLive, "timeToLive cannot be null");
+		Assert.isTrue(!timeToLive.isNegative() && !timeToLive.isZero(), "timeToLive must be positive");
+		this.maximumSize = maximumSize;
+		this.timeToLive = timeToLive.toMillis();
+		this.evictLiveEntries = evictLiveEntries;
+	}
+
+	/**
+	 * Gets the value for the key
+	 * @param key the key
+	 * @return the value or {@code null} if there is no value or it expired
+	 */
+	public V get(K key) {
+		Entry<K, V> entry = this.entries.get(key);
+		if (entry == null) {
+			return null;
+		}
+		if (entry.isExpired(this.clock.millis())) {
+			this.entries.remove(key, entry);
+			return null;
+		}
+		return entry.value;
+	}
+
+	/**
+	 * Stores a value that expires after the time to live
+	 * @param key the key
+	 * @param value the value
+	 */
+	public void put(K key, V value) {
+		put(key, value, null);
+	}
+
+	/**
+	 * Stores a value that expires after the time to live or at {@code expiresAt},
+	 * whichever comes first
+	 * @param key the key
+	 * @param value the value
+	 * @param expiresAt the latest time the value may be used, or {@code null}
+	 */
+	public void put(K key, V value, Instant expiresAt) {
+		Assert.notNull(key, "key cannot be null");
+		Assert.notNull(value, "value cannot be null");
+		long now = this.clock.millis();
+		long limit = expiresAt == null ? Long.MAX_VALUE : expiresAt.toEpochMilli();
+		Entry<K, V> entry = new Entry<>(key, value, now + this.timeToLive, limit);
+		if (entry.isExpired(now)) {
+			this.entries.remove(key);
+			return;
+		}
+		if (!hasRoomFor(key, now)) {
+			return;
+		}
+		this.entries.put(key, entry);
+		written(entry, now);
+	}
+
+	/**
+	 * Atomically stores a value that expires after the time to live, unless a value that
+	 * did not expire is already stored for the key
+	 * @param key the key
+	 * @param value the value
+	 * @return the value already stored, or {@code null} if there was none
+	 */
+	public V putIfAbsent(K key, V value) {
+		Assert.notNull(key, "key cannot be null");
+		Assert.notNull(value, "value cannot be null");
+		long now = this.clock.millis();
+		Entry<K, V> entry = new Entry<>(key, value, now + this.timeToLive, Long.MAX_VALUE);
+		while (true) {
+			Entry<K, V> existing = this.entries.get(key);
+			if (existing != null && !existing.isExpired(now)) {
+				return existing.value;
+			}
+			if (existing == null) {
+				if (!hasRoomFor(key, now)) {
+					return null;
+				}
+				if (this.entries.putIfAbsent(key, entry) == null) {
+					written(entry, now);
+					return null;
+				}
+			}
+			else if (this.entries.replace(key, existing, entry)) {
+				written(entry, now);
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * Restarts the time to live of the value for the key, if it did not expire. The value
+	 * still expires no later than the {@code expiresAt} it was stored with.
+	 * @param key the key
+	 */
+	public void touch(K key) {
+		long now = this.clock.millis();
+		Entry<K, V> existing = this.entries.get(key);
+		if (existing == null || existing.isExpired(now)) {
+			return;
+		}
+		Entry<K, V> entry = new Entry<>(key, existing.value, now + this.timeToLive,
+				existing.limit);
+		if (this.entries.replace(key, existing, entry)) {
+			written(entry, now);
+		}
+	}
+
+	/**
+	 * Removes the value for the key
+	 * @param key the key
+	 */
+	public void remove(K key) {
+		this.entries.remove(key);
+	}
+
+	/**
+	 * Removes all values
+	 */
+	public void clear() {
+		this.entries.clear();
+		compact(this.clock.millis());
+	}
+
+	/**
+	 * The number of values currently stored, including those that expired but were not
+	 * purged yet
+	 * @return the number of values
+	 */
+	public int size() {
+		return this.entries.size();
+	}
+
+	/**
+	 * Sets the {@link Clock} used to determine expiration. The default is
+	 * {@link Clock#systemUTC()}.
+	 * @param clock the {@link Clock} to use
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "clock cannot be null");
+		this.clock = clock;
+	}
+
+	private boolean hasRoomFor(K key, long now) {
+		if (this.evictLiveEntries) {
+			return true;
+		}
+		purge(now);
+		return this.entries.size() < this.maximumSize || this.entries.containsKey(key);
+	}
+
+	private void written(Entry<K, V> entry, long now) {
+		this.writeOrder.add(entry);
+		int writes = this.writeOrderSize.incrementAndGet();
+		purge(now);
+		// the write order holds an element per write, most of which are superseded by
+		// later writes of the same key and are normally only dropped once they reach the
+		// head; compacting once it doubled keeps it bounded at amortized constant cost
+		if (writes > 2 * this.maximumSize + 16) {
+			compact(now);
+		}
+	}
+
+	/**
+	 * Removes the least recently written entries while they were superseded, expired or
+	 * exceed the maximum size
+	 */
+	private void purge(long now) {
+		Entry<K, V> head;
+		while ((head = this.writeOrder.peek()) != null) {
+			boolean current = this.entries.get(head.key) == head;
+			boolean evict = !current || head.isExpired(now)
+					|| (this.evictLiveEntries && this.entries.size() > this.maximumSize);
+			if (!evict) {
+				return;
+			}
+			if (this.writeOrder.remove(head)) {
+				this.writeOrderSize.decrementAndGet();
+				if (current) {
+					this.entries.remove(head.key, head);
+				}
+			}
+		}
+	}
+
+	private void compact(long now) {
+		this.writeOrder.removeIf(entry -> {
+			boolean current = this.entries.get(entry.key) == entry;
+			if (current && !entry.isExpired(now)) {
+				return false;
+			}
+			if (current) {
+				this.entries.remove(entry.key, entry);
+			}
+			this.writeOrderSize.decrementAndGet();
+			return true;
+		});
+	}
+
+	private static final class Entry<K, V> {
+		private final K key;
+
+		private final V value;
+
+		private final long limit;
+
+		private final long expires;
+
+		private Entry(K key, V value, long expires, long limit) {
+			this.key = key;
+			this.value = value;
+			this.limit = limit;
+			this.expires = Math.min(expires, limit);
+		}
+
+		private boolean isExpired(long now) {
+			return now >= this.expires;
+		}
+	}
+}
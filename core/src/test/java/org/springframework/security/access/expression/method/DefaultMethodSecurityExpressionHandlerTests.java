@@ -15,8 +15,14 @@
  */
 package org.springframework.security.access.expression.method;
 
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import org.aopalliance.intercept.MethodInvocation;
@@ -26,18 +32,28 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
 
+import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.security.access.PermissionCacheOptimizer;
 import org.springframework.security.authentication.AuthenticationTrustResolver;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.ReflectionUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 
 @RunWith(MockitoJUnitRunner.class)
 public class DefaultMethodSecurityExpressionHandlerTests {
@@ -108,4 +124,150 @@ public class DefaultMethodSecurityExpressionHandlerTests {
 		((Stream) handler.filter(upstream, expression, context)).close();
 		verify(upstream).close();
 	}
+
+	@Test
+	public void createEvaluationContextWhenSameMethodThenParameterNamesResolvedOnce() {
+		ParameterNameDiscoverer parameterNameDiscoverer = mock(ParameterNameDiscoverer.class);
+		Method method = ReflectionUtils.findMethod(String.class, "contains", CharSequence.class);
+		doReturn(new String[] { "value" }).when(parameterNameDiscoverer).getParameterNames(method);
+		doReturn(new Object[] { "a" }).when(methodInvocation).getArguments();
+		doReturn("target").when(methodInvocation).getThis();
+		doReturn(method).when(methodInvocation).getMethod();
+		handler.setParameterNameDiscoverer(parameterNameDiscoverer);
+
+		for (int i = 0; i < 2; i++) {
+			EvaluationContext context = handler.createEvaluationContext(authentication,
+					methodInvocation);
+			assertThat(context.lookupVariable("value")).isEqualTo("a");
+		}
+
+		verify(parameterNameDiscoverer, times(1)).getParameterNames(method);
+	}
+
+	@Test
+	public void createEvaluationContextWhenPropertyAccessorAddedThenOtherContextsUnchanged() {
+		StandardEvaluationContext context = (StandardEvaluationContext) handler
+				.createEvaluationContext(authentication, methodInvocation);
+		context.addPropertyAccessor(mock(PropertyAccessor.class));
+
+		StandardEvaluationContext other = (StandardEvaluationContext) handler
+				.createEvaluationContext(authentication, methodInvocation);
+
+		assertThat(context.getPropertyAccessors()).hasSize(2);
+		assertThat(other.getPropertyAccessors()).hasSize(1);
+	}
+
+	@Test
+	public void setCompilerModeWhenMixedThenEvaluatesAfterCompilation() {
+		handler.setCompilerMode(SpelCompilerMode.MIXED);
+		handler.setTrustResolver(trustResolver);
+		Expression expression = handler.getExpressionParser()
+				.parseExpression("!anonymous and 'a' == 'a'");
+
+		// SpEL compiles MIXED expressions once they were interpreted 100 times
+		for (int i = 0; i < 200; i++) {
+			EvaluationContext context = handler.createEvaluationContext(authentication,
+					methodInvocation);
+			assertThat(expression.getValue(context, Boolean.class)).isTrue();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void setCompilerModeWhenNullThenException() {
+		handler.setCompilerMode(null);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void filterWhenParallelThenFiltersInOrder() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		handler.setParallelFilterThreshold(10);
+		handler.setFilterPool(pool);
+		List<Integer> elements = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+		Expression expression = handler.getExpressionParser().parseExpression("filterObject % 2 == 0");
+		EvaluationContext context = handler.createEvaluationContext(authentication,
+				methodInvocation);
+
+		try {
+			List<Integer> filtered = (List<Integer>) handler.filter(elements, expression, context);
+
+			assertThat(filtered).isSameAs(elements);
+			assertThat(filtered).hasSize(50).isSorted().allMatch(i -> i % 2 == 0);
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void filterWhenParallelThresholdAndNoPoolThenFiltersOnCallingThread() {
+		handler.setParallelFilterThreshold(10);
+		List<Integer> elements = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+		Expression expression = handler.getExpressionParser().parseExpression(
+				"T(java.lang.Thread).currentThread().getName() == '"
+						+ Thread.currentThread().getName() + "'");
+		EvaluationContext context = handler.createEvaluationContext(authentication,
+				methodInvocation);
+
+		List<Integer> filtered = (List<Integer>) handler.filter(elements, expression, context);
+
+		assertThat(filtered).hasSize(100);
+	}
+
+	@Test
+	public void filterWhenCollectionAllRetainedThenNotModified() {
+		List<String> elements = Collections.unmodifiableList(Arrays.asList("1", "2"));
+		Expression expression = handler.getExpressionParser().parseExpression("true");
+		EvaluationContext context = handler.createEvaluationContext(authentication,
+				methodInvocation);
+
+		assertThat(handler.filter(elements, expression, context)).isSameAs(elements);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void filterWhenUsingFluxThenFiltersFlux() {
+		Expression expression = handler.getExpressionParser().parseExpression("filterObject > 5");
+		EvaluationContext context = handler.createEvaluationContext(authentication,
+				methodInvocation);
+
+		Object filtered = handler.filter(Flux.range(1, 10), expression, context);
+
+		assertThat(filtered).isInstanceOf(Flux.class);
+		assertThat(((Flux<Integer>) filtered).collectList().block()).containsExactly(6, 7, 8, 9, 10);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void filterWhenUsingFluxAndPermissionCacheOptimizerThenNotBuffered() {
+		PermissionCacheOptimizer optimizer = mock(PermissionCacheOptimizer.class);
+		handler.setPermissionCacheOptimizer(optimizer);
+		Expression expression = handler.getExpressionParser().parseExpression("filterObject > 5");
+		EvaluationContext context = handler.createEvaluationContext(authentication,
+				methodInvocation);
+
+		Flux<Integer> filtered = (Flux<Integer>) handler.filter(
+				Flux.range(1, 10).concatWith(Flux.never()), expression, context);
+
+		assertThat(filtered.take(5).collectList().block(Duration.ofSeconds(5)))
+				.containsExactly(6, 7, 8, 9, 10);
+		verifyZeroInteractions(optimizer);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void filterWhenUsingFluxSubscribedConcurrentlyThenEachSubscriptionFiltered() {
+		Expression expression = handler.getExpressionParser().parseExpression("filterObject % 2 == 0");
+		EvaluationContext context = handler.createEvaluationContext(authentication,
+				methodInvocation);
+		Flux<Integer> filtered = (Flux<Integer>) handler.filter(Flux.range(0, 10000), expression, context);
+
+		List<Integer> result = Flux.range(0, 4)
+				.flatMap(i -> filtered.subscribeOn(Schedulers.parallel()))
+				.collectList()
+				.block();
+
+		assertThat(result).hasSize(20000).allMatch(i -> i % 2 == 0);
+	}
 }
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.access.expression.method;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author agent
+ * @since 5.3
+ */
+public class ExpressionBasedAnnotationAttributeFactoryTests {
+	private ExpressionBasedAnnotationAttributeFactory factory = new ExpressionBasedAnnotationAttributeFactory(
+			new DefaultMethodSecurityExpressionHandler());
+
+	@Test
+	public void createPreInvocationAttributeWhenSameExpressionThenParsedOnce() {
+		PreInvocationExpressionAttribute first = (PreInvocationExpressionAttribute) this.factory
+				.createPreInvocationAttribute(null, null, "hasRole('USER')");
+		PreInvocationExpressionAttribute second = (PreInvocationExpressionAttribute) this.factory
+				.createPreInvocationAttribute(null, null, "hasRole('USER')");
+		PostInvocationExpressionAttribute post = (PostInvocationExpressionAttribute) this.factory
+				.createPostInvocationAttribute(null, "hasRole('USER')");
+
+		assertThat(second.getAuthorizeExpression()).isSameAs(first.getAuthorizeExpression());
+		assertThat(post.getAuthorizeExpression()).isSameAs(first.getAuthorizeExpression());
+	}
+
+	@Test
+	public void createPreInvocationAttributeWhenNoPreAuthorizeThenPermitAllShared() {
+		PreInvocationExpressionAttribute first = (PreInvocationExpressionAttribute) this.factory
+				.createPreInvocationAttribute("filterObject != null", null, null);
+		PreInvocationExpressionAttribute second = (PreInvocationExpressionAttribute) this.factory
+				.createPreInvocationAttribute("filterObject != null", null, null);
+
+		assertThat(first.getAuthorizeExpression().getExpressionString()).isEqualTo("permitAll");
+		assertThat(second.getAuthorizeExpression()).isSameAs(first.getAuthorizeExpression());
+		assertThat(second.getFilterExpression()).isSameAs(first.getFilterExpression());
+	}
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.security.access.hierarchicalroles;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.junit.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+/**
+ * Tests for {@link CompiledRoleHierarchy}.
+ *
+ * @author agent
+ */
+public class CompiledRoleHierarchyTests {
+	private static final String HIERARCHY = "ROLE_A > ROLE_B\nROLE_A > ROLE_C\nROLE_C > ROLE_D\nROLE_B > ROLE_D";
+
+	@Test
+	public void getReachableGrantedAuthoritiesWhenNullOrEmptyThenEmpty() {
+		CompiledRoleHierarchy roleHierarchy = new CompiledRoleHierarchy(HIERARCHY);
+
+		assertThat(roleHierarchy.getReachableGrantedAuthorities(null)).isEmpty();
+		assertThat(roleHierarchy.getReachableGrantedAuthorities(new ArrayList<>())).isEmpty();
+	}
+
+	@Test
+	public void getReachableGrantedAuthoritiesWhenComplexHierarchyThenSameAsRoleHierarchyImpl() {
+		CompiledRoleHierarchy roleHierarchy = new CompiledRoleHierarchy(HIERARCHY);
+		RoleHierarchyImpl roleHierarchyImpl = new RoleHierarchyImpl();
+		roleHierarchyImpl.setHierarchy(HIERARCHY);
+
+		for (String[] roles : new String[][] { { "ROLE_A" }, { "ROLE_B" }, { "ROLE_C" }, { "ROLE_D" },
+				{ "ROLE_0" }, { "ROLE_D", "ROLE_A" }, { "ROLE_0", "ROLE_B", "ROLE_0" } }) {
+			List<GrantedAuthority> authorities = AuthorityUtils.createAuthorityList(roles);
+			assertThat(roleHierarchy.getReachableGrantedAuthorities(authorities))
+				.containsExactlyInAnyOrderElementsOf(roleHierarchyImpl.getReachableGrantedAuthorities(authorities));
+		}
+	}
+
+	@Test
+	public void getReachableGrantedAuthoritiesWhenCustomGrantedAuthorityThenOriginalAuthorityReturned() {
+		CompiledRoleHierarchy roleHierarchy = new CompiledRoleHierarchy("ROLE_A > ROLE_B");
+		List<GrantedAuthority> authorities = HierarchicalRolesTestHelper.createAuthorityList("ROLE_A");
+
+		Collection<GrantedAuthority> reachable = roleHierarchy.getReachableGrantedAuthorities(authorities);
+
+		assertThat(reachable).contains(authorities.get(0));
+		assertThat(HierarchicalRolesTestHelper.containTheSameGrantedAuthoritiesCompareByAuthorityString(
+				reachable, HierarchicalRolesTestHelper.createAuthorityList("ROLE_A", "ROLE_B"))).isTrue();
+	}
+
+	@Test
+	public void getReachableGrantedAuthoritiesWhenLargeHierarchyThenTransitive() {
+		StringBuilder hierarchy = new StringBuilder("ROLE_0");
+		for (int i = 1; i < 200; i++) {
+			hierarchy.append(" > ROLE_").append(i);
+		}
+		CompiledRoleHierarchy roleHierarchy = new CompiledRoleHierarchy(hierarchy.toString());
+
+		Collection<GrantedAuthority> reachable = roleHierarchy
+			.getReachableGrantedAuthorities(AuthorityUtils.createAuthorityList("ROLE_100"));
+
+		assertThat(AuthorityUtils.authorityListToSet(reachable)).hasSize(100)
+			.contains("ROLE_100", "ROLE_199").doesNotContain("ROLE_99");
+	}
+
+	@Test
+	public void getReachableGrantedAuthoritiesWhenSameAuthoritiesThenCached() {
+		CompiledRoleHierarchy roleHierarchy = new CompiledRoleHierarchy(HIERARCHY);
+
+		Collection<GrantedAuthority> first = roleHierarchy
+			.getReachableGrantedAuthorities(AuthorityUtils.createAuthorityList("ROLE_B"));
+		Collection<GrantedAuthority> second = roleHierarchy
+			.getReachableGrantedAuthorities(AuthorityUtils.createAuthorityList("ROLE_B"));
+
+		assertThat(second).isSameAs(first);
+	}
+
+	@Test
+	public void getReachableGrantedAuthoritiesWhenSameSetOfAuthoritiesThenCached() {
+		CompiledRoleHierarchy roleHierarchy = new CompiledRoleHierarchy(HIERARCHY);
+
+		Collection<GrantedAuthority> first = roleHierarchy.getReachableGrantedAuthorities(
+				new LinkedHashSet<>(AuthorityUtils.createAuthorityList("ROLE_B")));
+		Collection<GrantedAuthority> second = roleHierarchy.getReachableGrantedAuthorities(
+				new LinkedHashSet<>(AuthorityUtils.createAuthorityList("ROLE_B")));
+
+		assertThat(second).isSameAs(first);
+	}
+
+	@Test
+	public void getReachableGrantedAuthoritiesWhenCacheFullThenUnusedEntryEvicted() {
+		CompiledRoleHierarchy roleHierarchy = new CompiledRoleHierarchy(HIERARCHY, 2);
+		Collection<GrantedAuthority> a = roleHierarchy
+			.getReachableGrantedAuthorities(AuthorityUtils.createAuthorityList("ROLE_A"));
+		Collection<GrantedAuthority> b = roleHierarchy
+			.getReachableGrantedAuthorities(AuthorityUtils.createAuthorityList("ROLE_B"));
+		roleHierarchy.getReachableGrantedAuthorities(AuthorityUtils.createAuthorityList("ROLE_A"));
+
+		roleHierarchy.getReachableGrantedAuthorities(AuthorityUtils.createAuthorityList("ROLE_C"));
+
+		assertThat(roleHierarchy.getReachableGrantedAuthorities(AuthorityUtils.createAuthorityList("ROLE_A")))
+			.isSameAs(a);
+		assertThat(roleHierarchy.getReachableGrantedAuthorities(AuthorityUtils.createAuthorityList("ROLE_B")))
+			.isNotSameAs(b).isEqualTo(b);
+	}
+
+	@Test
+	public void getReachableGrantedAuthoritiesWhenCacheDisabledThenNotCached() {
+		CompiledRoleHierarchy roleHierarchy = new CompiledRoleHierarchy(HIERARCHY, 0);
+
+		Collection<GrantedAuthority> first = roleHierarchy
+			.getReachableGrantedAuthorities(AuthorityUtils.createAuthorityList("ROLE_B"));
+		Collection<GrantedAuthority> second = roleHierarchy
+			.getReachableGrantedAuthorities(AuthorityUtils.createAuthorityList("ROLE_B"));
+
+		assertThat(second).isNotSameAs(first).isEqualTo(first);
+	}
+
+	@Test
+	public void getReachableGrantedAuthoritiesWhenInputModifiedThenCacheUnaffected() {
+		CompiledRoleHierarchy roleHierarchy = new CompiledRoleHierarchy(HIERARCHY);
+		List<GrantedAuthority> authorities = AuthorityUtils.createAuthorityList("ROLE_B");
+		roleHierarchy.getReachableGrantedAuthorities(authorities);
+
+		authorities.addAll(AuthorityUtils.createAuthorityList("ROLE_C"));
+
+		assertThat(AuthorityUtils.authorityListToSet(roleHierarchy.getReachableGrantedAuthorities(
+				AuthorityUtils.createAuthorityList("ROLE_B")))).containsOnly("ROLE_B", "ROLE_D");
+	}
+
+	@Test
+	public void constructorWhenCycleThenCycleInRoleHierarchyException() {
+		for (String hierarchy : new String[] { "ROLE_A > ROLE_A", "ROLE_A > ROLE_B\nROLE_B > ROLE_A",
+				"ROLE_A > ROLE_B\nROLE_B > ROLE_C\nROLE_C > ROLE_E\nROLE_E > ROLE_D\nROLE_D > ROLE_B",
+				"ROLE_C > ROLE_B\nROLE_B > ROLE_A\nROLE_A > ROLE_B" }) {
+			assertThatCode(() -> new CompiledRoleHierarchy(hierarchy))
+				.isInstanceOf(CycleInRoleHierarchyException.class);
+		}
+	}
+}
@@ -71,4 +71,23 @@ public class DelegatingMethodSecurityMetadataSourceTests {
 				new SimpleMethodInvocation(null, String.class.getMethod("length")))).isEmpty();
 	}
 
+	@Test
+	public void getAttributesWhenCachedThenDelegateInvokedOncePerTargetClass() throws Exception {
+		MethodSecurityMetadataSource delegate = mock(MethodSecurityMetadataSource.class);
+		List attributes = Arrays.asList(mock(ConfigAttribute.class));
+		Method toString = Object.class.getMethod("toString");
+		when(delegate.getAttributes(toString, String.class)).thenReturn(attributes);
+		mds = new DelegatingMethodSecurityMetadataSource(Arrays.asList(delegate));
+
+		assertThat(mds.getAttributes(toString, String.class)).isSameAs(attributes);
+		assertThat(mds.getAttributes(toString, String.class)).isSameAs(attributes);
+		assertThat(mds.getAttributes(toString, Integer.class)).isEmpty();
+		assertThat(mds.getAttributes(toString, Integer.class)).isEmpty();
+		assertThat(mds.getAttributes(toString, null)).isEmpty();
+		assertThat(mds.getAttributes(toString, null)).isEmpty();
+
+		verify(delegate, times(1)).getAttributes(toString, String.class);
+		verify(delegate, times(1)).getAttributes(toString, Integer.class);
+		verify(delegate, times(1)).getAttributes(toString, null);
+	}
 }
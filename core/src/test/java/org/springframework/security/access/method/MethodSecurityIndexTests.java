@@ -0,0 +1,162 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.access.method;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.ExpressionBasedAnnotationAttributeFactory;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.access.prepost.PrePostAnnotationSecurityMetadataSource;
+import org.springframework.util.ReflectionUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author agent
+ * @since 5.3
+ */
+public class MethodSecurityIndexTests {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private MethodSecurityIndex index;
+
+	private Method method = ReflectionUtils.findMethod(Service.class, "method");
+
+	@Before
+	public void setup() throws Exception {
+		this.index = MethodSecurityIndex.load(classLoader(
+				Service.class.getName() + "=\n"
+				+ SecuredService.class.getName() + "=prepost,secured\n"
+				+ PlainSubService.class.getName() + "=\n"));
+	}
+
+	@Test
+	public void loadWhenNoIndexThenEmpty() throws Exception {
+		ClassLoader classLoader = new URLClassLoader(new URL[0], null);
+
+		assertThat(MethodSecurityIndex.load(classLoader).isEmpty()).isTrue();
+	}
+
+	@Test
+	public void isCandidateWhenIndexedWithoutAnnotationsThenFalse() {
+		assertThat(this.index.isEmpty()).isFalse();
+		assertThat(this.index.isCandidate(this.method, Service.class,
+				MethodSecurityIndex.PRE_POST)).isFalse();
+	}
+
+	@Test
+	public void isCandidateWhenIndexedWithAnnotationsThenTrue() {
+		assertThat(this.index.isCandidate(this.method, SecuredService.class,
+				MethodSecurityIndex.PRE_POST)).isTrue();
+		assertThat(this.index.isCandidate(this.method, SecuredService.class,
+				MethodSecurityIndex.JSR250)).isFalse();
+	}
+
+	@Test
+	public void isCandidateWhenNotIndexedThenTrue() {
+		assertThat(this.index.isCandidate(this.method, UnindexedService.class,
+				MethodSecurityIndex.PRE_POST)).isTrue();
+		assertThat(this.index.isCandidate(this.method, null,
+				MethodSecurityIndex.PRE_POST)).isTrue();
+	}
+
+	@Test
+	public void isCandidateWhenSuperclassNotIndexedThenTrue() {
+		assertThat(this.index.isCandidate(this.method, PlainSubService.class,
+				MethodSecurityIndex.PRE_POST)).isTrue();
+	}
+
+	@Test
+	public void isCandidateWhenSuperclassInOtherIndexThenTrue() throws Exception {
+		MethodSecurityIndex index = MethodSecurityIndex.load(classLoader(
+				Service.class.getName() + "=\n",
+				SecuredService.class.getName() + "=\n"));
+
+		assertThat(index.isCandidate(this.method, Service.class,
+				MethodSecurityIndex.PRE_POST)).isFalse();
+		assertThat(index.isCandidate(this.method, SecuredService.class,
+				MethodSecurityIndex.PRE_POST)).isTrue();
+	}
+
+	@Test
+	public void isCandidateWhenInSeveralIndexesThenTrue() throws Exception {
+		MethodSecurityIndex index = MethodSecurityIndex.load(classLoader(
+				Service.class.getName() + "=\n", Service.class.getName() + "=\n"));
+
+		assertThat(index.isCandidate(this.method, Service.class,
+				MethodSecurityIndex.PRE_POST)).isTrue();
+	}
+
+	@Test
+	public void getAttributesWhenExcludedByIndexThenNotIntrospected() {
+		PrePostAnnotationSecurityMetadataSource source = new PrePostAnnotationSecurityMetadataSource(
+				new ExpressionBasedAnnotationAttributeFactory(
+						new DefaultMethodSecurityExpressionHandler()));
+		Method unindexed = ReflectionUtils.findMethod(UnindexedService.class, "method");
+
+		assertThat(source.getAttributes(this.method, Service.class)).hasSize(1);
+
+		source.setMethodSecurityIndex(this.index);
+
+		// the index is trusted, even though it is stale for Service
+		assertThat(source.getAttributes(this.method, Service.class)).isEmpty();
+		assertThat(source.getAttributes(this.method, SecuredService.class)).hasSize(1);
+		assertThat(source.getAttributes(unindexed, UnindexedService.class)).hasSize(1);
+	}
+
+	private ClassLoader classLoader(String... indexes) throws Exception {
+		URL[] urls = new URL[indexes.length];
+		for (int i = 0; i < indexes.length; i++) {
+			File root = this.folder.newFolder();
+			File indexFile = new File(root, MethodSecurityIndex.INDEX_LOCATION);
+			indexFile.getParentFile().mkdirs();
+			Files.write(indexFile.toPath(), indexes[i].getBytes(StandardCharsets.UTF_8));
+			urls[i] = root.toURI().toURL();
+		}
+		return new URLClassLoader(urls, null);
+	}
+
+	static class Service {
+		@PreAuthorize("hasRole('USER')")
+		public void method() {
+		}
+	}
+
+	static class SecuredService extends Service {
+	}
+
+	static class UnindexedService {
+		@PreAuthorize("hasRole('USER')")
+		public void method() {
+		}
+	}
+
+	static class PlainSubService extends UnindexedService {
+	}
+}
@@ -29,6 +29,7 @@ import org.junit.Test;
 import org.springframework.security.access.AccessDecisionVoter;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.ConfigAttribute;
+import org.springframework.security.access.SecurityConfig;
 import org.springframework.security.authentication.TestingAuthenticationToken;
 import org.springframework.security.core.Authentication;
 
@@ -111,4 +112,64 @@ public class AffirmativeBasedTests {
 
 		mgr.decide(user, new Object(), attrs);
 	}
+
+	@Test
+	public void decideWhenRouteAttributesToSupportingVotersThenUnsupportingVoterNotPolled() {
+		when(deny.supports(any(ConfigAttribute.class))).thenReturn(false);
+		mgr = new AffirmativeBased(Arrays.<AccessDecisionVoter<? extends Object>> asList(
+				deny, new RoleVoter()));
+		mgr.setRouteAttributesToSupportingVoters(true);
+
+		mgr.decide(user, new Object(), SecurityConfig.createList("ROLE_1"));
+		mgr.decide(user, new Object(), SecurityConfig.createList("ROLE_1"));
+
+		verify(deny, never()).vote(any(Authentication.class), any(Object.class), any(List.class));
+		verify(deny, times(1)).supports(any(ConfigAttribute.class));
+	}
+
+	@Test(expected = AccessDeniedException.class)
+	public void decideWhenRouteAttributesToSupportingVotersAndNoneSupportThenAllAbstain() {
+		mgr = new AffirmativeBased(Arrays.<AccessDecisionVoter<? extends Object>> asList(
+				new RoleVoter()));
+		mgr.setRouteAttributesToSupportingVoters(true);
+
+		mgr.decide(user, new Object(), SecurityConfig.createList("IS_AUTHENTICATED_FULLY"));
+	}
+
+	@Test
+	public void decideWhenRouteAttributesToSupportingVotersThenSupportingVotersPolledInOrder() {
+		when(deny.supports(any(ConfigAttribute.class))).thenReturn(true);
+		mgr = new AffirmativeBased(Arrays.<AccessDecisionVoter<? extends Object>> asList(
+				new AuthenticatedVoter(), deny, new RoleVoter()));
+		mgr.setRouteAttributesToSupportingVoters(true);
+
+		assertThat(mgr.getDecisionVoters(SecurityConfig.createList("ROLE_1")))
+			.containsExactly(deny, mgr.getDecisionVoters().get(2));
+		assertThat(mgr.getDecisionVoters(SecurityConfig.createList("ROLE_1", "IS_AUTHENTICATED_FULLY")))
+			.isEqualTo(mgr.getDecisionVoters());
+	}
+
+	@Test
+	public void decideWhenRecordVoteLatencyThenVotesCounted() {
+		mgr = new AffirmativeBased(Arrays.<AccessDecisionVoter<? extends Object>> asList(
+				deny, grant));
+		mgr.setRecordVoteLatency(true);
+
+		mgr.decide(user, new Object(), attrs);
+		mgr.decide(user, new Object(), attrs);
+
+		assertThat(mgr.getVoterStatistics().get(deny).getVotes()).isEqualTo(2);
+		assertThat(mgr.getVoterStatistics().get(grant).getVotes()).isEqualTo(2);
+		assertThat(mgr.getVoterStatistics().get(grant).getTotalTime().isNegative()).isFalse();
+	}
+
+	@Test
+	public void getVoterStatisticsWhenDefaultThenEmpty() {
+		mgr = new AffirmativeBased(Arrays.<AccessDecisionVoter<? extends Object>> asList(
+				grant));
+
+		mgr.decide(user, new Object(), attrs);
+
+		assertThat(mgr.getVoterStatistics()).isEmpty();
+	}
 }
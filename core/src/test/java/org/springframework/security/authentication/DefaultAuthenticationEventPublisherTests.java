@@ -18,7 +18,9 @@ package org.springframework.security.authentication;
 import static org.mockito.Mockito.*;
 
 import org.junit.*;
+import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.support.GenericApplicationContext;
 import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
 import org.springframework.security.authentication.event.AuthenticationFailureCredentialsExpiredEvent;
 import org.springframework.security.authentication.event.AuthenticationFailureDisabledEvent;
@@ -32,6 +34,10 @@ import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 /**
  * @author Luke Taylor
@@ -137,6 +143,87 @@ public class DefaultAuthenticationEventPublisherTests {
 		verifyZeroInteractions(appPublisher);
 	}
 
+	@Test
+	public void publishAuthenticationSuccessWhenExecutorThenPublishedByExecutor() {
+		publisher = new DefaultAuthenticationEventPublisher();
+		ApplicationEventPublisher appPublisher = mock(ApplicationEventPublisher.class);
+		publisher.setApplicationEventPublisher(appPublisher);
+		List<Runnable> tasks = new ArrayList<>();
+		publisher.setExecutor(tasks::add);
+
+		publisher.publishAuthenticationSuccess(mock(Authentication.class));
+
+		verifyZeroInteractions(appPublisher);
+		assertThat(tasks).hasSize(1);
+		tasks.get(0).run();
+		verify(appPublisher).publishEvent(isA(AuthenticationSuccessEvent.class));
+	}
+
+	@Test
+	public void publishAuthenticationSuccessWhenExecutorRejectsThenDropped() {
+		publisher = new DefaultAuthenticationEventPublisher();
+		ApplicationEventPublisher appPublisher = mock(ApplicationEventPublisher.class);
+		publisher.setApplicationEventPublisher(appPublisher);
+		Executor executor = task -> {
+			throw new RejectedExecutionException();
+		};
+		publisher.setExecutor(executor);
+
+		publisher.publishAuthenticationSuccess(mock(Authentication.class));
+
+		verifyZeroInteractions(appPublisher);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void setAsyncQueueCapacityWhenZeroThenException() {
+		publisher = new DefaultAuthenticationEventPublisher();
+		publisher.setAsyncQueueCapacity(0);
+	}
+
+	@Test
+	public void setAsyncQueueCapacityWhenReplacedThenPreviousThreadShutDown() throws Exception {
+		publisher = new DefaultAuthenticationEventPublisher();
+		ApplicationEventPublisher appPublisher = mock(ApplicationEventPublisher.class);
+		publisher.setApplicationEventPublisher(appPublisher);
+		publisher.setAsyncQueueCapacity(10);
+		publisher.publishAuthenticationSuccess(mock(Authentication.class));
+		verify(appPublisher, timeout(1000)).publishEvent(isA(AuthenticationSuccessEvent.class));
+
+		publisher.setAsyncQueueCapacity(10);
+		publisher.destroy();
+		publisher.publishAuthenticationSuccess(mock(Authentication.class));
+
+		Thread.sleep(100);
+		verify(appPublisher, times(1)).publishEvent(isA(AuthenticationSuccessEvent.class));
+	}
+
+	@Test
+	public void publishAuthenticationSuccessWhenSkipEventsWithoutListenersAndNoListenersThenNotPublished() {
+		List<Object> published = new ArrayList<>();
+		GenericApplicationContext context = new GenericApplicationContext() {
+			@Override
+			public void publishEvent(Object event) {
+				published.add(event);
+			}
+
+			@Override
+			public void publishEvent(ApplicationEvent event) {
+				published.add(event);
+			}
+		};
+		context.refresh();
+		published.clear();
+		publisher = new DefaultAuthenticationEventPublisher(context);
+		publisher.setSkipEventsWithoutListeners(true);
+
+		publisher.publishAuthenticationSuccess(mock(Authentication.class));
+		publisher.publishAuthenticationFailure(new BadCredentialsException(""),
+				mock(Authentication.class));
+
+		assertThat(published).isEmpty();
+		context.close();
+	}
+
 	private static final class MockAuthenticationException extends
 			AuthenticationException {
 		MockAuthenticationException(String msg) {
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.authentication;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+/**
+ * @author agent
+ * @since 5.3
+ */
+public class PasswordEncoderSchedulerTests {
+	private PasswordEncoderScheduler scheduler = new PasswordEncoderScheduler(1, 1);
+
+	@After
+	public void cleanup() {
+		this.scheduler.dispose();
+	}
+
+	@Test
+	public void constructorWhenPoolSizeZeroThenIllegalArgumentException() {
+		assertThatCode(() -> new PasswordEncoderScheduler(0))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void constructorWhenQueueCapacityZeroThenIllegalArgumentException() {
+		assertThatCode(() -> new PasswordEncoderScheduler(1, 0))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void publishOnThenRunsOnPasswordEncoderThread() {
+		String threadName = Mono.just("password")
+			.publishOn(this.scheduler)
+			.map(p -> Thread.currentThread().getName())
+			.block();
+
+		assertThat(threadName).startsWith("password-encoder-");
+	}
+
+	@Test
+	public void scheduleWhenQueueFullThenRejected() throws Exception {
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		this.scheduler.schedule(() -> {
+			running.countDown();
+			await(release);
+		});
+		assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+		this.scheduler.schedule(() -> { });
+
+		assertThatCode(() -> this.scheduler.schedule(() -> { }))
+			.isInstanceOf(RejectedExecutionException.class);
+		assertThat(this.scheduler.getQueueSize()).isEqualTo(1);
+		assertThat(this.scheduler.getActiveCount()).isEqualTo(1);
+		assertThat(this.scheduler.getRejectedCount()).isEqualTo(1);
+
+		release.countDown();
+	}
+
+	@Test
+	public void getUpgradeSchedulerThenRunsOnLowPriorityThread() {
+		Thread thread = Mono.fromCallable(Thread::currentThread)
+			.subscribeOn(this.scheduler.getUpgradeScheduler())
+			.block();
+
+		assertThat(thread.getName()).startsWith("password-encoder-upgrade-");
+		assertThat(thread.getPriority()).isEqualTo(Thread.MIN_PRIORITY);
+	}
+
+	@Test
+	public void disposeThenUpgradeSchedulerDisposed() {
+		this.scheduler.dispose();
+
+		assertThat(this.scheduler.isDisposed()).isTrue();
+		assertThat(this.scheduler.getUpgradeScheduler().isDisposed()).isTrue();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -320,6 +320,59 @@ public class ProviderManagerTests {
 		verifyNoMoreInteractions(publisher);		// Child should not publish (duplicate event)
 	}
 
+	@Test
+	public void authenticateWhenCacheProviderLookupsThenSupportsInvokedOncePerType() {
+		AuthenticationProvider unsupported = mock(AuthenticationProvider.class);
+		AuthenticationProvider supported = createProviderWhichReturns(createAuthenticationToken());
+		ProviderManager mgr = new ProviderManager(Arrays.asList(unsupported, supported));
+		mgr.setCacheProviderLookups(true);
+
+		mgr.authenticate(createAuthenticationToken());
+		mgr.authenticate(createAuthenticationToken());
+
+		verify(unsupported).supports(TestingAuthenticationToken.class);
+		verify(supported).supports(TestingAuthenticationToken.class);
+		verify(unsupported, never()).authenticate(any(Authentication.class));
+		verify(supported, times(2)).authenticate(any(Authentication.class));
+	}
+
+	@Test
+	public void authenticateWhenCacheProviderLookupsAndParentDoesNotSupportThenParentNotInvoked() {
+		AuthenticationProvider parentProvider = mock(AuthenticationProvider.class);
+		ProviderManager parentMgr = new ProviderManager(Collections.singletonList(parentProvider));
+		BadCredentialsException expected = new BadCredentialsException("Bad Credentials in child");
+		ProviderManager childMgr = new ProviderManager(
+				Collections.singletonList(createProviderWhichThrows(expected)), parentMgr);
+		childMgr.setCacheProviderLookups(true);
+		AuthenticationEventPublisher publisher = mock(AuthenticationEventPublisher.class);
+		parentMgr.setAuthenticationEventPublisher(publisher);
+		childMgr.setAuthenticationEventPublisher(publisher);
+		Authentication authReq = createAuthenticationToken();
+
+		try {
+			childMgr.authenticate(authReq);
+			fail("Expected exception");
+		}
+		catch (BadCredentialsException e) {
+			assertThat(e).isSameAs(expected);
+		}
+		verify(parentProvider, never()).authenticate(any(Authentication.class));
+		verify(publisher).publishAuthenticationFailure(expected, authReq);
+		verifyNoMoreInteractions(publisher);
+	}
+
+	@Test
+	public void authenticateWhenCacheProviderLookupsAndParentSupportsThenParentInvoked() {
+		Authentication authReq = createAuthenticationToken();
+		ProviderManager parentMgr = new ProviderManager(
+				Collections.singletonList(createProviderWhichReturns(authReq)));
+		ProviderManager childMgr = new ProviderManager(
+				Collections.singletonList(mock(AuthenticationProvider.class)), parentMgr);
+		childMgr.setCacheProviderLookups(true);
+
+		assertThat(childMgr.authenticate(authReq)).isSameAs(authReq);
+	}
+
 	private AuthenticationProvider createProviderWhichThrows(
 			final AuthenticationException e) {
 		AuthenticationProvider provider = mock(AuthenticationProvider.class);
@@ -19,6 +19,8 @@ package org.springframework.security.authentication;
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.util.concurrent.RejectedExecutionException;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -114,6 +116,62 @@ public class UserDetailsRepositoryReactiveAuthenticationManagerTests {
 		verify(this.userDetailsPasswordService).updatePassword(eq(this.user), eq(encodedPassword));
 	}
 
+	@Test
+	public void authenticateWhenPasswordUpgradeSchedulerThenUpdatedOnUpgradeScheduler() {
+		String encodedPassword = "encoded";
+		UserDetails upgraded = User.withUserDetails(this.user).password(encodedPassword).build();
+		when(this.userDetailsService.findByUsername(any())).thenReturn(Mono.just(this.user));
+		when(this.encoder.matches(any(), any())).thenReturn(true);
+		when(this.encoder.upgradeEncoding(any())).thenReturn(true);
+		when(this.encoder.encode(any())).thenReturn(encodedPassword);
+		when(this.userDetailsPasswordService.updatePassword(any(), any())).thenReturn(Mono.just(upgraded));
+		this.manager.setPasswordEncoder(this.encoder);
+		this.manager.setUserDetailsPasswordService(this.userDetailsPasswordService);
+		this.manager.setPasswordUpgradeScheduler(this.scheduler);
+		UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(
+				this.user, this.user.getPassword());
+
+		Authentication result = this.manager.authenticate(token).block();
+
+		assertThat(result.getPrincipal()).isEqualTo(this.user);
+		verify(this.scheduler).schedule(any());
+		verify(this.userDetailsPasswordService).updatePassword(eq(this.user), eq(encodedPassword));
+	}
+
+	@Test
+	public void authenticateWhenPasswordUpgradeFailsThenStillAuthenticated() {
+		when(this.userDetailsService.findByUsername(any())).thenReturn(Mono.just(this.user));
+		when(this.encoder.matches(any(), any())).thenReturn(true);
+		when(this.encoder.upgradeEncoding(any())).thenReturn(true);
+		when(this.encoder.encode(any())).thenReturn("encoded");
+		when(this.userDetailsPasswordService.updatePassword(any(), any()))
+				.thenReturn(Mono.error(new IllegalStateException("store unavailable")));
+		this.manager.setPasswordEncoder(this.encoder);
+		this.manager.setUserDetailsPasswordService(this.userDetailsPasswordService);
+		this.manager.setPasswordUpgradeScheduler(Schedulers.immediate());
+		UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(
+				this.user, this.user.getPassword());
+
+		Authentication result = this.manager.authenticate(token).block();
+
+		assertThat(result.getPrincipal()).isEqualTo(this.user);
+	}
+
+	@Test
+	public void authenticateWhenSchedulerRejectsThenAuthenticationServiceException() {
+		when(this.userDetailsService.findByUsername(any())).thenReturn(Mono.just(this.user));
+		when(this.scheduler.schedule(any())).thenThrow(new RejectedExecutionException("full"));
+		this.manager.setScheduler(this.scheduler);
+		this.manager.setPasswordEncoder(this.encoder);
+		UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(
+				this.user, this.user.getPassword());
+
+		assertThatThrownBy(() -> this.manager.authenticate(token).block())
+			.isInstanceOf(AuthenticationServiceException.class)
+			.hasCauseInstanceOf(RejectedExecutionException.class);
+		verifyZeroInteractions(this.encoder);
+	}
+
 	@Test
 	public void authenticateWhenPasswordServiceAndBadCredentialsThenNotUpdated() {
 		when(this.userDetailsService.findByUsername(any())).thenReturn(Mono.just(this.user));
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.authentication.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author agent
+ * @since 5.3
+ */
+public class AsyncPasswordUpgraderTests {
+	private UserDetails user = User.withUsername("user").password("{sha256}old").roles("USER").build();
+
+	private PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+
+	private UserDetailsService userDetailsService = mock(UserDetailsService.class);
+
+	private UserDetailsPasswordService userDetailsPasswordService = mock(UserDetailsPasswordService.class);
+
+	private List<Runnable> tasks = new ArrayList<>();
+
+	private AsyncPasswordUpgrader upgrader;
+
+	@Before
+	public void setup() {
+		this.upgrader = new AsyncPasswordUpgrader(this.passwordEncoder, this.userDetailsService,
+				this.userDetailsPasswordService);
+		this.upgrader.setExecutor(this.tasks::add);
+		when(this.passwordEncoder.encode("password")).thenReturn("{bcrypt}new");
+	}
+
+	@Test
+	public void upgradeThenNotProcessedUntilExecuted() {
+		this.upgrader.upgrade(this.user, "password");
+
+		assertThat(this.upgrader.getPendingUpgrades()).isEqualTo(1);
+		verifyZeroInteractions(this.passwordEncoder, this.userDetailsPasswordService);
+	}
+
+	@Test
+	public void upgradeWhenExecutedThenPasswordUpdated() {
+		when(this.userDetailsService.loadUserByUsername("user")).thenReturn(this.user);
+
+		this.upgrader.upgrade(this.user, "password");
+		runTasks();
+
+		verify(this.userDetailsPasswordService).updatePassword(this.user, "{bcrypt}new");
+		assertThat(this.upgrader.getPendingUpgrades()).isZero();
+	}
+
+	@Test
+	public void upgradeWhenSameUserTwiceThenUpgradedOnce() {
+		when(this.userDetailsService.loadUserByUsername("user")).thenReturn(this.user);
+
+		this.upgrader.upgrade(this.user, "password");
+		this.upgrader.upgrade(this.user, "password");
+		runTasks();
+
+		assertThat(this.tasks).isEmpty();
+		verify(this.userDetailsPasswordService, times(1)).updatePassword(any(), any());
+	}
+
+	@Test
+	public void upgradeWhenPasswordChangedWhileQueuedThenNotUpdated() {
+		UserDetails changed = User.withUserDetails(this.user).password("{bcrypt}changed").build();
+		when(this.userDetailsService.loadUserByUsername("user")).thenReturn(changed);
+
+		this.upgrader.upgrade(this.user, "password");
+		runTasks();
+
+		verify(this.userDetailsPasswordService, never()).updatePassword(any(), any());
+	}
+
+	@Test
+	public void upgradeWhenUserDeletedWhileQueuedThenNotUpdated() {
+		when(this.userDetailsService.loadUserByUsername("user")).thenThrow(new UsernameNotFoundException("user"));
+
+		this.upgrader.upgrade(this.user, "password");
+		runTasks();
+
+		verify(this.userDetailsPasswordService, never()).updatePassword(any(), any());
+	}
+
+	@Test
+	public void upgradeWhenMoreThanBatchSizeThenProcessedInSeveralTasks() {
+		this.upgrader.setBatchSize(1);
+		UserDetails other = User.withUsername("other").password("{sha256}other").roles("USER").build();
+		when(this.userDetailsService.loadUserByUsername("user")).thenReturn(this.user);
+		when(this.userDetailsService.loadUserByUsername("other")).thenReturn(other);
+
+		this.upgrader.upgrade(this.user, "password");
+		this.upgrader.upgrade(other, "password");
+
+		assertThat(this.tasks).hasSize(1);
+		assertThat(runTasks()).isEqualTo(2);
+		verify(this.userDetailsPasswordService).updatePassword(this.user, "{bcrypt}new");
+		verify(this.userDetailsPasswordService).updatePassword(other, "{bcrypt}new");
+	}
+
+	@Test
+	public void upgradeWhenMaximumPendingUpgradesThenDropped() {
+		this.upgrader.setMaximumPendingUpgrades(1);
+		UserDetails other = User.withUsername("other").password("{sha256}other").roles("USER").build();
+
+		this.upgrader.upgrade(this.user, "password");
+		this.upgrader.upgrade(other, "password");
+
+		assertThat(this.upgrader.getPendingUpgrades()).isEqualTo(1);
+	}
+
+	private int runTasks() {
+		int count = 0;
+		while (!this.tasks.isEmpty()) {
+			this.tasks.remove(0).run();
+			count++;
+		}
+		return count;
+	}
+}
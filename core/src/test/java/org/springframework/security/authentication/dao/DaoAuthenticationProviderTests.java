@@ -30,8 +30,11 @@ import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 import java.security.SecureRandom;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 import org.springframework.dao.DataRetrievalFailureException;
@@ -42,6 +45,7 @@ import org.springframework.security.authentication.CredentialsExpiredException;
 import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.LockedException;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.TestingAuthenticationToken;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -54,6 +58,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.core.userdetails.cache.EhCacheBasedUserCache;
 import org.springframework.security.core.userdetails.cache.NullUserCache;
+import org.springframework.security.core.userdetails.cache.UnknownUsernameCache;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.NoOpPasswordEncoder;
@@ -433,6 +438,68 @@ public class DaoAuthenticationProviderTests {
 		verify(passwordManager).updatePassword(eq(user), eq(encodedPassword));
 	}
 
+	@Test
+	public void authenticateWhenAsyncPasswordUpgraderThenUpgradeQueued() {
+		String password = "password";
+		UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(
+				"user", password);
+
+		PasswordEncoder encoder = mock(PasswordEncoder.class);
+		UserDetailsService userDetailsService = mock(UserDetailsService.class);
+		UserDetailsPasswordService passwordManager = mock(UserDetailsPasswordService.class);
+		AsyncPasswordUpgrader upgrader = new AsyncPasswordUpgrader(encoder, userDetailsService, passwordManager);
+		List<Runnable> tasks = new ArrayList<>();
+		upgrader.setExecutor(tasks::add);
+		DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+		provider.setPasswordEncoder(encoder);
+		provider.setUserDetailsService(userDetailsService);
+		provider.setAsyncPasswordUpgrader(upgrader);
+
+		UserDetails user = PasswordEncodedUser.user();
+		when(encoder.matches(any(), any())).thenReturn(true);
+		when(encoder.upgradeEncoding(any())).thenReturn(true);
+		when(userDetailsService.loadUserByUsername(any())).thenReturn(user);
+
+		Authentication result = provider.authenticate(token);
+
+		assertThat(result.getPrincipal()).isEqualTo(user);
+		assertThat(upgrader.getPendingUpgrades()).isEqualTo(1);
+		assertThat(tasks).hasSize(1);
+		verify(encoder, times(0)).encode(any());
+		verifyZeroInteractions(passwordManager);
+	}
+
+	@Test
+	public void authenticateWhenAsyncPasswordUpgraderAndCredentialsErasedThenUpgraded() {
+		UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(
+				"user", "password");
+
+		PasswordEncoder encoder = mock(PasswordEncoder.class);
+		UserDetailsService userDetailsService = mock(UserDetailsService.class);
+		UserDetailsPasswordService passwordManager = mock(UserDetailsPasswordService.class);
+		AsyncPasswordUpgrader upgrader = new AsyncPasswordUpgrader(encoder, userDetailsService, passwordManager);
+		List<Runnable> tasks = new ArrayList<>();
+		upgrader.setExecutor(tasks::add);
+		DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+		provider.setPasswordEncoder(encoder);
+		provider.setUserDetailsService(userDetailsService);
+		provider.setAsyncPasswordUpgrader(upgrader);
+		ProviderManager manager = new ProviderManager(Collections.singletonList(provider));
+		manager.setEraseCredentialsAfterAuthentication(true);
+
+		when(encoder.matches(any(), any())).thenReturn(true);
+		when(encoder.upgradeEncoding(any())).thenReturn(true);
+		when(encoder.encode("password")).thenReturn("upgraded");
+		when(userDetailsService.loadUserByUsername("user"))
+				.thenAnswer(invocation -> PasswordEncodedUser.user());
+
+		Authentication result = manager.authenticate(token);
+		tasks.forEach(Runnable::run);
+
+		assertThat(((UserDetails) result.getPrincipal()).getPassword()).isNull();
+		verify(passwordManager).updatePassword(any(), eq("upgraded"));
+	}
+
 	@Test
 	public void authenticateWhenBadCredentialsAndPasswordManagerThenNoUpdate() {
 		UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(
@@ -615,6 +682,57 @@ public class DaoAuthenticationProviderTests {
 		verify(encoder).matches(isA(String.class), isA(String.class));
 	}
 
+	@Test
+	public void authenticateWhenUnknownUsernameCachedThenUserDetailsServiceNotQueriedAgain() {
+		UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(
+				"missing", "koala");
+		PasswordEncoder encoder = mock(PasswordEncoder.class);
+		when(encoder.encode(anyString())).thenReturn("koala");
+		UserDetailsService userDetailsService = mock(UserDetailsService.class);
+		when(userDetailsService.loadUserByUsername("missing"))
+				.thenThrow(new UsernameNotFoundException("missing"));
+		DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+		provider.setHideUserNotFoundExceptions(false);
+		provider.setPasswordEncoder(encoder);
+		provider.setUserDetailsService(userDetailsService);
+		provider.setUnknownUsernameCache(new UnknownUsernameCache(10, Duration.ofMinutes(1)));
+
+		assertThatThrownBy(() -> provider.authenticate(token))
+				.isInstanceOf(UsernameNotFoundException.class);
+		assertThatThrownBy(() -> provider.authenticate(token))
+				.isInstanceOf(UsernameNotFoundException.class);
+
+		verify(userDetailsService).loadUserByUsername("missing");
+		verify(encoder, times(2)).matches("koala", "koala");
+	}
+
+	@Test
+	public void authenticateWhenUnknownUsernameCachedThenWaitsForLookupTime() {
+		UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(
+				"missing", "koala");
+		UserDetailsService userDetailsService = username -> {
+			try {
+				Thread.sleep(100);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			throw new UsernameNotFoundException(username);
+		};
+		DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+		provider.setUserDetailsService(userDetailsService);
+		provider.setUnknownUsernameCache(new UnknownUsernameCache(10, Duration.ofMinutes(1)));
+		assertThatThrownBy(() -> provider.authenticate(token))
+				.isInstanceOf(BadCredentialsException.class);
+
+		long start = System.nanoTime();
+		assertThatThrownBy(() -> provider.authenticate(token))
+				.isInstanceOf(BadCredentialsException.class);
+
+		assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(
+				TimeUnit.MILLISECONDS.toNanos(90));
+	}
+
 	@Test
 	public void testUserNotFoundBCryptPasswordEncoder() {
 		UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(
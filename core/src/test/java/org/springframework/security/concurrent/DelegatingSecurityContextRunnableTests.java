@@ -32,6 +32,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 import org.mockito.stubbing.Answer;
 import org.springframework.core.task.SyncTaskExecutor;
 import org.springframework.core.task.support.ExecutorServiceAdapter;
+import org.springframework.security.core.context.ScopedSecurityContextHolderStrategy;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
@@ -121,6 +122,19 @@ public class DelegatingSecurityContextRunnableTests {
 		assertWrapped(runnable);
 	}
 
+	@Test
+	public void callWhenNoContextOnThreadThenNoContextLeftBehind() throws Exception {
+		executor = synchronousExecutor();
+		runnable = new DelegatingSecurityContextRunnable(delegate, securityContext);
+
+		executor.submit(runnable).get();
+
+		verify(delegate).run();
+		ScopedSecurityContextHolderStrategy strategy = (ScopedSecurityContextHolderStrategy) SecurityContextHolder
+				.getContextHolderStrategy();
+		assertThat(strategy.bindContext(originalSecurityContext)).isNull();
+	}
+
 	// --- create ---
 
 	@Test(expected = IllegalArgumentException.class)
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.context;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.context.event.SmartApplicationListener;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.security.access.event.AuthorizedEvent;
+import org.springframework.security.access.event.PublicInvocationEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author agent
+ * @since 5.3
+ */
+public class ListenerAwareApplicationEventPublisherTests {
+	private GenericApplicationContext context = new GenericApplicationContext();
+
+	@After
+	public void cleanup() {
+		this.context.close();
+	}
+
+	@Test
+	public void hasListenersWhenNotRefreshedThenTrue() {
+		ListenerAwareApplicationEventPublisher publisher = new ListenerAwareApplicationEventPublisher(this.context);
+
+		assertThat(publisher.hasListeners(PublicInvocationEvent.class)).isTrue();
+	}
+
+	@Test
+	public void hasListenersWhenNoListenersThenFalse() {
+		this.context.refresh();
+		ListenerAwareApplicationEventPublisher publisher = new ListenerAwareApplicationEventPublisher(this.context);
+
+		assertThat(publisher.hasListeners(PublicInvocationEvent.class)).isFalse();
+	}
+
+	@Test
+	public void hasListenersWhenListenerBeanThenOnlyItsEventType() {
+		this.context.registerBean(PublicInvocationListener.class);
+		this.context.refresh();
+		ListenerAwareApplicationEventPublisher publisher = new ListenerAwareApplicationEventPublisher(this.context);
+
+		assertThat(publisher.hasListeners(PublicInvocationEvent.class)).isTrue();
+		assertThat(publisher.hasListeners(AuthorizedEvent.class)).isFalse();
+	}
+
+	@Test
+	public void hasListenersWhenEventListenerMethodThenTrue() {
+		this.context = new AnnotationConfigApplicationContext(EventListenerConfig.class);
+		ListenerAwareApplicationEventPublisher publisher = new ListenerAwareApplicationEventPublisher(this.context);
+
+		assertThat(publisher.hasListeners(AuthorizedEvent.class)).isTrue();
+		assertThat(publisher.hasListeners(PublicInvocationEvent.class)).isFalse();
+	}
+
+	@Test
+	public void hasListenersWhenParentHasListenerThenTrue() {
+		this.context.registerBean(PublicInvocationListener.class);
+		this.context.refresh();
+		GenericApplicationContext child = new GenericApplicationContext(this.context);
+		child.refresh();
+		ListenerAwareApplicationEventPublisher publisher = new ListenerAwareApplicationEventPublisher(child);
+
+		assertThat(publisher.hasListeners(PublicInvocationEvent.class)).isTrue();
+		child.close();
+	}
+
+	@Test
+	public void hasListenersWhenDelegatingApplicationListenerThenDelegatesConsulted() {
+		SmartApplicationListener delegate = mock(SmartApplicationListener.class);
+		when(delegate.supportsEventType(AuthorizedEvent.class)).thenReturn(true);
+		DelegatingApplicationListener delegating = new DelegatingApplicationListener();
+		delegating.addListener(delegate);
+		this.context.registerBean(DelegatingApplicationListener.class, () -> delegating);
+		this.context.refresh();
+		ListenerAwareApplicationEventPublisher publisher = new ListenerAwareApplicationEventPublisher(this.context);
+
+		assertThat(publisher.hasListeners(AuthorizedEvent.class)).isTrue();
+		assertThat(publisher.hasListeners(PublicInvocationEvent.class)).isFalse();
+	}
+
+	@Test
+	public void hasListenersWhenListenerAddedThenTrue() {
+		this.context.refresh();
+		ListenerAwareApplicationEventPublisher publisher = new ListenerAwareApplicationEventPublisher(this.context);
+		assertThat(publisher.hasListeners(PublicInvocationEvent.class)).isFalse();
+
+		this.context.addApplicationListener(new PublicInvocationListener());
+
+		assertThat(publisher.hasListeners(PublicInvocationEvent.class)).isTrue();
+	}
+
+	@Test
+	public void publishEventWhenListenerThenReceived() {
+		this.context.registerBean(PublicInvocationListener.class);
+		this.context.refresh();
+		ListenerAwareApplicationEventPublisher publisher = new ListenerAwareApplicationEventPublisher(this.context);
+
+		publisher.publishEvent(new PublicInvocationEvent(this));
+
+		assertThat(this.context.getBean(PublicInvocationListener.class).events).isEqualTo(1);
+	}
+
+	static class PublicInvocationListener implements ApplicationListener<PublicInvocationEvent> {
+		int events;
+
+		@Override
+		public void onApplicationEvent(PublicInvocationEvent event) {
+			this.events++;
+		}
+	}
+
+	static class EventListenerConfig {
+		@EventListener
+		public void onAuthorized(AuthorizedEvent event) {
+		}
+	}
+}
@@ -17,6 +17,11 @@ package org.springframework.security.core.authority;
 
 import static org.assertj.core.api.Assertions.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -42,4 +47,68 @@ public class AuthorityUtilsTests {
 		assertThat(authorities.contains("ROLE_A")).isTrue();
 		assertThat(authorities.contains("ROLE_D")).isTrue();
 	}
+
+	@Test
+	public void createAuthorityListThenAuthoritiesShared() {
+		List<GrantedAuthority> first = AuthorityUtils.createAuthorityList("ROLE_SHARED");
+		List<GrantedAuthority> second = AuthorityUtils.createAuthorityList("ROLE_SHARED");
+
+		assertThat(second.get(0)).isSameAs(first.get(0));
+		assertThat(second).isInstanceOf(ArrayList.class);
+	}
+
+	@Test
+	public void createCompactAuthorityListThenContainsUsesEquality() {
+		List<GrantedAuthority> authorities = AuthorityUtils.createCompactAuthorityList("ROLE_A", "ROLE_B");
+
+		assertThat(authorities).hasSize(2);
+		assertThat(authorities.contains(new SimpleGrantedAuthority("ROLE_A"))).isTrue();
+		assertThat(authorities.contains(new SimpleGrantedAuthority("ROLE_B"))).isTrue();
+		assertThat(authorities.contains(new SimpleGrantedAuthority("ROLE_C"))).isFalse();
+		assertThat(authorities.contains(new SimpleGrantedAuthority("ROLE_NEVER_INTERNED"))).isFalse();
+		assertThat(authorities.contains("ROLE_A")).isFalse();
+		assertThat(authorities).isEqualTo(AuthorityUtils.createAuthorityList("ROLE_A", "ROLE_B"));
+	}
+
+	@Test
+	public void createCompactAuthorityListWhenEmptyThenEmpty() {
+		List<GrantedAuthority> authorities = AuthorityUtils.createCompactAuthorityList();
+
+		assertThat(authorities).isEmpty();
+		assertThat(authorities.contains(new SimpleGrantedAuthority("ROLE_A"))).isFalse();
+	}
+
+	@Test
+	public void createCompactAuthorityListWhenCustomAuthorityThenContainsWorks() {
+		GrantedAuthority custom = () -> "ROLE_CUSTOM";
+		List<GrantedAuthority> authorities = new ArrayList<>(AuthorityUtils.createAuthorityList("ROLE_A"));
+		authorities.add(custom);
+
+		List<GrantedAuthority> compact = AuthorityUtils.createCompactAuthorityList(authorities);
+
+		assertThat(compact).containsExactly(new SimpleGrantedAuthority("ROLE_A"), custom);
+		assertThat(compact.contains(new SimpleGrantedAuthority("ROLE_A"))).isTrue();
+		assertThat(compact.contains(custom)).isTrue();
+	}
+
+	@Test
+	public void createCompactAuthorityListThenImmutable() {
+		List<GrantedAuthority> authorities = AuthorityUtils.createCompactAuthorityList("ROLE_A");
+
+		assertThatCode(() -> authorities.add(new SimpleGrantedAuthority("ROLE_B")))
+			.isInstanceOf(UnsupportedOperationException.class);
+	}
+
+	@Test
+	public void createCompactAuthorityListWhenSerializedThenEqual() throws Exception {
+		List<GrantedAuthority> authorities = AuthorityUtils.createCompactAuthorityList("ROLE_A", "ROLE_B");
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(authorities);
+		}
+
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			assertThat(in.readObject()).isEqualTo(authorities);
+		}
+	}
 }
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.context;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+/**
+ * @author agent
+ * @since 5.3
+ */
+public class BinarySecurityContextCodecTests {
+	private BinarySecurityContextCodec codec = new BinarySecurityContextCodec(
+			Arrays.asList("ROLE_USER", "ROLE_ADMIN"));
+
+	@Test
+	public void decodeWhenUsernamePasswordAuthenticationTokenThenEqual() {
+		SecurityContext context = new SecurityContextImpl(authentication());
+
+		SecurityContext decoded = this.codec.decode(this.codec.encode(context));
+
+		assertThat(decoded).isEqualTo(context);
+		UserDetails user = (UserDetails) decoded.getAuthentication().getPrincipal();
+		assertThat(user.getPassword()).isNull();
+		assertThat(user.isAccountNonLocked()).isFalse();
+		assertThat(user.isEnabled()).isTrue();
+	}
+
+	@Test
+	public void encodeWhenUsernamePasswordAuthenticationTokenThenSmallerThanSerialization() throws IOException {
+		SecurityContext context = new SecurityContextImpl(authentication());
+		ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+		try (ObjectOutputStream objects = new ObjectOutputStream(serialized)) {
+			objects.writeObject(context);
+		}
+
+		assertThat(this.codec.encode(context).length).isLessThan(serialized.size() / 10);
+	}
+
+	@Test
+	public void decodeWhenUnauthenticatedThenUnauthenticated() {
+		SecurityContext context = new SecurityContextImpl(
+				new UsernamePasswordAuthenticationToken("user", "password"));
+
+		SecurityContext decoded = this.codec.decode(this.codec.encode(context));
+
+		assertThat(decoded).isEqualTo(context);
+		assertThat(decoded.getAuthentication().isAuthenticated()).isFalse();
+	}
+
+	@Test
+	public void decodeWhenEmptyThenEmpty() {
+		SecurityContext decoded = this.codec.decode(this.codec.encode(new SecurityContextImpl()));
+
+		assertThat(decoded).isEqualTo(new SecurityContextImpl());
+	}
+
+	@Test
+	public void decodeWhenDictionaryAppendedThenEqual() {
+		SecurityContext context = new SecurityContextImpl(authentication());
+		BinarySecurityContextCodec appended = new BinarySecurityContextCodec(
+				Arrays.asList("ROLE_USER", "ROLE_ADMIN", "ROLE_OTHER", "user"));
+
+		assertThat(appended.decode(this.codec.encode(context))).isEqualTo(context);
+	}
+
+	@Test
+	public void decodeWhenOtherAuthenticationThenSerialized() {
+		SecurityContext context = new SecurityContextImpl(
+				new TestingAuthenticationToken("user", "password", "ROLE_USER"));
+
+		assertThat(this.codec.decode(this.codec.encode(context))).isEqualTo(context);
+	}
+
+	@Test
+	public void decodeWhenRegisteredCodecThenUsed() {
+		this.codec.registerCodec(0, new DetailsCodec());
+		UsernamePasswordAuthenticationToken authentication = authentication();
+		authentication.setDetails(new Details("details"));
+		SecurityContext context = new SecurityContextImpl(authentication);
+
+		assertThat(this.codec.decode(this.codec.encode(context)).getAuthentication().getDetails())
+				.isEqualTo(new Details("details"));
+	}
+
+	@Test
+	public void decodeWhenAttributesThenEqual() {
+		this.codec.registerCodec(0, new AttributesCodec());
+		Map<String, Object> attributes = new LinkedHashMap<>();
+		attributes.put("sub", "user");
+		attributes.put("iat", Instant.ofEpochSecond(1500000000L, 5));
+		attributes.put("before", Instant.ofEpochSecond(-10L));
+		attributes.put("aud", new ArrayList<>(Arrays.asList("client")));
+		attributes.put("none", null);
+		UsernamePasswordAuthenticationToken authentication = authentication();
+		authentication.setDetails(new Attributes(attributes));
+		SecurityContext context = new SecurityContextImpl(authentication);
+
+		Object details = this.codec.decode(this.codec.encode(context)).getAuthentication().getDetails();
+
+		assertThat(((Attributes) details).attributes).containsExactlyEntriesOf(attributes);
+	}
+
+	@Test
+	public void registerCodecWhenIdInUseThenIllegalArgumentException() {
+		this.codec.registerCodec(0, new DetailsCodec());
+
+		assertThatCode(() -> this.codec.registerCodec(0, new DetailsCodec()))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void encodeWhenNotSerializableThenIllegalArgumentException() {
+		UsernamePasswordAuthenticationToken authentication = authentication();
+		authentication.setDetails(new Details("details"));
+
+		assertThatCode(() -> this.codec.encode(new SecurityContextImpl(authentication)))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void decodeWhenOtherVersionThenIllegalArgumentException() {
+		byte[] encoded = this.codec.encode(new SecurityContextImpl(authentication()));
+		encoded[1]++;
+
+		assertThatCode(() -> this.codec.decode(encoded))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void decodeWhenTruncatedThenIllegalArgumentException() {
+		byte[] encoded = this.codec.encode(new SecurityContextImpl(authentication()));
+
+		assertThatCode(() -> this.codec.decode(Arrays.copyOf(encoded, encoded.length - 1)))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static UsernamePasswordAuthenticationToken authentication() {
+		User user = new User("user", "password", true, true, true, false,
+				AuthorityUtils.createAuthorityList("ROLE_USER", "ROLE_ADMIN", "ROLE_CUSTOM"));
+		user.eraseCredentials();
+		return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+	}
+
+	static final class Details {
+		private final String value;
+
+		Details(String value) {
+			this.value = value;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Details && ((Details) obj).value.equals(this.value);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.value.hashCode();
+		}
+	}
+
+	static final class DetailsCodec implements BinaryTypeCodec<Details> {
+		@Override
+		public Class<Details> getType() {
+			return Details.class;
+		}
+
+		@Override
+		public void write(Details details, BinarySecurityContextCodec.Output output) {
+			output.writeString(details.value);
+		}
+
+		@Override
+		public Details read(BinarySecurityContextCodec.Input input) throws IOException {
+			return new Details(input.readString());
+		}
+	}
+
+	static final class Attributes {
+		private final Map<String, Object> attributes;
+
+		Attributes(Map<String, Object> attributes) {
+			this.attributes = attributes;
+		}
+	}
+
+	static final class AttributesCodec implements BinaryTypeCodec<Attributes> {
+		@Override
+		public Class<Attributes> getType() {
+			return Attributes.class;
+		}
+
+		@Override
+		public void write(Attributes attributes, BinarySecurityContextCodec.Output output) throws IOException {
+			output.writeAttributes(attributes.attributes);
+		}
+
+		@Override
+		public Attributes read(BinarySecurityContextCodec.Input input) throws IOException {
+			return new Attributes(input.readAttributes());
+		}
+	}
+}
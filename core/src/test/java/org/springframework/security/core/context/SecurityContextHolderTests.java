@@ -55,6 +55,34 @@ public class SecurityContextHolderTests {
 		SecurityContextHolder.clearContext();
 	}
 
+	@Test
+	public void bindContextWhenNoContextThenRestoreClears() {
+		ScopedSecurityContextHolderStrategy strategy = new ThreadLocalSecurityContextHolderStrategy();
+		SecurityContext sc = new SecurityContextImpl();
+
+		assertThat(strategy.bindContext(sc)).isNull();
+		assertThat(strategy.getContext()).isSameAs(sc);
+		strategy.restoreContext(null);
+
+		assertThat(strategy.bindContext(sc)).isNull();
+		strategy.clearContext();
+	}
+
+	@Test
+	public void bindContextWhenContextThenRestoreRebindsIt() {
+		ScopedSecurityContextHolderStrategy strategy = new InheritableThreadLocalSecurityContextHolderStrategy();
+		SecurityContext original = new SecurityContextImpl();
+		strategy.setContext(original);
+		SecurityContext sc = new SecurityContextImpl();
+
+		SecurityContext previous = strategy.bindContext(sc);
+		assertThat(previous).isSameAs(original);
+		strategy.restoreContext(previous);
+
+		assertThat(strategy.getContext()).isSameAs(original);
+		strategy.clearContext();
+	}
+
 	@Test
 	public void testRejectsNulls() {
 		try {
@@ -18,6 +18,7 @@ package org.springframework.security.core.token;
 import static org.assertj.core.api.Assertions.*;
 
 import java.security.SecureRandom;
+import java.util.Base64;
 import java.util.Date;
 
 import org.junit.Test;
@@ -98,4 +99,55 @@ public class KeyBasedPersistenceTokenServiceTests {
 		Token token = new DefaultToken(fake, new Date().getTime(), "");
 		service.verifyToken(token.getKey());
 	}
+
+	@Test
+	public void verifyTokenWhenBinaryFormatThenVerified() {
+		KeyBasedPersistenceTokenService service = getService();
+		service.setBinaryFormat(true);
+		Token token = service.allocateToken("Hello:world:::\u00e9");
+		Token result = service.verifyToken(token.getKey());
+		assertThat(result).isEqualTo(token);
+		assertThat(result.getExtendedInformation()).isEqualTo("Hello:world:::\u00e9");
+		assertThat(token.getKey()).doesNotContain("+", "/", "=");
+	}
+
+	@Test
+	public void verifyTokenWhenBinaryFormatAndOriginalKeyThenVerified() {
+		KeyBasedPersistenceTokenService service = getService();
+		Token token = service.allocateToken("Hello world");
+		service.setBinaryFormat(true);
+		Token result = service.verifyToken(token.getKey());
+		assertThat(result).isEqualTo(token);
+	}
+
+	@Test
+	public void verifyTokenWhenBinaryFormatAndTamperedKeyThenIllegalArgumentException() {
+		KeyBasedPersistenceTokenService service = getService();
+		service.setBinaryFormat(true);
+		Token token = service.allocateToken("user");
+		byte[] decoded = Base64.getUrlDecoder().decode(token.getKey());
+		decoded[decoded.length - 40] ^= 1;
+		String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(decoded);
+		assertThatThrownBy(() -> service.verifyToken(tampered))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void verifyTokenWhenBinaryFormatAndDifferentSecretThenIllegalArgumentException() {
+		KeyBasedPersistenceTokenService service = getService();
+		service.setBinaryFormat(true);
+		Token token = service.allocateToken("user");
+		service.setServerSecret("OTHER");
+		assertThatThrownBy(() -> service.verifyToken(token.getKey()))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void allocateTokenWhenSecureRandomStripesThenVerified() {
+		KeyBasedPersistenceTokenService service = getService();
+		service.setSecureRandomStripes(4);
+		service.setBinaryFormat(true);
+		Token token = service.allocateToken("user");
+		assertThat(service.verifyToken(token.getKey())).isEqualTo(token);
+	}
 }
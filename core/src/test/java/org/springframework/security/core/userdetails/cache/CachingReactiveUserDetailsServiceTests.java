@@ -0,0 +1,130 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.userdetails.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.core.userdetails.MapReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author agent
+ * @since 5.3
+ */
+public class CachingReactiveUserDetailsServiceTests {
+	private Instant now = Instant.parse("2019-10-01T00:00:00Z");
+
+	private UserDetails user = User.withUsername("user").password("password").roles("USER").build();
+
+	private ReactiveUserDetailsService delegate = mock(ReactiveUserDetailsService.class);
+
+	private CachingReactiveUserDetailsService users;
+
+	@Before
+	public void setup() {
+		this.users = new CachingReactiveUserDetailsService(this.delegate, 10, Duration.ofMinutes(10));
+		this.users.setClock(Clock.fixed(this.now, ZoneOffset.UTC));
+		this.users.setRefreshExecutor(Runnable::run);
+	}
+
+	@Test
+	public void findByUsernameWhenCachedThenDelegateInvokedOnce() {
+		when(this.delegate.findByUsername("user")).thenReturn(Mono.just(this.user));
+
+		assertThat(this.users.findByUsername("user").block()).isSameAs(this.user);
+		assertThat(this.users.findByUsername("user").block()).isSameAs(this.user);
+
+		verify(this.delegate).findByUsername("user");
+	}
+
+	@Test
+	public void findByUsernameWhenNotFoundThenEmptyAndNotCached() {
+		when(this.delegate.findByUsername("user")).thenReturn(Mono.empty());
+
+		assertThat(this.users.findByUsername("user").block()).isNull();
+		assertThat(this.users.findByUsername("user").block()).isNull();
+
+		verify(this.delegate, times(2)).findByUsername("user");
+	}
+
+	@Test
+	public void findByUsernameWhenRemovedThenDelegateInvokedAgain() {
+		when(this.delegate.findByUsername("user")).thenReturn(Mono.just(this.user));
+		this.users.findByUsername("user").block();
+
+		this.users.removeUserFromCache("user");
+		this.users.findByUsername("user").block();
+
+		verify(this.delegate, times(2)).findByUsername("user");
+	}
+
+	@Test
+	public void findByUsernameWhenRefreshAheadThenRefreshedUserReturnedNextTime() {
+		UserDetails updated = User.withUserDetails(this.user).password("updated").build();
+		when(this.delegate.findByUsername("user")).thenReturn(Mono.just(this.user), Mono.just(updated));
+		this.users.setRefreshAhead(Duration.ofMinutes(5));
+		this.users.findByUsername("user").block();
+
+		this.users.setClock(Clock.fixed(this.now.plus(Duration.ofMinutes(6)), ZoneOffset.UTC));
+
+		assertThat(this.users.findByUsername("user").block()).isSameAs(this.user);
+		assertThat(this.users.findByUsername("user").block()).isSameAs(updated);
+	}
+
+	@Test
+	public void findByUsernameWhenRefreshedUserDeletedThenEvicted() {
+		when(this.delegate.findByUsername("user")).thenReturn(Mono.just(this.user), Mono.empty());
+		this.users.setRefreshAhead(Duration.ofMinutes(5));
+		this.users.findByUsername("user").block();
+
+		this.users.setClock(Clock.fixed(this.now.plus(Duration.ofMinutes(6)), ZoneOffset.UTC));
+
+		assertThat(this.users.findByUsername("user").block()).isSameAs(this.user);
+		assertThat(this.users.findByUsername("user").block()).isNull();
+	}
+
+	@Test
+	public void updatePasswordWhenDelegateIsPasswordServiceThenUpdatedPasswordFound() {
+		MapReactiveUserDetailsService delegate = new MapReactiveUserDetailsService(this.user);
+		CachingReactiveUserDetailsService users = new CachingReactiveUserDetailsService(delegate, 10,
+				Duration.ofMinutes(10));
+		UserDetails cached = users.findByUsername("user").block();
+
+		users.updatePassword(cached, "updated").block();
+
+		assertThat(users.findByUsername("user").block().getPassword()).isEqualTo("updated");
+	}
+
+	@Test
+	public void updatePasswordWhenDelegateNotPasswordServiceThenUserReturned() {
+		assertThat(this.users.updatePassword(this.user, "updated").block()).isSameAs(this.user);
+	}
+}
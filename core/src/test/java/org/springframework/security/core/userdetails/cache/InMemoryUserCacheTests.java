@@ -0,0 +1,136 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.userdetails.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author agent
+ * @since 5.3
+ */
+public class InMemoryUserCacheTests {
+	private Instant now = Instant.parse("2019-10-01T00:00:00Z");
+
+	private UserDetails user = User.withUsername("user").password("password").roles("USER").build();
+
+	private UserDetailsService userDetailsService = mock(UserDetailsService.class);
+
+	private InMemoryUserCache cache;
+
+	@Before
+	public void setup() {
+		this.cache = new InMemoryUserCache(10, Duration.ofMinutes(10));
+		this.cache.setClock(Clock.fixed(this.now, ZoneOffset.UTC));
+		this.cache.setRefreshExecutor(Runnable::run);
+	}
+
+	@Test
+	public void getUserFromCacheWhenPutThenUser() {
+		this.cache.putUserInCache(this.user);
+
+		assertThat(this.cache.getUserFromCache("user")).isSameAs(this.user);
+		assertThat(this.cache.getUserFromCache("unknown")).isNull();
+		assertThat(this.cache.getUserFromCache(null)).isNull();
+	}
+
+	@Test
+	public void getUserFromCacheWhenRemovedThenNull() {
+		this.cache.putUserInCache(this.user);
+
+		this.cache.removeUserFromCache("user");
+
+		assertThat(this.cache.getUserFromCache("user")).isNull();
+	}
+
+	@Test
+	public void getUserFromCacheWhenTimeToLiveElapsedThenNull() {
+		this.cache.putUserInCache(this.user);
+
+		setNow(this.now.plus(Duration.ofMinutes(10)));
+
+		assertThat(this.cache.getUserFromCache("user")).isNull();
+	}
+
+	@Test
+	public void getUserFromCacheWhenBeforeRefreshAfterThenNotRefreshed() {
+		this.cache.setRefreshAhead(this.userDetailsService, Duration.ofMinutes(5));
+		this.cache.putUserInCache(this.user);
+
+		setNow(this.now.plus(Duration.ofMinutes(4)));
+
+		assertThat(this.cache.getUserFromCache("user")).isSameAs(this.user);
+		verifyZeroInteractions(this.userDetailsService);
+	}
+
+	@Test
+	public void getUserFromCacheWhenAfterRefreshAfterThenCachedUserReturnedAndRefreshed() {
+		UserDetails updated = User.withUserDetails(this.user).password("updated").build();
+		when(this.userDetailsService.loadUserByUsername("user")).thenReturn(updated);
+		this.cache.setRefreshAhead(this.userDetailsService, Duration.ofMinutes(5));
+		this.cache.putUserInCache(this.user);
+
+		setNow(this.now.plus(Duration.ofMinutes(6)));
+
+		assertThat(this.cache.getUserFromCache("user")).isSameAs(this.user);
+		assertThat(this.cache.getUserFromCache("user")).isSameAs(updated);
+		verify(this.userDetailsService).loadUserByUsername("user");
+	}
+
+	@Test
+	public void getUserFromCacheWhenRefreshedUserNotFoundThenRemoved() {
+		when(this.userDetailsService.loadUserByUsername("user")).thenThrow(new UsernameNotFoundException("user"));
+		this.cache.setRefreshAhead(this.userDetailsService, Duration.ofMinutes(5));
+		this.cache.putUserInCache(this.user);
+
+		setNow(this.now.plus(Duration.ofMinutes(6)));
+
+		assertThat(this.cache.getUserFromCache("user")).isSameAs(this.user);
+		assertThat(this.cache.getUserFromCache("user")).isNull();
+	}
+
+	@Test
+	public void getUserFromCacheWhenRefreshFailsThenCachedUserKept() {
+		when(this.userDetailsService.loadUserByUsername("user")).thenThrow(new IllegalStateException("unavailable"));
+		this.cache.setRefreshAhead(this.userDetailsService, Duration.ofMinutes(5));
+		this.cache.putUserInCache(this.user);
+
+		setNow(this.now.plus(Duration.ofMinutes(6)));
+
+		assertThat(this.cache.getUserFromCache("user")).isSameAs(this.user);
+		assertThat(this.cache.getUserFromCache("user")).isSameAs(this.user);
+	}
+
+	private void setNow(Instant now) {
+		this.cache.setClock(Clock.fixed(now, ZoneOffset.UTC));
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.userdetails.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author agent
+ * @since 5.3
+ */
+public class UnknownUsernameCacheTests {
+	private Instant now = Instant.parse("2019-10-01T00:00:00Z");
+
+	private UnknownUsernameCache cache;
+
+	@Before
+	public void setup() {
+		this.cache = new UnknownUsernameCache(10, Duration.ofMinutes(1));
+		this.cache.setClock(Clock.fixed(this.now, ZoneOffset.UTC));
+	}
+
+	@Test
+	public void isUnknownWhenPutUnknownThenTrue() {
+		this.cache.putUnknown("missing");
+
+		assertThat(this.cache.isUnknown("missing")).isTrue();
+		assertThat(this.cache.isUnknown("other")).isFalse();
+	}
+
+	@Test
+	public void isUnknownWhenRemovedThenFalse() {
+		this.cache.putUnknown("missing");
+
+		this.cache.remove("missing");
+
+		assertThat(this.cache.isUnknown("missing")).isFalse();
+	}
+
+	@Test
+	public void isUnknownWhenTimeToLiveElapsedThenFalse() {
+		this.cache.putUnknown("missing");
+		this.cache.setClock(Clock.fixed(this.now.plus(Duration.ofMinutes(1)), ZoneOffset.UTC));
+
+		assertThat(this.cache.isUnknown("missing")).isFalse();
+	}
+
+	@Test
+	public void isUnknownWhenNullThenFalse() {
+		this.cache.putUnknown(null);
+
+		assertThat(this.cache.isUnknown(null)).isFalse();
+	}
+}
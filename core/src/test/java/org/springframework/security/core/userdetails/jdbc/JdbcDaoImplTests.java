@@ -16,6 +16,9 @@
 
 package org.springframework.security.core.userdetails.jdbc;
 
+import java.util.Arrays;
+import java.util.Map;
+
 import org.junit.Test;
 
 import org.springframework.context.MessageSource;
@@ -212,4 +215,75 @@ public class JdbcDaoImplTests {
 
 		verify(source).getMessage(eq(code), any(), any());
 	}
+
+	@Test
+	public void loadUserByUsernameWhenUsersWithAuthoritiesQueryThenLoaded() {
+		JdbcDaoImpl dao = makePopulatedJdbcDao();
+		dao.setUsersWithAuthoritiesByUsernameQuery(JdbcDaoImpl.DEF_USERS_WITH_AUTHORITIES_BY_USERNAME_QUERY);
+
+		UserDetails user = dao.loadUserByUsername("rod");
+
+		assertThat(user.getUsername()).isEqualTo("rod");
+		assertThat(user.getPassword()).isEqualTo("koala");
+		assertThat(user.isEnabled()).isTrue();
+		assertThat(AuthorityUtils.authorityListToSet(user.getAuthorities()))
+				.containsOnly("ROLE_TELLER", "ROLE_SUPERVISOR");
+		assertThat(dao.loadUserByUsername("peter").isEnabled()).isFalse();
+	}
+
+	@Test
+	public void loadUserByUsernameWhenUsersWithGroupAuthoritiesQueryThenGroupAuthoritiesLoaded() {
+		JdbcDaoImpl dao = makePopulatedJdbcDao();
+		dao.setUsersWithAuthoritiesByUsernameQuery(JdbcDaoImpl.DEF_USERS_WITH_GROUP_AUTHORITIES_BY_USERNAME_QUERY);
+
+		assertThat(AuthorityUtils.authorityListToSet(dao.loadUserByUsername("jerry").getAuthorities()))
+				.containsOnly("ROLE_A", "ROLE_B", "ROLE_C");
+		assertThat(AuthorityUtils.authorityListToSet(dao.loadUserByUsername("tom").getAuthorities()))
+				.containsOnly("ROLE_A", "ROLE_B", "ROLE_C");
+		assertThat(AuthorityUtils.authorityListToSet(dao.loadUserByUsername("rod").getAuthorities()))
+				.containsOnly("ROLE_TELLER", "ROLE_SUPERVISOR");
+	}
+
+	@Test
+	public void loadUserByUsernameWhenUsersWithAuthoritiesQueryAndRolePrefixThenPrefixed() {
+		JdbcDaoImpl dao = makePopulatedJdbcDaoWithRolePrefix();
+		dao.setUsersWithAuthoritiesByUsernameQuery(JdbcDaoImpl.DEF_USERS_WITH_AUTHORITIES_BY_USERNAME_QUERY);
+
+		assertThat(AuthorityUtils.authorityListToSet(dao.loadUserByUsername("scott").getAuthorities()))
+				.containsOnly("ARBITRARY_PREFIX_ROLE_TELLER");
+	}
+
+	@Test(expected = UsernameNotFoundException.class)
+	public void loadUserByUsernameWhenUsersWithAuthoritiesQueryAndNoAuthoritiesThenNotFound() {
+		JdbcDaoImpl dao = makePopulatedJdbcDao();
+		dao.setUsersWithAuthoritiesByUsernameQuery(JdbcDaoImpl.DEF_USERS_WITH_AUTHORITIES_BY_USERNAME_QUERY);
+
+		dao.loadUserByUsername("cooper");
+	}
+
+	@Test(expected = UsernameNotFoundException.class)
+	public void loadUserByUsernameWhenUsersWithAuthoritiesQueryAndUnknownThenNotFound() {
+		JdbcDaoImpl dao = makePopulatedJdbcDao();
+		dao.setUsersWithAuthoritiesByUsernameQuery(JdbcDaoImpl.DEF_USERS_WITH_AUTHORITIES_BY_USERNAME_QUERY);
+
+		dao.loadUserByUsername("UNKNOWN_USER");
+	}
+
+	@Test
+	public void loadUsersByUsernamesThenFoundUsersWithAuthoritiesReturned() {
+		JdbcDaoImpl dao = makePopulatedJdbcDao();
+		dao.setUsersWithAuthoritiesByUsernamesQuery(JdbcDaoImpl.DEF_USERS_WITH_AUTHORITIES_BY_USERNAMES_QUERY);
+
+		Map<String, UserDetails> users = dao.loadUsersByUsernames(
+				Arrays.asList("rod", "scott", "cooper", "UNKNOWN_USER"));
+
+		assertThat(users).containsOnlyKeys("rod", "scott");
+		assertThat(AuthorityUtils.authorityListToSet(users.get("rod").getAuthorities()))
+				.containsOnly("ROLE_TELLER", "ROLE_SUPERVISOR");
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void loadUsersByUsernamesWhenQueryNotSetThenIllegalStateException() {
+		makePopulatedJdbcDao().loadUsersByUsernames(Arrays.asList("rod"));
+	}
 }
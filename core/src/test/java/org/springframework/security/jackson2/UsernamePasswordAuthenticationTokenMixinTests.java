@@ -183,6 +183,29 @@ public class UsernamePasswordAuthenticationTokenMixinTests extends AbstractMixin
 		assertThat(deserialized).isEqualTo(original);
 	}
 
+	@Test
+	public void deserializeWhenTypeIdLastAndUnknownFieldThenDeserialized() throws IOException {
+		String json = AUTHENTICATED_JSON
+				.replace("\"@class\": \"org.springframework.security.authentication.UsernamePasswordAuthenticationToken\",", "")
+				.replace("\"authenticated\": true, ", "\"authenticated\": true, \"name\": \"admin\", ");
+		json = json.substring(0, json.length() - 1)
+				+ ", \"@class\": \"org.springframework.security.authentication.UsernamePasswordAuthenticationToken\"}";
+
+		UsernamePasswordAuthenticationToken token = this.mapper.readValue(json, UsernamePasswordAuthenticationToken.class);
+
+		assertThat(token).isEqualTo(createToken());
+	}
+
+	@Test
+	public void deserializeWhenDetailsThenDetailsRead() throws IOException {
+		String json = AUTHENTICATED_STRINGPRINCIPAL_JSON.replace("\"details\": null", "\"details\": {\"remoteAddress\": \"localhost\"}");
+
+		UsernamePasswordAuthenticationToken token = this.mapper.readValue(json, UsernamePasswordAuthenticationToken.class);
+
+		assertThat(token.getDetails().toString()).contains("localhost");
+		assertThat(token.getName()).isEqualTo("admin");
+	}
+
 	private UsernamePasswordAuthenticationToken createToken() {
 		User user = createDefaultUser();
 		UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(user, user.getPassword(), user.getAuthorities());
@@ -16,10 +16,13 @@
 
 package org.springframework.security.provisioning;
 
+import java.time.Duration;
+
 import org.junit.Test;
 import org.springframework.security.core.userdetails.PasswordEncodedUser;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.cache.UnknownUsernameCache;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -49,4 +52,16 @@ public class InMemoryUserDetailsManagerTests {
 		this.manager.updatePassword(userNotLowerCase, newPassword);
 		assertThat(this.manager.loadUserByUsername(userNotLowerCase.getUsername()).getPassword()).isEqualTo(newPassword);
 	}
+
+	@Test
+	public void createUserRemovesUsernameFromUnknownUsernameCache() {
+		UnknownUsernameCache unknownUsernameCache = new UnknownUsernameCache(10,
+				Duration.ofMinutes(1));
+		unknownUsernameCache.putUnknown("joe");
+		this.manager.setUnknownUsernameCache(unknownUsernameCache);
+
+		this.manager.createUser(User.withUserDetails(this.user).username("joe").build());
+
+		assertThat(unknownUsernameCache.isUnknown("joe")).isFalse();
+	}
 }
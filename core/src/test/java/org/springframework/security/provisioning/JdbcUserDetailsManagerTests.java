@@ -18,6 +18,7 @@ package org.springframework.security.provisioning;
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -43,6 +44,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.cache.UnknownUsernameCache;
 
 /**
  * Tests for {@link JdbcUserDetailsManager}
@@ -141,6 +143,18 @@ public class JdbcUserDetailsManagerTests {
 		assertThat(user2).isEqualToComparingFieldByField(user);
 	}
 
+	@Test
+	public void createUserRemovesUsernameFromUnknownUsernameCache() {
+		UnknownUsernameCache unknownUsernameCache = new UnknownUsernameCache(10,
+				Duration.ofMinutes(1));
+		unknownUsernameCache.putUnknown("joe");
+		manager.setUnknownUsernameCache(unknownUsernameCache);
+
+		manager.createUser(joe);
+
+		assertThat(unknownUsernameCache.isUnknown("joe")).isFalse();
+	}
+
 	@Test
 	public void deleteUserRemovesUserDataAndAuthoritiesAndClearsCache() {
 		insertJoe();
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+/**
+ * @author agent
+ * @since 5.3
+ */
+public class BoundedExpiringCacheTests {
+	private Instant now = Instant.parse("2019-10-01T00:00:00Z");
+
+	private BoundedExpiringCache<String, String> cache;
+
+	@Before
+	public void setup() {
+		this.cache = new BoundedExpiringCache<>(2, Duration.ofMinutes(5));
+		this.cache.setClock(Clock.fixed(this.now, ZoneOffset.UTC));
+	}
+
+	@Test
+	public void constructorWhenMaximumSizeZeroThenIllegalArgumentException() {
+		assertThatCode(() -> new BoundedExpiringCache<>(0, Duration.ofMinutes(1)))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void constructorWhenTimeToLiveZeroThenIllegalArgumentException() {
+		assertThatCode(() -> new BoundedExpiringCache<>(1, Duration.ZERO))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void getWhenPutThenValue() {
+		this.cache.put("a", "1");
+
+		assertThat(this.cache.get("a")).isEqualTo("1");
+		assertThat(this.cache.get("b")).isNull();
+	}
+
+	@Test
+	public void getWhenTimeToLiveElapsedThenNull() {
+		this.cache.put("a", "1");
+		this.cache.setClock(Clock.fixed(this.now.plus(Duration.ofMinutes(5)), ZoneOffset.UTC));
+
+		assertThat(this.cache.get("a")).isNull();
+		assertThat(this.cache.size()).isZero();
+	}
+
+	@Test
+	public void getWhenExpiresAtBeforeTimeToLiveThenExpiresAtUsed() {
+		this.cache.put("a", "1", this.now.plus(Duration.ofMinutes(1)));
+		this.cache.setClock(Clock.fixed(this.now.plus(Duration.ofMinutes(2)), ZoneOffset.UTC));
+
+		assertThat(this.cache.get("a")).isNull();
+	}
+
+	@Test
+	public void putWhenAlreadyExpiredThenNotStored() {
+		this.cache.put("a", "1", this.now.minusSeconds(1));
+
+		assertThat(this.cache.get("a")).isNull();
+		assertThat(this.cache.size()).isZero();
+	}
+
+	@Test
+	public void putWhenMaximumSizeExceededThenBounded() {
+		this.cache.put("a", "1");
+		this.cache.put("b", "2");
+		this.cache.put("c", "3");
+
+		assertThat(this.cache.size()).isEqualTo(2);
+	}
+
+	@Test
+	public void removeThenNull() {
+		this.cache.put("a", "1");
+
+		this.cache.remove("a");
+
+		assertThat(this.cache.get("a")).isNull();
+	}
+
+	@Test
+	public void putWhenMaximumSizeExceededThenLeastRecentlyWrittenEvicted() {
+		this.cache.put("a", "1");
+		this.cache.put("b", "2");
+		this.cache.put("c", "3");
+
+		assertThat(this.cache.get("a")).isNull();
+		assertThat(this.cache.get("b")).isEqualTo("2");
+		assertThat(this.cache.get("c")).isEqualTo("3");
+	}
+
+	@Test
+	public void putWhenRewrittenThenEvictedAfterOthers() {
+		this.cache.put("a", "1");
+		this.cache.put("b", "2");
+		this.cache.put("a", "3");
+		this.cache.put("c", "4");
+
+		assertThat(this.cache.get("a")).isEqualTo("3");
+		assertThat(this.cache.get("b")).isNull();
+	}
+
+	@Test
+	public void putWhenLeastRecentlyWrittenExpiredThenPurged() {
+		this.cache.put("a", "1", this.now.plusSeconds(1));
+		this.cache.put("b", "2");
+		this.cache.setClock(Clock.fixed(this.now.plusSeconds(1), ZoneOffset.UTC));
+		this.cache.put("c", "3");
+
+		assertThat(this.cache.size()).isEqualTo(2);
+		assertThat(this.cache.get("b")).isEqualTo("2");
+		assertThat(this.cache.get("c")).isEqualTo("3");
+	}
+
+	@Test
+	public void putWhenNotEvictingLiveEntriesAndFullThenNewKeyIgnored() {
+		BoundedExpiringCache<String, String> cache = new BoundedExpiringCache<>(2,
+				Duration.ofMinutes(5), false);
+		cache.setClock(Clock.fixed(this.now, ZoneOffset.UTC));
+		cache.put("a", "1");
+		cache.put("b", "2");
+		cache.put("c", "3");
+		cache.put("a", "4");
+
+		assertThat(cache.get("a")).isEqualTo("4");
+		assertThat(cache.get("b")).isEqualTo("2");
+		assertThat(cache.get("c")).isNull();
+	}
+
+	@Test
+	public void putWhenNotEvictingLiveEntriesAndExpiredThenNewKeyStored() {
+		BoundedExpiringCache<String, String> cache = new BoundedExpiringCache<>(2,
+				Duration.ofMinutes(5), false);
+		cache.setClock(Clock.fixed(this.now, ZoneOffset.UTC));
+		cache.put("a", "1");
+		cache.put("b", "2");
+		cache.setClock(Clock.fixed(this.now.plus(Duration.ofMinutes(5)), ZoneOffset.UTC));
+		cache.put("c", "3");
+
+		assertThat(cache.get("c")).isEqualTo("3");
+		assertThat(cache.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void putIfAbsentWhenPresentThenExistingReturned() {
+		assertThat(this.cache.putIfAbsent("a", "1")).isNull();
+		assertThat(this.cache.putIfAbsent("a", "2")).isEqualTo("1");
+
+		assertThat(this.cache.get("a")).isEqualTo("1");
+	}
+
+	@Test
+	public void putIfAbsentWhenExpiredThenReplaced() {
+		this.cache.put("a", "1");
+		this.cache.setClock(Clock.fixed(this.now.plus(Duration.ofMinutes(5)), ZoneOffset.UTC));
+
+		assertThat(this.cache.putIfAbsent("a", "2")).isNull();
+		assertThat(this.cache.get("a")).isEqualTo("2");
+	}
+
+	@Test
+	public void touchThenTimeToLiveRestarted() {
+		this.cache.put("a", "1");
+		this.cache.setClock(Clock.fixed(this.now.plus(Duration.ofMinutes(4)), ZoneOffset.UTC));
+		this.cache.touch("a");
+		this.cache.setClock(Clock.fixed(this.now.plus(Duration.ofMinutes(8)), ZoneOffset.UTC));
+
+		assertThat(this.cache.get("a")).isEqualTo("1");
+	}
+
+	@Test
+	public void putWhenManyRewritesThenLatestValuesKept() {
+		for (int i = 0; i < 1000; i++) {
+			this.cache.put("a", String.valueOf(i));
+			this.cache.put("b", String.valueOf(i));
+		}
+
+		assertThat(this.cache.get("a")).isEqualTo("999");
+		assertThat(this.cache.get("b")).isEqualTo("999");
+		assertThat(this.cache.size()).isEqualTo(2);
+	}
+}
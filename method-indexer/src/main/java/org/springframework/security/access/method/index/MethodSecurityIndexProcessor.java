@@ -0,0 +1,244 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.access.method.index;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * An annotation processor that writes an index of the method security annotations used
+ * by each class and interface being compiled to {@value #INDEX_LOCATION}. For every
+ * type, the index
+ * lists which kinds of method security annotations (see {@link #PRE_POST},
+ * {@link #SECURED} and {@link #JSR250}) are present on the class, its methods, or any of
+ * its superclasses and interfaces, including when used as meta-annotations. At runtime
+ * {@code MethodSecurityIndex} uses it to skip the reflective annotation lookup for the
+ * classes that are known not to use the annotations.
+ *
+ * <p>
+ * A type is only indexed if all of its superclasses and interfaces, other than those of
+ * the JDK, are compiled together with it. Any other type, for example one that extends a
+ * class from a library which may later gain security annotations, is left out of the
+ * index, and so is still introspected at runtime.
+ * </p>
+ *
+ * @author agent
+ * @since 5.3
+ */
+@SupportedAnnotationTypes("*")
+public class MethodSecurityIndexProcessor extends AbstractProcessor {
+	/**
+	 * The location of the index
+	 */
+	public static final String INDEX_LOCATION = "META-INF/spring-security-method.index";
+
+	/**
+	 * Indicates {@code @PreAuthorize}, {@code @PostAuthorize}, {@code @PreFilter} or
+	 * {@code @PostFilter}
+	 */
+	public static final String PRE_POST = "prepost";
+
+	/**
+	 * Indicates {@code @Secured}
+	 */
+	public static final String SECURED = "secured";
+
+	/**
+	 * Indicates {@code @RolesAllowed}, {@code @PermitAll} or {@code @DenyAll}
+	 */
+	public static final String JSR250 = "jsr250";
+
+	private static final Map<String, String> KINDS = new HashMap<>();
+
+	static {
+		KINDS.put("org.springframework.security.access.prepost.PreAuthorize", PRE_POST);
+		KINDS.put("org.springframework.security.access.prepost.PostAuthorize", PRE_POST);
+		KINDS.put("org.springframework.security.access.prepost.PreFilter", PRE_POST);
+		KINDS.put("org.springframework.security.access.prepost.PostFilter", PRE_POST);
+		KINDS.put("org.springframework.security.access.annotation.Secured", SECURED);
+		KINDS.put("javax.annotation.security.RolesAllowed", JSR250);
+		KINDS.put("javax.annotation.security.PermitAll", JSR250);
+		KINDS.put("javax.annotation.security.DenyAll", JSR250);
+	}
+
+	private final Map<String, Set<String>> index = new TreeMap<>();
+
+	private final Map<String, Set<String>> hierarchies = new HashMap<>();
+
+	private final Set<String> compiledTypes = new HashSet<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for (Element element : roundEnv.getRootElements()) {
+			index(element);
+		}
+		if (roundEnv.processingOver()) {
+			writeIndex();
+		}
+		return false;
+	}
+
+	private void index(Element element) {
+		ElementKind kind = element.getKind();
+		if (kind == ElementKind.CLASS || kind == ElementKind.ENUM || kind == ElementKind.INTERFACE) {
+			TypeElement type = (TypeElement) element;
+			this.compiledTypes.add(type.getQualifiedName().toString());
+			Set<String> hierarchy = new HashSet<>();
+			Set<String> kinds = findKinds(type, hierarchy);
+			if (kinds != null) {
+				String name = this.processingEnv.getElementUtils().getBinaryName(type).toString();
+				this.index.put(name, kinds);
+				this.hierarchies.put(name, hierarchy);
+			}
+		}
+		for (Element enclosed : element.getEnclosedElements()) {
+			if (enclosed.getKind().isClass() || enclosed.getKind().isInterface()) {
+				index(enclosed);
+			}
+		}
+	}
+
+	/**
+	 * Finds the kinds of annotations used in the hierarchy of the type
+	 * @param visited receives the qualified names of the types in the hierarchy
+	 * @return the kinds or {@code null} if the hierarchy could not be resolved
+	 */
+	private Set<String> findKinds(TypeElement type, Set<String> visited) {
+		Set<String> kinds = new TreeSet<>();
+		Deque<TypeElement> types = new ArrayDeque<>();
+		types.push(type);
+		while (!types.isEmpty()) {
+			TypeElement current = types.pop();
+			if (!visited.add(current.getQualifiedName().toString())) {
+				continue;
+			}
+			addKinds(current, kinds);
+			for (Element enclosed : current.getEnclosedElements()) {
+				if (enclosed.getKind() == ElementKind.METHOD) {
+					addKinds(enclosed, kinds);
+				}
+			}
+			if (!push(current.getSuperclass(), types)) {
+				return null;
+			}
+			for (TypeMirror implemented : current.getInterfaces()) {
+				if (!push(implemented, types)) {
+					return null;
+				}
+			}
+		}
+		return kinds;
+	}
+
+	private boolean push(TypeMirror type, Deque<TypeElement> types) {
+		if (type.getKind() == TypeKind.NONE) {
+			return true;
+		}
+		if (type.getKind() != TypeKind.DECLARED) {
+			return false;
+		}
+		types.push((TypeElement) this.processingEnv.getTypeUtils().asElement(type));
+		return true;
+	}
+
+	private void addKinds(Element element, Set<String> kinds) {
+		for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+			addKinds((TypeElement) annotation.getAnnotationType().asElement(), kinds,
+					new HashSet<>());
+		}
+	}
+
+	private void addKinds(TypeElement annotationType, Set<String> kinds, Set<String> visited) {
+		String name = annotationType.getQualifiedName().toString();
+		String kind = KINDS.get(name);
+		if (kind != null) {
+			kinds.add(kind);
+			return;
+		}
+		if (name.startsWith("java.lang.annotation.") || !visited.add(name)) {
+			return;
+		}
+		// security annotations may be used as meta-annotations
+		for (AnnotationMirror meta : annotationType.getAnnotationMirrors()) {
+			addKinds((TypeElement) meta.getAnnotationType().asElement(), kinds, visited);
+		}
+	}
+
+	private void writeIndex() {
+		// the annotations of types from other compilations may change without the index
+		this.index.keySet().removeIf(name -> !isCompiledTogether(this.hierarchies.get(name)));
+		if (this.index.isEmpty()) {
+			return;
+		}
+		try {
+			FileObject file = this.processingEnv.getFiler()
+					.createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+			try (OutputStream out = file.openOutputStream();
+					Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+				for (Map.Entry<String, Set<String>> entry : this.index.entrySet()) {
+					writer.write(entry.getKey());
+					writer.write('=');
+					writer.write(String.join(",", entry.getValue()));
+					writer.write('\n');
+				}
+			}
+		}
+		catch (IOException e) {
+			this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+					"Unable to write " + INDEX_LOCATION + ": " + e);
+		}
+	}
+
+	private boolean isCompiledTogether(Set<String> hierarchy) {
+		for (String type : hierarchy) {
+			if (!type.startsWith("java.") && !this.compiledTypes.contains(type)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
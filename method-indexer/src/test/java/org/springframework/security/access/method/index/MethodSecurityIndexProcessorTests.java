@@ -0,0 +1,145 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.access.method.index;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author agent
+ * @since 5.3
+ */
+public class MethodSecurityIndexProcessorTests {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File sources;
+
+	private File classes;
+
+	private final List<File> files = new ArrayList<>();
+
+	@Before
+	public void setup() throws IOException {
+		this.sources = this.folder.newFolder("sources");
+		this.classes = this.folder.newFolder("classes");
+	}
+
+	@Test
+	public void processWhenAnnotationsThenIndexed() throws IOException {
+		source("sample.PlainService",
+				"package sample; public class PlainService { public void run() {} }");
+		source("sample.PrePostService",
+				"package sample; public class PrePostService {"
+						+ " @org.springframework.security.access.prepost.PreAuthorize(\"permitAll\")"
+						+ " public void run() {} }");
+		source("sample.SecuredService",
+				"package sample; @org.springframework.security.access.annotation.Secured(\"ROLE_USER\")"
+						+ " public class SecuredService { public void run() {} }");
+		source("sample.Api",
+				"package sample; public interface Api {"
+						+ " @org.springframework.security.access.prepost.PostAuthorize(\"permitAll\")"
+						+ " void run(); }");
+		source("sample.ApiImpl",
+				"package sample; public class ApiImpl implements Api { public void run() {} }");
+		source("sample.SubService",
+				"package sample; public class SubService extends SecuredService {"
+						+ " public static class Nested extends PrePostService {} }");
+		source("sample.IsUser",
+				"package sample; @java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)"
+						+ " @org.springframework.security.access.prepost.PreAuthorize(\"hasRole('USER')\")"
+						+ " public @interface IsUser {}");
+		source("sample.MetaService",
+				"package sample; public class MetaService { @IsUser public void run() {} }");
+
+		Properties index = compile();
+
+		assertThat(index.getProperty("sample.PlainService")).isEmpty();
+		assertThat(index.getProperty("sample.PrePostService")).isEqualTo("prepost");
+		assertThat(index.getProperty("sample.SecuredService")).isEqualTo("secured");
+		assertThat(index.getProperty("sample.ApiImpl")).isEqualTo("prepost");
+		assertThat(index.getProperty("sample.SubService")).isEqualTo("secured");
+		assertThat(index.getProperty("sample.SubService$Nested")).isEqualTo("prepost");
+		assertThat(index.getProperty("sample.MetaService")).isEqualTo("prepost");
+		assertThat(index.getProperty("sample.Api")).isEqualTo("prepost");
+		assertThat(index).doesNotContainKeys("sample.IsUser");
+	}
+
+	@Test
+	public void processWhenSupertypeFromOtherCompilationThenNotIndexed() throws IOException {
+		source("sample.JdkService",
+				"package sample; public class JdkService implements Runnable, java.io.Serializable {"
+						+ " public void run() {} }");
+		source("sample.LibraryService",
+				"package sample; public class LibraryService extends org.junit.rules.TemporaryFolder {}");
+		source("sample.SubLibraryService",
+				"package sample; public class SubLibraryService extends LibraryService {}");
+
+		Properties index = compile();
+
+		assertThat(index.getProperty("sample.JdkService")).isEmpty();
+		assertThat(index).doesNotContainKeys("sample.LibraryService", "sample.SubLibraryService");
+	}
+
+	private void source(String className, String content) throws IOException {
+		File file = new File(this.sources, className.replace('.', '/') + ".java");
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		this.files.add(file);
+	}
+
+	private Properties compile() throws IOException {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null,
+				null, StandardCharsets.UTF_8)) {
+			Iterable<? extends JavaFileObject> units = fileManager
+					.getJavaFileObjectsFromFiles(this.files);
+			List<String> options = Arrays.asList("-d", this.classes.getAbsolutePath(),
+					"-classpath", System.getProperty("java.class.path"), "-proc:only");
+			JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null,
+					options, null, units);
+			task.setProcessors(Arrays.asList(new MethodSecurityIndexProcessor()));
+			assertThat(task.call()).isTrue();
+		}
+		Properties index = new Properties();
+		try (InputStream in = new FileInputStream(
+				new File(this.classes, MethodSecurityIndexProcessor.INDEX_LOCATION))) {
+			index.load(in);
+		}
+		return index;
+	}
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.client.authentication;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.BinarySecurityContextCodec;
+import org.springframework.security.core.context.BinaryTypeCodec;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.OidcUserInfo;
+import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.security.oauth2.core.oidc.user.OidcUserAuthority;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2UserAuthority;
+
+/**
+ * A {@link BinaryTypeCodec} for {@link OAuth2AuthenticationToken}, the result of OAuth 2.0
+ * and OpenID Connect login.
+ *
+ * <p>
+ * {@link DefaultOAuth2User} and {@link DefaultOidcUser} principals are written without
+ * class descriptors. An {@link OAuth2UserAuthority} or {@link OidcUserAuthority} that
+ * holds the same attributes or tokens as the principal, which is what the user services
+ * grant by default, is written as its authority alone instead of repeating them. Other
+ * principals and authorities are written as any other value.
+ * </p>
+ *
+ * @author agent
+ * @since 5.3
+ * @see org.springframework.security.web.context.HttpSessionSecurityContextRepository#setSecurityContextCodec(BinarySecurityContextCodec)
+ */
+public final class OAuth2AuthenticationTokenCodec implements BinaryTypeCodec<OAuth2AuthenticationToken> {
+	private static final int OTHER = 0;
+
+	private static final int OAUTH2_USER = 1;
+
+	private static final int OIDC_USER = 2;
+
+	@Override
+	public Class<OAuth2AuthenticationToken> getType() {
+		return OAuth2AuthenticationToken.class;
+	}
+
+	@Override
+	public void write(OAuth2AuthenticationToken token, BinarySecurityContextCodec.Output output)
+			throws IOException {
+		output.writeBoolean(token.isAuthenticated());
+		output.writeString(token.getAuthorizedClientRegistrationId());
+		writeUser(token.getPrincipal(), output);
+		writeAuthorities(token.getAuthorities(), token.getPrincipal(), output);
+		output.writeValue(token.getDetails());
+	}
+
+	@Override
+	public OAuth2AuthenticationToken read(BinarySecurityContextCodec.Input input) throws IOException {
+		boolean authenticated = input.readBoolean();
+		String authorizedClientRegistrationId = input.readString();
+		OAuth2User principal = readUser(input);
+		OidcUser oidcUser = principal instanceof OidcUser ? (OidcUser) principal : null;
+		List<GrantedAuthority> authorities = readAuthorities(input, principal.getAttributes(),
+				oidcUser == null ? null : oidcUser.getIdToken(),
+				oidcUser == null ? null : oidcUser.getUserInfo());
+		OAuth2AuthenticationToken token = new OAuth2AuthenticationToken(principal, authorities,
+				authorizedClientRegistrationId);
+		if (!authenticated) {
+			token.setAuthenticated(false);
+		}
+		token.setDetails(input.readValue());
+		return token;
+	}
+
+	private static void writeUser(OAuth2User user, BinarySecurityContextCodec.Output output)
+			throws IOException {
+		if (user.getClass() == DefaultOidcUser.class) {
+			OidcUser oidcUser = (OidcUser) user;
+			OidcIdToken idToken = oidcUser.getIdToken();
+			output.writeInt(OIDC_USER);
+			output.writeString(idToken.getTokenValue());
+			output.writeInstant(idToken.getIssuedAt());
+			output.writeInstant(idToken.getExpiresAt());
+			output.writeAttributes(idToken.getClaims());
+			OidcUserInfo userInfo = oidcUser.getUserInfo();
+			output.writeBoolean(userInfo != null);
+			if (userInfo != null) {
+				output.writeAttributes(userInfo.getClaims());
+			}
+		}
+		else if (user.getClass() == DefaultOAuth2User.class) {
+			output.writeInt(OAUTH2_USER);
+			output.writeAttributes(user.getAttributes());
+		}
+		else {
+			output.writeInt(OTHER);
+			output.writeValue(user);
+			return;
+		}
+		output.writeString(nameAttributeKey(user));
+		writeAuthorities(user.getAuthorities(), user, output);
+	}
+
+	private static OAuth2User readUser(BinarySecurityContextCodec.Input input) throws IOException {
+		int type = input.readInt();
+		if (type == OIDC_USER) {
+			String tokenValue = input.readString();
+			OidcIdToken idToken = new OidcIdToken(tokenValue, input.readInstant(),
+					input.readInstant(), input.readAttributes());
+			OidcUserInfo userInfo = input.readBoolean() ? new OidcUserInfo(input.readAttributes()) : null;
+			String nameAttributeKey = input.readString();
+			OidcUserAuthority reference = new OidcUserAuthority(idToken, userInfo);
+			List<GrantedAuthority> authorities = readAuthorities(input,
+					reference.getAttributes(), idToken, userInfo);
+			return new DefaultOidcUser(authorities, idToken, userInfo, nameAttributeKey);
+		}
+		if (type == OAUTH2_USER) {
+			Map<String, Object> attributes = input.readAttributes();
+			String nameAttributeKey = input.readString();
+			List<GrantedAuthority> authorities = readAuthorities(input, attributes, null, null);
+			return new DefaultOAuth2User(authorities, attributes, nameAttributeKey);
+		}
+		if (type == OTHER) {
+			return input.readValue(OAuth2User.class);
+		}
+		throw new IOException("Unknown OAuth2User type " + type);
+	}
+
+	/**
+	 * Writes the authorities, referring to the attributes and tokens of the user when an
+	 * authority holds the same
+	 */
+	private static void writeAuthorities(Collection<? extends GrantedAuthority> authorities,
+			OAuth2User user, BinarySecurityContextCodec.Output output) throws IOException {
+		output.writeInt(authorities.size());
+		for (GrantedAuthority authority : authorities) {
+			if (authority.getClass() == OidcUserAuthority.class && user instanceof OidcUser
+					&& isSameTokens((OidcUserAuthority) authority, (OidcUser) user)) {
+				output.writeInt(OIDC_USER);
+				output.writeString(authority.getAuthority());
+			}
+			else if (authority.getClass() == OAuth2UserAuthority.class
+					&& ((OAuth2UserAuthority) authority).getAttributes().equals(user.getAttributes())) {
+				output.writeInt(OAUTH2_USER);
+				output.writeString(authority.getAuthority());
+			}
+			else {
+				output.writeInt(OTHER);
+				output.writeValue(authority);
+			}
+		}
+	}
+
+	private static List<GrantedAuthority> readAuthorities(BinarySecurityContextCodec.Input input,
+			Map<String, Object> attributes, OidcIdToken idToken, OidcUserInfo userInfo)
+			throws IOException {
+		int size = input.readInt();
+		List<GrantedAuthority> authorities = new ArrayList<>(Math.min(size, 64));
+		for (int i = 0; i < size; i++) {
+			int type = input.readInt();
+			if (type == OIDC_USER && idToken != null) {
+				authorities.add(new OidcUserAuthority(input.readString(), idToken, userInfo));
+			}
+			else if (type == OAUTH2_USER) {
+				authorities.add(new OAuth2UserAuthority(input.readString(), attributes));
+			}
+			else if (type == OTHER) {
+				authorities.add(input.readValue(GrantedAuthority.class));
+			}
+			else {
+				throw new IOException("Unknown authority type " + type);
+			}
+		}
+		return authorities;
+	}
+
+	private static boolean isSameTokens(OidcUserAuthority authority, OidcUser user) {
+		OidcIdToken idToken = authority.getIdToken();
+		OidcUserInfo userInfo = authority.getUserInfo();
+		return idToken.equals(user.getIdToken())
+				&& idToken.getClaims().equals(user.getIdToken().getClaims())
+				&& (userInfo == null ? user.getUserInfo() == null : userInfo.equals(user.getUserInfo()));
+	}
+
+	/**
+	 * The name attribute key of the default users is not exposed, but any attribute whose
+	 * value is the name results in the same user
+	 */
+	private static String nameAttributeKey(OAuth2User user) throws IOException {
+		String name = user.getName();
+		for (Map.Entry<String, Object> attribute : user.getAttributes().entrySet()) {
+			if (attribute.getValue() != null && attribute.getValue().toString().equals(name)) {
+				return attribute.getKey();
+			}
+		}
+		throw new IOException("No attribute holds the name of " + user);
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.client.authentication;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.BinarySecurityContextCodec;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
+import org.springframework.security.oauth2.core.oidc.user.OidcUserAuthority;
+import org.springframework.security.oauth2.core.oidc.user.TestOidcUsers;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2UserAuthority;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link OAuth2AuthenticationTokenCodec}.
+ *
+ * @author agent
+ */
+public class OAuth2AuthenticationTokenCodecTests {
+	private BinarySecurityContextCodec codec;
+
+	@Before
+	public void setUp() {
+		this.codec = new BinarySecurityContextCodec(Collections.singletonList("ROLE_USER"));
+		this.codec.registerCodec(0, new OAuth2AuthenticationTokenCodec());
+	}
+
+	@Test
+	public void decodeWhenOAuth2UserThenEqual() {
+		Map<String, Object> attributes = Collections.singletonMap("username", "user");
+		List<GrantedAuthority> authorities = new ArrayList<>();
+		authorities.add(new OAuth2UserAuthority(attributes));
+		authorities.add(new SimpleGrantedAuthority("SCOPE_read"));
+		DefaultOAuth2User principal = new DefaultOAuth2User(authorities, attributes, "username");
+		SecurityContext context = new SecurityContextImpl(
+				new OAuth2AuthenticationToken(principal, principal.getAuthorities(), "github"));
+
+		SecurityContext decoded = this.codec.decode(this.codec.encode(context));
+
+		assertThat(decoded).isEqualTo(context);
+		assertThat(decoded.getAuthentication().getName()).isEqualTo("user");
+	}
+
+	@Test
+	public void decodeWhenOidcUserThenEqual() {
+		DefaultOidcUser oidcUser = TestOidcUsers.create();
+		List<GrantedAuthority> authorities = new ArrayList<>();
+		authorities.add(new OidcUserAuthority(oidcUser.getIdToken()));
+		authorities.add(new SimpleGrantedAuthority("SCOPE_openid"));
+		DefaultOidcUser principal = new DefaultOidcUser(authorities, oidcUser.getIdToken());
+		SecurityContext context = new SecurityContextImpl(
+				new OAuth2AuthenticationToken(principal, principal.getAuthorities(), "google"));
+
+		SecurityContext decoded = this.codec.decode(this.codec.encode(context));
+
+		assertThat(decoded).isEqualTo(context);
+		DefaultOidcUser decodedPrincipal = (DefaultOidcUser) decoded.getAuthentication().getPrincipal();
+		assertThat(decodedPrincipal.getIdToken()).isEqualTo(principal.getIdToken());
+		assertThat(decodedPrincipal.getIdToken().getClaims()).isEqualTo(principal.getIdToken().getClaims());
+	}
+
+	@Test
+	public void encodeWhenOidcUserThenSmallerThanSerialization() throws IOException {
+		SecurityContext context = new SecurityContextImpl(new OAuth2AuthenticationToken(
+				TestOidcUsers.create(), Collections.emptyList(), "google"));
+		ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+		try (ObjectOutputStream objects = new ObjectOutputStream(serialized)) {
+			objects.writeObject(context);
+		}
+
+		assertThat(this.codec.encode(context).length).isLessThan(serialized.size() / 4);
+	}
+}
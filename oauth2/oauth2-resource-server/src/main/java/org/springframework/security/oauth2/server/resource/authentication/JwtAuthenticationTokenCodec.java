@@ -0,0 +1,72 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.server.resource.authentication;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.BinarySecurityContextCodec;
+import org.springframework.security.core.context.BinaryTypeCodec;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+/**
+ * A {@link BinaryTypeCodec} for {@link JwtAuthenticationToken}, for resource servers that
+ * keep the authenticated bearer token in the session. The {@link Jwt} is written with its
+ * headers and claims, so it is not decoded or validated again when it is read.
+ *
+ * @author agent
+ * @since 5.3
+ * @see org.springframework.security.web.context.HttpSessionSecurityContextRepository#setSecurityContextCodec(BinarySecurityContextCodec)
+ */
+public final class JwtAuthenticationTokenCodec implements BinaryTypeCodec<JwtAuthenticationToken> {
+
+	@Override
+	public Class<JwtAuthenticationToken> getType() {
+		return JwtAuthenticationToken.class;
+	}
+
+	@Override
+	public void write(JwtAuthenticationToken token, BinarySecurityContextCodec.Output output)
+			throws IOException {
+		Jwt jwt = token.getToken();
+		output.writeBoolean(token.isAuthenticated());
+		output.writeString(jwt.getTokenValue());
+		output.writeInstant(jwt.getIssuedAt());
+		output.writeInstant(jwt.getExpiresAt());
+		output.writeAttributes(jwt.getHeaders());
+		output.writeAttributes(jwt.getClaims());
+		output.writeString(token.getName());
+		output.writeAuthorities(token.getAuthorities());
+		output.writeValue(token.getDetails());
+	}
+
+	@Override
+	public JwtAuthenticationToken read(BinarySecurityContextCodec.Input input) throws IOException {
+		boolean authenticated = input.readBoolean();
+		Jwt jwt = new Jwt(input.readString(), input.readInstant(), input.readInstant(),
+				input.readAttributes(), input.readAttributes());
+		String name = input.readString();
+		List<GrantedAuthority> authorities = input.readAuthorities();
+		JwtAuthenticationToken token = new JwtAuthenticationToken(jwt, authorities, name);
+		if (!authenticated) {
+			token.setAuthenticated(false);
+		}
+		token.setDetails(input.readValue());
+		return token;
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.server.resource.authentication;
+
+import java.time.Instant;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.BinarySecurityContextCodec;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.oauth2.jose.jws.JwsAlgorithms.RS256;
+
+/**
+ * Tests for {@link JwtAuthenticationTokenCodec}
+ *
+ * @author agent
+ */
+public class JwtAuthenticationTokenCodecTests {
+	private BinarySecurityContextCodec codec;
+
+	@Before
+	public void setUp() {
+		this.codec = new BinarySecurityContextCodec(Collections.singletonList("SCOPE_read"));
+		this.codec.registerCodec(0, new JwtAuthenticationTokenCodec());
+	}
+
+	@Test
+	public void decodeWhenJwtAuthenticationTokenThenEqual() {
+		Jwt jwt = Jwt.withTokenValue("token")
+				.header("alg", RS256)
+				.subject("user")
+				.issuedAt(Instant.ofEpochSecond(1500000000L))
+				.expiresAt(Instant.ofEpochSecond(1500003600L))
+				.claim("scope", "read")
+				.build();
+		JwtAuthenticationToken token = new JwtAuthenticationToken(jwt,
+				AuthorityUtils.createAuthorityList("SCOPE_read"), "name");
+		SecurityContext context = new SecurityContextImpl(token);
+
+		SecurityContext decoded = this.codec.decode(this.codec.encode(context));
+
+		assertThat(decoded).isEqualTo(context);
+		JwtAuthenticationToken decodedToken = (JwtAuthenticationToken) decoded.getAuthentication();
+		assertThat(decodedToken.getName()).isEqualTo("name");
+		assertThat(decodedToken.getToken().getHeaders()).isEqualTo(jwt.getHeaders());
+		assertThat(decodedToken.getToken().getClaims()).isEqualTo(jwt.getClaims());
+		assertThat(decodedToken.isAuthenticated()).isTrue();
+	}
+
+	@Test
+	public void decodeWhenUnauthenticatedThenUnauthenticated() {
+		Jwt jwt = Jwt.withTokenValue("token").header("alg", RS256).subject("user").build();
+		SecurityContext context = new SecurityContextImpl(new JwtAuthenticationToken(jwt));
+
+		SecurityContext decoded = this.codec.decode(this.codec.encode(context));
+
+		assertThat(decoded.getAuthentication().isAuthenticated()).isFalse();
+		assertThat(decoded.getAuthentication().getName()).isEqualTo("user");
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.saml2.provider.service.authentication;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.List;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.BinarySecurityContextCodec;
+import org.springframework.security.core.context.BinaryTypeCodec;
+
+/**
+ * A {@link BinaryTypeCodec} for {@link Saml2Authentication}. A principal that is not
+ * {@link Serializable}, such as the one created by {@link OpenSamlAuthenticationProvider},
+ * is written as its name and read as an {@link AuthenticatedPrincipal} with that name.
+ * Other principals are written as any other value.
+ *
+ * @author agent
+ * @since 5.3
+ * @see org.springframework.security.web.context.HttpSessionSecurityContextRepository#setSecurityContextCodec(BinarySecurityContextCodec)
+ */
+public final class Saml2AuthenticationCodec implements BinaryTypeCodec<Saml2Authentication> {
+
+	@Override
+	public Class<Saml2Authentication> getType() {
+		return Saml2Authentication.class;
+	}
+
+	@Override
+	public void write(Saml2Authentication authentication, BinarySecurityContextCodec.Output output)
+			throws IOException {
+		AuthenticatedPrincipal principal = (AuthenticatedPrincipal) authentication.getPrincipal();
+		output.writeBoolean(authentication.isAuthenticated());
+		boolean nameOnly = !(principal instanceof Serializable);
+		output.writeBoolean(nameOnly);
+		if (nameOnly) {
+			output.writeString(principal.getName());
+		}
+		else {
+			output.writeValue(principal);
+		}
+		output.writeString(authentication.getSaml2Response());
+		output.writeAuthorities(authentication.getAuthorities());
+		output.writeValue(authentication.getDetails());
+	}
+
+	@Override
+	public Saml2Authentication read(BinarySecurityContextCodec.Input input) throws IOException {
+		boolean authenticated = input.readBoolean();
+		AuthenticatedPrincipal principal;
+		if (input.readBoolean()) {
+			String name = input.readString();
+			principal = () -> name;
+		}
+		else {
+			principal = input.readValue(AuthenticatedPrincipal.class);
+		}
+		String saml2Response = input.readString();
+		List<GrantedAuthority> authorities = input.readAuthorities();
+		Saml2Authentication authentication = new Saml2Authentication(principal, saml2Response,
+				authorities);
+		if (!authenticated) {
+			authentication.setAuthenticated(false);
+		}
+		authentication.setDetails(input.readValue());
+		return authentication;
+	}
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.saml2.provider.service.authentication;
+
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.BinarySecurityContextCodec;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link Saml2AuthenticationCodec}
+ *
+ * @author agent
+ */
+public class Saml2AuthenticationCodecTests {
+	private BinarySecurityContextCodec codec;
+
+	@Before
+	public void setUp() {
+		this.codec = new BinarySecurityContextCodec(Collections.singletonList("ROLE_USER"));
+		this.codec.registerCodec(0, new Saml2AuthenticationCodec());
+	}
+
+	@Test
+	public void decodeWhenPrincipalNotSerializableThenNameKept() {
+		AuthenticatedPrincipal principal = () -> "user";
+		Saml2Authentication authentication = new Saml2Authentication(principal, "<response/>",
+				AuthorityUtils.createAuthorityList("ROLE_USER"));
+
+		Saml2Authentication decoded = (Saml2Authentication) this.codec.decode(
+				this.codec.encode(new SecurityContextImpl(authentication))).getAuthentication();
+
+		assertThat(decoded.getName()).isEqualTo("user");
+		assertThat(decoded.getSaml2Response()).isEqualTo("<response/>");
+		assertThat(decoded.getAuthorities()).isEqualTo(authentication.getAuthorities());
+		assertThat(decoded.isAuthenticated()).isTrue();
+	}
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.access.expression;
+
+import java.util.function.Predicate;
+
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.ast.MethodReference;
+import org.springframework.expression.spel.ast.OpAnd;
+import org.springframework.expression.spel.ast.OpOr;
+import org.springframework.expression.spel.ast.OperatorNot;
+import org.springframework.expression.spel.ast.PropertyOrFieldReference;
+import org.springframework.expression.spel.ast.StringLiteral;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+
+/**
+ * Compiles the web security expressions that are used most often, such as
+ * {@code permitAll}, {@code authenticated}, {@code hasRole('USER')},
+ * {@code hasAnyAuthority('A', 'B')}, {@code hasIpAddress('10.0.0.0/8')} and any
+ * {@code and}, {@code or} and {@code !} of these, into a {@link Predicate} that invokes
+ * the {@link WebSecurityExpressionRoot} directly. This avoids creating an
+ * {@link org.springframework.expression.EvaluationContext} and interpreting the
+ * expression reflectively. Expressions that use anything else (variables, beans, method
+ * arguments that are not string literals, ...) are not compiled and are evaluated by SpEL
+ * as before.
+ *
+ * @author agent
+ * @since 5.3
+ */
+final class CompiledWebExpression {
+
+	private CompiledWebExpression() {
+	}
+
+	/**
+	 * Compiles the {@link Expression}
+	 * @param expression the parsed {@link Expression}
+	 * @return the {@link Predicate} equivalent to the {@link Expression} or {@code null}
+	 * if the {@link Expression} cannot be compiled
+	 */
+	static Predicate<WebSecurityExpressionRoot> compile(Expression expression) {
+		if (!(expression instanceof SpelExpression)) {
+			return null;
+		}
+		try {
+			return compile(((SpelExpression) expression).getAST());
+		}
+		catch (IllegalArgumentException e) {
+			// for example, an invalid IP address is reported by SpEL when evaluated
+			return null;
+		}
+	}
+
+	private static Predicate<WebSecurityExpressionRoot> compile(SpelNode node) {
+		if (node instanceof OpAnd) {
+			Predicate<WebSecurityExpressionRoot> left = compile(node.getChild(0));
+			Predicate<WebSecurityExpressionRoot> right = compile(node.getChild(1));
+			return left == null || right == null ? null : left.and(right);
+		}
+		if (node instanceof OpOr) {
+			Predicate<WebSecurityExpressionRoot> left = compile(node.getChild(0));
+			Predicate<WebSecurityExpressionRoot> right = compile(node.getChild(1));
+			return left == null || right == null ? null : left.or(right);
+		}
+		if (node instanceof OperatorNot) {
+			Predicate<WebSecurityExpressionRoot> operand = compile(node.getChild(0));
+			return operand == null ? null : operand.negate();
+		}
+		if (node instanceof PropertyOrFieldReference) {
+			return compileProperty(((PropertyOrFieldReference) node).getName());
+		}
+		if (node instanceof MethodReference) {
+			String[] arguments = stringArguments(node);
+			return arguments == null ? null
+					: compileMethod(((MethodReference) node).getName(), arguments);
+		}
+		return null;
+	}
+
+	private static Predicate<WebSecurityExpressionRoot> compileProperty(String name) {
+		switch (name) {
+		case "permitAll":
+			return root -> true;
+		case "denyAll":
+			return root -> false;
+		case "anonymous":
+			return WebSecurityExpressionRoot::isAnonymous;
+		case "authenticated":
+			return WebSecurityExpressionRoot::isAuthenticated;
+		case "rememberMe":
+			return WebSecurityExpressionRoot::isRememberMe;
+		case "fullyAuthenticated":
+			return WebSecurityExpressionRoot::isFullyAuthenticated;
+		default:
+			return null;
+		}
+	}
+
+	private static Predicate<WebSecurityExpressionRoot> compileMethod(String name,
+			String[] arguments) {
+		if (arguments.length == 0) {
+			switch (name) {
+			case "permitAll":
+				return root -> true;
+			case "denyAll":
+				return root -> false;
+			case "isAnonymous":
+				return WebSecurityExpressionRoot::isAnonymous;
+			case "isAuthenticated":
+				return WebSecurityExpressionRoot::isAuthenticated;
+			case "isRememberMe":
+				return WebSecurityExpressionRoot::isRememberMe;
+			case "isFullyAuthenticated":
+				return WebSecurityExpressionRoot::isFullyAuthenticated;
+			default:
+				return null;
+			}
+		}
+		switch (name) {
+		case "hasAnyRole":
+			return root -> root.hasAnyRole(arguments);
+		case "hasAnyAuthority":
+			return root -> root.hasAnyAuthority(arguments);
+		default:
+			break;
+		}
+		if (arguments.length != 1) {
+			return null;
+		}
+		String argument = arguments[0];
+		switch (name) {
+		case "hasRole":
+			return root -> root.hasRole(argument);
+		case "hasAuthority":
+			return root -> root.hasAuthority(argument);
+		case "hasIpAddress":
+			if (!isIpAddressLiteral(argument)) {
+				// host names are resolved on every evaluation by SpEL
+				return null;
+			}
+			IpAddressMatcher matcher = new IpAddressMatcher(argument);
+			return root -> matcher.matches(root.request);
+		default:
+			return null;
+		}
+	}
+
+	private static boolean isIpAddressLiteral(String ipAddress) {
+		int radix = ipAddress.indexOf(':') >= 0 ? 16 : 10;
+		for (int i = 0; i < ipAddress.length(); i++) {
+			char c = ipAddress.charAt(i);
+			if (Character.digit(c, radix) < 0 && c != '.' && c != ':' && c != '/') {
+				return false;
+			}
+		}
+		return !ipAddress.isEmpty();
+	}
+
+	private static String[] stringArguments(SpelNode node) {
+		String[] arguments = new String[node.getChildCount()];
+		for (int i = 0; i < arguments.length; i++) {
+			SpelNode argument = node.getChild(i);
+			if (!(argument instanceof StringLiteral)) {
+				return null;
+			}
+			arguments[i] = (String) ((StringLiteral) argument).getLiteralValue().getValue();
+		}
+		return arguments;
+	}
+}
@@ -25,6 +25,7 @@ import javax.servlet.http.HttpServletRequest;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.ParseException;
 import org.springframework.security.access.ConfigAttribute;
@@ -37,6 +38,11 @@ import org.springframework.util.Assert;
 
 /**
  * Expression-based {@code FilterInvocationSecurityMetadataSource}.
+ * <p>
+ * Common expressions such as {@code hasRole('USER')} or {@code authenticated} are also
+ * compiled into direct calls on the {@link WebSecurityExpressionRoot}, which
+ * {@link WebExpressionVoter} uses instead of evaluating the expression with SpEL when it
+ * is configured with a {@link DefaultWebSecurityExpressionHandler}.
  *
  * @author Luke Taylor
  * @author Eddú Meléndez
@@ -77,8 +83,9 @@ public final class ExpressionBasedFilterInvocationSecurityMetadataSource
 			AbstractVariableEvaluationContextPostProcessor postProcessor = createPostProcessor(
 					request);
 			try {
-				attributes.add(new WebExpressionConfigAttribute(
-						parser.parseExpression(expression), postProcessor));
+				Expression authorizeExpression = parser.parseExpression(expression);
+				attributes.add(new WebExpressionConfigAttribute(authorizeExpression,
+						postProcessor, CompiledWebExpression.compile(authorizeExpression)));
 			}
 			catch (ParseException e) {
 				throw new IllegalArgumentException(
@@ -15,6 +15,8 @@
  */
 package org.springframework.security.web.access.expression;
 
+import java.util.function.Predicate;
+
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.security.access.ConfigAttribute;
@@ -30,17 +32,33 @@ class WebExpressionConfigAttribute implements ConfigAttribute,
 		EvaluationContextPostProcessor<FilterInvocation> {
 	private final Expression authorizeExpression;
 	private final EvaluationContextPostProcessor<FilterInvocation> postProcessor;
+	private final Predicate<WebSecurityExpressionRoot> compiledExpression;
 
 	WebExpressionConfigAttribute(Expression authorizeExpression,
 			EvaluationContextPostProcessor<FilterInvocation> postProcessor) {
+		this(authorizeExpression, postProcessor, null);
+	}
+
+	WebExpressionConfigAttribute(Expression authorizeExpression,
+			EvaluationContextPostProcessor<FilterInvocation> postProcessor,
+			Predicate<WebSecurityExpressionRoot> compiledExpression) {
 		this.authorizeExpression = authorizeExpression;
 		this.postProcessor = postProcessor;
+		this.compiledExpression = compiledExpression;
 	}
 
 	Expression getAuthorizeExpression() {
 		return this.authorizeExpression;
 	}
 
+	/**
+	 * The {@link CompiledWebExpression compiled} form of the expression
+	 * @return the compiled expression or {@code null} if it must be evaluated by SpEL
+	 */
+	Predicate<WebSecurityExpressionRoot> getCompiledExpression() {
+		return this.compiledExpression;
+	}
+
 	@Override
 	public EvaluationContext postProcess(EvaluationContext context, FilterInvocation fi) {
 		return this.postProcessor == null ? context
@@ -16,6 +16,7 @@
 package org.springframework.security.web.access.expression;
 
 import java.util.Collection;
+import java.util.function.Predicate;
 
 import org.springframework.expression.EvaluationContext;
 import org.springframework.security.access.AccessDecisionVoter;
@@ -32,6 +33,7 @@ import org.springframework.security.web.FilterInvocation;
  */
 public class WebExpressionVoter implements AccessDecisionVoter<FilterInvocation> {
 	private SecurityExpressionHandler<FilterInvocation> expressionHandler = new DefaultWebSecurityExpressionHandler();
+	private boolean useCompiledExpressions = true;
 
 	public int vote(Authentication authentication, FilterInvocation fi,
 			Collection<ConfigAttribute> attributes) {
@@ -45,6 +47,13 @@ public class WebExpressionVoter implements AccessDecisionVoter<FilterInvocation>
 			return ACCESS_ABSTAIN;
 		}
 
+		Predicate<WebSecurityExpressionRoot> compiledExpression = weca.getCompiledExpression();
+		if (compiledExpression != null && this.useCompiledExpressions) {
+			WebSecurityExpressionRoot root = (WebSecurityExpressionRoot) ((DefaultWebSecurityExpressionHandler) this.expressionHandler)
+					.createSecurityExpressionRoot(authentication, fi);
+			return compiledExpression.test(root) ? ACCESS_GRANTED : ACCESS_DENIED;
+		}
+
 		EvaluationContext ctx = expressionHandler.createEvaluationContext(authentication,
 				fi);
 		ctx = weca.postProcess(ctx, fi);
@@ -74,5 +83,9 @@ public class WebExpressionVoter implements AccessDecisionVoter<FilterInvocation>
 	public void setExpressionHandler(
 			SecurityExpressionHandler<FilterInvocation> expressionHandler) {
 		this.expressionHandler = expressionHandler;
+		// compiled expressions bypass the EvaluationContext, so only use them when it
+		// cannot have been customized
+		this.useCompiledExpressions = expressionHandler != null && expressionHandler
+				.getClass() == DefaultWebSecurityExpressionHandler.class;
 	}
 }
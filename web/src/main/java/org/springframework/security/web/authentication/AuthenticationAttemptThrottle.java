@@ -0,0 +1,154 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.authentication;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.security.util.BoundedExpiringCache;
+import org.springframework.util.Assert;
+
+/**
+ * Limits how many authentication attempts may fail for the same username and for the
+ * same remote address, so that hostile traffic cannot force an unlimited number of
+ * expensive password verifications.
+ *
+ * <p>
+ * Each username and remote address has a token bucket that holds
+ * {@code maximumAttempts} failures and regains one every
+ * {@code window / maximumAttempts}. A bucket is a single {@link AtomicLong} holding the
+ * time at which it is empty again, so recording a failure and checking a bucket never
+ * lock. Usernames are compared ignoring case and surrounding whitespace, so that varying
+ * them does not yield a fresh bucket.
+ * </p>
+ *
+ * <p>
+ * The buckets are kept in a {@link BoundedExpiringCache}, which bounds the memory used
+ * and forgets a bucket once it is empty again. A bucket is never evicted before that, so
+ * failures for other usernames or from other addresses cannot reset it. Instead, while
+ * {@code maximumSize} usernames (or remote addresses) have buckets that are not empty,
+ * failures for new ones are not tracked until a bucket empties.
+ * </p>
+ *
+ * <p>
+ * Filters such as {@link UsernamePasswordAuthenticationFilter},
+ * {@link org.springframework.security.web.authentication.www.BasicAuthenticationFilter}
+ * and {@link org.springframework.security.web.server.authentication.AuthenticationWebFilter}
+ * consult {@link #isThrottled(String, String)} before invoking the authentication
+ * manager and reject the attempt with an {@link AuthenticationThrottledException}. They
+ * call {@link #recordFailure(String, String)} themselves when the authentication manager
+ * fails with a {@code BadCredentialsException}, rather than relying on authentication
+ * events, which may not be published at all.
+ * </p>
+ *
+ * @author agent
+ * @since 5.3
+ */
+public final class AuthenticationAttemptThrottle {
+	private final BoundedExpiringCache<String, AtomicLong> usernames;
+
+	private final BoundedExpiringCache<String, AtomicLong> remoteAddresses;
+
+	private final long window;
+
+	private final long interval;
+
+	private Clock clock = Clock.systemUTC();
+
+	/**
+	 * Creates a new instance
+	 * @param maximumAttempts the number of failed attempts allowed within the window
+	 * @param window the time it takes for all failed attempts to be forgotten
+	 * @param maximumSize the maximum number of usernames and of remote addresses to track
+	 */
+	public AuthenticationAttemptThrottle(int maximumAttempts, Duration window, int maximumSize) {
+		Assert.isTrue(maximumAttempts > 0, "maximumAttempts must be greater than 0");
+		Assert.notNull(window, "window cannot be null");
+		Assert.isTrue(window.toMillis() >= maximumAttempts, "window must be at least maximumAttempts milliseconds");
+		this.usernames = new BoundedExpiringCache<>(maximumSize, window, false);
+		this.remoteAddresses = new BoundedExpiringCache<>(maximumSize, window, false);
+		this.window = window.toMillis();
+		this.interval = this.window / maximumAttempts;
+	}
+
+	/**
+	 * Determines if attempts for the username or from the remote address must currently
+	 * be rejected
+	 * @param username the username, or {@code null}
+	 * @param remoteAddress the remote address, or {@code null}
+	 * @return true if the attempt should be rejected
+	 */
+	public boolean isThrottled(String username, String remoteAddress) {
+		long now = this.clock.millis();
+		return isThrottled(this.usernames, usernameKey(username), now)
+				|| isThrottled(this.remoteAddresses, remoteAddress, now);
+	}
+
+	/**
+	 * Records a failed attempt for the username and from the remote address
+	 * @param username the username, or {@code null}
+	 * @param remoteAddress the remote address, or {@code null}
+	 */
+	public void recordFailure(String username, String remoteAddress) {
+		long now = this.clock.millis();
+		recordFailure(this.usernames, usernameKey(username), now);
+		recordFailure(this.remoteAddresses, remoteAddress, now);
+	}
+
+	/**
+	 * Sets the {@link Clock} used to refill the buckets. The default is
+	 * {@link Clock#systemUTC()}.
+	 * @param clock the {@link Clock} to use
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "clock cannot be null");
+		this.clock = clock;
+		this.usernames.setClock(clock);
+		this.remoteAddresses.setClock(clock);
+	}
+
+	private boolean isThrottled(BoundedExpiringCache<String, AtomicLong> buckets, String key,
+			long now) {
+		if (key == null) {
+			return false;
+		}
+		AtomicLong emptyAt = buckets.get(key);
+		return emptyAt != null && emptyAt.get() - now > this.window - this.interval;
+	}
+
+	private void recordFailure(BoundedExpiringCache<String, AtomicLong> buckets, String key,
+			long now) {
+		if (key == null) {
+			return;
+		}
+		AtomicLong emptyAt = buckets.get(key);
+		if (emptyAt == null) {
+			AtomicLong created = new AtomicLong(now);
+			AtomicLong existing = buckets.putIfAbsent(key, created);
+			emptyAt = existing != null ? existing : created;
+		}
+		emptyAt.updateAndGet(at -> Math.min(Math.max(at, now) + this.interval, now + this.window));
+		// refreshes the expiration so the bucket is kept until it is empty again
+		buckets.touch(key);
+	}
+
+	private static String usernameKey(String username) {
+		return username != null ? username.trim().toLowerCase(Locale.ROOT) : null;
+	}
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.authentication;
+
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * Thrown if an authentication request is rejected by an
+ * {@link AuthenticationAttemptThrottle} because too many attempts failed recently for
+ * the same username or remote address.
+ *
+ * @author agent
+ * @since 5.3
+ */
+public class AuthenticationThrottledException extends AuthenticationException {
+
+	/**
+	 * Constructs an <code>AuthenticationThrottledException</code> with the specified
+	 * message.
+	 *
+	 * @param msg the detail message
+	 */
+	public AuthenticationThrottledException(String msg) {
+		super(msg);
+	}
+}
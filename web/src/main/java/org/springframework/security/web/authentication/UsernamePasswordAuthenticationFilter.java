@@ -18,6 +18,7 @@ package org.springframework.security.web.authentication;
 
 import org.springframework.lang.Nullable;
 import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
@@ -55,6 +56,7 @@ public class UsernamePasswordAuthenticationFilter extends
 	private String usernameParameter = SPRING_SECURITY_FORM_USERNAME_KEY;
 	private String passwordParameter = SPRING_SECURITY_FORM_PASSWORD_KEY;
 	private boolean postOnly = true;
+	private AuthenticationAttemptThrottle authenticationAttemptThrottle;
 
 	// ~ Constructors
 	// ===================================================================================================
@@ -86,13 +88,28 @@ public class UsernamePasswordAuthenticationFilter extends
 
 		username = username.trim();
 
+		if (authenticationAttemptThrottle != null
+				&& authenticationAttemptThrottle.isThrottled(username, request.getRemoteAddr())) {
+			throw new AuthenticationThrottledException(
+					"Too many failed authentication attempts");
+		}
+
 		UsernamePasswordAuthenticationToken authRequest = new UsernamePasswordAuthenticationToken(
 				username, password);
 
 		// Allow subclasses to set the "details" property
 		setDetails(request, authRequest);
 
-		return this.getAuthenticationManager().authenticate(authRequest);
+		if (authenticationAttemptThrottle == null) {
+			return this.getAuthenticationManager().authenticate(authRequest);
+		}
+		try {
+			return this.getAuthenticationManager().authenticate(authRequest);
+		}
+		catch (BadCredentialsException failed) {
+			authenticationAttemptThrottle.recordFailure(username, request.getRemoteAddr());
+			throw failed;
+		}
 	}
 
 	/**
@@ -177,6 +194,23 @@ public class UsernamePasswordAuthenticationFilter extends
 		this.postOnly = postOnly;
 	}
 
+	/**
+	 * Sets the {@link AuthenticationAttemptThrottle} that is consulted before the
+	 * {@link org.springframework.security.authentication.AuthenticationManager} is
+	 * invoked. Attempts for a throttled username or remote address are rejected with an
+	 * {@link AuthenticationThrottledException} without verifying the password. Attempts
+	 * that fail with a {@link BadCredentialsException} are recorded with the throttle by
+	 * this filter. The default is {@code null}, which never throttles.
+	 *
+	 * @param authenticationAttemptThrottle the {@link AuthenticationAttemptThrottle} to
+	 * use
+	 * @since 5.3
+	 */
+	public void setAuthenticationAttemptThrottle(
+			AuthenticationAttemptThrottle authenticationAttemptThrottle) {
+		this.authenticationAttemptThrottle = authenticationAttemptThrottle;
+	}
+
 	public final String getUsernameParameter() {
 		return usernameParameter;
 	}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.authentication;
+
+import java.io.IOException;
+
+import org.springframework.security.core.context.BinarySecurityContextCodec;
+import org.springframework.security.core.context.BinaryTypeCodec;
+
+/**
+ * A {@link BinaryTypeCodec} for {@link WebAuthenticationDetails}, which are the details
+ * of most tokens created by a servlet application.
+ *
+ * @author agent
+ * @since 5.3
+ * @see org.springframework.security.web.context.HttpSessionSecurityContextRepository#setSecurityContextCodec(BinarySecurityContextCodec)
+ */
+public final class WebAuthenticationDetailsCodec implements BinaryTypeCodec<WebAuthenticationDetails> {
+
+	@Override
+	public Class<WebAuthenticationDetails> getType() {
+		return WebAuthenticationDetails.class;
+	}
+
+	@Override
+	public void write(WebAuthenticationDetails details, BinarySecurityContextCodec.Output output) {
+		output.writeString(details.getRemoteAddress());
+		output.writeString(details.getSessionId());
+	}
+
+	@Override
+	public WebAuthenticationDetails read(BinarySecurityContextCodec.Input input) throws IOException {
+		return new WebAuthenticationDetails(input.readString(), input.readString());
+	}
+}
@@ -27,11 +27,15 @@ import javax.servlet.http.HttpSession;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.ApplicationEventPublisherAware;
 import org.springframework.security.authentication.AuthenticationDetailsSource;
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
 import org.springframework.security.authentication.event.InteractiveAuthenticationSuccessEvent;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsChecker;
 import org.springframework.security.web.WebAttributes;
 import org.springframework.security.web.authentication.*;
 import org.springframework.security.web.util.matcher.RequestMatcher;
@@ -70,6 +74,14 @@ import org.springframework.web.filter.GenericFilterBean;
  * raised by the <tt>AuthenticationManager</tt> will the be re-thrown. Note that this will
  * not affect cases where the principal returned by {@link #getPreAuthenticatedPrincipal}
  * is null, when the chain will still proceed as normal.
+ * <p>
+ * Stateless deployments, where every request reaches the filter, can set a
+ * {@link #setAuthenticationCache(PreAuthenticatedAuthenticationCache)
+ * PreAuthenticatedAuthenticationCache} so that the <tt>AuthenticationManager</tt> is only
+ * consulted the first time a given principal and credentials are presented. Cached
+ * {@code UserDetails} principals are still passed to the
+ * {@link #setUserDetailsChecker(UserDetailsChecker) UserDetailsChecker} and an
+ * {@link AuthenticationSuccessEvent} is still published for every request.
  *
  * @author Luke Taylor
  * @author Ruud Senden
@@ -89,6 +101,8 @@ public abstract class AbstractPreAuthenticatedProcessingFilter extends GenericFi
 	private AuthenticationSuccessHandler authenticationSuccessHandler = null;
 	private AuthenticationFailureHandler authenticationFailureHandler = null;
 	private RequestMatcher requiresAuthenticationRequestMatcher = new PreAuthenticatedProcessingRequestMatcher();
+	private PreAuthenticatedAuthenticationCache authenticationCache;
+	private UserDetailsChecker userDetailsChecker = new AccountStatusUserDetailsChecker();
 
 	/**
 	 * Check whether all required properties have been set.
@@ -184,7 +198,7 @@ public abstract class AbstractPreAuthenticatedProcessingFilter extends GenericFi
 			PreAuthenticatedAuthenticationToken authRequest = new PreAuthenticatedAuthenticationToken(
 					principal, credentials);
 			authRequest.setDetails(authenticationDetailsSource.buildDetails(request));
-			authResult = authenticationManager.authenticate(authRequest);
+			authResult = authenticate(authRequest);
 			successfulAuthentication(request, response, authResult);
 		}
 		catch (AuthenticationException failed) {
@@ -196,6 +210,40 @@ public abstract class AbstractPreAuthenticatedProcessingFilter extends GenericFi
 		}
 	}
 
+	private Authentication authenticate(PreAuthenticatedAuthenticationToken authRequest) {
+		if (this.authenticationCache == null) {
+			return this.authenticationManager.authenticate(authRequest);
+		}
+		PreAuthenticatedAuthenticationToken cached = this.authenticationCache.getAuthentication(authRequest);
+		if (cached != null) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Using cached authentication for " + authRequest.getPrincipal());
+			}
+			if (cached.getPrincipal() instanceof UserDetails) {
+				try {
+					this.userDetailsChecker.check((UserDetails) cached.getPrincipal());
+				}
+				catch (AuthenticationException failed) {
+					this.authenticationCache.removeAuthentication(authRequest);
+					throw failed;
+				}
+			}
+			PreAuthenticatedAuthenticationToken result = new PreAuthenticatedAuthenticationToken(
+					cached.getPrincipal(), authRequest.getCredentials(), cached.getAuthorities());
+			result.setDetails(authRequest.getDetails());
+			if (this.eventPublisher != null) {
+				this.eventPublisher.publishEvent(new AuthenticationSuccessEvent(result));
+			}
+			return result;
+		}
+		Authentication authResult = this.authenticationManager.authenticate(authRequest);
+		if (authResult instanceof PreAuthenticatedAuthenticationToken) {
+			this.authenticationCache.putAuthentication(authRequest,
+					(PreAuthenticatedAuthenticationToken) authResult);
+		}
+		return authResult;
+	}
+
 	/**
 	 * Puts the <code>Authentication</code> instance returned by the authentication
 	 * manager into the secure context.
@@ -326,6 +374,39 @@ public abstract class AbstractPreAuthenticatedProcessingFilter extends GenericFi
 		this.requiresAuthenticationRequestMatcher = requiresAuthenticationRequestMatcher;
 	}
 
+	/**
+	 * Sets the {@link PreAuthenticatedAuthenticationCache} used to remember the
+	 * authentication resolved for a pre-authenticated principal and credentials. When a
+	 * cached authentication is found the <tt>AuthenticationManager</tt> is not invoked.
+	 * Instead the cached {@code UserDetails} principal is passed to the
+	 * {@link #setUserDetailsChecker(UserDetailsChecker) UserDetailsChecker} and the
+	 * {@link AuthenticationSuccessEvent} that the <tt>AuthenticationManager</tt> would
+	 * have published is published by this filter. Changes to the user that are not held by
+	 * the cached principal are only observed once the cached entry expires. The default is
+	 * not to cache.
+	 *
+	 * @param authenticationCache the {@link PreAuthenticatedAuthenticationCache} to use
+	 * @since 5.3
+	 */
+	public void setAuthenticationCache(PreAuthenticatedAuthenticationCache authenticationCache) {
+		this.authenticationCache = authenticationCache;
+	}
+
+	/**
+	 * Sets the {@link UserDetailsChecker} applied to cached {@code UserDetails} principals
+	 * when an {@link #setAuthenticationCache(PreAuthenticatedAuthenticationCache)
+	 * authentication cache} is used. It should match the checker configured on the
+	 * {@link PreAuthenticatedAuthenticationProvider}. Defaults to
+	 * {@link AccountStatusUserDetailsChecker}.
+	 *
+	 * @param userDetailsChecker the {@link UserDetailsChecker} to use
+	 * @since 5.3
+	 */
+	public void setUserDetailsChecker(UserDetailsChecker userDetailsChecker) {
+		Assert.notNull(userDetailsChecker, "userDetailsChecker cannot be null");
+		this.userDetailsChecker = userDetailsChecker;
+	}
+
 	/**
 	 * Override to extract the principal information from the current request
 	 */
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.authentication.preauth;
+
+import java.security.cert.X509Certificate;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.security.util.BoundedExpiringCache;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * A {@link PreAuthenticatedAuthenticationCache} that keeps a bounded number of tokens in
+ * memory for a limited time. Entries are keyed by the pre-authenticated principal and
+ * credentials. When the credentials are an {@link X509Certificate} (as with
+ * {@link org.springframework.security.web.authentication.preauth.x509.X509AuthenticationFilter}),
+ * the key includes the full certificate and an entry never outlives the certificate's
+ * {@link X509Certificate#getNotAfter() notAfter} date.
+ *
+ * <p>
+ * Since the cached {@link org.springframework.security.core.userdetails.UserDetails} are
+ * not reloaded until the entry expires, the time to live bounds how long changes to a
+ * user (for example disabling the account) take to be observed.
+ * </p>
+ *
+ * @author agent
+ * @since 5.3
+ */
+public final class InMemoryPreAuthenticatedAuthenticationCache implements PreAuthenticatedAuthenticationCache {
+	private final BoundedExpiringCache<Key, PreAuthenticatedAuthenticationToken> cache;
+
+	/**
+	 * Creates a new instance
+	 * @param maximumSize the maximum number of cached tokens
+	 * @param timeToLive the maximum time a token is cached
+	 */
+	public InMemoryPreAuthenticatedAuthenticationCache(int maximumSize, Duration timeToLive) {
+		this.cache = new BoundedExpiringCache<>(maximumSize, timeToLive);
+	}
+
+	@Override
+	public PreAuthenticatedAuthenticationToken getAuthentication(
+			PreAuthenticatedAuthenticationToken authenticationRequest) {
+		return this.cache.get(new Key(authenticationRequest));
+	}
+
+	@Override
+	public void putAuthentication(PreAuthenticatedAuthenticationToken authenticationRequest,
+			PreAuthenticatedAuthenticationToken authenticationResult) {
+		Object credentials = authenticationRequest.getCredentials();
+		Instant expiresAt = credentials instanceof X509Certificate ?
+				((X509Certificate) credentials).getNotAfter().toInstant() : null;
+		this.cache.put(new Key(authenticationRequest), authenticationResult, expiresAt);
+	}
+
+	@Override
+	public void removeAuthentication(PreAuthenticatedAuthenticationToken authenticationRequest) {
+		this.cache.remove(new Key(authenticationRequest));
+	}
+
+	/**
+	 * Sets the {@link Clock} used to determine expiration. The default is
+	 * {@link Clock#systemUTC()}.
+	 * @param clock the {@link Clock} to use
+	 */
+	public void setClock(Clock clock) {
+		this.cache.setClock(clock);
+	}
+
+	private static final class Key {
+		private final Object principal;
+
+		private final Object credentials;
+
+		private Key(PreAuthenticatedAuthenticationToken authentication) {
+			this.principal = authentication.getPrincipal();
+			this.credentials = authentication.getCredentials();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return ObjectUtils.nullSafeEquals(this.principal, other.principal)
+					&& ObjectUtils.nullSafeEquals(this.credentials, other.credentials);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * ObjectUtils.nullSafeHashCode(this.principal)
+					+ ObjectUtils.nullSafeHashCode(this.credentials);
+		}
+	}
+}
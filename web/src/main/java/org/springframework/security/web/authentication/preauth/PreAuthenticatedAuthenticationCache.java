@@ -0,0 +1,58 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.authentication.preauth;
+
+/**
+ * Caches the {@link PreAuthenticatedAuthenticationToken} resolved for a pre-authenticated
+ * principal and credentials, so that the
+ * {@link org.springframework.security.core.userdetails.AuthenticationUserDetailsService}
+ * does not need to be consulted again for every request presenting them.
+ *
+ * @author agent
+ * @since 5.3
+ * @see InMemoryPreAuthenticatedAuthenticationCache
+ */
+public interface PreAuthenticatedAuthenticationCache {
+
+	/**
+	 * Obtains the authenticated token previously resolved for the principal and
+	 * credentials of the authentication request.
+	 *
+	 * @param authenticationRequest the unauthenticated request
+	 * @return the authenticated token or {@code null} if none is cached
+	 */
+	PreAuthenticatedAuthenticationToken getAuthentication(
+			PreAuthenticatedAuthenticationToken authenticationRequest);
+
+	/**
+	 * Stores the authenticated token resolved for the principal and credentials of the
+	 * authentication request.
+	 *
+	 * @param authenticationRequest the unauthenticated request
+	 * @param authenticationResult the authenticated token
+	 */
+	void putAuthentication(PreAuthenticatedAuthenticationToken authenticationRequest,
+			PreAuthenticatedAuthenticationToken authenticationResult);
+
+	/**
+	 * Removes the authenticated token for the principal and credentials of the
+	 * authentication request.
+	 *
+	 * @param authenticationRequest the unauthenticated request
+	 */
+	void removeAuthentication(PreAuthenticatedAuthenticationToken authenticationRequest);
+}
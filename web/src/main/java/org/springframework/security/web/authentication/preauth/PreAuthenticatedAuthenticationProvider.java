@@ -52,6 +52,7 @@ public class PreAuthenticatedAuthenticationProvider implements AuthenticationPro
 	private AuthenticationUserDetailsService<PreAuthenticatedAuthenticationToken> preAuthenticatedUserDetailsService = null;
 	private UserDetailsChecker userDetailsChecker = new AccountStatusUserDetailsChecker();
 	private boolean throwExceptionWhenTokenRejected = false;
+	private PreAuthenticatedAuthenticationCache authenticationCache;
 
 	private int order = -1; // default: same as non-ordered
 
@@ -99,15 +100,36 @@ public class PreAuthenticatedAuthenticationProvider implements AuthenticationPro
 			return null;
 		}
 
+		PreAuthenticatedAuthenticationToken authenticationRequest = (PreAuthenticatedAuthenticationToken) authentication;
+		PreAuthenticatedAuthenticationToken cached = authenticationCache == null ? null
+				: authenticationCache.getAuthentication(authenticationRequest);
+		if (cached != null) {
+			logger.debug("Using cached pre-authenticated user details");
+			UserDetails ud = (UserDetails) cached.getPrincipal();
+			userDetailsChecker.check(ud);
+			return createSuccessAuthentication(authentication, ud);
+		}
+
 		UserDetails ud = preAuthenticatedUserDetailsService
-				.loadUserDetails((PreAuthenticatedAuthenticationToken) authentication);
+				.loadUserDetails(authenticationRequest);
 
 		userDetailsChecker.check(ud);
 
+		PreAuthenticatedAuthenticationToken result = createSuccessAuthentication(
+				authentication, ud);
+
+		if (authenticationCache != null) {
+			authenticationCache.putAuthentication(authenticationRequest, result);
+		}
+
+		return result;
+	}
+
+	private PreAuthenticatedAuthenticationToken createSuccessAuthentication(
+			Authentication authentication, UserDetails ud) {
 		PreAuthenticatedAuthenticationToken result = new PreAuthenticatedAuthenticationToken(
 				ud, authentication.getCredentials(), ud.getAuthorities());
 		result.setDetails(authentication.getDetails());
-
 		return result;
 	}
 
@@ -130,6 +152,19 @@ public class PreAuthenticatedAuthenticationProvider implements AuthenticationPro
 		this.preAuthenticatedUserDetailsService = uds;
 	}
 
+	/**
+	 * Sets the {@link PreAuthenticatedAuthenticationCache} used to avoid loading the
+	 * {@code UserDetails} again for a principal and credentials that were recently
+	 * authenticated. The {@link #setUserDetailsChecker(UserDetailsChecker)
+	 * UserDetailsChecker} is still applied to cached users. By default no cache is used.
+	 *
+	 * @param authenticationCache the cache to use, or {@code null} to disable caching
+	 * @since 5.3
+	 */
+	public void setAuthenticationCache(PreAuthenticatedAuthenticationCache authenticationCache) {
+		this.authenticationCache = authenticationCache;
+	}
+
 	/**
 	 * If true, causes the provider to throw a BadCredentialsException if the presented
 	 * authentication request is invalid (contains a null principal or credentials).
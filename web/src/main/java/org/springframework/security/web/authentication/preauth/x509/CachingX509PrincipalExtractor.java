@@ -0,0 +1,81 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.authentication.preauth.x509;
+
+import java.security.cert.X509Certificate;
+import java.time.Clock;
+import java.time.Duration;
+
+import org.springframework.security.util.BoundedExpiringCache;
+import org.springframework.util.Assert;
+
+/**
+ * An {@link X509PrincipalExtractor} that remembers the principal extracted by another
+ * {@link X509PrincipalExtractor} for each certificate. This avoids parsing the same
+ * subject again for clients, such as services in a service mesh, that present the same
+ * long-lived certificate on every request.
+ *
+ * <p>
+ * Certificates are compared using their full encoded form, so two certificates only share
+ * an entry if they are identical. An entry is kept for at most the configured time to
+ * live and never past the certificate's {@link X509Certificate#getNotAfter() notAfter}
+ * date.
+ * </p>
+ *
+ * @author agent
+ * @since 5.3
+ * @see org.springframework.security.web.authentication.preauth.InMemoryPreAuthenticatedAuthenticationCache
+ */
+public class CachingX509PrincipalExtractor implements X509PrincipalExtractor {
+	private final X509PrincipalExtractor delegate;
+
+	private final BoundedExpiringCache<X509Certificate, Object> principals;
+
+	/**
+	 * Creates a new instance
+	 * @param delegate the {@link X509PrincipalExtractor} to cache the results of
+	 * @param maximumSize the maximum number of certificates to remember
+	 * @param timeToLive the maximum time a principal is remembered
+	 */
+	public CachingX509PrincipalExtractor(X509PrincipalExtractor delegate, int maximumSize,
+			Duration timeToLive) {
+		Assert.notNull(delegate, "delegate cannot be null");
+		this.delegate = delegate;
+		this.principals = new BoundedExpiringCache<>(maximumSize, timeToLive);
+	}
+
+	@Override
+	public Object extractPrincipal(X509Certificate cert) {
+		Object principal = this.principals.get(cert);
+		if (principal == null) {
+			principal = this.delegate.extractPrincipal(cert);
+			if (principal != null) {
+				this.principals.put(cert, principal, cert.getNotAfter().toInstant());
+			}
+		}
+		return principal;
+	}
+
+	/**
+	 * Sets the {@link Clock} used to determine expiration. The default is
+	 * {@link Clock#systemUTC()}.
+	 * @param clock the {@link Clock} to use
+	 */
+	public void setClock(Clock clock) {
+		this.principals.setClock(clock);
+	}
+}
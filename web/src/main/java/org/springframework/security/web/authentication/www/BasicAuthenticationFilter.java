@@ -26,11 +26,14 @@ import javax.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.authentication.AuthenticationDetailsSource;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.security.web.authentication.AuthenticationAttemptThrottle;
+import org.springframework.security.web.authentication.AuthenticationThrottledException;
 import org.springframework.security.web.authentication.NullRememberMeServices;
 import org.springframework.security.web.authentication.RememberMeServices;
 import org.springframework.util.Assert;
@@ -97,6 +100,7 @@ public class BasicAuthenticationFilter extends OncePerRequestFilter {
 	private boolean ignoreFailure = false;
 	private String credentialsCharset = "UTF-8";
 	private BasicAuthenticationConverter authenticationConverter = new BasicAuthenticationConverter();
+	private AuthenticationAttemptThrottle authenticationAttemptThrottle;
 
 	/**
 	 * Creates an instance which will authenticate against the supplied
@@ -164,8 +168,13 @@ public class BasicAuthenticationFilter extends OncePerRequestFilter {
 			}
 
 			if (authenticationIsRequired(username)) {
-				Authentication authResult = this.authenticationManager
-						.authenticate(authRequest);
+				if (this.authenticationAttemptThrottle != null && this.authenticationAttemptThrottle
+						.isThrottled(username, request.getRemoteAddr())) {
+					throw new AuthenticationThrottledException(
+							"Too many failed authentication attempts");
+				}
+
+				Authentication authResult = authenticate(request, authRequest);
 
 				if (debug) {
 					this.logger.debug("Authentication success: " + authResult);
@@ -203,6 +212,21 @@ public class BasicAuthenticationFilter extends OncePerRequestFilter {
 		chain.doFilter(request, response);
 	}
 
+	private Authentication authenticate(HttpServletRequest request,
+			UsernamePasswordAuthenticationToken authRequest) {
+		if (this.authenticationAttemptThrottle == null) {
+			return this.authenticationManager.authenticate(authRequest);
+		}
+		try {
+			return this.authenticationManager.authenticate(authRequest);
+		}
+		catch (BadCredentialsException failed) {
+			this.authenticationAttemptThrottle.recordFailure(authRequest.getName(),
+					request.getRemoteAddr());
+			throw failed;
+		}
+	}
+
 	private boolean authenticationIsRequired(String username) {
 		// Only reauthenticate if username doesn't match SecurityContextHolder and user
 		// isn't authenticated
@@ -273,6 +297,23 @@ public class BasicAuthenticationFilter extends OncePerRequestFilter {
 		this.rememberMeServices = rememberMeServices;
 	}
 
+	/**
+	 * Sets the {@link AuthenticationAttemptThrottle} that is consulted before the
+	 * {@link AuthenticationManager} is invoked. Attempts for a throttled username or
+	 * remote address fail with an {@link AuthenticationThrottledException} without
+	 * verifying the password. Attempts that fail with a {@link BadCredentialsException}
+	 * are recorded with the throttle by this filter. The default is {@code null}, which
+	 * never throttles.
+	 *
+	 * @param authenticationAttemptThrottle the {@link AuthenticationAttemptThrottle} to
+	 * use
+	 * @since 5.3
+	 */
+	public void setAuthenticationAttemptThrottle(
+			AuthenticationAttemptThrottle authenticationAttemptThrottle) {
+		this.authenticationAttemptThrottle = authenticationAttemptThrottle;
+	}
+
 	public void setCredentialsCharset(String credentialsCharset) {
 		Assert.hasText(credentialsCharset, "credentialsCharset cannot be null or empty");
 		this.credentialsCharset = credentialsCharset;
@@ -31,6 +31,7 @@ import org.springframework.security.authentication.AuthenticationTrustResolver;
 import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.Transient;
+import org.springframework.security.core.context.BinarySecurityContextCodec;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.context.SecurityContextHolderStrategy;
@@ -98,6 +99,8 @@ public class HttpSessionSecurityContextRepository implements SecurityContextRepo
 
 	private AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
 
+	private BinarySecurityContextCodec securityContextCodec;
+
 	/**
 	 * Gets the security context for the current request (if available) and returns it.
 	 * <p>
@@ -188,6 +191,20 @@ public class HttpSessionSecurityContextRepository implements SecurityContextRepo
 			return null;
 		}
 
+		if (this.securityContextCodec != null && contextFromSession instanceof byte[]) {
+			try {
+				contextFromSession = this.securityContextCodec.decode((byte[]) contextFromSession);
+			}
+			catch (IllegalArgumentException ex) {
+				if (logger.isWarnEnabled()) {
+					logger.warn("Unable to decode the SecurityContext stored in "
+							+ springSecurityContextKey, ex);
+				}
+
+				return null;
+			}
+		}
+
 		// We now have the security context object from the session.
 		if (!(contextFromSession instanceof SecurityContext)) {
 			if (logger.isWarnEnabled()) {
@@ -370,7 +387,7 @@ public class HttpSessionSecurityContextRepository implements SecurityContextRepo
 				// is set SEC-1561
 				if (contextChanged(context)
 						|| httpSession.getAttribute(springSecurityContextKey) == null) {
-					httpSession.setAttribute(springSecurityContextKey, context);
+					httpSession.setAttribute(springSecurityContextKey, encode(context));
 
 					if (logger.isDebugEnabled()) {
 						logger.debug("SecurityContext '" + context
@@ -440,6 +457,13 @@ public class HttpSessionSecurityContextRepository implements SecurityContextRepo
 		}
 	}
 
+	private Object encode(SecurityContext context) {
+		if (this.securityContextCodec == null) {
+			return context;
+		}
+		return this.securityContextCodec.encode(context);
+	}
+
 	private boolean isTransientAuthentication(Authentication authentication) {
 		return AnnotationUtils.getAnnotation(authentication.getClass(), Transient.class) != null;
 	}
@@ -455,4 +479,22 @@ public class HttpSessionSecurityContextRepository implements SecurityContextRepo
 		Assert.notNull(trustResolver, "trustResolver cannot be null");
 		this.trustResolver = trustResolver;
 	}
+
+	/**
+	 * Sets the {@link BinarySecurityContextCodec} used to store the
+	 * {@code SecurityContext} in the {@code HttpSession} as a {@code byte[]}. This makes
+	 * replicated sessions smaller than with Java serialization. Contexts that were stored
+	 * before the codec was set are still read. Note that any other component reading the
+	 * session attribute directly will then find a {@code byte[]} rather than a
+	 * {@code SecurityContext}. The default is {@code null}, which stores the
+	 * {@code SecurityContext} itself.
+	 *
+	 * @param securityContextCodec the {@link BinarySecurityContextCodec} to use, or
+	 * {@code null}
+	 * @since 5.3
+	 * @see org.springframework.security.web.authentication.WebAuthenticationDetailsCodec
+	 */
+	public void setSecurityContextCodec(BinarySecurityContextCodec securityContextCodec) {
+		this.securityContextCodec = securityContextCodec;
+	}
 }
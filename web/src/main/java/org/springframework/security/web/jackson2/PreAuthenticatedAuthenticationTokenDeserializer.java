@@ -17,6 +17,7 @@
 package org.springframework.security.web.jackson2;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
 
 import org.springframework.security.core.GrantedAuthority;
@@ -24,8 +25,9 @@ import org.springframework.security.web.authentication.preauth.PreAuthenticatedA
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -34,7 +36,8 @@ import com.fasterxml.jackson.databind.node.MissingNode;
 /**
  * Custom deserializer for {@link PreAuthenticatedAuthenticationToken}. At the time of deserialization
  * it will invoke suitable constructor depending on the value of <b>authenticated</b> property.
- * It will ensure that the token's state must not change.
+ * It will ensure that the token's state must not change. The fields are read as they are
+ * streamed, without building a tree of the whole token first.
  * <p>
  * This deserializer is already registered with {@link PreAuthenticatedAuthenticationTokenMixin} but
  * you can also registered it with your own mixin class.
@@ -56,30 +59,63 @@ class PreAuthenticatedAuthenticationTokenDeserializer extends JsonDeserializer<P
 	@Override
 	public PreAuthenticatedAuthenticationToken deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException, JsonProcessingException {
 		PreAuthenticatedAuthenticationToken token = null;
-		ObjectMapper mapper = (ObjectMapper) jp.getCodec();
-		JsonNode jsonNode = mapper.readTree(jp);
-		Boolean authenticated = readJsonNode(jsonNode, "authenticated").asBoolean();
-		JsonNode principalNode = readJsonNode(jsonNode, "principal");
-		Object principal = null;
-		if (principalNode.isObject()) {
-			principal = mapper.readValue(principalNode.traverse(mapper), Object.class);
-		} else {
-			principal = principalNode.asText();
+		boolean authenticated = false;
+		Object principal = "";
+		Object credentials = "";
+		List<GrantedAuthority> authorities = Collections.emptyList();
+		JsonNode details = MissingNode.getInstance();
+		JsonToken t = jp.currentToken();
+		if (t == JsonToken.START_OBJECT) {
+			t = jp.nextToken();
+		}
+		for (; t == JsonToken.FIELD_NAME; t = jp.nextToken()) {
+			String field = jp.getCurrentName();
+			t = jp.nextToken();
+			if ("authenticated".equals(field)) {
+				authenticated = readBoolean(jp, t);
+			}
+			else if ("principal".equals(field)) {
+				principal = t == JsonToken.START_OBJECT ? ctxt.readValue(jp, Object.class) : readText(jp, t);
+			}
+			else if ("credentials".equals(field)) {
+				credentials = readText(jp, t);
+			}
+			else if ("authorities".equals(field)) {
+				JavaType type = ctxt.getTypeFactory().constructCollectionType(List.class, GrantedAuthority.class);
+				authorities = t == JsonToken.VALUE_NULL ? null : ctxt.readValue(jp, type);
+			}
+			else if ("details".equals(field)) {
+				details = ((ObjectMapper) jp.getCodec()).readTree(jp);
+			}
+			else {
+				jp.skipChildren();
+			}
 		}
-		Object credentials = readJsonNode(jsonNode, "credentials").asText();
-		List<GrantedAuthority> authorities = mapper.readValue(
-				readJsonNode(jsonNode, "authorities").traverse(mapper), new TypeReference<List<GrantedAuthority>>() {
-		});
 		if (authenticated) {
 			token = new PreAuthenticatedAuthenticationToken(principal, credentials, authorities);
 		} else {
 			token = new PreAuthenticatedAuthenticationToken(principal, credentials);
 		}
-		token.setDetails(readJsonNode(jsonNode, "details"));
+		token.setDetails(details);
 		return token;
 	}
 
-	private JsonNode readJsonNode(JsonNode jsonNode, String field) {
-		return jsonNode.has(field) ? jsonNode.get(field) : MissingNode.getInstance();
+	private boolean readBoolean(JsonParser jp, JsonToken t) throws IOException {
+		if (t == JsonToken.VALUE_STRING) {
+			return "true".equals(jp.getText().trim());
+		}
+		if (t == JsonToken.VALUE_NUMBER_INT) {
+			return jp.getLongValue() != 0;
+		}
+		jp.skipChildren();
+		return t == JsonToken.VALUE_TRUE;
+	}
+
+	private String readText(JsonParser jp, JsonToken t) throws IOException {
+		if (t.isScalarValue()) {
+			return jp.getText();
+		}
+		jp.skipChildren();
+		return "";
 	}
 }
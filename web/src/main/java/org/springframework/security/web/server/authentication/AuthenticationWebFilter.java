@@ -15,15 +15,19 @@
  */
 package org.springframework.security.web.server.authentication;
 
+import java.net.InetSocketAddress;
 import java.util.function.Function;
 
 import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.ReactiveAuthenticationManager;
 import org.springframework.security.authentication.ReactiveAuthenticationManagerResolver;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.authentication.AuthenticationAttemptThrottle;
+import org.springframework.security.web.authentication.AuthenticationThrottledException;
 import org.springframework.security.web.server.WebFilterExchange;
 import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
 import org.springframework.security.web.server.context.ServerSecurityContextRepository;
@@ -81,6 +85,8 @@ public class AuthenticationWebFilter implements WebFilter {
 
 	private ServerWebExchangeMatcher requiresAuthenticationMatcher = ServerWebExchangeMatchers.anyExchange();
 
+	private AuthenticationAttemptThrottle authenticationAttemptThrottle;
+
 	/**
 	 * Creates an instance
 	 * @param authenticationManager the authentication manager to use
@@ -112,13 +118,31 @@ public class AuthenticationWebFilter implements WebFilter {
 	private Mono<Void> authenticate(ServerWebExchange exchange,
 		WebFilterChain chain, Authentication token) {
 		WebFilterExchange webFilterExchange = new WebFilterExchange(exchange, chain);
+		AuthenticationAttemptThrottle throttle = this.authenticationAttemptThrottle;
+		String remoteAddress = throttle == null ? null : remoteAddress(exchange);
+		if (throttle != null && throttle.isThrottled(token.getName(), remoteAddress)) {
+			return this.authenticationFailureHandler.onAuthenticationFailure(webFilterExchange,
+				new AuthenticationThrottledException("Too many failed authentication attempts"));
+		}
 
 		return this.authenticationManagerResolver.resolve(exchange.getRequest())
 			.flatMap(authenticationManager -> authenticationManager.authenticate(token))
 			.switchIfEmpty(Mono.defer(() -> Mono.error(new IllegalStateException("No provider found for " + token.getClass()))))
 			.flatMap(authentication -> onAuthenticationSuccess(authentication, webFilterExchange))
-			.onErrorResume(AuthenticationException.class, e -> this.authenticationFailureHandler
-				.onAuthenticationFailure(webFilterExchange, e));
+			.onErrorResume(AuthenticationException.class, e -> {
+				if (throttle != null && e instanceof BadCredentialsException) {
+					throttle.recordFailure(token.getName(), remoteAddress);
+				}
+				return this.authenticationFailureHandler.onAuthenticationFailure(webFilterExchange, e);
+			});
+	}
+
+	private static String remoteAddress(ServerWebExchange exchange) {
+		InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+		if (remoteAddress == null || remoteAddress.getAddress() == null) {
+			return null;
+		}
+		return remoteAddress.getAddress().getHostAddress();
 	}
 
 	protected Mono<Void> onAuthenticationSuccess(Authentication authentication, WebFilterExchange webFilterExchange) {
@@ -189,6 +213,21 @@ public class AuthenticationWebFilter implements WebFilter {
 		this.authenticationFailureHandler = authenticationFailureHandler;
 	}
 
+	/**
+	 * Sets the {@link AuthenticationAttemptThrottle} that is consulted before the
+	 * {@link ReactiveAuthenticationManager} is invoked. Attempts for a throttled username or
+	 * remote address are passed to the {@link ServerAuthenticationFailureHandler} as an
+	 * {@link AuthenticationThrottledException} without verifying the password. Since
+	 * {@link ReactiveAuthenticationManager}s do not publish authentication events, this
+	 * filter records a failure with the throttle whenever authentication fails with a
+	 * {@link BadCredentialsException}. The default is {@code null}, which never throttles.
+	 * @param authenticationAttemptThrottle the throttle to use
+	 * @since 5.3
+	 */
+	public void setAuthenticationAttemptThrottle(AuthenticationAttemptThrottle authenticationAttemptThrottle) {
+		this.authenticationAttemptThrottle = authenticationAttemptThrottle;
+	}
+
 	/**
 	 * Sets the matcher used to determine when creating an {@link Authentication} from
 	 * {@link #setServerAuthenticationConverter(ServerAuthenticationConverter)} to be authentication. If the converter returns an empty
@@ -19,8 +19,10 @@ import org.springframework.security.authentication.AccountStatusUserDetailsCheck
 import org.springframework.security.authentication.ReactiveAuthenticationManager;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsChecker;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationCache;
 import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
 import reactor.core.publisher.Mono;
 
@@ -41,6 +43,7 @@ public class ReactivePreAuthenticatedAuthenticationManager
 
 	private final ReactiveUserDetailsService userDetailsService;
 	private final UserDetailsChecker userDetailsChecker;
+	private PreAuthenticatedAuthenticationCache authenticationCache;
 
 	public ReactivePreAuthenticatedAuthenticationManager(ReactiveUserDetailsService userDetailsService) {
 		this(userDetailsService, new AccountStatusUserDetailsChecker());
@@ -57,19 +60,52 @@ public class ReactivePreAuthenticatedAuthenticationManager
 	public Mono<Authentication> authenticate(Authentication authentication) {
 		return Mono.just(authentication)
 				.filter(this::supports)
-				.map(Authentication::getName)
-				.flatMap(userDetailsService::findByUsername)
-				.switchIfEmpty(Mono.error(() -> new UsernameNotFoundException("User not found")))
+				.cast(PreAuthenticatedAuthenticationToken.class)
+				.flatMap(this::doAuthenticate)
+				.switchIfEmpty(Mono.error(() -> new UsernameNotFoundException("User not found")));
+	}
+
+	private Mono<Authentication> doAuthenticate(PreAuthenticatedAuthenticationToken authentication) {
+		PreAuthenticatedAuthenticationToken cached = authenticationCache == null ? null
+				: authenticationCache.getAuthentication(authentication);
+		if (cached != null) {
+			return Mono.just((UserDetails) cached.getPrincipal())
+					.doOnNext(userDetailsChecker::check)
+					.map(ud -> createSuccessAuthentication(authentication, ud));
+		}
+		return userDetailsService.findByUsername(authentication.getName())
 				.doOnNext(userDetailsChecker::check)
 				.map(ud -> {
-					PreAuthenticatedAuthenticationToken result = new PreAuthenticatedAuthenticationToken(
-							ud, authentication.getCredentials(), ud.getAuthorities());
-					result.setDetails(authentication.getDetails());
-
+					PreAuthenticatedAuthenticationToken result = createSuccessAuthentication(authentication, ud);
+					if (authenticationCache != null) {
+						authenticationCache.putAuthentication(authentication, result);
+					}
 					return result;
 				});
 	}
 
+	private PreAuthenticatedAuthenticationToken createSuccessAuthentication(Authentication authentication,
+			UserDetails ud) {
+		PreAuthenticatedAuthenticationToken result = new PreAuthenticatedAuthenticationToken(
+				ud, authentication.getCredentials(), ud.getAuthorities());
+		result.setDetails(authentication.getDetails());
+
+		return result;
+	}
+
+	/**
+	 * Sets the {@link PreAuthenticatedAuthenticationCache} used to avoid looking up the
+	 * {@link UserDetails} again for a principal and credentials that were recently
+	 * authenticated. The {@link UserDetailsChecker} is still applied to cached users. By
+	 * default no cache is used.
+	 *
+	 * @param authenticationCache the cache to use, or {@code null} to disable caching
+	 * @since 5.3
+	 */
+	public void setAuthenticationCache(PreAuthenticatedAuthenticationCache authenticationCache) {
+		this.authenticationCache = authenticationCache;
+	}
+
 	private boolean supports(Authentication authentication) {
 		return PreAuthenticatedAuthenticationToken.class.isAssignableFrom(authentication.getClass());
 	}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.server.context;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.util.Assert;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+/**
+ * A single {@link WebFilter} that performs the work of both {@link ReactorContextWebFilter}
+ * and {@link SecurityContextServerWebExchangeWebFilter}. Fusing them avoids a separate
+ * filter invocation and {@link Mono} chain for the latter on every request.
+ *
+ * <p>
+ * The filter is intended to be placed where {@link ReactorContextWebFilter} would be.
+ * It behaves as follows:
+ * </p>
+ * <ul>
+ * <li>The {@link SecurityContext} is lazily loaded from the
+ * {@link ServerSecurityContextRepository} unless one was already provided by an outer
+ * {@code subscriberContext}.</li>
+ * <li>{@link ServerWebExchange#getPrincipal()} resolves to the
+ * {@link org.springframework.security.core.Authentication} of the {@link SecurityContext}
+ * in effect where it is subscribed to. Unlike with
+ * {@link SecurityContextServerWebExchangeWebFilter}, this also applies to the filters
+ * ordered before {@code SECURITY_CONTEXT_SERVER_WEB_EXCHANGE}.</li>
+ * </ul>
+ *
+ * <p>
+ * Removing a matching saved request and falling back to anonymous authentication are
+ * not fused, since they must only happen after the authentication filters ran.
+ * </p>
+ *
+ * @author agent
+ * @since 5.3
+ */
+public class FusedSecurityContextWebFilter implements WebFilter {
+	private final ServerSecurityContextRepository repository;
+
+	public FusedSecurityContextWebFilter(ServerSecurityContextRepository repository) {
+		Assert.notNull(repository, "repository cannot be null");
+		this.repository = repository;
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		ServerWebExchange securityExchange = new SecurityContextServerWebExchange(exchange,
+				ReactiveSecurityContextHolder.getContext());
+		return chain.filter(securityExchange)
+			.subscriberContext(c -> withSecurityContext(c, exchange));
+	}
+
+	private Context withSecurityContext(Context mainContext, ServerWebExchange exchange) {
+		if (mainContext.hasKey(SecurityContext.class)) {
+			return mainContext;
+		}
+		return mainContext.putAll(this.repository.load(exchange)
+			.as(ReactiveSecurityContextHolder::withSecurityContext));
+	}
+}
@@ -52,8 +52,13 @@ import static java.lang.Boolean.TRUE;
  * </p>
  * <p>
  * The {@code Mono&lt;CsrfToken&gt;} is exposes as a request attribute with the name of
- * {@code CsrfToken.class.getName()}. If the token is new it will automatically be saved
- * at the time it is subscribed.
+ * {@code CsrfToken.class.getName()}. The {@link ServerCsrfTokenRepository} is not
+ * consulted until the {@code Mono} is subscribed, so requests that never render a token
+ * do not load, generate or save one (and, with
+ * {@link WebSessionServerCsrfTokenRepository}, do not create a
+ * {@link org.springframework.web.server.WebSession}). If the token is new it will
+ * automatically be saved at the time it is first subscribed; subsequent subscriptions
+ * replay the same token.
  * </p>
  *
  * @author Rob Winch
@@ -140,8 +145,9 @@ public class CsrfWebFilter implements WebFilter {
 	}
 
 	private Mono<CsrfToken> csrfToken(ServerWebExchange exchange) {
-		return this.csrfTokenRepository.loadToken(exchange)
-			.switchIfEmpty(generateToken(exchange));
+		return Mono.defer(() -> this.csrfTokenRepository.loadToken(exchange))
+			.switchIfEmpty(Mono.defer(() -> generateToken(exchange)))
+			.cache();
 	}
 
 	private Mono<CsrfToken> generateToken(ServerWebExchange exchange) {
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.server.csrf;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import reactor.core.publisher.Mono;
+
+import org.springframework.security.crypto.keygen.BytesKeyGenerator;
+import org.springframework.security.crypto.keygen.KeyGenerators;
+import org.springframework.util.Assert;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * A {@link ServerCsrfTokenRepository} that issues self-verifying CSRF tokens. Each token
+ * is a random nonce followed by an HMAC-SHA256 signature of that nonce, so no server-side
+ * state is needed to tell a token issued by this application from a forged one.
+ *
+ * <p>
+ * Persistence of the token is delegated to another {@link ServerCsrfTokenRepository}
+ * which defaults to {@link CookieServerCsrfTokenRepository}, making this repository
+ * entirely session-less. Tokens loaded from the delegate whose signature does not verify
+ * are treated as absent.
+ * </p>
+ *
+ * @author agent
+ * @since 5.3
+ */
+public final class SignedServerCsrfTokenRepository implements ServerCsrfTokenRepository {
+	private static final String ALGORITHM = "HmacSHA256";
+
+	private static final char SEPARATOR = '.';
+
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+	private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+	private final ServerCsrfTokenRepository delegate;
+
+	private final SecretKeySpec secretKey;
+
+	private BytesKeyGenerator nonceGenerator = KeyGenerators.secureRandom(16);
+
+	/**
+	 * Creates a new instance that persists the tokens using a
+	 * {@link CookieServerCsrfTokenRepository}.
+	 * @param secret the secret used to sign the tokens
+	 */
+	public SignedServerCsrfTokenRepository(byte[] secret) {
+		this(new CookieServerCsrfTokenRepository(), secret);
+	}
+
+	/**
+	 * Creates a new instance
+	 * @param delegate the {@link ServerCsrfTokenRepository} used to persist the tokens
+	 * @param secret the secret used to sign the tokens
+	 */
+	public SignedServerCsrfTokenRepository(ServerCsrfTokenRepository delegate, byte[] secret) {
+		Assert.notNull(delegate, "delegate cannot be null");
+		Assert.isTrue(secret != null && secret.length >= 32, "secret must be at least 32 bytes");
+		this.delegate = delegate;
+		this.secretKey = new SecretKeySpec(secret.clone(), ALGORITHM);
+	}
+
+	@Override
+	public Mono<CsrfToken> generateToken(ServerWebExchange exchange) {
+		return this.delegate.generateToken(exchange)
+			.map(token -> new DefaultCsrfToken(token.getHeaderName(), token.getParameterName(), createSignedToken()));
+	}
+
+	@Override
+	public Mono<Void> saveToken(ServerWebExchange exchange, CsrfToken token) {
+		return this.delegate.saveToken(exchange, token);
+	}
+
+	@Override
+	public Mono<CsrfToken> loadToken(ServerWebExchange exchange) {
+		return this.delegate.loadToken(exchange)
+			.filter(token -> isSigned(token.getToken()));
+	}
+
+	/**
+	 * Sets the {@link BytesKeyGenerator} used to create the random part of each token.
+	 * The default produces 16 bytes using a {@link java.security.SecureRandom}.
+	 * @param nonceGenerator the {@link BytesKeyGenerator} to use
+	 */
+	public void setNonceGenerator(BytesKeyGenerator nonceGenerator) {
+		Assert.notNull(nonceGenerator, "nonceGenerator cannot be null");
+		this.nonceGenerator = nonceGenerator;
+	}
+
+	private String createSignedToken() {
+		String nonce = ENCODER.encodeToString(this.nonceGenerator.generateKey());
+		return nonce + SEPARATOR + ENCODER.encodeToString(sign(nonce));
+	}
+
+	private boolean isSigned(String token) {
+		if (token == null) {
+			return false;
+		}
+		int separator = token.indexOf(SEPARATOR);
+		if (separator <= 0 || separator == token.length() - 1) {
+			return false;
+		}
+		byte[] signature;
+		try {
+			signature = DECODER.decode(token.substring(separator + 1));
+		}
+		catch (IllegalArgumentException e) {
+			return false;
+		}
+		return MessageDigest.isEqual(sign(token.substring(0, separator)), signature);
+	}
+
+	private byte[] sign(String nonce) {
+		try {
+			Mac mac = Mac.getInstance(ALGORITHM);
+			mac.init(this.secretKey);
+			return mac.doFinal(nonce.getBytes(StandardCharsets.US_ASCII));
+		}
+		catch (GeneralSecurityException e) {
+			throw new IllegalStateException("Unable to sign CSRF token", e);
+		}
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.access.expression;
+
+import java.util.function.Predicate;
+
+import org.junit.Test;
+
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.access.expression.ExpressionUtils;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.RememberMeAuthenticationToken;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.FilterInvocation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author agent
+ * @since 5.3
+ */
+public class CompiledWebExpressionTests {
+	private final SpelExpressionParser parser = new SpelExpressionParser();
+
+	private final DefaultWebSecurityExpressionHandler handler = new DefaultWebSecurityExpressionHandler();
+
+	@Test
+	public void compileWhenSupportedThenSameResultAsSpel() {
+		String[] expressions = { "permitAll", "denyAll", "permitAll()", "denyAll()",
+				"authenticated", "isAuthenticated()", "anonymous", "isAnonymous()",
+				"rememberMe", "isRememberMe()", "fullyAuthenticated",
+				"isFullyAuthenticated()", "hasRole('USER')", "hasRole('ROLE_ADMIN')",
+				"hasAnyRole('ADMIN', 'USER')", "hasAuthority('ROLE_USER')",
+				"hasAnyAuthority('SCOPE_read', 'ROLE_ADMIN')",
+				"hasIpAddress('192.168.1.0/24')", "hasIpAddress('10.0.0.1')",
+				"hasRole('USER') and hasIpAddress('192.168.1.0/24')",
+				"hasRole('ADMIN') or !anonymous", "!hasRole('USER') or denyAll" };
+		Authentication[] authentications = {
+				new TestingAuthenticationToken("user", "password", "ROLE_USER"),
+				new TestingAuthenticationToken("admin", "password", "ROLE_ADMIN", "SCOPE_read"),
+				new AnonymousAuthenticationToken("key", "anonymous",
+						AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")),
+				new RememberMeAuthenticationToken("key", "user",
+						AuthorityUtils.createAuthorityList("ROLE_USER")) };
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setRemoteAddr("192.168.1.10");
+		FilterInvocation fi = new FilterInvocation(request, new MockHttpServletResponse(),
+				new MockFilterChain());
+
+		for (String expression : expressions) {
+			Expression parsed = this.parser.parseExpression(expression);
+			Predicate<WebSecurityExpressionRoot> compiled = CompiledWebExpression.compile(parsed);
+			assertThat(compiled).as(expression).isNotNull();
+			for (Authentication authentication : authentications) {
+				EvaluationContext context = this.handler.createEvaluationContext(authentication, fi);
+				WebSecurityExpressionRoot root = (WebSecurityExpressionRoot) this.handler
+						.createSecurityExpressionRoot(authentication, fi);
+				assertThat(compiled.test(root)).as(expression + " for " + authentication)
+						.isEqualTo(ExpressionUtils.evaluateAsBoolean(parsed, context));
+			}
+		}
+	}
+
+	@Test
+	public void compileWhenUnsupportedThenNull() {
+		String[] expressions = { "hasRole(#role)", "@bean.check(request)",
+				"hasPermission(null, 'read')", "principal.username == 'user'",
+				"hasAnyRole()", "hasRole('A', 'B')", "hasIpAddress('localhost')" };
+
+		for (String expression : expressions) {
+			assertThat(CompiledWebExpression.compile(this.parser.parseExpression(expression)))
+					.as(expression).isNull();
+		}
+	}
+
+	@Test
+	public void compileWhenNotSpelThenNull() {
+		assertThat(CompiledWebExpression.compile(mock(Expression.class))).isNull();
+	}
+}
@@ -18,9 +18,11 @@ package org.springframework.security.web.access.expression;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.Collections;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletRequest;
@@ -31,6 +33,7 @@ import org.junit.Test;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.security.access.AccessDecisionVoter;
+import org.springframework.security.access.ConfigAttribute;
 import org.springframework.security.access.SecurityConfig;
 import org.springframework.security.access.expression.SecurityExpressionHandler;
 import org.springframework.security.authentication.TestingAuthenticationToken;
@@ -92,6 +95,36 @@ public class WebExpressionVoterTests {
 				AccessDecisionVoter.ACCESS_DENIED);
 	}
 
+	@Test
+	public void voteWhenCompiledExpressionThenEvaluationContextNotCreated() {
+		WebExpressionVoter voter = new WebExpressionVoter();
+		Expression ex = mock(Expression.class);
+		WebExpressionConfigAttribute weca = new WebExpressionConfigAttribute(ex, null,
+				root -> root.hasAuthority("X"));
+		FilterInvocation fi = new FilterInvocation("/path", "GET");
+
+		assertThat(voter.vote(user, fi, Collections.<ConfigAttribute> singletonList(weca))).isEqualTo(
+				AccessDecisionVoter.ACCESS_GRANTED);
+		verifyZeroInteractions(ex);
+	}
+
+	@Test
+	public void voteWhenCompiledExpressionAndCustomExpressionHandlerThenSpelUsed() {
+		WebExpressionVoter voter = new WebExpressionVoter();
+		Expression ex = mock(Expression.class);
+		WebExpressionConfigAttribute weca = new WebExpressionConfigAttribute(ex, null,
+				root -> true);
+		EvaluationContext ctx = mock(EvaluationContext.class);
+		SecurityExpressionHandler eh = mock(SecurityExpressionHandler.class);
+		FilterInvocation fi = new FilterInvocation("/path", "GET");
+		voter.setExpressionHandler(eh);
+		when(eh.createEvaluationContext(user, fi)).thenReturn(ctx);
+		when(ex.getValue(ctx, Boolean.class)).thenReturn(Boolean.FALSE);
+
+		assertThat(voter.vote(user, fi, Collections.<ConfigAttribute> singletonList(weca))).isEqualTo(
+				AccessDecisionVoter.ACCESS_DENIED);
+	}
+
 	// SEC-2507
 	@Test
 	public void supportFilterInvocationSubClass() {
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.authentication;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+/**
+ * @author agent
+ * @since 5.3
+ */
+public class AuthenticationAttemptThrottleTests {
+	private Instant now = Instant.parse("2019-10-01T00:00:00Z");
+
+	private AuthenticationAttemptThrottle throttle;
+
+	@Before
+	public void setup() {
+		this.throttle = new AuthenticationAttemptThrottle(3, Duration.ofMinutes(3), 10);
+		this.throttle.setClock(Clock.fixed(this.now, ZoneOffset.UTC));
+	}
+
+	@Test
+	public void constructorWhenMaximumAttemptsZeroThenIllegalArgumentException() {
+		assertThatCode(() -> new AuthenticationAttemptThrottle(0, Duration.ofMinutes(1), 10))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void isThrottledWhenFewerFailuresThanMaximumThenFalse() {
+		this.throttle.recordFailure("user", "127.0.0.1");
+		this.throttle.recordFailure("user", "127.0.0.1");
+
+		assertThat(this.throttle.isThrottled("user", "127.0.0.1")).isFalse();
+	}
+
+	@Test
+	public void isThrottledWhenMaximumFailuresForUsernameThenTrue() {
+		this.throttle.recordFailure("user", "10.0.0.1");
+		this.throttle.recordFailure("user", "10.0.0.2");
+		this.throttle.recordFailure("user", "10.0.0.3");
+
+		assertThat(this.throttle.isThrottled("user", "10.0.0.4")).isTrue();
+		assertThat(this.throttle.isThrottled("other", "10.0.0.1")).isFalse();
+	}
+
+	@Test
+	public void isThrottledWhenMaximumFailuresForRemoteAddressThenTrue() {
+		this.throttle.recordFailure("a", "127.0.0.1");
+		this.throttle.recordFailure("b", "127.0.0.1");
+		this.throttle.recordFailure("c", "127.0.0.1");
+
+		assertThat(this.throttle.isThrottled("d", "127.0.0.1")).isTrue();
+		assertThat(this.throttle.isThrottled("d", "10.0.0.1")).isFalse();
+	}
+
+	@Test
+	public void isThrottledWhenIntervalElapsedThenOneMoreAttemptAllowed() {
+		this.throttle.recordFailure("user", null);
+		this.throttle.recordFailure("user", null);
+		this.throttle.recordFailure("user", null);
+		this.throttle.setClock(Clock.fixed(this.now.plus(Duration.ofMinutes(1)), ZoneOffset.UTC));
+
+		assertThat(this.throttle.isThrottled("user", null)).isFalse();
+
+		this.throttle.recordFailure("user", null);
+
+		assertThat(this.throttle.isThrottled("user", null)).isTrue();
+	}
+
+	@Test
+	public void recordFailureWhenRemoteAddressThenUsernameAndRemoteAddressThrottled() {
+		this.throttle.recordFailure("user", "10.0.0.1");
+		this.throttle.recordFailure("user", "10.0.0.1");
+		this.throttle.recordFailure("user", "10.0.0.1");
+
+		assertThat(this.throttle.isThrottled("other", "10.0.0.1")).isTrue();
+		assertThat(this.throttle.isThrottled("user", null)).isTrue();
+	}
+
+	@Test
+	public void isThrottledWhenUsernameDiffersInCaseThenSameBucket() {
+		this.throttle.recordFailure("user", null);
+		this.throttle.recordFailure("USER", null);
+		this.throttle.recordFailure(" User ", null);
+
+		assertThat(this.throttle.isThrottled("uSeR", null)).isTrue();
+	}
+
+	@Test
+	public void isThrottledWhenMoreUsernamesThanMaximumSizeThenThrottledBucketKept() {
+		this.throttle.recordFailure("victim", null);
+		this.throttle.recordFailure("victim", null);
+		this.throttle.recordFailure("victim", null);
+		for (int i = 0; i < 100; i++) {
+			this.throttle.recordFailure("user" + i, null);
+		}
+
+		assertThat(this.throttle.isThrottled("victim", null)).isTrue();
+	}
+
+	@Test
+	public void recordFailureWhenConcurrentFirstFailuresThenAllCounted() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<?>> failures = new ArrayList<>();
+			for (int i = 0; i < 3; i++) {
+				failures.add(executor.submit(() -> {
+					start.await();
+					this.throttle.recordFailure("user", null);
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> failure : failures) {
+				failure.get();
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+
+		assertThat(this.throttle.isThrottled("user", null)).isTrue();
+	}
+}
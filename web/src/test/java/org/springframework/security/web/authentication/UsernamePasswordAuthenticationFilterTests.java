@@ -19,6 +19,8 @@ package org.springframework.security.web.authentication;
 import static org.mockito.Mockito.*;
 import static org.assertj.core.api.Assertions.*;
 
+import java.time.Duration;
+
 import org.junit.Test;
 import org.mockito.stubbing.Answer;
 import org.springframework.mock.web.MockHttpServletRequest;
@@ -155,6 +157,56 @@ public class UsernamePasswordAuthenticationFilterTests {
 		assertThat(request.getSession(false)).isNull();
 	}
 
+	@Test
+	public void attemptAuthenticationWhenThrottledThenAuthenticationManagerNotInvoked() {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/");
+		request.addParameter(
+				UsernamePasswordAuthenticationFilter.SPRING_SECURITY_FORM_USERNAME_KEY,
+				"rod");
+		request.addParameter(
+				UsernamePasswordAuthenticationFilter.SPRING_SECURITY_FORM_PASSWORD_KEY,
+				"koala");
+		AuthenticationManager am = createAuthenticationManager();
+		AuthenticationAttemptThrottle throttle = new AuthenticationAttemptThrottle(1,
+				Duration.ofMinutes(1), 10);
+		throttle.recordFailure(null, "127.0.0.1");
+
+		UsernamePasswordAuthenticationFilter filter = new UsernamePasswordAuthenticationFilter();
+		filter.setAuthenticationManager(am);
+		filter.setAuthenticationAttemptThrottle(throttle);
+
+		assertThatThrownBy(() -> filter.attemptAuthentication(request,
+				new MockHttpServletResponse()))
+				.isInstanceOf(AuthenticationThrottledException.class);
+		verifyZeroInteractions(am);
+	}
+
+	@Test
+	public void attemptAuthenticationWhenBadCredentialsThenFailureRecorded() {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/");
+		request.addParameter(
+				UsernamePasswordAuthenticationFilter.SPRING_SECURITY_FORM_USERNAME_KEY,
+				"rod");
+		request.addParameter(
+				UsernamePasswordAuthenticationFilter.SPRING_SECURITY_FORM_PASSWORD_KEY,
+				"wrong");
+		AuthenticationManager am = mock(AuthenticationManager.class);
+		when(am.authenticate(any(Authentication.class))).thenThrow(
+				new BadCredentialsException(""));
+		AuthenticationAttemptThrottle throttle = new AuthenticationAttemptThrottle(1,
+				Duration.ofMinutes(1), 10);
+
+		UsernamePasswordAuthenticationFilter filter = new UsernamePasswordAuthenticationFilter();
+		filter.setAuthenticationManager(am);
+		filter.setAuthenticationAttemptThrottle(throttle);
+
+		assertThatThrownBy(() -> filter.attemptAuthentication(request,
+				new MockHttpServletResponse()))
+				.isInstanceOf(BadCredentialsException.class);
+		assertThat(throttle.isThrottled("rod", null)).isTrue();
+		assertThat(throttle.isThrottled(null, "127.0.0.1")).isTrue();
+	}
+
 	private AuthenticationManager createAuthenticationManager() {
 		AuthenticationManager am = mock(AuthenticationManager.class);
 		when(am.authenticate(any(Authentication.class))).thenAnswer(
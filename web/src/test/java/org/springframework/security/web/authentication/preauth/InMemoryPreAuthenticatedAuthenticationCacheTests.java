@@ -0,0 +1,93 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.authentication.preauth;
+
+import java.security.cert.X509Certificate;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.web.authentication.preauth.x509.X509TestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author agent
+ * @since 5.3
+ */
+public class InMemoryPreAuthenticatedAuthenticationCacheTests {
+	private InMemoryPreAuthenticatedAuthenticationCache cache = new InMemoryPreAuthenticatedAuthenticationCache(
+			10, Duration.ofHours(1));
+
+	private PreAuthenticatedAuthenticationToken result = new PreAuthenticatedAuthenticationToken(
+			new User("user", "", AuthorityUtils.createAuthorityList("ROLE_USER")), "N/A",
+			AuthorityUtils.createAuthorityList("ROLE_USER"));
+
+	@Before
+	public void setup() {
+		this.cache.setClock(Clock.fixed(Instant.parse("2005-06-01T00:00:00Z"), ZoneOffset.UTC));
+	}
+
+	@Test
+	public void getAuthenticationWhenSamePrincipalAndCredentialsThenCached() {
+		this.cache.putAuthentication(new PreAuthenticatedAuthenticationToken("user", "N/A"), this.result);
+
+		assertThat(this.cache.getAuthentication(new PreAuthenticatedAuthenticationToken("user", "N/A")))
+				.isSameAs(this.result);
+	}
+
+	@Test
+	public void getAuthenticationWhenDifferentCredentialsThenNull() {
+		this.cache.putAuthentication(new PreAuthenticatedAuthenticationToken("user", "N/A"), this.result);
+
+		assertThat(this.cache.getAuthentication(new PreAuthenticatedAuthenticationToken("user", "other")))
+				.isNull();
+	}
+
+	@Test
+	public void getAuthenticationWhenRemovedThenNull() {
+		PreAuthenticatedAuthenticationToken request = new PreAuthenticatedAuthenticationToken("user", "N/A");
+		this.cache.putAuthentication(request, this.result);
+
+		this.cache.removeAuthentication(request);
+
+		assertThat(this.cache.getAuthentication(request)).isNull();
+	}
+
+	@Test
+	public void getAuthenticationWhenCertificateExpiredThenNull() throws Exception {
+		X509Certificate certificate = X509TestUtils.buildTestCertificate();
+		PreAuthenticatedAuthenticationToken request = new PreAuthenticatedAuthenticationToken("Luke Taylor",
+				certificate);
+		InMemoryPreAuthenticatedAuthenticationCache cache = new InMemoryPreAuthenticatedAuthenticationCache(
+				10, Duration.ofDays(3650));
+		cache.setClock(Clock.fixed(Instant.parse("2006-03-01T00:00:00Z"), ZoneOffset.UTC));
+		cache.putAuthentication(request, this.result);
+		assertThat(cache.getAuthentication(request)).isSameAs(this.result);
+
+		// the test certificate expires 2006-03-06
+		cache.setClock(Clock.fixed(Instant.parse("2006-03-07T00:00:00Z"), ZoneOffset.UTC));
+
+		assertThat(cache.getAuthentication(request)).isNull();
+	}
+}
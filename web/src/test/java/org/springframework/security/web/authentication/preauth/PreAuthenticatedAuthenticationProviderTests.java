@@ -16,8 +16,15 @@
 package org.springframework.security.web.authentication.preauth;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
 
 import org.junit.Test;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.AuthorityUtils;
@@ -96,6 +103,43 @@ public class PreAuthenticatedAuthenticationProviderTests {
 		provider.authenticate(request);
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	public void authenticateWhenCachedThenUserDetailsServiceInvokedOnce() throws Exception {
+		UserDetails ud = new User("dummyUser", "dummyPwd", true, true, true, true,
+				AuthorityUtils.NO_AUTHORITIES);
+		AuthenticationUserDetailsService<PreAuthenticatedAuthenticationToken> uds = mock(
+				AuthenticationUserDetailsService.class);
+		when(uds.loadUserDetails(any())).thenReturn(ud);
+		PreAuthenticatedAuthenticationProvider provider = new PreAuthenticatedAuthenticationProvider();
+		provider.setPreAuthenticatedUserDetailsService(uds);
+		provider.setAuthenticationCache(new InMemoryPreAuthenticatedAuthenticationCache(10, Duration.ofMinutes(5)));
+		PreAuthenticatedAuthenticationToken first = new PreAuthenticatedAuthenticationToken("dummyUser", "N/A");
+		first.setDetails("first");
+		PreAuthenticatedAuthenticationToken second = new PreAuthenticatedAuthenticationToken("dummyUser", "N/A");
+		second.setDetails("second");
+
+		provider.authenticate(first);
+		Authentication result = provider.authenticate(second);
+
+		assertThat(result.getPrincipal()).isEqualTo(ud);
+		assertThat(result.getDetails()).isEqualTo("second");
+		verify(uds).loadUserDetails(any());
+	}
+
+	@Test(expected = DisabledException.class)
+	public void authenticateWhenCachedUserDisabledThenUserDetailsCheckerApplied() throws Exception {
+		UserDetails ud = new User("dummyUser", "dummyPwd", false, true, true, true,
+				AuthorityUtils.NO_AUTHORITIES);
+		PreAuthenticatedAuthenticationCache cache = mock(PreAuthenticatedAuthenticationCache.class);
+		when(cache.getAuthentication(any())).thenReturn(new PreAuthenticatedAuthenticationToken(
+				ud, "N/A", ud.getAuthorities()));
+		PreAuthenticatedAuthenticationProvider provider = getProvider(null);
+		provider.setAuthenticationCache(cache);
+
+		provider.authenticate(new PreAuthenticatedAuthenticationToken("dummyUser", "N/A"));
+	}
+
 	@Test
 	public final void supportsArbitraryObject() throws Exception {
 		PreAuthenticatedAuthenticationProvider provider = getProvider(null);
@@ -134,5 +178,4 @@ public class PreAuthenticatedAuthenticationProviderTests {
 			throw new UsernameNotFoundException("notfound");
 		};
 	}
-
 }
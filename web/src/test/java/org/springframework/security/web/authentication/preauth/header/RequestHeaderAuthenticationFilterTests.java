@@ -18,16 +18,27 @@ package org.springframework.security.web.authentication.preauth.header;
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.time.Duration;
+
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.stubbing.Answer;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.mock.web.MockFilterChain;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.security.authentication.event.InteractiveAuthenticationSuccessEvent;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.WebAttributes;
+import org.springframework.security.web.authentication.preauth.InMemoryPreAuthenticatedAuthenticationCache;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
 import org.springframework.security.web.authentication.preauth.PreAuthenticatedCredentialsNotFoundException;
 import org.springframework.security.web.authentication.preauth.RequestHeaderAuthenticationFilter;
 
@@ -145,6 +156,92 @@ public class RequestHeaderAuthenticationFilterTests {
 		filter.doFilter(request, response, chain);
 	}
 
+	@Test
+	public void doFilterWhenAuthenticationCacheThenAuthenticationManagerInvokedOnce() throws Exception {
+		AuthenticationManager am = createAuthenticationManager();
+		RequestHeaderAuthenticationFilter filter = new RequestHeaderAuthenticationFilter();
+		filter.setAuthenticationManager(am);
+		filter.setCredentialsRequestHeader("myCredentialsHeader");
+		filter.setAuthenticationCache(new InMemoryPreAuthenticatedAuthenticationCache(10, Duration.ofMinutes(5)));
+
+		for (int i = 0; i < 2; i++) {
+			SecurityContextHolder.clearContext();
+			MockHttpServletRequest request = new MockHttpServletRequest();
+			request.addHeader("SM_USER", "cat");
+			request.addHeader("myCredentialsHeader", "catspassword");
+			filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+		}
+
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		assertThat(authentication.getName()).isEqualTo("cat");
+		assertThat(authentication.getCredentials()).isEqualTo("catspassword");
+		verify(am, times(1)).authenticate(any(Authentication.class));
+	}
+
+	@Test
+	public void doFilterWhenAuthenticationCacheAndCredentialsChangeThenReauthenticated() throws Exception {
+		AuthenticationManager am = createAuthenticationManager();
+		RequestHeaderAuthenticationFilter filter = new RequestHeaderAuthenticationFilter();
+		filter.setAuthenticationManager(am);
+		filter.setCredentialsRequestHeader("myCredentialsHeader");
+		filter.setAuthenticationCache(new InMemoryPreAuthenticatedAuthenticationCache(10, Duration.ofMinutes(5)));
+
+		for (String credentials : new String[] { "one", "two" }) {
+			SecurityContextHolder.clearContext();
+			MockHttpServletRequest request = new MockHttpServletRequest();
+			request.addHeader("SM_USER", "cat");
+			request.addHeader("myCredentialsHeader", credentials);
+			filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+		}
+
+		verify(am, times(2)).authenticate(any(Authentication.class));
+	}
+
+	@Test
+	public void doFilterWhenAuthenticationCacheHitThenSuccessEventPublished() throws Exception {
+		AuthenticationManager am = createAuthenticationManager();
+		ApplicationEventPublisher publisher = mock(ApplicationEventPublisher.class);
+		RequestHeaderAuthenticationFilter filter = new RequestHeaderAuthenticationFilter();
+		filter.setAuthenticationManager(am);
+		filter.setApplicationEventPublisher(publisher);
+		filter.setAuthenticationCache(new InMemoryPreAuthenticatedAuthenticationCache(10, Duration.ofMinutes(5)));
+
+		for (int i = 0; i < 2; i++) {
+			SecurityContextHolder.clearContext();
+			MockHttpServletRequest request = new MockHttpServletRequest();
+			request.addHeader("SM_USER", "cat");
+			filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+		}
+
+		verify(am, times(1)).authenticate(any(Authentication.class));
+		verify(publisher, times(1)).publishEvent(any(AuthenticationSuccessEvent.class));
+		verify(publisher, times(2)).publishEvent(any(InteractiveAuthenticationSuccessEvent.class));
+	}
+
+	@Test
+	public void doFilterWhenAuthenticationCacheHitAndUserDisabledThenUnsuccessful() throws Exception {
+		UserDetails disabled = User.withUsername("cat").password("password").roles("USER")
+				.disabled(true).build();
+		AuthenticationManager am = mock(AuthenticationManager.class);
+		when(am.authenticate(any(Authentication.class))).thenReturn(
+				new PreAuthenticatedAuthenticationToken(disabled, "N/A", disabled.getAuthorities()));
+		RequestHeaderAuthenticationFilter filter = new RequestHeaderAuthenticationFilter();
+		filter.setAuthenticationManager(am);
+		filter.setAuthenticationCache(new InMemoryPreAuthenticatedAuthenticationCache(10, Duration.ofMinutes(5)));
+
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("SM_USER", "cat");
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+		SecurityContextHolder.clearContext();
+		request = new MockHttpServletRequest();
+		request.addHeader("SM_USER", "cat");
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+		assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+		assertThat(request.getAttribute(WebAttributes.AUTHENTICATION_EXCEPTION))
+				.isInstanceOf(DisabledException.class);
+	}
+
 	/**
 	 * Create an authentication manager which returns the passed in object.
 	 */
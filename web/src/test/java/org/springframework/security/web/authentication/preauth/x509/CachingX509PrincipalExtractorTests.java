@@ -0,0 +1,82 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.authentication.preauth.x509;
+
+import java.security.cert.X509Certificate;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author agent
+ * @since 5.3
+ */
+public class CachingX509PrincipalExtractorTests {
+	private X509PrincipalExtractor delegate = mock(X509PrincipalExtractor.class);
+
+	private CachingX509PrincipalExtractor extractor;
+
+	private X509Certificate certificate;
+
+	@Before
+	public void setup() throws Exception {
+		this.certificate = X509TestUtils.buildTestCertificate();
+		this.extractor = new CachingX509PrincipalExtractor(this.delegate, 10, Duration.ofMinutes(5));
+		// the test certificate is valid from 2005-03-06 until 2006-03-06
+		this.extractor.setClock(Clock.fixed(Instant.parse("2005-06-01T00:00:00Z"), ZoneOffset.UTC));
+		when(this.delegate.extractPrincipal(any())).thenReturn("Luke Taylor");
+	}
+
+	@Test
+	public void extractPrincipalWhenSameCertificateThenDelegateInvokedOnce() {
+		assertThat(this.extractor.extractPrincipal(this.certificate)).isEqualTo("Luke Taylor");
+		assertThat(this.extractor.extractPrincipal(this.certificate)).isEqualTo("Luke Taylor");
+
+		verify(this.delegate).extractPrincipal(this.certificate);
+	}
+
+	@Test
+	public void extractPrincipalWhenTimeToLiveElapsedThenDelegateInvokedAgain() {
+		this.extractor.extractPrincipal(this.certificate);
+		this.extractor.setClock(Clock.fixed(Instant.parse("2005-06-01T00:05:00Z"), ZoneOffset.UTC));
+
+		this.extractor.extractPrincipal(this.certificate);
+
+		verify(this.delegate, times(2)).extractPrincipal(this.certificate);
+	}
+
+	@Test
+	public void extractPrincipalWhenCertificateExpiredThenNotCached() {
+		this.extractor.setClock(Clock.fixed(Instant.parse("2007-01-01T00:00:00Z"), ZoneOffset.UTC));
+
+		this.extractor.extractPrincipal(this.certificate);
+		this.extractor.extractPrincipal(this.certificate);
+
+		verify(this.delegate, times(2)).extractPrincipal(this.certificate);
+	}
+}
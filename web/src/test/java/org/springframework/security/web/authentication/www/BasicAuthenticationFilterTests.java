@@ -20,6 +20,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.AdditionalMatchers.not;
 import static org.mockito.Mockito.*;
 
+import java.time.Duration;
+
 import javax.servlet.FilterChain;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
@@ -37,6 +39,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.AuthenticationAttemptThrottle;
 import org.springframework.security.web.authentication.WebAuthenticationDetails;
 import org.springframework.web.util.WebUtils;
 
@@ -302,6 +305,24 @@ public class BasicAuthenticationFilterTests {
 		assertThat(response.getStatus()).isEqualTo(401);
 	}
 
+	@Test
+	public void doFilterWhenBadCredentialsAndThrottleThenFailureRecorded() throws Exception {
+		AuthenticationAttemptThrottle throttle = new AuthenticationAttemptThrottle(1,
+				Duration.ofMinutes(1), 10);
+		filter.setAuthenticationAttemptThrottle(throttle);
+		String token = "rod:WRONG_PASSWORD";
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Authorization",
+				"Basic " + new String(Base64.encodeBase64(token.getBytes())));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(request, response, mock(FilterChain.class));
+
+		assertThat(response.getStatus()).isEqualTo(401);
+		assertThat(throttle.isThrottled("rod", null)).isTrue();
+		assertThat(throttle.isThrottled(null, "127.0.0.1")).isTrue();
+	}
+
 	// SEC-2054
 	@Test
 	public void skippedOnErrorDispatch() throws Exception {
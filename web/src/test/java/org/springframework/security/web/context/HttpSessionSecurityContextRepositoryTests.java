@@ -37,10 +37,14 @@ import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.authentication.AuthenticationTrustResolver;
 import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Transient;
 import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.BinarySecurityContextCodec;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsCodec;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyBoolean;
@@ -669,6 +673,58 @@ public class HttpSessionSecurityContextRepositoryTests {
 	}
 
 	@Transient
+	@Test
+	public void saveContextWhenSecurityContextCodecThenStoredEncodedAndLoaded() {
+		BinarySecurityContextCodec codec = new BinarySecurityContextCodec();
+		codec.registerCodec(0, new WebAuthenticationDetailsCodec());
+		HttpSessionSecurityContextRepository repo = new HttpSessionSecurityContextRepository();
+		repo.setSecurityContextCodec(codec);
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setRemoteAddr("192.168.1.1");
+		UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+				"user", null, AuthorityUtils.createAuthorityList("ROLE_USER"));
+		authentication.setDetails(new WebAuthenticationDetails(request));
+		HttpRequestResponseHolder holder = new HttpRequestResponseHolder(request,
+				new MockHttpServletResponse());
+		SecurityContext context = repo.loadContext(holder);
+		context.setAuthentication(authentication);
+		repo.saveContext(context, holder.getRequest(), holder.getResponse());
+
+		assertThat(request.getSession().getAttribute(SPRING_SECURITY_CONTEXT_KEY))
+				.isInstanceOf(byte[].class);
+		SecurityContext loaded = repo.loadContext(new HttpRequestResponseHolder(request,
+				new MockHttpServletResponse()));
+		assertThat(loaded.getAuthentication()).isEqualTo(authentication);
+	}
+
+	@Test
+	public void loadContextWhenSecurityContextCodecAndContextStoredBeforeThenLoaded() {
+		HttpSessionSecurityContextRepository repo = new HttpSessionSecurityContextRepository();
+		repo.setSecurityContextCodec(new BinarySecurityContextCodec());
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		SecurityContext context = SecurityContextHolder.createEmptyContext();
+		context.setAuthentication(testToken);
+		request.getSession().setAttribute(SPRING_SECURITY_CONTEXT_KEY, context);
+
+		SecurityContext loaded = repo.loadContext(new HttpRequestResponseHolder(request,
+				new MockHttpServletResponse()));
+
+		assertThat(loaded).isSameAs(context);
+	}
+
+	@Test
+	public void loadContextWhenSecurityContextCodecAndInvalidBytesThenNewContext() {
+		HttpSessionSecurityContextRepository repo = new HttpSessionSecurityContextRepository();
+		repo.setSecurityContextCodec(new BinarySecurityContextCodec());
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.getSession().setAttribute(SPRING_SECURITY_CONTEXT_KEY, new byte[] { 1, 2 });
+
+		SecurityContext loaded = repo.loadContext(new HttpRequestResponseHolder(request,
+				new MockHttpServletResponse()));
+
+		assertThat(loaded.getAuthentication()).isNull();
+	}
+
 	private static class SomeTransientAuthentication extends AbstractAuthenticationToken {
 		SomeTransientAuthentication() {
 			super(null);
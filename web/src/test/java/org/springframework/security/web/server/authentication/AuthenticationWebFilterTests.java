@@ -16,6 +16,8 @@
 
 package org.springframework.security.web.server.authentication;
 
+import java.time.Duration;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -30,6 +32,7 @@ import org.springframework.security.authentication.ReactiveAuthenticationManager
 import org.springframework.security.authentication.TestingAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.test.web.reactive.server.WebTestClientBuilder;
+import org.springframework.security.web.authentication.AuthenticationAttemptThrottle;
 import org.springframework.security.web.server.context.ServerSecurityContextRepository;
 import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
 import org.springframework.test.web.reactive.server.EntityExchangeResult;
@@ -172,6 +175,32 @@ public class AuthenticationWebFilterTests {
 		assertThat(result.getResponseCookies()).isEmpty();
 	}
 
+	@Test
+	public void filterWhenThrottledThenAuthenticationManagerNotInvoked() {
+		when(this.authenticationManager.authenticate(any())).thenReturn(Mono.error(new BadCredentialsException("failed")));
+		this.filter = new AuthenticationWebFilter(this.authenticationManager);
+		this.filter.setAuthenticationAttemptThrottle(new AuthenticationAttemptThrottle(1, Duration.ofMinutes(1), 10));
+
+		WebTestClient client = WebTestClientBuilder
+			.bindToWebFilters(this.filter)
+			.build();
+
+		client
+			.get()
+			.uri("/")
+			.headers(headers -> headers.setBasicAuth("test", "this"))
+			.exchange()
+			.expectStatus().isUnauthorized();
+		client
+			.get()
+			.uri("/")
+			.headers(headers -> headers.setBasicAuth("test", "this"))
+			.exchange()
+			.expectStatus().isUnauthorized();
+
+		verify(this.authenticationManager).authenticate(any());
+	}
+
 	@Test
 	public void filterWhenAuthenticationManagerResolverDefaultsAndAuthenticationFailThenUnauthorized() {
 		when(this.authenticationManager.authenticate(any())).thenReturn(Mono.error(new BadCredentialsException("failed")));
@@ -25,14 +25,19 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.web.authentication.preauth.InMemoryPreAuthenticatedAuthenticationCache;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationCache;
 import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.Collections;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -98,6 +103,28 @@ public class ReactivePreAuthenticatedAuthenticationManagerTest {
 		manager.authenticate(tokenForUser(accountWithExpiredCredentials.getUsername())).block();
 	}
 
+	@Test
+	public void authenticateWhenCacheThenUserDetailsServiceInvokedOnce() {
+		when(mockUserDetailsService.findByUsername(anyString())).thenReturn(Mono.just(validAccount));
+		manager.setAuthenticationCache(new InMemoryPreAuthenticatedAuthenticationCache(10, Duration.ofMinutes(5)));
+
+		manager.authenticate(tokenForUser(validAccount.getUsername())).block();
+		Authentication authentication = manager.authenticate(tokenForUser(validAccount.getUsername())).block();
+
+		assertThat(authentication.getPrincipal()).isEqualTo(validAccount);
+		verify(mockUserDetailsService).findByUsername(validAccount.getUsername());
+	}
+
+	@Test(expected = LockedException.class)
+	public void authenticateWhenCachedAccountLockedThenException() {
+		PreAuthenticatedAuthenticationCache cache = mock(PreAuthenticatedAuthenticationCache.class);
+		when(cache.getAuthentication(any())).thenReturn(new PreAuthenticatedAuthenticationToken(
+				lockedAccount, null, lockedAccount.getAuthorities()));
+		manager.setAuthenticationCache(cache);
+
+		manager.authenticate(tokenForUser(lockedAccount.getUsername())).block();
+	}
+
 	private Authentication tokenForUser(String username) {
 		return new PreAuthenticatedAuthenticationToken(username, null);
 	}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.server.context;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.handler.DefaultWebFilterChain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author agent
+ * @since 5.3
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class FusedSecurityContextWebFilterTests {
+	@Mock
+	private ServerSecurityContextRepository repository;
+
+	private Authentication principal = new TestingAuthenticationToken("user", "password", "ROLE_USER");
+
+	private ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/").build());
+
+	private FusedSecurityContextWebFilter filter;
+
+	@Before
+	public void setup() {
+		this.filter = new FusedSecurityContextWebFilter(this.repository);
+	}
+
+	@Test
+	public void constructorWhenNullRepositoryThenIllegalArgumentException() {
+		assertThatCode(() -> new FusedSecurityContextWebFilter(null))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void filterWhenContextNotAccessedThenRepositoryNotSubscribed() {
+		TestPublisher<SecurityContext> securityContext = TestPublisher.create();
+		when(this.repository.load(any())).thenReturn(securityContext.mono());
+
+		StepVerifier.create(this.filter.filter(this.exchange, new DefaultWebFilterChain(e -> Mono.empty())))
+			.verifyComplete();
+
+		securityContext.assertWasNotSubscribed();
+	}
+
+	@Test
+	public void filterWhenRepositoryHasContextThenPrincipalExposed() {
+		when(this.repository.load(any())).thenReturn(Mono.just(new SecurityContextImpl(this.principal)));
+
+		Mono<Void> result = this.filter.filter(this.exchange, new DefaultWebFilterChain(e ->
+			e.getPrincipal()
+				.doOnSuccess(p -> assertThat(p).isSameAs(this.principal))
+				.then()
+		));
+
+		StepVerifier.create(result)
+			.verifyComplete();
+	}
+
+	@Test
+	public void filterWhenNoContextThenPrincipalEmpty() {
+		when(this.repository.load(any())).thenReturn(Mono.empty());
+
+		Mono<Void> result = this.filter.filter(this.exchange, new DefaultWebFilterChain(e ->
+			e.getPrincipal()
+				.doOnSuccess(p -> assertThat(p).isNull())
+				.then()
+		));
+
+		StepVerifier.create(result)
+			.verifyComplete();
+	}
+
+	@Test
+	public void filterWhenOuterContextThenRepositoryNotUsed() {
+		Mono<Void> result = this.filter.filter(this.exchange, new DefaultWebFilterChain(e ->
+			e.getPrincipal()
+				.doOnSuccess(p -> assertThat(p).isSameAs(this.principal))
+				.then()
+		))
+		.subscriberContext(ReactiveSecurityContextHolder.withAuthentication(this.principal));
+
+		StepVerifier.create(result)
+			.verifyComplete();
+	}
+}
@@ -35,6 +35,7 @@ import org.springframework.web.server.WebSession;
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.mock.web.server.MockServerWebExchange.from;
@@ -79,6 +80,42 @@ public class CsrfWebFilterTests {
 		chainResult.assertWasSubscribed();
 	}
 
+	@Test
+	public void filterWhenGetThenRepositoryNotInvoked() {
+		PublisherProbe<Void> chainResult = PublisherProbe.empty();
+		when(this.chain.filter(this.get)).thenReturn(chainResult.mono());
+		this.csrfFilter.setCsrfTokenRepository(this.repository);
+
+		StepVerifier.create(this.csrfFilter.filter(this.get, this.chain))
+			.verifyComplete();
+
+		assertThat(this.get.<Mono<CsrfToken>>getAttribute(CsrfToken.class.getName())).isNotNull();
+		verifyZeroInteractions(this.repository);
+		chainResult.assertWasSubscribed();
+	}
+
+	@Test
+	public void filterWhenGetAndTokenSubscribedTwiceThenGeneratedAndSavedOnce() {
+		when(this.chain.filter(this.get)).thenReturn(Mono.empty());
+		this.csrfFilter.setCsrfTokenRepository(this.repository);
+		when(this.repository.loadToken(any())).thenReturn(Mono.empty());
+		when(this.repository.generateToken(any())).thenReturn(Mono.just(this.token));
+		when(this.repository.saveToken(any(), any())).thenReturn(Mono.empty());
+
+		this.csrfFilter.filter(this.get, this.chain).block();
+		Mono<CsrfToken> csrfToken = this.get.getAttribute(CsrfToken.class.getName());
+
+		StepVerifier.create(csrfToken)
+			.expectNext(this.token)
+			.verifyComplete();
+		StepVerifier.create(csrfToken)
+			.expectNext(this.token)
+			.verifyComplete();
+
+		verify(this.repository).generateToken(this.get);
+		verify(this.repository).saveToken(this.get, this.token);
+	}
+
 	@Test
 	public void filterWhenPostAndNoTokenThenCsrfException() {
 		Mono<Void> result = this.csrfFilter.filter(this.post, this.chain);
@@ -128,8 +165,6 @@ public class CsrfWebFilterTests {
 		this.csrfFilter.setCsrfTokenRepository(this.repository);
 		when(this.repository.loadToken(any()))
 			.thenReturn(Mono.just(this.token));
-		when(this.repository.generateToken(any()))
-			.thenReturn(Mono.just(this.token));
 		this.post = from(MockServerHttpRequest.post("/")
 			.contentType(MediaType.APPLICATION_FORM_URLENCODED)
 			.body(this.token.getParameterName() + "="+this.token.getToken()));
@@ -166,8 +201,6 @@ public class CsrfWebFilterTests {
 		this.csrfFilter.setCsrfTokenRepository(this.repository);
 		when(this.repository.loadToken(any()))
 			.thenReturn(Mono.just(this.token));
-		when(this.repository.generateToken(any()))
-			.thenReturn(Mono.just(this.token));
 		this.post = from(MockServerHttpRequest.post("/")
 			.header(this.token.getHeaderName(), this.token.getToken()));
 
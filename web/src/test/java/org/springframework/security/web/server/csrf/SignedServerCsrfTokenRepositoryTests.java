@@ -0,0 +1,112 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.server.csrf;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+
+import org.springframework.http.HttpCookie;
+import org.springframework.http.ResponseCookie;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+/**
+ * @author agent
+ * @since 5.3
+ */
+public class SignedServerCsrfTokenRepositoryTests {
+	private byte[] secret = secret((byte) 1);
+
+	private SignedServerCsrfTokenRepository repository = new SignedServerCsrfTokenRepository(this.secret);
+
+	private MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/"));
+
+	@Test
+	public void constructorWhenSecretTooShortThenIllegalArgumentException() {
+		assertThatCode(() -> new SignedServerCsrfTokenRepository(new byte[16]))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void generateTokenThenSignedTokenWithDelegateNames() {
+		CsrfToken token = this.repository.generateToken(this.exchange).block();
+
+		assertThat(token.getHeaderName()).isEqualTo(CookieServerCsrfTokenRepository.DEFAULT_CSRF_HEADER_NAME);
+		assertThat(token.getParameterName()).isEqualTo(CookieServerCsrfTokenRepository.DEFAULT_CSRF_PARAMETER_NAME);
+		assertThat(token.getToken()).contains(".");
+	}
+
+	@Test
+	public void saveTokenThenNoSessionCreated() {
+		CsrfToken token = this.repository.generateToken(this.exchange).block();
+
+		this.repository.saveToken(this.exchange, token).block();
+
+		ResponseCookie cookie = this.exchange.getResponse().getCookies()
+			.getFirst(CookieServerCsrfTokenRepository.DEFAULT_CSRF_COOKIE_NAME);
+		assertThat(cookie.getValue()).isEqualTo(token.getToken());
+		assertThat(this.exchange.getSession().map(s -> s.isStarted()).block()).isFalse();
+	}
+
+	@Test
+	public void loadTokenWhenSignedCookieThenToken() {
+		CsrfToken token = this.repository.generateToken(this.exchange).block();
+
+		CsrfToken loaded = this.repository.loadToken(exchangeWithCookie(token.getToken())).block();
+
+		assertThat(loaded.getToken()).isEqualTo(token.getToken());
+	}
+
+	@Test
+	public void loadTokenWhenUnsignedCookieThenEmpty() {
+		Mono<CsrfToken> loaded = this.repository.loadToken(exchangeWithCookie("forged"));
+
+		assertThat(loaded.block()).isNull();
+	}
+
+	@Test
+	public void loadTokenWhenTamperedSignatureThenEmpty() {
+		CsrfToken token = this.repository.generateToken(this.exchange).block();
+		String tampered = "AAAA" + token.getToken().substring(4);
+
+		assertThat(this.repository.loadToken(exchangeWithCookie(tampered)).block()).isNull();
+	}
+
+	@Test
+	public void loadTokenWhenSignedWithDifferentSecretThenEmpty() {
+		SignedServerCsrfTokenRepository other = new SignedServerCsrfTokenRepository(secret((byte) 2));
+		CsrfToken token = other.generateToken(this.exchange).block();
+
+		assertThat(this.repository.loadToken(exchangeWithCookie(token.getToken())).block()).isNull();
+	}
+
+	private static MockServerWebExchange exchangeWithCookie(String value) {
+		return MockServerWebExchange.from(MockServerHttpRequest.post("/")
+			.cookie(new HttpCookie(CookieServerCsrfTokenRepository.DEFAULT_CSRF_COOKIE_NAME, value)));
+	}
+
+	private static byte[] secret(byte value) {
+		byte[] secret = new byte[32];
+		Arrays.fill(secret, value);
+		return secret;
+	}
+}